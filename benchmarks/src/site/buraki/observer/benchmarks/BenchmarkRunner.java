@@ -0,0 +1,39 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа набора бенчмарков.
+ *
+ * <p>Принимает стандартные аргументы командной строки JMH. Результаты
+ * по умолчанию записываются в формате JSON в файл
+ * {@value #DEFAULT_RESULT_FILEPATH} для отслеживания регрессий.
+ * Профилировщик GC включён всегда, чтобы вместе со временем
+ * фиксировалось выделение памяти на операцию.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILEPATH = "jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+            .parent(commandLineOptions)
+            .resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+            .result(commandLineOptions.getResult().orElse(DEFAULT_RESULT_FILEPATH))
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,15 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Бенчмарк операций хранилища экземпляров бизнес-модели человека при
+ * конкурентном доступе из восьми потоков.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonRepositoryBenchmark
+ * @since 0.5.0
+ */
+@Threads(8)
+public class ContendedPersonRepositoryBenchmark extends PersonRepositoryBenchmark {
+}
@@ -0,0 +1,87 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.indexes.CreatedAtIndex;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк запросов по дате создания: индекс {@link CreatedAtIndex}
+ * против полного просмотра хранилища.
+ *
+ * <p>Окно запроса — одни сутки в пределах пятилетнего диапазона дат
+ * набора данных.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see CreatedAtIndex
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CreatedAtIndexBenchmark {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final int DAY_COUNT = 5 * 365;
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    IPersonRepository personRepository;
+    CreatedAtIndex createdAtIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DataIntegrityException {
+        personRepository = PersonRepositoryFactory.createPartitionedPersonRepository(64, ScanConsistency.PER_SHARD);
+
+        for (Person person : new PersonDatasetGenerator(42).generate(size)) {
+            personRepository.add(person);
+        }
+
+        createdAtIndex = new CreatedAtIndex();
+        createdAtIndex.attach(personRepository);
+    }
+
+    @Benchmark
+    public long[] indexFindDay(PersonRepositoryBenchmark.ThreadState threadState) {
+        LocalDateTime from = EPOCH.plusDays(threadState.nextIndex(DAY_COUNT));
+
+        return createdAtIndex.findBetween(from, from.plusDays(1), Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long[] scanFindDay(PersonRepositoryBenchmark.ThreadState threadState) {
+        LocalDateTime from = EPOCH.plusDays(threadState.nextIndex(DAY_COUNT));
+        LocalDateTime to = from.plusDays(1);
+
+        return personRepository.getAll().stream()
+            .filter(person -> !person.getCreatedAt().isBefore(from) && person.getCreatedAt().isBefore(to))
+            .mapToLong(Person::getID)
+            .toArray();
+    }
+
+    @Benchmark
+    public long[] indexFindNewest() {
+        return createdAtIndex.findNewest(null, 20);
+    }
+}
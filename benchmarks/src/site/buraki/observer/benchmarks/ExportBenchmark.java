@@ -0,0 +1,98 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.exporting.ExportFormat;
+import site.buraki.observer.infrastructure.exporting.ExportReport;
+import site.buraki.observer.infrastructure.exporting.PersonExporter;
+import site.buraki.observer.infrastructure.marshalling.MarshallingManagerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк экспорта хранилища в файл: {@link PersonExporter} с разным
+ * числом потоков кодирования против
+ * {@code serializeMany(getAll())} сериализатора JSON.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonExporter
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ExportBenchmark {
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    @Param({"NDJSON", "CSV"})
+    ExportFormat format;
+
+    @Param({"1", "4", "8"})
+    int parallelism;
+
+    IPersonRepository personRepository;
+    Path directory;
+    Path targetFilepath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, DataIntegrityException {
+        personRepository = PersonRepositoryFactory.createPartitionedPersonRepository(64, ScanConsistency.PER_SHARD);
+
+        for (Person person : new PersonDatasetGenerator(42).generate(size)) {
+            personRepository.add(person);
+        }
+
+        directory = Files.createTempDirectory("observer-export");
+        targetFilepath = directory.resolve("export");
+    }
+
+    @Benchmark
+    public void serializeMany() throws IOException {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(targetFilepath))) {
+            MarshallingManagerFactory.<Person>getJSONMarshallingManager()
+                .getSerializer()
+                .serializeMany(personRepository.getAll(), outputStream);
+        }
+    }
+
+    @Benchmark
+    public ExportReport export() throws IOException {
+        PersonExporter personExporter = new PersonExporter();
+
+        personExporter.setParallelism(parallelism);
+
+        return personExporter.exportTo(targetFilepath, personRepository, format);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(targetFilepath);
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,97 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.importing.ImportReport;
+import site.buraki.observer.infrastructure.importing.ImportStage;
+import site.buraki.observer.infrastructure.importing.PersonImporter;
+import site.buraki.observer.infrastructure.marshalling.MarshallingManagerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк импорта файла сохранения конвейером {@link PersonImporter}
+ * с разным числом потоков разбора против последовательной загрузки
+ * {@link PersonRepositoryFactory#loadPersonRepository(Path)}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonImporter
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ImportBenchmark {
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    @Param({"1", "2", "4", "8"})
+    int parseParallelism;
+
+    Path directory;
+    Path saveFilepath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("observer-import");
+        saveFilepath = directory.resolve("save.json");
+
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(saveFilepath))) {
+            MarshallingManagerFactory.<Person>getJSONMarshallingManager()
+                .getSerializer()
+                .serializeMany(new PersonDatasetGenerator(42).generate(size), outputStream);
+        }
+    }
+
+    @Benchmark
+    public IPersonRepository load() throws IOException {
+        return PersonRepositoryFactory.loadPersonRepository(saveFilepath);
+    }
+
+    @Benchmark
+    public ImportReport pipelineImport() throws IOException {
+        PersonImporter personImporter = new PersonImporter();
+
+        personImporter.setParallelism(ImportStage.PARSE, parseParallelism);
+
+        return personImporter.importFrom(
+            saveFilepath,
+            PersonRepositoryFactory.createPartitionedPersonRepository(64, ScanConsistency.PER_SHARD)
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var paths = Files.list(directory)) {
+            for (Path path : paths.toList()) {
+                Files.delete(path);
+            }
+        }
+
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,74 @@
+package site.buraki.observer.benchmarks;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.infrastructure.marshalling.json.adapters.LocalDateTimeAdapter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк адаптера дат создания, вызываемого для каждой записи при
+ * маршалинге.
+ *
+ * <p>Базовая линия {@code writeString}/{@code readString} измеряет
+ * стоимость записи и чтения строки той же длины без форматирования и
+ * разбора даты.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see LocalDateTimeAdapter
+ * @since 0.5.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalDateTimeAdapterBenchmark {
+
+    private static final String ENCODED_DATETIME = "\"2023-06-15T13:45:30.123456789\"";
+
+    final LocalDateTimeAdapter adapter = new LocalDateTimeAdapter();
+    final LocalDateTime datetime = LocalDateTime.of(2023, 6, 15, 13, 45, 30, 123456789);
+
+    @Benchmark
+    public String write() throws IOException {
+        StringWriter stringWriter = new StringWriter(40);
+
+        adapter.write(new JsonWriter(stringWriter), datetime);
+
+        return stringWriter.toString();
+    }
+
+    @Benchmark
+    public LocalDateTime read() throws IOException {
+        return adapter.read(new JsonReader(new StringReader(ENCODED_DATETIME)));
+    }
+
+    @Benchmark
+    public String writeString() throws IOException {
+        StringWriter stringWriter = new StringWriter(40);
+
+        new JsonWriter(stringWriter).value(ENCODED_DATETIME);
+
+        return stringWriter.toString();
+    }
+
+    @Benchmark
+    public String readString() throws IOException {
+        return new JsonReader(new StringReader(ENCODED_DATETIME)).nextString();
+    }
+}
@@ -0,0 +1,101 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.marshalling.IMarshallingManager;
+import site.buraki.observer.infrastructure.marshalling.MarshallingManagerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк сериализации и десериализации экземпляров бизнес-модели
+ * человека в формате JSON.
+ *
+ * <p>Пропускная способность в записях и байтах в секунду выводится
+ * счётчиками {@code records} и {@code bytes}, а выделение памяти на
+ * запись получается делением {@code gc.alloc.rate.norm}
+ * профилировщика GC на {@code size}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see RecordCounters
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MarshallingBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"pretty", "compact"})
+    String format;
+
+    IMarshallingManager<Person> marshallingManager;
+    List<Person> people;
+    byte[] encodedPeople;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        marshallingManager = format.equals("pretty")
+            ? MarshallingManagerFactory.getJSONMarshallingManager()
+            : MarshallingManagerFactory.getCompactJSONMarshallingManager();
+        people = new PersonDatasetGenerator(42).generate(size);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        marshallingManager.getSerializer().serializeMany(people, outputStream);
+        encodedPeople = outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeMany(RecordCounters counters) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(encodedPeople.length);
+
+        marshallingManager.getSerializer().serializeMany(people, outputStream);
+
+        counters.records += size;
+        counters.bytes += outputStream.size();
+
+        return outputStream.toByteArray();
+    }
+
+    @Benchmark
+    public List<Person> deserializeMany(RecordCounters counters) {
+        List<Person> deserializedPeople = marshallingManager.getDeserializer()
+            .deserializeMany(Person.class, new ByteArrayInputStream(encodedPeople));
+
+        counters.records += size;
+        counters.bytes += encodedPeople.length;
+
+        return deserializedPeople;
+    }
+
+    @Benchmark
+    public byte[] serializeOne(RecordCounters counters) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(512);
+
+        marshallingManager.getSerializer().serializeOne(people.get(0), outputStream);
+
+        counters.records++;
+        counters.bytes += outputStream.size();
+
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.indexes.NameIndex;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк поиска по имени с ограничением результатов, как при
+ * автодополнении: индекс {@link NameIndex} против просмотра хранилища
+ * с {@link String#contains(CharSequence)}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see NameIndex
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class NameIndexBenchmark {
+
+    private static final int LIMIT = 10;
+    private static final String[] PREFIXES = {"а", "ал", "мар", "ив", "се", "ник", "ол", "дм"};
+    private static final String[] SUBSTRINGS = {"анд", "сан", "ина", "ей ", "лия", "5", "ми", "тр"};
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    IPersonRepository personRepository;
+    NameIndex nameIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DataIntegrityException {
+        personRepository = PersonRepositoryFactory.createPartitionedPersonRepository(64, ScanConsistency.PER_SHARD);
+
+        for (Person person : new PersonDatasetGenerator(42).generate(size)) {
+            personRepository.add(person);
+        }
+
+        nameIndex = new NameIndex();
+        nameIndex.attach(personRepository);
+    }
+
+    @Benchmark
+    public long[] indexFindByPrefix(PersonRepositoryBenchmark.ThreadState threadState) {
+        return nameIndex.findByPrefix(PREFIXES[threadState.nextIndex(PREFIXES.length)], LIMIT);
+    }
+
+    @Benchmark
+    public long[] indexFindBySubstring(PersonRepositoryBenchmark.ThreadState threadState) {
+        return nameIndex.findBySubstring(SUBSTRINGS[threadState.nextIndex(SUBSTRINGS.length)], LIMIT);
+    }
+
+    @Benchmark
+    public long[] scanFindBySubstring(PersonRepositoryBenchmark.ThreadState threadState) {
+        String substring = SUBSTRINGS[threadState.nextIndex(SUBSTRINGS.length)];
+
+        return personRepository.getAll().stream()
+            .filter(person -> person.getName().toLowerCase(Locale.ROOT).contains(substring))
+            .limit(LIMIT)
+            .mapToLong(Person::getID)
+            .toArray();
+    }
+}
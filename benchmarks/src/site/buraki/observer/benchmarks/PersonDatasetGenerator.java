@@ -0,0 +1,192 @@
+package site.buraki.observer.benchmarks;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.EyeColor;
+import site.buraki.observer.core.person.HairColor;
+import site.buraki.observer.core.person.Location;
+import site.buraki.observer.core.person.Person;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор синтетического набора экземпляров бизнес-модели человека.
+ *
+ * <p><b>Распределения</b>:
+ *
+ * <ul>
+ *     <li>имена — из словаря распространённых имён с убывающей по
+ *     закону Ципфа частотой и числовым суффиксом у части записей;</li>
+ *     <li>цвета волос и глаз — с фиксированными весами;</li>
+ *     <li>рост и вес — нормальные, отсечённые снизу;</li>
+ *     <li>локации — несколько сотен населённых пунктов, вокруг которых
+ *     координаты распределены нормально;</li>
+ *     <li>даты создания — равномерно за последние пять лет.</li>
+ * </ul>
+ *
+ * <p>Генерация детерминирована зерном, поэтому наборы воспроизводимы
+ * между запусками.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+public class PersonDatasetGenerator {
+
+    private static final String[] NAMES = {
+        "Александр", "Сергей", "Анна", "Мария", "Дмитрий", "Елена", "Андрей", "Ольга",
+        "Алексей", "Наталья", "Иван", "Татьяна", "Михаил", "Ирина", "Николай", "Светлана",
+        "Евгений", "Екатерина", "Владимир", "Юлия", "Павел", "Анастасия", "Артём", "Дарья",
+        "Максим", "Виктория", "Роман", "Ксения", "Денис", "Полина", "Расим", "Алина",
+        "Кирилл", "Валерия", "Никита", "Софья", "Илья", "Вера", "Егор", "Людмила"
+    };
+    private static final String[] SETTLEMENT_KINDS = {"Деревня", "Посёлок", "Село", "Город"};
+    private static final String[] SETTLEMENT_NAMES = {
+        "Светлое", "Красное", "Тёмное", "Озёрное", "Лесное", "Речное", "Полевое", "Горное",
+        "Солнечное", "Южное", "Северное", "Заречье", "Подгорное", "Луговое", "Сосновое", "Берёзовое"
+    };
+    private static final int LOCATION_COUNT = 256;
+
+    private static final HairColor[] HAIR_COLORS = HairColor.values();
+    private static final double[] HAIR_COLOR_WEIGHTS = {0.1, 0.15, 0.75};
+    private static final EyeColor[] EYE_COLORS = EyeColor.values();
+    private static final double[] EYE_COLOR_WEIGHTS = {0.3, 0.4, 0.15, 0.1, 0.05};
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final long CREATED_AT_SPAN_SECONDS = 5L * 365 * 24 * 60 * 60;
+
+    private final SplittableRandom random;
+    private final Location[] locations;
+    private final double[] nameWeights;
+
+    public PersonDatasetGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+        this.locations = createLocations();
+        this.nameWeights = createZipfWeights(NAMES.length);
+    }
+
+    /**
+     * Генерация набора экземпляров с идентификаторами от 1 до
+     * {@code size}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param size Размер набора.
+     * @return Экземпляры бизнес-модели человека.
+     * @since 0.5.0
+     */
+    public List<Person> generate(int size) {
+        List<Person> people = new ArrayList<>(size);
+
+        for (int i = 1; i <= size; i++) {
+            people.add(generatePerson(i));
+        }
+
+        return people;
+    }
+
+    /**
+     * Генерация одного экземпляра.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param id Уникальный идентификатор.
+     * @return Экземпляр бизнес-модели человека.
+     * @since 0.5.0
+     */
+    public Person generatePerson(long id) {
+        String name = NAMES[pick(nameWeights)];
+
+        if (random.nextInt(4) == 0) {
+            name += " " + random.nextInt(1000);
+        }
+
+        Location location = locations[(int) Math.min(
+            LOCATION_COUNT - 1,
+            Math.abs(random.nextGaussian()) * LOCATION_COUNT / 3
+        )];
+
+        try {
+            return new Person(
+                id,
+                name,
+                EPOCH.plusSeconds(random.nextLong(CREATED_AT_SPAN_SECONDS)),
+                HAIR_COLORS[pick(HAIR_COLOR_WEIGHTS)],
+                EYE_COLORS[pick(EYE_COLOR_WEIGHTS)],
+                (float) Math.max(50, 170 + random.nextGaussian() * 10),
+                (float) Math.max(3, 70 + random.nextGaussian() * 12),
+                new Location(
+                    location.getName(),
+                    new Coordinates(
+                        clamp(location.getCoordinates().getX() + (float) random.nextGaussian() * 50, 16384),
+                        clamp(location.getCoordinates().getY() + (float) random.nextGaussian() * 5, 1024),
+                        clamp(location.getCoordinates().getZ() + (float) random.nextGaussian() * 50, 16384)
+                    )
+                )
+            );
+        }
+        catch (ValidationException e) {
+            throw new AssertionError("Сгенерирован невалидный экземпляр", e);
+        }
+    }
+
+    private Location[] createLocations() {
+        Location[] createdLocations = new Location[LOCATION_COUNT];
+
+        for (int i = 0; i < LOCATION_COUNT; i++) {
+            String name = SETTLEMENT_KINDS[i % SETTLEMENT_KINDS.length] + " \"" +
+                          SETTLEMENT_NAMES[(i / SETTLEMENT_KINDS.length) % SETTLEMENT_NAMES.length] +
+                          (i < SETTLEMENT_KINDS.length * SETTLEMENT_NAMES.length ? "" : "-" + i) + "\"";
+
+            try {
+                createdLocations[i] = new Location(
+                    name,
+                    new Coordinates(
+                        (float) (random.nextDouble() * 30000 - 15000),
+                        (float) (random.nextDouble() * 1800 - 900),
+                        (float) (random.nextDouble() * 30000 - 15000)
+                    )
+                );
+            }
+            catch (ValidationException e) {
+                throw new AssertionError("Сгенерирована невалидная локация", e);
+            }
+        }
+
+        return createdLocations;
+    }
+
+    private int pick(double[] weights) {
+        double point = random.nextDouble();
+        double cumulativeWeight = 0;
+
+        for (int i = 0; i < weights.length - 1; i++) {
+            cumulativeWeight += weights[i];
+
+            if (point < cumulativeWeight) {
+                return i;
+            }
+        }
+
+        return weights.length - 1;
+    }
+
+    private static double[] createZipfWeights(int count) {
+        double[] weights = new double[count];
+        double sum = 0;
+
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1.0 / (i + 1);
+            sum += weights[i];
+        }
+        for (int i = 0; i < count; i++) {
+            weights[i] /= sum;
+        }
+
+        return weights;
+    }
+
+    private static float clamp(float value, float bound) {
+        return Math.max(-bound, Math.min(bound, value));
+    }
+}
@@ -0,0 +1,142 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк операций хранилища экземпляров бизнес-модели человека в
+ * одном потоке.
+ *
+ * <p>Изменяющие операции сохраняют размер хранилища: обновление
+ * заменяет экземпляр равным ему, а удаление сопровождается
+ * добавлением удалённого экземпляра обратно. Добавление уже
+ * содержащегося экземпляра сравнивается в бросающем и
+ * возвращающем результат вариантах.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ContendedPersonRepositoryBenchmark
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Threads(1)
+public class PersonRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({
+        RepositoryImplementations.LINKED_HASH_SET,
+        RepositoryImplementations.INSTRUMENTED,
+        RepositoryImplementations.PARTITIONED
+    })
+    String implementation;
+
+    IPersonRepository personRepository;
+    List<Person> people;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DataIntegrityException {
+        people = new PersonDatasetGenerator(42).generate(size);
+        personRepository = RepositoryImplementations.create(implementation);
+
+        for (Person person : people) {
+            personRepository.add(person);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        final SplittableRandom random = new SplittableRandom();
+
+        int nextIndex(int size) {
+            return random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Object getByID(ThreadState threadState) {
+        return personRepository.getByID(threadState.nextIndex(size) + 1);
+    }
+
+    @Benchmark
+    public Object getByMissingID() {
+        return personRepository.getByID(size + 1);
+    }
+
+    @Benchmark
+    public Object getAll() {
+        return personRepository.getAll();
+    }
+
+    @Benchmark
+    public int getSize() {
+        return personRepository.getSize();
+    }
+
+    @Benchmark
+    public long nextID() {
+        return personRepository.nextID();
+    }
+
+    @Benchmark
+    public void update(ThreadState threadState) throws DataIntegrityException {
+        personRepository.update(people.get(threadState.nextIndex(size)));
+    }
+
+    @Benchmark
+    public Object addDuplicate(ThreadState threadState) {
+        try {
+            personRepository.add(people.get(threadState.nextIndex(size)));
+            return null;
+        }
+        catch (DataIntegrityException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public MutationResult tryAddDuplicate(ThreadState threadState) {
+        return personRepository.tryAdd(people.get(threadState.nextIndex(size)));
+    }
+
+    @Benchmark
+    public void removeByIDAndAdd(ThreadState threadState, Blackhole blackhole) throws DataIntegrityException {
+        Person person = people.get(threadState.nextIndex(size));
+
+        try {
+            personRepository.removeByID(person.getID());
+            personRepository.add(person);
+        }
+        catch (DataIntegrityException e) {
+            // В конкурентном режиме экземпляр может быть временно удалён
+            // другим потоком.
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.sketches.PersonSketches;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Бенчмарк приближённой аналитики {@link PersonSketches} против точных
+ * ответов по полному просмотру хранилища.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonSketches
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersonSketchesBenchmark {
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    IPersonRepository personRepository;
+    PersonSketches personSketches;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DataIntegrityException {
+        personRepository = PersonRepositoryFactory.createPartitionedPersonRepository(64, ScanConsistency.PER_SHARD);
+        personSketches = new PersonSketches();
+        personSketches.attach(personRepository);
+
+        for (Person person : new PersonDatasetGenerator(42).generate(size)) {
+            personRepository.add(person);
+        }
+    }
+
+    @Benchmark
+    public long sketchDistinctNames() {
+        return personSketches.getDistinctNameCount();
+    }
+
+    @Benchmark
+    public long scanDistinctNames() {
+        return personRepository.getAll().stream().map(Person::getName).distinct().count();
+    }
+
+    @Benchmark
+    public float sketchMedianHeight() {
+        return personSketches.getHeightQuantile(0.5);
+    }
+
+    @Benchmark
+    public double scanMedianHeight() {
+        return personRepository.getAll().stream()
+            .mapToDouble(Person::getHeight)
+            .sorted()
+            .skip(size / 2)
+            .findFirst()
+            .orElse(Double.NaN);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Long>> sketchTopLocationNames() {
+        return personSketches.getTopLocationNames();
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Long>> scanTopLocationNames() {
+        return personRepository.getAll().stream()
+            .collect(Collectors.groupingBy(person -> person.getLocation().getName(), Collectors.counting()))
+            .entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(PersonSketches.DEFAULT_TOP_LOCATION_COUNT)
+            .toList();
+    }
+}
@@ -0,0 +1,30 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Вспомогательные счётчики JMH для пересчёта результатов на запись.
+ *
+ * <p>{@code records} выводится как пропускная способность в записях
+ * в секунду, {@code bytes} — в байтах в секунду.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class RecordCounters {
+
+    public long records;
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        records = 0;
+        bytes = 0;
+    }
+}
@@ -0,0 +1,132 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.replication.ReplicationFollower;
+import site.buraki.observer.infrastructure.replication.ReplicationPrimary;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк репликации между ведущим и последователем через локальный
+ * TCP-сокет в одном процессе.
+ *
+ * <p>{@code update} измеряет изменение на ведущем с записью в журнал
+ * репликации, а наибольшее за итерацию отставание последователя
+ * выводится счётчиком {@code lagRecords}. {@code updateAndAwaitReplica}
+ * дожидается применения изменения последователем и измеряет задержку
+ * репликации.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ReplicationPrimary
+ * @see ReplicationFollower
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ReplicationBenchmark {
+
+    private static final int LOG_CAPACITY = 1 << 20;
+
+    @Param({"10000"})
+    int size;
+
+    IPersonRepository primaryRepository;
+    IPersonRepository followerRepository;
+    ReplicationPrimary primary;
+    ReplicationFollower follower;
+    List<Person> people;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DataIntegrityException, IOException, InterruptedException {
+        people = new PersonDatasetGenerator(42).generate(size);
+        primaryRepository = PersonRepositoryFactory.createPartitionedPersonRepository(
+            64,
+            ScanConsistency.PER_SHARD
+        );
+        followerRepository = PersonRepositoryFactory.createPartitionedPersonRepository(
+            64,
+            ScanConsistency.PER_SHARD
+        );
+
+        for (Person person : people) {
+            primaryRepository.add(person);
+        }
+
+        primary = new ReplicationPrimary(
+            primaryRepository,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            LOG_CAPACITY
+        );
+        follower = new ReplicationFollower(followerRepository, primary.getAddress());
+
+        primary.start();
+        follower.start();
+
+        while (followerRepository.getSize() < size) {
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        follower.close();
+        primary.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LagCounters {
+
+        public long lagRecords;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lagRecords = 0;
+        }
+    }
+
+    @Benchmark
+    public void update(PersonRepositoryBenchmark.ThreadState threadState, LagCounters lagCounters)
+            throws DataIntegrityException {
+        primaryRepository.update(people.get(threadState.nextIndex(size)));
+        lagCounters.lagRecords = Math.max(lagCounters.lagRecords, follower.getLagRecords());
+    }
+
+    @Benchmark
+    public void updateAndAwaitReplica(PersonRepositoryBenchmark.ThreadState threadState)
+            throws DataIntegrityException {
+        primaryRepository.update(people.get(threadState.nextIndex(size)));
+
+        long offset = primary.getMutationLog().getEndOffset() - 1;
+
+        while (follower.getAppliedOffset() < offset) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package site.buraki.observer.benchmarks;
+
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.infrastructure.caching.CachingPersonRepository;
+import site.buraki.observer.infrastructure.caching.WritePolicy;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.metrics.InstrumentedPersonRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Реализации хранилища, сравниваемые бенчмарками.
+ *
+ * <p>Название реализации передаётся параметром бенчмарка
+ * {@code implementation}. Реализации {@value #DISK} и
+ * {@value #CACHED_DISK} не входят в параметры по умолчанию, так как
+ * фиксируют каждое изменение со сбросом на носитель, и выбираются
+ * явно: {@code -p implementation=disk,cached-disk}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+class RepositoryImplementations {
+
+    static final String LINKED_HASH_SET = "linked-hash-set";
+    static final String INSTRUMENTED = "instrumented";
+    static final String PARTITIONED = "partitioned";
+    static final String DISK = "disk";
+    static final String CACHED_DISK = "cached-disk";
+
+    private static final long DISK_MEMORY_BUDGET = 64 * 1024 * 1024;
+    private static final int CACHE_SIZE = 10_000;
+    private static final int SHARD_COUNT = 64;
+
+    static IPersonRepository create(String implementation) {
+        return switch (implementation) {
+            case LINKED_HASH_SET -> PersonRepositoryFactory.createPersonRepository();
+            case INSTRUMENTED -> new InstrumentedPersonRepository(PersonRepositoryFactory.createPersonRepository());
+            case PARTITIONED -> PersonRepositoryFactory.createPartitionedPersonRepository(
+                SHARD_COUNT,
+                ScanConsistency.PER_SHARD
+            );
+            case DISK -> openDiskPersonRepository();
+            case CACHED_DISK -> new CachingPersonRepository(openDiskPersonRepository(), CACHE_SIZE, WritePolicy.WRITE_THROUGH);
+            default -> throw new IllegalArgumentException("Неизвестная реализация: " + implementation);
+        };
+    }
+
+    private static IPersonRepository openDiskPersonRepository() {
+        try {
+            Path directory = Files.createTempDirectory("observer-benchmark");
+            Path storageFilepath = directory.resolve("people.db");
+
+            directory.toFile().deleteOnExit();
+            storageFilepath.toFile().deleteOnExit();
+            storageFilepath.resolveSibling("people.db.journal").toFile().deleteOnExit();
+
+            return PersonRepositoryFactory.openDiskPersonRepository(storageFilepath, DISK_MEMORY_BUDGET);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
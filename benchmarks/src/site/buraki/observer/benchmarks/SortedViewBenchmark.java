@@ -0,0 +1,100 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonModification;
+import site.buraki.observer.core.person.PersonOrder;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.indexes.SortedPersonView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк запросов «первые N» и постраничного чтения в порядке
+ * {@link PersonOrder}: копирование и полная сортировка против выбора
+ * ограниченной кучей и поддерживаемого представления
+ * {@link SortedPersonView}, а также стоимость изменения с подключённым
+ * представлением.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see SortedPersonView
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortedViewBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    @Param({"NAME", "DISTANCE_TO_ORIGIN", "HEIGHT_DESCENDING"})
+    PersonOrder order;
+
+    IPersonRepository personRepository;
+    SortedPersonView sortedView;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DataIntegrityException {
+        personRepository = PersonRepositoryFactory.createPartitionedPersonRepository(64, ScanConsistency.PER_SHARD);
+
+        for (Person person : new PersonDatasetGenerator(42).generate(size)) {
+            personRepository.add(person);
+        }
+
+        sortedView = new SortedPersonView(order);
+        sortedView.attach(personRepository);
+    }
+
+    @Benchmark
+    public List<Person> sortTop() {
+        List<Person> people = new ArrayList<>(personRepository.getAll());
+
+        people.sort(order.getComparator());
+
+        return people.subList(0, Math.min(LIMIT, people.size()));
+    }
+
+    @Benchmark
+    public List<Person> heapTop() {
+        return personRepository.getTop(order.getComparator(), LIMIT);
+    }
+
+    @Benchmark
+    public List<Person> viewTop() {
+        return sortedView.getPage(0, LIMIT);
+    }
+
+    @Benchmark
+    public List<Person> viewPage(PersonRepositoryBenchmark.ThreadState threadState) {
+        return sortedView.getPage(threadState.nextIndex(size - LIMIT), LIMIT);
+    }
+
+    @Benchmark
+    public PersonModification modifyWithView(PersonRepositoryBenchmark.ThreadState threadState)
+            throws ValidationException {
+        return personRepository.modify(threadState.nextIndex(size) + 1, person -> person.growUp(0.5f));
+    }
+}
@@ -0,0 +1,94 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.marshalling.MarshallingManagerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк начальной загрузки хранилища из файла сохранения.
+ *
+ * <p>Файл сохранения генерируется один раз на запуск в том же формате,
+ * что и {@code SAVE_FILEPATH}. Каждое измерение — полная загрузка
+ * через {@link PersonRepositoryFactory#loadPersonRepository(Path)},
+ * включая десериализацию, валидацию и добавление в хранилище, либо
+ * ленивая загрузка через
+ * {@link PersonRepositoryFactory#loadLazyPersonRepository(Path)},
+ * строящая только индекс смещений записей.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StartupBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    Path directory;
+    Path saveFilepath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("observer-startup");
+        saveFilepath = directory.resolve("save.json");
+
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(saveFilepath))) {
+            MarshallingManagerFactory.<Person>getJSONMarshallingManager()
+                .getSerializer()
+                .serializeMany(new PersonDatasetGenerator(42).generate(size), outputStream);
+        }
+    }
+
+    @Benchmark
+    public IPersonRepository load() throws IOException {
+        return PersonRepositoryFactory.loadPersonRepository(saveFilepath);
+    }
+
+    @Benchmark
+    public int loadLazy() throws IOException {
+        IPersonRepository personRepository = PersonRepositoryFactory.loadLazyPersonRepository(saveFilepath);
+        Closeable closeable = (Closeable) personRepository;
+
+        try (closeable) {
+            return personRepository.getSize();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var paths = Files.list(directory)) {
+            for (Path path : paths.toList()) {
+                Files.delete(path);
+            }
+        }
+
+        Files.delete(directory);
+    }
+}
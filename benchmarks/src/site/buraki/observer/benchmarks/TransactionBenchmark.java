@@ -0,0 +1,104 @@
+package site.buraki.observer.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.common.exceptions.core.TransactionConflictException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.dal.transactions.PersonTransaction;
+import site.buraki.observer.infrastructure.dal.transactions.TransactionalPersonRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк накладных расходов оптимистичных транзакций без
+ * конкуренции.
+ *
+ * <p>{@code plainUpdate} обновляет секционированное хранилище
+ * напрямую, {@code decoratedUpdate} — через декоратор транзакций
+ * одиночной операцией, {@code transactionalUpdate} — транзакцией из
+ * чтения и обновления, а {@code transactionalPairUpdate} — транзакцией
+ * над двумя экземплярами.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see TransactionalPersonRepository
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TransactionBenchmark {
+
+    @Param({"100000"})
+    int size;
+
+    IPersonRepository personRepository;
+    TransactionalPersonRepository transactionalRepository;
+    List<Person> people;
+
+    @Setup(Level.Trial)
+    public void setUp() throws DataIntegrityException {
+        people = new PersonDatasetGenerator(42).generate(size);
+        personRepository = PersonRepositoryFactory.createPartitionedPersonRepository(64, ScanConsistency.PER_SHARD);
+        transactionalRepository = new TransactionalPersonRepository(personRepository);
+
+        for (Person person : people) {
+            personRepository.add(person);
+        }
+    }
+
+    @Benchmark
+    public MutationResult plainUpdate(PersonRepositoryBenchmark.ThreadState threadState) {
+        return personRepository.tryUpdate(people.get(threadState.nextIndex(size)));
+    }
+
+    @Benchmark
+    public MutationResult decoratedUpdate(PersonRepositoryBenchmark.ThreadState threadState) {
+        return transactionalRepository.tryUpdate(people.get(threadState.nextIndex(size)));
+    }
+
+    @Benchmark
+    public MutationResult transactionalUpdate(PersonRepositoryBenchmark.ThreadState threadState)
+            throws TransactionConflictException {
+        Person person = people.get(threadState.nextIndex(size));
+        PersonTransaction transaction = transactionalRepository.begin();
+        MutationResult result = transaction.tryUpdate(person);
+
+        transaction.commit();
+
+        return result;
+    }
+
+    @Benchmark
+    public MutationResult transactionalPairUpdate(PersonRepositoryBenchmark.ThreadState threadState)
+            throws TransactionConflictException {
+        Person first = people.get(threadState.nextIndex(size));
+        Person second = people.get(threadState.nextIndex(size));
+        PersonTransaction transaction = transactionalRepository.begin();
+
+        transaction.tryUpdate(first);
+        MutationResult result = transaction.tryUpdate(second);
+
+        transaction.commit();
+
+        return result;
+    }
+}
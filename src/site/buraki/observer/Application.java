@@ -0,0 +1,150 @@
+package site.buraki.observer;
+
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.infrastructure.caching.CachingPersonRepository;
+import site.buraki.observer.infrastructure.caching.WritePolicy;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.dal.repositories.ScanConsistency;
+import site.buraki.observer.infrastructure.metrics.InstrumentedPersonRepository;
+import site.buraki.observer.infrastructure.replication.ReadOnlyPersonRepository;
+import site.buraki.observer.infrastructure.replication.ReplicationFollower;
+import site.buraki.observer.infrastructure.replication.ReplicationPrimary;
+import site.buraki.observer.presentation.http.HttpApiServer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Точка входа API-сервера.
+ *
+ * <p><b>Переменные окружения</b>:
+ *
+ * <ul>
+ *     <li>{@code SAVE_FILEPATH} — путь к файлу сохранения;</li>
+ *     <li>{@code HOT_RELOAD} — если {@code true}, хранилище
+ *     перезагружается при изменении файла сохранения другим
+ *     процессом;</li>
+ *     <li>{@code STORAGE_FILEPATH} — путь к файлу хранилища на диске;
+ *     если задан, используется вместо файла сохранения;</li>
+ *     <li>{@code STORAGE_MEMORY_MB} — бюджет памяти пула буферов
+ *     хранилища на диске в мегабайтах (по умолчанию 64);</li>
+ *     <li>{@code STORAGE_CACHE_SIZE} — число экземпляров в кэше перед
+ *     хранилищем на диске (по умолчанию 100000);</li>
+ *     <li>{@code REPLICATION_PORT} — порт, на котором ведущий передаёт
+ *     журнал изменений последователям;</li>
+ *     <li>{@code REPLICA_OF} — адрес ведущего в виде {@code host:port};
+ *     если задан, сервер работает последователем репликации и
+ *     обслуживает только чтение;</li>
+ *     <li>{@code PORT} — порт HTTP-сервера (по умолчанию 8080).</li>
+ * </ul>
+ *
+ * <p>Метрики хранилища публикуются через JMX и по пути
+ * {@code /metrics} HTTP-сервера.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see HttpApiServer
+ * @since 0.5.0
+ */
+public class Application {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final long DEFAULT_STORAGE_MEMORY_MB = 64;
+    private static final int DEFAULT_STORAGE_CACHE_SIZE = 100_000;
+    private static final int REPLICA_SHARD_COUNT = 64;
+    private static final int REPLICATION_LOG_CAPACITY = 1 << 20;
+
+    public static void main(String[] args) throws IOException, JMException {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        List<Supplier<String>> metricsDumps = new ArrayList<>();
+        String port = System.getenv("PORT");
+        String storageFilepath = System.getenv("STORAGE_FILEPATH");
+        String replicaOf = System.getenv("REPLICA_OF");
+        String replicationPort = System.getenv("REPLICATION_PORT");
+        IPersonRepository backendRepository;
+
+        if (replicaOf != null) {
+            IPersonRepository replicaRepository = PersonRepositoryFactory.createPartitionedPersonRepository(
+                REPLICA_SHARD_COUNT,
+                ScanConsistency.PER_SHARD
+            );
+            ReplicationFollower follower = new ReplicationFollower(replicaRepository, parseAddress(replicaOf));
+
+            follower.register(mBeanServer);
+            metricsDumps.add(follower::dump);
+            follower.start();
+
+            backendRepository = new ReadOnlyPersonRepository(replicaRepository);
+        }
+        else if (storageFilepath != null) {
+            String storageCacheSize = System.getenv("STORAGE_CACHE_SIZE");
+            CachingPersonRepository cachingPersonRepository = new CachingPersonRepository(
+                openDiskPersonRepository(Path.of(storageFilepath)),
+                storageCacheSize == null ? DEFAULT_STORAGE_CACHE_SIZE : Integer.parseInt(storageCacheSize),
+                WritePolicy.WRITE_THROUGH
+            );
+
+            cachingPersonRepository.register(mBeanServer);
+            metricsDumps.add(cachingPersonRepository::dump);
+
+            backendRepository = cachingPersonRepository;
+        }
+        else {
+            backendRepository = PersonRepositoryFactory.getPersonRepository();
+        }
+
+        InstrumentedPersonRepository personRepository = new InstrumentedPersonRepository(backendRepository);
+
+        personRepository.register(mBeanServer);
+        metricsDumps.add(0, personRepository::dump);
+
+        if (replicationPort != null && replicaOf == null) {
+            ReplicationPrimary primary = new ReplicationPrimary(
+                backendRepository,
+                new InetSocketAddress(Integer.parseInt(replicationPort)),
+                REPLICATION_LOG_CAPACITY
+            );
+
+            primary.start();
+        }
+
+        HttpApiServer server = new HttpApiServer(
+            personRepository,
+            new InetSocketAddress(port == null ? DEFAULT_PORT : Integer.parseInt(port))
+        );
+
+        server.exposeMetrics(() -> {
+            StringBuilder dump = new StringBuilder();
+
+            for (Supplier<String> metricsDump : metricsDumps) {
+                dump.append(metricsDump.get());
+            }
+
+            return dump.toString();
+        });
+
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+    }
+
+    private static IPersonRepository openDiskPersonRepository(Path storageFilepath) throws IOException {
+        String storageMemory = System.getenv("STORAGE_MEMORY_MB");
+
+        return PersonRepositoryFactory.openDiskPersonRepository(
+            storageFilepath,
+            (storageMemory == null ? DEFAULT_STORAGE_MEMORY_MB : Long.parseLong(storageMemory)) * 1024 * 1024
+        );
+    }
+
+    private static InetSocketAddress parseAddress(String address) {
+        int separator = address.lastIndexOf(':');
+
+        return new InetSocketAddress(address.substring(0, separator), Integer.parseInt(address.substring(separator + 1)));
+    }
+}
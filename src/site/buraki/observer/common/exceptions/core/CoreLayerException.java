@@ -55,4 +55,22 @@ public class CoreLayerException extends Exception {
     public CoreLayerException(String detailedMessage, Throwable cause) {
         super(detailedMessage, cause);
     }
+
+    /**
+     * Конструктор исключения с детализированным сообщением, причинным
+     * исключением/ошибкой и, при необходимости, без трассировки стека.
+     *
+     * <p>Исключение без трассировки стека дешевле создать и подходит
+     * для ожидаемых отказов, при которых важно только сообщение.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param detailedMessage Детализированное сообщение.
+     * @param cause Причинное исключение/ошибка.
+     * @param writableStackTrace Заполнять ли трассировку стека.
+     * @see CoreLayerException#CoreLayerException(String, Throwable)
+     * @since 0.5.0
+     */
+    protected CoreLayerException(String detailedMessage, Throwable cause, boolean writableStackTrace) {
+        super(detailedMessage, cause, true, writableStackTrace);
+    }
 }
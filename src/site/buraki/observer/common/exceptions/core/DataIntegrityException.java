@@ -55,4 +55,22 @@ public class DataIntegrityException extends CoreLayerException {
     public DataIntegrityException(String detailedMessage, Throwable cause) {
         super(detailedMessage, cause);
     }
+
+    /**
+     * Конструктор исключения с детализированным сообщением, причинным
+     * исключением/ошибкой и, при необходимости, без трассировки стека.
+     *
+     * <p>Используется хранилищами для ожидаемых отказов: экземпляр уже
+     * содержится или не содержится в хранилище.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param detailedMessage Детализированное сообщение.
+     * @param cause Причинное исключение/ошибка.
+     * @param writableStackTrace Заполнять ли трассировку стека.
+     * @see DataIntegrityException#DataIntegrityException(String, Throwable)
+     * @since 0.5.0
+     */
+    public DataIntegrityException(String detailedMessage, Throwable cause, boolean writableStackTrace) {
+        super(detailedMessage, cause, writableStackTrace);
+    }
 }
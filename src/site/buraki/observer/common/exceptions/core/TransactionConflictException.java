@@ -0,0 +1,77 @@
+package site.buraki.observer.common.exceptions.core;
+
+/**
+ * Конфликт транзакции с изменениями, зафиксированными после её
+ * начала.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+public class TransactionConflictException extends CoreLayerException {
+
+    /**
+     * Конструктор исключения.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    public TransactionConflictException() {
+        super();
+    }
+
+    /**
+     * Конструктор исключения с детализированным сообщением, содержащим
+     * описание конфликта.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param detailedMessage Детализированное сообщение.
+     * @since 0.5.0
+     */
+    public TransactionConflictException(String detailedMessage) {
+        super(detailedMessage);
+    }
+
+    /**
+     * Конструктор исключения с причинным исключением/ошибкой.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param cause Причинное исключение/ошибка.
+     * @since 0.5.0
+     */
+    public TransactionConflictException(Throwable cause) {
+        super(cause);
+    }
+
+    /**
+     * Конструктор исключения с детализированным сообщением и
+     * причинным исключением/ошибкой.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param detailedMessage Детализированное сообщение.
+     * @param cause Причинное исключение/ошибка.
+     * @see TransactionConflictException#TransactionConflictException(String)
+     * @see TransactionConflictException#TransactionConflictException(Throwable)
+     * @since 0.5.0
+     */
+    public TransactionConflictException(String detailedMessage, Throwable cause) {
+        super(detailedMessage, cause);
+    }
+
+    /**
+     * Конструктор исключения с детализированным сообщением, причинным
+     * исключением/ошибкой и, при необходимости, без трассировки стека.
+     *
+     * <p>Конфликты ожидаемы при конкурентных транзакциях и разрешаются
+     * повтором, поэтому транзакции создают исключение без трассировки.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param detailedMessage Детализированное сообщение.
+     * @param cause Причинное исключение/ошибка.
+     * @param writableStackTrace Заполнять ли трассировку стека.
+     * @see TransactionConflictException#TransactionConflictException(String, Throwable)
+     * @since 0.5.0
+     */
+    public TransactionConflictException(String detailedMessage, Throwable cause, boolean writableStackTrace) {
+        super(detailedMessage, cause, writableStackTrace);
+    }
+}
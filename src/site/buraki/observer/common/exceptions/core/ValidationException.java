@@ -59,6 +59,24 @@ public class ValidationException extends CoreLayerException {
         super(detailedMessage, cause);
     }
 
+    /**
+     * Конструктор исключения с детализированным сообщением, причинным
+     * исключением/ошибкой и, при необходимости, без трассировки стека.
+     *
+     * <p>Используется при пакетной валидации, где невалидные записи
+     * ожидаемы и их может быть много.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param detailedMessage Детализированное сообщение.
+     * @param cause Причинное исключение/ошибка.
+     * @param writableStackTrace Заполнять ли трассировку стека.
+     * @see ValidationException#ValidationException(String, Throwable)
+     * @since 0.5.0
+     */
+    public ValidationException(String detailedMessage, Throwable cause, boolean writableStackTrace) {
+        super(detailedMessage, cause, writableStackTrace);
+    }
+
     /**
      * Конструктор детализированного сообщения, содержащего описания
      * нарушенных инвариантов бизнес-модели.
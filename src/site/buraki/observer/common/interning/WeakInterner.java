@@ -0,0 +1,101 @@
+package site.buraki.observer.common.interning;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Потокобезопасный пул канонических экземпляров со слабыми ссылками.
+ *
+ * <p>Для равных по {@code equals} значений возвращается один и тот же
+ * экземпляр, пока он достижим извне пула. Пул не удерживает
+ * экземпляры от сборки мусора: записи о собранных экземплярах
+ * вычищаются при последующих обращениях.
+ *
+ * @author Расим "Buraki" Эминов
+ * @param <T> Тип интернируемого значения с согласованными
+ *     {@code equals} и {@code hashCode}.
+ * @since 0.5.0
+ */
+public class WeakInterner<T> {
+
+    private final ConcurrentHashMap<Entry<T>, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> collectedValues = new ReferenceQueue<>();
+
+    /**
+     * Получение канонического экземпляра.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param value Значение.
+     * @return Ранее интернированный равный экземпляр или само
+     *     значение, если такого нет.
+     * @since 0.5.0
+     */
+    public T intern(T value) {
+        expungeCollected();
+
+        Entry<T> probe = new Entry<>(value, null);
+
+        while (true) {
+            Entry<T> existingEntry = entries.get(probe);
+
+            if (existingEntry != null) {
+                T existingValue = existingEntry.get();
+
+                if (existingValue != null) {
+                    return existingValue;
+                }
+
+                entries.remove(existingEntry, existingEntry);
+                continue;
+            }
+
+            Entry<T> newEntry = new Entry<>(value, collectedValues);
+
+            if (entries.putIfAbsent(newEntry, newEntry) == null) {
+                return value;
+            }
+        }
+    }
+
+    public int getSize() {
+        expungeCollected();
+
+        return entries.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expungeCollected() {
+        Entry<T> collectedEntry;
+
+        while ((collectedEntry = (Entry<T>) collectedValues.poll()) != null) {
+            entries.remove(collectedEntry, collectedEntry);
+        }
+    }
+
+    private static class Entry<T> extends WeakReference<T> {
+
+        private final int hash;
+
+        Entry(T value, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry<?> otherEntry) || hash != otherEntry.hash) return false;
+
+            Object value = get();
+            Object otherValue = otherEntry.get();
+
+            return value != null && otherValue != null && value.equals(otherValue);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package site.buraki.observer.common.validation;
+
+import java.util.List;
+
+/**
+ * Отчёт пакетной валидации.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see InvalidRecord
+ * @since 0.5.0
+ */
+public class BatchValidationReport {
+
+    private final int recordCount;
+    private final List<InvalidRecord> invalidRecords;
+
+    public BatchValidationReport(int recordCount, List<InvalidRecord> invalidRecords) {
+        this.recordCount = recordCount;
+        this.invalidRecords = List.copyOf(invalidRecords);
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public List<InvalidRecord> getInvalidRecords() {
+        return invalidRecords;
+    }
+
+    public boolean isValid() {
+        return invalidRecords.isEmpty();
+    }
+}
@@ -0,0 +1,38 @@
+package site.buraki.observer.common.validation;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+
+/**
+ * Невалидная запись пакета с её позицией и описанием нарушенных
+ * инвариантов.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see BatchValidationReport
+ * @since 0.5.0
+ */
+public class InvalidRecord {
+
+    private final int position;
+    private final ValidationException exception;
+
+    public InvalidRecord(int position, ValidationException exception) {
+        this.position = position;
+        this.exception = exception;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public ValidationException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(\n" +
+               ("position=" + position + ",").indent(4) +
+               ("message=\"" + exception.getMessage() + "\"").indent(4) +
+               ")";
+    }
+}
@@ -0,0 +1,122 @@
+package site.buraki.observer.common.validation;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Набор инвариантов бизнес-модели, нарушения которых кодируются
+ * битовой маской.
+ *
+ * <p>Бит с номером {@code i} маски соответствует {@code i}-му
+ * описанию инварианта. Проверка инвариантов сводится к вычислению
+ * маски примитивными операциями, поэтому на успешном пути ничего не
+ * выделяется в куче; список описаний и детализированное сообщение
+ * строятся только при нарушении.
+ *
+ * <pre>{@code
+ *     InvariantSet invariants = new InvariantSet(
+ *         "Нарушены инварианты бизнес-модели человека",
+ *         "Имя заполнено"
+ *     );
+ *
+ *     invariants.check(name == null ? 1 : 0);
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ValidationException#createDetailedMessage(String, Iterable)
+ * @since 0.5.0
+ */
+public final class InvariantSet {
+
+    private final String mainMessage;
+    private final String[] descriptions;
+
+    /**
+     * Конструктор набора инвариантов.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param mainMessage Основное сообщение о нарушении.
+     * @param descriptions Описания инвариантов в порядке битов маски.
+     * @throws IllegalArgumentException Инвариантов больше 32.
+     * @since 0.5.0
+     */
+    public InvariantSet(String mainMessage, String... descriptions) {
+        if (descriptions.length > Integer.SIZE) {
+            throw new IllegalArgumentException("Инвариантов больше " + Integer.SIZE);
+        }
+
+        this.mainMessage = mainMessage;
+        this.descriptions = descriptions.clone();
+    }
+
+    public String getMainMessage() {
+        return mainMessage;
+    }
+
+    public int getSize() {
+        return descriptions.length;
+    }
+
+    /**
+     * Проверка маски нарушенных инвариантов.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param brokenMask Маска нарушенных инвариантов.
+     * @throws ValidationException Маска не пуста.
+     * @since 0.5.0
+     */
+    public void check(int brokenMask) throws ValidationException {
+        if (brokenMask != 0) {
+            throw createException(brokenMask);
+        }
+    }
+
+    /**
+     * Построение исключения по маске нарушенных инвариантов.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param brokenMask Непустая маска нарушенных инвариантов.
+     * @return Исключение с детализированным сообщением.
+     * @since 0.5.0
+     */
+    public ValidationException createException(int brokenMask) {
+        return new ValidationException(
+            ValidationException.createDetailedMessage(mainMessage, describe(brokenMask))
+        );
+    }
+
+    /**
+     * Получение описаний нарушенных инвариантов по маске.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param brokenMask Маска нарушенных инвариантов.
+     * @return Описания в порядке битов маски.
+     * @since 0.5.0
+     */
+    public List<String> describe(int brokenMask) {
+        List<String> brokenInvariants = new ArrayList<>(Integer.bitCount(brokenMask));
+
+        describeTo(brokenMask, brokenInvariants);
+
+        return brokenInvariants;
+    }
+
+    /**
+     * Добавление описаний нарушенных инвариантов по маске в
+     * существующий список.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param brokenMask Маска нарушенных инвариантов.
+     * @param brokenInvariants Список-приёмник описаний.
+     * @since 0.5.0
+     */
+    public void describeTo(int brokenMask, List<String> brokenInvariants) {
+        for (int i = 0; i < descriptions.length; i++) {
+            if ((brokenMask & (1 << i)) != 0) {
+                brokenInvariants.add(descriptions[i]);
+            }
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package site.buraki.observer.core.person;
 
 import site.buraki.observer.common.exceptions.core.ValidationException;
-
-import java.util.ArrayList;
-import java.util.List;
+import site.buraki.observer.common.validation.InvariantSet;
 
 /**
  * Бизнес-модель координат в трёхмерном пространстве.
@@ -44,6 +42,23 @@ import java.util.List;
  */
 public class Coordinates implements Comparable<Coordinates> {
 
+    static final InvariantSet INVARIANTS = new InvariantSet(
+        "Нарушены инварианты бизнес-модели координат в трёхмерном пространстве",
+        "Значение абсциссы не меньше -16384",
+        "Значение абсциссы не больше 16384",
+        "Значение ординаты не меньше -1024",
+        "Значение ординаты не больше 1024",
+        "Значение аппликаты не меньше -16384",
+        "Значение аппликаты не больше 16384"
+    );
+
+    static final int X_NOT_LESS_THAN_MIN = 1;
+    static final int X_NOT_GREATER_THAN_MAX = 1 << 1;
+    static final int Y_NOT_LESS_THAN_MIN = 1 << 2;
+    static final int Y_NOT_GREATER_THAN_MAX = 1 << 3;
+    static final int Z_NOT_LESS_THAN_MIN = 1 << 4;
+    static final int Z_NOT_GREATER_THAN_MAX = 1 << 5;
+
     private final float x;
     private final float y;
     private final float z;
@@ -60,38 +75,48 @@ public class Coordinates implements Comparable<Coordinates> {
      * @since 0.1.0
      */
     public Coordinates(float x, float y, float z) throws ValidationException {
-        List<String> brokenInvariants = new ArrayList<>(3);
+        INVARIANTS.check(validate(x, y, z));
+
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Вычисление маски нарушенных инвариантов бизнес-модели координат
+     * в трёхмерном пространстве.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param x Значение абсциссы.
+     * @param y Значение ординаты.
+     * @param z Значение аппликаты.
+     * @return Маска нарушенных инвариантов относительно
+     *     {@link #INVARIANTS}.
+     * @since 0.5.0
+     */
+    static int validate(float x, float y, float z) {
+        int brokenMask = 0;
 
         if (x < -16384) {
-            brokenInvariants.add("Значение абсциссы не меньше -16384");
+            brokenMask |= X_NOT_LESS_THAN_MIN;
         }
         if (x > 16384) {
-            brokenInvariants.add("Значение абсциссы не больше 16384");
+            brokenMask |= X_NOT_GREATER_THAN_MAX;
         }
         if (y < -1024) {
-            brokenInvariants.add("Значение ординаты не меньше -1024");
+            brokenMask |= Y_NOT_LESS_THAN_MIN;
         }
         if (y > 1024) {
-            brokenInvariants.add("Значение ординаты не больше 1024");
+            brokenMask |= Y_NOT_GREATER_THAN_MAX;
         }
         if (z < -16384) {
-            brokenInvariants.add("Значение аппликаты не меньше -16384");
+            brokenMask |= Z_NOT_LESS_THAN_MIN;
         }
         if (z > 16384) {
-            brokenInvariants.add("Значение аппликаты не больше 16384");
-        }
-        if (!brokenInvariants.isEmpty()) {
-            throw new ValidationException(
-                ValidationException.createDetailedMessage(
-                    "Нарушены инварианты бизнес-модели координат в трёхмерном пространстве",
-                    brokenInvariants
-                )
-            );
+            brokenMask |= Z_NOT_GREATER_THAN_MAX;
         }
 
-        this.x = x;
-        this.y = y;
-        this.z = z;
+        return brokenMask;
     }
 
     public float getX() {
@@ -115,7 +140,37 @@ public class Coordinates implements Comparable<Coordinates> {
      * @since 0.1.0
      */
     public float getRadiusVectorLength() {
-        return (float) Math.sqrt(Math.pow(x, 2) + Math.pow(y, 2) + Math.pow(z, 2));
+        return (float) Math.sqrt(getSquaredRadiusVectorLength());
+    }
+
+    /**
+     * Вычисление квадрата длины радиус-вектора относительно начала
+     * координат по формуле x^2 + y^2 + z^2.
+     *
+     * <p>Сохраняет порядок длин радиус-векторов, поэтому используется
+     * для сравнения вместо {@link #getRadiusVectorLength()}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Квадрат длины радиус-вектора.
+     * @since 0.5.0
+     */
+    public double getSquaredRadiusVectorLength() {
+        return (double) x * x + (double) y * y + (double) z * z;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = floatHashCode(x);
+        hash = 31 * hash + floatHashCode(y);
+        hash = 31 * hash + floatHashCode(z);
+
+        return hash;
+    }
+
+    private static int floatHashCode(float value) {
+        // 0.0f == -0.0f, поэтому хэш-код согласован с equals только при
+        // их совпадении.
+        return value == 0 ? 0 : Float.floatToIntBits(value);
     }
 
     @Override
@@ -132,10 +187,10 @@ public class Coordinates implements Comparable<Coordinates> {
 
     @Override
     public int compareTo(Coordinates o) {
-        float firstRadiusVectorLength = getRadiusVectorLength();
-        float secondRadiusVectorLength = o.getRadiusVectorLength();
-
-        return Float.compare(firstRadiusVectorLength, secondRadiusVectorLength);
+        return Double.compare(
+            getSquaredRadiusVectorLength(),
+            o.getSquaredRadiusVectorLength()
+        );
     }
 
     @Override
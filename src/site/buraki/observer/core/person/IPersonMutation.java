@@ -0,0 +1,28 @@
+package site.buraki.observer.core.person;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+
+/**
+ * Абстрактное изменение экземпляра бизнес-модели человека, выполняемое
+ * хранилищем.
+ *
+ * <p>Изменение получает копию экземпляра и вызывает её изменяющие
+ * методы ({@link Person#rename(String)}, {@link Person#goTo(Location)}
+ * и т.п.). Хранилище может удерживать при этом блокировку экземпляра
+ * или всего хранилища, поэтому изменение должно выполняться быстро и
+ * не обращаться к хранилищу.
+ *
+ * <p>Если экземпляр был заменён параллельно, хранилище повторяет
+ * изменение над новой копией, поэтому оно может выполниться больше
+ * одного раза и не должно иметь побочных эффектов, кроме изменения
+ * переданной копии.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepository#modify(long, IPersonMutation)
+ * @since 0.5.0
+ */
+@FunctionalInterface
+public interface IPersonMutation {
+
+    void apply(Person person) throws ValidationException;
+}
@@ -1,13 +1,21 @@
 package site.buraki.observer.core.person;
 
 import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.common.exceptions.core.ValidationException;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Абстрактное хранилище экземпляров бизнес-модели человека.
  *
+ * <p>Отсутствие или наличие экземпляра при изменении — ожидаемый
+ * исход, поэтому реализации определяют операции {@code try*},
+ * возвращающие {@link MutationResult}, а бросающие операции сводятся к
+ * ним и создают исключения без трассировки стека.
+ *
  * @author Расим "Buraki" Эминов
  * @see Person
  * @since 0.1.0
@@ -22,9 +30,46 @@ public interface IPersonRepository {
      * @throws DataIntegrityException Добавляемый экземпляр
      *     бизнес-модели человека уже содержится в хранилище.
      * @see Person
+     * @see #tryAdd(Person)
      * @since 0.1.0
      */
-    void add(Person newPerson) throws DataIntegrityException;
+    default void add(Person newPerson) throws DataIntegrityException {
+        if (!tryAdd(newPerson).isApplied()) {
+            throw new DataIntegrityException(
+                "Добавляемый экземпляр бизнес-модели человека уже содержится в хранилище",
+                null,
+                false
+            );
+        }
+    }
+
+    /**
+     * Добавление экземпляра бизнес-модели человека в хранилище без
+     * исключения при его наличии.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param newPerson Добавляемый экземпляр бизнес-модели человека.
+     * @return {@link MutationResult#APPLIED} или
+     *     {@link MutationResult#ALREADY_EXISTS}.
+     * @see Person
+     * @since 0.5.0
+     */
+    MutationResult tryAdd(Person newPerson);
+
+    /**
+     * Выделение уникального идентификатора для нового экземпляра
+     * бизнес-модели человека.
+     *
+     * <p>Выделенный идентификатор не совпадает ни с одним
+     * идентификатором, выданным ранее, в том числе до перезапуска
+     * приложения.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Уникальный идентификатор больше 0.
+     * @see Person
+     * @since 0.5.0
+     */
+    long nextID();
 
     /**
      * Получение экземпляра бизнес-модели человека из хранилища по его
@@ -49,6 +94,65 @@ public interface IPersonRepository {
      */
     List<Person> getAll();
 
+    /**
+     * Получение всех экземпляров бизнес-модели человека из хранилища,
+     * упорядоченных по удалённости локации от начала координат.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Экземпляры бизнес-модели человека в порядке
+     *     {@link Location#compareTo(Location)}.
+     * @see Person
+     * @see Location
+     * @since 0.5.0
+     */
+    List<Person> getAllSortedByLocation();
+
+    /**
+     * Получение экземпляров бизнес-модели человека из хранилища,
+     * локация которых удалена от центра не больше чем на заданное
+     * расстояние.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param center Центр.
+     * @param distance Максимальное расстояние, не меньше 0.
+     * @return Экземпляры бизнес-модели человека.
+     * @throws IllegalArgumentException Расстояние отрицательно.
+     * @see Person
+     * @see Coordinates
+     * @since 0.5.0
+     */
+    List<Person> getWithinDistance(Coordinates center, float distance);
+
+    /**
+     * Получение экземпляров бизнес-модели человека из хранилища,
+     * локация которых попадает в прямоугольный параллелепипед
+     * (границы включительно).
+     *
+     * @author Расим "Buraki" Эминов
+     * @param min Вершина с минимальными координатами.
+     * @param max Вершина с максимальными координатами.
+     * @return Экземпляры бизнес-модели человека.
+     * @see Person
+     * @see Coordinates
+     * @since 0.5.0
+     */
+    List<Person> getInBox(Coordinates min, Coordinates max);
+
+    /**
+     * Получение первых экземпляров бизнес-модели человека из хранилища
+     * в заданном порядке без сортировки всего содержимого.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param comparator Порядок, например из {@link PersonOrder}.
+     * @param limit Наибольшее число результатов.
+     * @return Экземпляры бизнес-модели человека в заданном порядке;
+     *     равные по нему — по возрастанию уникального идентификатора.
+     * @see Person
+     * @see PersonRanking
+     * @since 0.5.0
+     */
+    List<Person> getTop(Comparator<? super Person> comparator, int limit);
+
     /**
      * Получение количества экземпляров бизнес-модели человека в
      * хранилище.
@@ -68,9 +172,59 @@ public interface IPersonRepository {
      * @throws DataIntegrityException Обновляемый экземпляр
      *     бизнес-модели человека не содержится в хранилище.
      * @see Person
+     * @see #tryUpdate(Person)
      * @since 0.1.0
      */
-    void update(Person newPerson) throws DataIntegrityException;
+    default void update(Person newPerson) throws DataIntegrityException {
+        if (!tryUpdate(newPerson).isApplied()) {
+            throw new DataIntegrityException(
+                "Обновляемый экземпляр бизнес-модели человека не содержится в хранилище",
+                null,
+                false
+            );
+        }
+    }
+
+    /**
+     * Обновление экземпляра бизнес-модели человека в хранилище без
+     * исключения при его отсутствии.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param newPerson Экземпляр-заменитель бизнес-модели человека.
+     * @return {@link MutationResult#APPLIED} или
+     *     {@link MutationResult#NOT_FOUND}.
+     * @see Person
+     * @since 0.5.0
+     */
+    MutationResult tryUpdate(Person newPerson);
+
+    /**
+     * Изменение экземпляра бизнес-модели человека в хранилище.
+     *
+     * <p>Изменение применяется к копии содержащегося экземпляра, и
+     * параллельные изменения одного экземпляра сериализуются, поэтому
+     * не теряются, а экземпляры, полученные ранее, не меняются. Область
+     * блокировки — экземпляр, секция или всё хранилище — определяет
+     * реализация. Копия заменяет экземпляр, только если изменены
+     * поля; слушатели получают различающиеся поля через
+     * {@link IPersonRepositoryListener#onModify(Person, Person, Set)}.
+     *
+     * <pre>{@code
+     *     PersonModification modification = personRepository.modify(id, person -> person.gainWeight(1.5f));
+     * }</pre>
+     *
+     * @author Расим "Buraki" Эминов
+     * @param id Уникальный идентификатор.
+     * @param mutation Изменение без побочных эффектов; может
+     *     выполниться больше одного раза.
+     * @return Результат {@link MutationResult#APPLIED} с изменёнными
+     *     полями или {@link MutationResult#NOT_FOUND}.
+     * @throws ValidationException Изменение нарушает инварианты
+     *     бизнес-модели человека; хранилище не изменяется.
+     * @see PersonModification
+     * @since 0.5.0
+     */
+    PersonModification modify(long id, IPersonMutation mutation) throws ValidationException;
 
     /**
      * Удаление экземпляра бизнес-модели человека из хранилища по его
@@ -81,9 +235,31 @@ public interface IPersonRepository {
      * @throws DataIntegrityException Удаляемый экземпляр бизнес-модели
      *     человека не содержится в хранилище.
      * @see Person
+     * @see #tryRemove(long)
      * @since 0.1.0
      */
-    void removeByID(long id) throws DataIntegrityException;
+    default void removeByID(long id) throws DataIntegrityException {
+        if (!tryRemove(id).isApplied()) {
+            throw new DataIntegrityException(
+                "Удаляемый экземпляр бизнес-модели человека не содержится в хранилище",
+                null,
+                false
+            );
+        }
+    }
+
+    /**
+     * Удаление экземпляра бизнес-модели человека из хранилища по его
+     * уникальному идентификатору без исключения при его отсутствии.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param id Уникальный идентификатор.
+     * @return {@link MutationResult#APPLIED} или
+     *     {@link MutationResult#NOT_FOUND}.
+     * @see Person
+     * @since 0.5.0
+     */
+    MutationResult tryRemove(long id);
 
     /**
      * Удаление всех экземпляров бизнес-модели человека из хранилища.
@@ -93,4 +269,36 @@ public interface IPersonRepository {
      * @since 0.1.0
      */
     void removeAll();
+
+    /**
+     * Получение версии хранилища.
+     *
+     * <p>Версия увеличивается при каждом изменении хранилища, поэтому
+     * равенство версий означает неизменность его содержимого.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Версия хранилища.
+     * @since 0.5.0
+     */
+    long getVersion();
+
+    /**
+     * Подписка слушателя на изменения хранилища.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param listener Слушатель.
+     * @see IPersonRepositoryListener
+     * @since 0.5.0
+     */
+    void addListener(IPersonRepositoryListener listener);
+
+    /**
+     * Отписка слушателя от изменений хранилища.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param listener Слушатель.
+     * @see IPersonRepositoryListener
+     * @since 0.5.0
+     */
+    void removeListener(IPersonRepositoryListener listener);
 }
@@ -0,0 +1,49 @@
+package site.buraki.observer.core.person;
+
+import java.util.Set;
+
+/**
+ * Абстрактный слушатель изменений хранилища экземпляров
+ * бизнес-модели человека.
+ *
+ * <p>Методы вызываются хранилищем после применения изменения и до
+ * того, как изменение станет видно следующим изменяющим операциям,
+ * поэтому должны выполняться быстро и не обращаться к хранилищу на
+ * запись.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepository#addListener(IPersonRepositoryListener)
+ * @since 0.5.0
+ */
+public interface IPersonRepositoryListener {
+
+    default void onAdd(Person newPerson) {
+    }
+
+    default void onUpdate(Person oldPerson, Person newPerson) {
+    }
+
+    /**
+     * Оповещение об изменении экземпляра через
+     * {@link IPersonRepository#modify(long, IPersonMutation)}.
+     *
+     * <p>По умолчанию сводится к {@link #onUpdate(Person, Person)};
+     * слушатели с индексами по полям переопределяют его, чтобы
+     * обновлять только затронутые индексы.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param oldPerson Экземпляр до изменения.
+     * @param newPerson Экземпляр после изменения.
+     * @param changedFields Непустое множество изменённых полей.
+     * @since 0.5.0
+     */
+    default void onModify(Person oldPerson, Person newPerson, Set<PersonField> changedFields) {
+        onUpdate(oldPerson, newPerson);
+    }
+
+    default void onRemove(Person oldPerson) {
+    }
+
+    default void onRemoveAll() {
+    }
+}
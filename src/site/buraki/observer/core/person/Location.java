@@ -1,9 +1,7 @@
 package site.buraki.observer.core.person;
 
 import site.buraki.observer.common.exceptions.core.ValidationException;
-
-import java.util.ArrayList;
-import java.util.List;
+import site.buraki.observer.common.validation.InvariantSet;
 
 /**
  * Бизнес-модель локации в трёхмерном пространстве.
@@ -44,6 +42,17 @@ import java.util.List;
  */
 public class Location implements Comparable<Location> {
 
+    static final InvariantSet INVARIANTS = new InvariantSet(
+        "Нарушены инварианты бизнес-модели локации в трёхмерном пространстве",
+        "Название заполнено",
+        "Длина названия не больше 512 символов",
+        "Координаты в трёхмерном пространстве заполнены"
+    );
+
+    static final int NAME_FILLED = 1;
+    static final int NAME_LENGTH_NOT_GREATER_THAN_MAX = 1 << 1;
+    static final int COORDINATES_FILLED = 1 << 2;
+
     private final String name;
     private final Coordinates coordinates;
 
@@ -59,28 +68,56 @@ public class Location implements Comparable<Location> {
      * @since 0.1.0
      */
     public Location(String name, Coordinates coordinates) throws ValidationException {
-        List<String> brokenInvariants = new ArrayList<>(2);
+        INVARIANTS.check(validate(name, coordinates != null));
+
+        this.name = name;
+        this.coordinates = coordinates;
+    }
+
+    private Location(Location source, String name) {
+        this.name = name;
+        this.coordinates = source.coordinates;
+    }
+
+    /**
+     * Копирование локации с заменой строки названия на равную ей.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param equalName Строка, равная названию.
+     * @return Копия локации.
+     * @see LocationPool
+     * @since 0.5.0
+     */
+    Location withEqualName(String equalName) {
+        return new Location(this, equalName);
+    }
+
+    /**
+     * Вычисление маски нарушенных инвариантов бизнес-модели локации в
+     * трёхмерном пространстве.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param name Название.
+     * @param hasCoordinates Координаты в трёхмерном пространстве
+     *     заполнены.
+     * @return Маска нарушенных инвариантов относительно
+     *     {@link #INVARIANTS}.
+     * @since 0.5.0
+     */
+    static int validate(String name, boolean hasCoordinates) {
+        int brokenMask = 0;
 
         if (name == null) {
-            brokenInvariants.add("Название заполнено");
+            brokenMask |= NAME_FILLED;
         }
         else if (name.length() > 512) {
-            brokenInvariants.add("Длина названия не больше 512 символов");
-        }
-        if (coordinates == null) {
-            brokenInvariants.add("Координаты в трёхмерном пространстве заполнены");
+            brokenMask |= NAME_LENGTH_NOT_GREATER_THAN_MAX;
         }
-        if (!brokenInvariants.isEmpty()) {
-            throw new ValidationException(
-                ValidationException.createDetailedMessage(
-                    "Нарушены инварианты бизнес-модели локации в трёхмерном пространстве",
-                    brokenInvariants
-                )
-            );
+        if (!hasCoordinates) {
+            brokenMask |= COORDINATES_FILLED;
         }
 
-        this.name = name;
-        this.coordinates = coordinates;
+        return brokenMask;
     }
 
     public String getName() {
@@ -91,6 +128,11 @@ public class Location implements Comparable<Location> {
         return coordinates;
     }
 
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + coordinates.hashCode();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,48 @@
+package site.buraki.observer.core.person;
+
+import site.buraki.observer.common.interning.WeakInterner;
+
+/**
+ * Пул канонических экземпляров бизнес-модели локации в трёхмерном
+ * пространстве и их названий.
+ *
+ * <p>Равные локации разделяют один экземпляр вместе с его
+ * координатами, а локации с одинаковым названием и разными
+ * координатами разделяют строку названия.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see Location
+ * @see WeakInterner
+ * @since 0.5.0
+ */
+public class LocationPool {
+
+    private static final WeakInterner<Location> locations = new WeakInterner<>();
+    private static final WeakInterner<String> names = new WeakInterner<>();
+
+    /**
+     * Получение канонического экземпляра локации.
+     *
+     * <p>Экземпляры с незаполненными названием или координатами
+     * (например, полученные при десериализации невалидных данных)
+     * возвращаются без изменений.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param location Локация.
+     * @return Равная ей каноническая локация.
+     * @since 0.5.0
+     */
+    public static Location intern(Location location) {
+        if (location == null || location.getName() == null || location.getCoordinates() == null) {
+            return location;
+        }
+
+        String name = names.intern(location.getName());
+
+        if (name != location.getName()) {
+            location = location.withEqualName(name);
+        }
+
+        return locations.intern(location);
+    }
+}
@@ -0,0 +1,38 @@
+package site.buraki.observer.core.person;
+
+/**
+ * Перечисление результатов изменяющих операций хранилища экземпляров
+ * бизнес-модели человека, не бросающих исключений.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepository#tryAdd(Person)
+ * @see IPersonRepository#tryUpdate(Person)
+ * @see IPersonRepository#tryRemove(long)
+ * @since 0.5.0
+ */
+public enum MutationResult {
+
+    /**
+     * Изменение применено.
+     */
+    APPLIED,
+
+    /**
+     * Добавляемый экземпляр уже содержится в хранилище.
+     */
+    ALREADY_EXISTS,
+
+    /**
+     * Обновляемый или удаляемый экземпляр не содержится в хранилище.
+     */
+    NOT_FOUND;
+
+    public boolean isApplied() {
+        return this == APPLIED;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "." + name();
+    }
+}
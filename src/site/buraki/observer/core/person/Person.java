@@ -1,11 +1,10 @@
 package site.buraki.observer.core.person;
 
 import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.common.validation.InvariantSet;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Бизнес-модель человека.
@@ -68,6 +67,27 @@ import java.util.List;
  */
 public class Person implements Comparable<Person> {
 
+    static final InvariantSet INVARIANTS = new InvariantSet(
+        "Нарушены инварианты бизнес-модели человека",
+        "Уникальный идентификатор больше 0",
+        "Имя заполнено",
+        "Дата создания заполнена",
+        "Цвет волос заполнен",
+        "Цвет глаз заполнен",
+        "Рост больше 0",
+        "Вес больше 0",
+        "Локация в трёхмерном пространстве заполнена"
+    );
+
+    static final int ID_POSITIVE = 1;
+    static final int NAME_FILLED = 1 << 1;
+    static final int CREATED_AT_FILLED = 1 << 2;
+    static final int HAIR_COLOR_FILLED = 1 << 3;
+    static final int EYE_COLOR_FILLED = 1 << 4;
+    static final int HEIGHT_POSITIVE = 1 << 5;
+    static final int WEIGHT_POSITIVE = 1 << 6;
+    static final int LOCATION_FILLED = 1 << 7;
+
     private final long id;
     private String name;
     private final LocalDateTime createdAt;
@@ -106,49 +126,99 @@ public class Person implements Comparable<Person> {
             float weight,
             Location location
     ) throws ValidationException {
-        List<String> brokenInvariants = new ArrayList<>(8);
+        INVARIANTS.check(
+            validate(id, name, createdAt, hairColor, eyeColor, height, weight, location != null)
+        );
+
+        this.id = id;
+        this.name = name;
+        this.createdAt = createdAt;
+        this.hairColor = hairColor;
+        this.eyeColor = eyeColor;
+        this.height = height;
+        this.weight = weight;
+        this.location = location;
+    }
+
+    private Person(Person source) {
+        this.id = source.id;
+        this.name = source.name;
+        this.createdAt = source.createdAt;
+        this.hairColor = source.hairColor;
+        this.eyeColor = source.eyeColor;
+        this.height = source.height;
+        this.weight = source.weight;
+        this.location = source.location;
+    }
+
+    /**
+     * Копирование экземпляра бизнес-модели человека без повторной
+     * проверки инвариантов. Локация неизменяема и разделяется с
+     * оригиналом.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Копия.
+     * @see IPersonRepository#modify(long, IPersonMutation)
+     * @since 0.5.0
+     */
+    public Person copy() {
+        return new Person(this);
+    }
+
+    /**
+     * Вычисление маски нарушенных инвариантов бизнес-модели человека.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param id Уникальный идентификатор.
+     * @param name Имя.
+     * @param createdAt Дата создания.
+     * @param hairColor Цвет волос.
+     * @param eyeColor Цвет глаз.
+     * @param height Рост.
+     * @param weight Вес.
+     * @param hasLocation Локация в трёхмерном пространстве заполнена.
+     * @return Маска нарушенных инвариантов относительно
+     *     {@link #INVARIANTS}.
+     * @since 0.5.0
+     */
+    static int validate(
+            long id,
+            String name,
+            LocalDateTime createdAt,
+            HairColor hairColor,
+            EyeColor eyeColor,
+            float height,
+            float weight,
+            boolean hasLocation
+    ) {
+        int brokenMask = 0;
 
         if (id <= 0) {
-            brokenInvariants.add("Уникальный идентификатор больше 0");
+            brokenMask |= ID_POSITIVE;
         }
         if (name == null || name.isBlank()) {
-            brokenInvariants.add("Имя заполнено");
+            brokenMask |= NAME_FILLED;
         }
         if (createdAt == null) {
-            brokenInvariants.add("Дата создания заполнена");
+            brokenMask |= CREATED_AT_FILLED;
         }
         if (hairColor == null) {
-            brokenInvariants.add("Цвет волос заполнен");
+            brokenMask |= HAIR_COLOR_FILLED;
         }
         if (eyeColor == null) {
-            brokenInvariants.add("Цвет глаз заполнен");
+            brokenMask |= EYE_COLOR_FILLED;
         }
         if (height <= 0) {
-            brokenInvariants.add("Рост больше 0");
+            brokenMask |= HEIGHT_POSITIVE;
         }
         if (weight <= 0) {
-            brokenInvariants.add("Вес больше 0");
+            brokenMask |= WEIGHT_POSITIVE;
         }
-        if (location == null) {
-            brokenInvariants.add("Локация в трёхмерном пространстве заполнена");
-        }
-        if (!brokenInvariants.isEmpty()) {
-            throw new ValidationException(
-                ValidationException.createDetailedMessage(
-                    "Нарушены инварианты бизнес-модели человека",
-                    brokenInvariants
-                )
-            );
+        if (!hasLocation) {
+            brokenMask |= LOCATION_FILLED;
         }
 
-        this.id = id;
-        this.name = name;
-        this.createdAt = createdAt;
-        this.hairColor = hairColor;
-        this.eyeColor = eyeColor;
-        this.height = height;
-        this.weight = weight;
-        this.location = location;
+        return brokenMask;
     }
 
     public long getID() {
@@ -169,19 +239,7 @@ public class Person implements Comparable<Person> {
      * @since 0.1.0
      */
     public void rename(String newName) throws ValidationException {
-        List<String> brokenInvariants = new ArrayList<>(1);
-
-        if (newName == null || newName.isBlank()) {
-            brokenInvariants.add("Имя заполнено");
-        }
-        if (!brokenInvariants.isEmpty()) {
-            throw new ValidationException(
-                ValidationException.createDetailedMessage(
-                    "Нарушены инварианты бизнес-модели человека",
-                    brokenInvariants
-                )
-            );
-        }
+        INVARIANTS.check(newName == null || newName.isBlank() ? NAME_FILLED : 0);
 
         name = newName;
     }
@@ -205,19 +263,7 @@ public class Person implements Comparable<Person> {
      * @since 0.1.0
      */
     public void recolorHair(HairColor newHairColor) throws ValidationException {
-        List<String> brokenInvariants = new ArrayList<>(1);
-
-        if (newHairColor == null) {
-            brokenInvariants.add("Цвет волос заполнен");
-        }
-        if (!brokenInvariants.isEmpty()) {
-            throw new ValidationException(
-                ValidationException.createDetailedMessage(
-                    "Нарушены инварианты бизнес-модели человека",
-                    brokenInvariants
-                )
-            );
-        }
+        INVARIANTS.check(newHairColor == null ? HAIR_COLOR_FILLED : 0);
 
         hairColor = newHairColor;
     }
@@ -282,19 +328,7 @@ public class Person implements Comparable<Person> {
             throw new IllegalArgumentException("Неотрицательное уменьшение веса");
         }
 
-        List<String> brokenInvariants = new ArrayList<>(1);
-
-        if (weight < -delta) {
-            brokenInvariants.add("Вес больше 0");
-        }
-        if (!brokenInvariants.isEmpty()) {
-            throw new ValidationException(
-                ValidationException.createDetailedMessage(
-                    "Нарушены инварианты бизнес-модели человека",
-                    brokenInvariants
-                )
-            );
-        }
+        INVARIANTS.check(weight < -delta ? WEIGHT_POSITIVE : 0);
 
         weight += delta;
     }
@@ -307,29 +341,20 @@ public class Person implements Comparable<Person> {
      * Перемещение экземпляра бизнес-модели человека на новую локацию
      * в трёхмерном пространстве.
      *
+     * <p>Сохраняется каноническая локация из {@link LocationPool}.
+     *
      * @author Расим "Buraki" Эминов
      * @param newLocation Новая локация.
      * @throws ValidationException Нарушены инварианты бизнес-модели
      *     человека.
      * @see Location
+     * @see LocationPool
      * @since 0.1.0
      */
     public void goTo(Location newLocation) throws ValidationException {
-        List<String> brokenInvariants = new ArrayList<>(1);
-
-        if (newLocation == null) {
-            brokenInvariants.add("Локация в трёхмерном пространстве заполнена");
-        }
-        if (!brokenInvariants.isEmpty()) {
-            throw new ValidationException(
-                ValidationException.createDetailedMessage(
-                    "Нарушены инварианты бизнес-модели человека",
-                    brokenInvariants
-                )
-            );
-        }
+        INVARIANTS.check(newLocation == null ? LOCATION_FILLED : 0);
 
-        location = newLocation;
+        location = LocationPool.intern(newLocation);
     }
 
     @Override
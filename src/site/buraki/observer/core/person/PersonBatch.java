@@ -0,0 +1,261 @@
+package site.buraki.observer.core.person;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.common.validation.BatchValidationReport;
+import site.buraki.observer.common.validation.InvalidRecord;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Пакет данных бизнес-модели человека в поколоночном представлении.
+ *
+ * <p>Предназначен для массового импорта: данные записей хранятся в
+ * отдельных массивах по полям, а {@link #validate()} проходит по
+ * каждой колонке один раз, накапливая маски нарушенных инвариантов
+ * всех записей. Сообщения строятся только для невалидных записей.
+ *
+ * <pre>{@code
+ *     PersonBatch batch = new PersonBatch(people.size());
+ *
+ *     for (Person person : people) {
+ *         batch.append(person);
+ *     }
+ *
+ *     BatchValidationReport report = batch.validate();
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see Person
+ * @see BatchValidationReport
+ * @since 0.5.0
+ */
+public class PersonBatch {
+
+    private static final int LOCATION_SHIFT = Person.INVARIANTS.getSize();
+    private static final int COORDINATES_SHIFT = LOCATION_SHIFT + Location.INVARIANTS.getSize();
+    private static final int PERSON_MASK = (1 << LOCATION_SHIFT) - 1;
+    private static final int LOCATION_MASK = (1 << Location.INVARIANTS.getSize()) - 1;
+    private static final int COORDINATES_MASK = (1 << Coordinates.INVARIANTS.getSize()) - 1;
+
+    private long[] ids;
+    private String[] names;
+    private LocalDateTime[] createdAts;
+    private HairColor[] hairColors;
+    private EyeColor[] eyeColors;
+    private float[] heights;
+    private float[] weights;
+    private boolean[] hasLocations;
+    private String[] locationNames;
+    private boolean[] hasCoordinates;
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private int size;
+
+    public PersonBatch(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+
+        ids = new long[capacity];
+        names = new String[capacity];
+        createdAts = new LocalDateTime[capacity];
+        hairColors = new HairColor[capacity];
+        eyeColors = new EyeColor[capacity];
+        heights = new float[capacity];
+        weights = new float[capacity];
+        hasLocations = new boolean[capacity];
+        locationNames = new String[capacity];
+        hasCoordinates = new boolean[capacity];
+        xs = new float[capacity];
+        ys = new float[capacity];
+        zs = new float[capacity];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Добавление записи из экземпляра, полученного в обход
+     * конструктора (например, при десериализации).
+     *
+     * @author Расим "Buraki" Эминов
+     * @param person Экземпляр бизнес-модели человека.
+     * @since 0.5.0
+     */
+    public void append(Person person) {
+        Location location = person.getLocation();
+        Coordinates coordinates = location == null ? null : location.getCoordinates();
+
+        append(
+            person.getID(),
+            person.getName(),
+            person.getCreatedAt(),
+            person.getHairColor(),
+            person.getEyeColor(),
+            person.getHeight(),
+            person.getWeight(),
+            location != null,
+            location == null ? null : location.getName(),
+            coordinates != null,
+            coordinates == null ? 0 : coordinates.getX(),
+            coordinates == null ? 0 : coordinates.getY(),
+            coordinates == null ? 0 : coordinates.getZ()
+        );
+    }
+
+    /**
+     * Добавление записи из сырых значений полей.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param id Уникальный идентификатор.
+     * @param name Имя.
+     * @param createdAt Дата создания.
+     * @param hairColor Цвет волос.
+     * @param eyeColor Цвет глаз.
+     * @param height Рост.
+     * @param weight Вес.
+     * @param hasLocation Локация заполнена.
+     * @param locationName Название локации.
+     * @param hasCoordinates Координаты локации заполнены.
+     * @param x Значение абсциссы.
+     * @param y Значение ординаты.
+     * @param z Значение аппликаты.
+     * @since 0.5.0
+     */
+    public void append(
+            long id,
+            String name,
+            LocalDateTime createdAt,
+            HairColor hairColor,
+            EyeColor eyeColor,
+            float height,
+            float weight,
+            boolean hasLocation,
+            String locationName,
+            boolean hasCoordinates,
+            float x,
+            float y,
+            float z
+    ) {
+        if (size == ids.length) {
+            grow();
+        }
+
+        ids[size] = id;
+        names[size] = name;
+        createdAts[size] = createdAt;
+        hairColors[size] = hairColor;
+        eyeColors[size] = eyeColor;
+        heights[size] = height;
+        weights[size] = weight;
+        hasLocations[size] = hasLocation;
+        locationNames[size] = locationName;
+        this.hasCoordinates[size] = hasCoordinates;
+        xs[size] = x;
+        ys[size] = y;
+        zs[size] = z;
+        size++;
+    }
+
+    /**
+     * Валидация всех записей пакета за один проход по каждой колонке.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Отчёт со всеми невалидными записями.
+     * @since 0.5.0
+     */
+    public BatchValidationReport validate() {
+        int[] brokenMasks = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            if (ids[i] <= 0) brokenMasks[i] |= Person.ID_POSITIVE;
+        }
+        for (int i = 0; i < size; i++) {
+            if (names[i] == null || names[i].isBlank()) brokenMasks[i] |= Person.NAME_FILLED;
+        }
+        for (int i = 0; i < size; i++) {
+            if (createdAts[i] == null) brokenMasks[i] |= Person.CREATED_AT_FILLED;
+        }
+        for (int i = 0; i < size; i++) {
+            if (hairColors[i] == null) brokenMasks[i] |= Person.HAIR_COLOR_FILLED;
+        }
+        for (int i = 0; i < size; i++) {
+            if (eyeColors[i] == null) brokenMasks[i] |= Person.EYE_COLOR_FILLED;
+        }
+        for (int i = 0; i < size; i++) {
+            if (heights[i] <= 0) brokenMasks[i] |= Person.HEIGHT_POSITIVE;
+        }
+        for (int i = 0; i < size; i++) {
+            if (weights[i] <= 0) brokenMasks[i] |= Person.WEIGHT_POSITIVE;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!hasLocations[i]) {
+                brokenMasks[i] |= Person.LOCATION_FILLED;
+            }
+            else {
+                brokenMasks[i] |= Location.validate(locationNames[i], hasCoordinates[i]) << LOCATION_SHIFT;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (hasLocations[i] && hasCoordinates[i]) {
+                brokenMasks[i] |= Coordinates.validate(xs[i], ys[i], zs[i]) << COORDINATES_SHIFT;
+            }
+        }
+
+        List<InvalidRecord> invalidRecords = new ArrayList<>();
+
+        for (int i = 0; i < size; i++) {
+            if (brokenMasks[i] != 0) {
+                invalidRecords.add(new InvalidRecord(i, createException(brokenMasks[i])));
+            }
+        }
+
+        return new BatchValidationReport(size, invalidRecords);
+    }
+
+    private static ValidationException createException(int brokenMask) {
+        List<String> brokenInvariants = new ArrayList<>(Integer.bitCount(brokenMask));
+
+        Person.INVARIANTS.describeTo(brokenMask & PERSON_MASK, brokenInvariants);
+        Location.INVARIANTS.describeTo(
+            (brokenMask >>> LOCATION_SHIFT) & LOCATION_MASK,
+            brokenInvariants
+        );
+        Coordinates.INVARIANTS.describeTo(
+            (brokenMask >>> COORDINATES_SHIFT) & COORDINATES_MASK,
+            brokenInvariants
+        );
+
+        // Невалидные записи пакета ожидаемы, и трассировка стека
+        // указывала бы лишь на этот метод.
+        return new ValidationException(
+            ValidationException.createDetailedMessage(
+                Person.INVARIANTS.getMainMessage(),
+                brokenInvariants
+            ),
+            null,
+            false
+        );
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        createdAts = Arrays.copyOf(createdAts, capacity);
+        hairColors = Arrays.copyOf(hairColors, capacity);
+        eyeColors = Arrays.copyOf(eyeColors, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        hasLocations = Arrays.copyOf(hasLocations, capacity);
+        locationNames = Arrays.copyOf(locationNames, capacity);
+        hasCoordinates = Arrays.copyOf(hasCoordinates, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+    }
+}
@@ -0,0 +1,57 @@
+package site.buraki.observer.core.person;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Перечисление изменяемых полей бизнес-модели человека.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonModification
+ * @since 0.5.0
+ */
+public enum PersonField {
+
+    NAME,
+    HAIR_COLOR,
+    HEIGHT,
+    WEIGHT,
+    LOCATION;
+
+    /**
+     * Сравнение изменяемых полей двух состояний одного экземпляра
+     * бизнес-модели человека.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param oldPerson Состояние до изменения.
+     * @param newPerson Состояние после изменения.
+     * @return Различающиеся поля.
+     * @since 0.5.0
+     */
+    public static Set<PersonField> changedBetween(Person oldPerson, Person newPerson) {
+        EnumSet<PersonField> changedFields = EnumSet.noneOf(PersonField.class);
+
+        if (!oldPerson.getName().equals(newPerson.getName())) {
+            changedFields.add(NAME);
+        }
+        if (oldPerson.getHairColor() != newPerson.getHairColor()) {
+            changedFields.add(HAIR_COLOR);
+        }
+        if (Float.compare(oldPerson.getHeight(), newPerson.getHeight()) != 0) {
+            changedFields.add(HEIGHT);
+        }
+        if (Float.compare(oldPerson.getWeight(), newPerson.getWeight()) != 0) {
+            changedFields.add(WEIGHT);
+        }
+        if (!oldPerson.getLocation().equals(newPerson.getLocation())) {
+            changedFields.add(LOCATION);
+        }
+
+        return changedFields;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "." + name();
+    }
+}
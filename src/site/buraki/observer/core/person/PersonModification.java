@@ -0,0 +1,96 @@
+package site.buraki.observer.core.person;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Результат изменения экземпляра бизнес-модели человека хранилищем.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepository#modify(long, IPersonMutation)
+ * @since 0.5.0
+ */
+public class PersonModification {
+
+    private static final PersonModification NOT_FOUND = new PersonModification(
+        MutationResult.NOT_FOUND,
+        null,
+        Collections.emptySet()
+    );
+
+    private final MutationResult result;
+    private final Person person;
+    private final Set<PersonField> changedFields;
+
+    private PersonModification(MutationResult result, Person person, Set<PersonField> changedFields) {
+        this.result = result;
+        this.person = person;
+        this.changedFields = changedFields;
+    }
+
+    /**
+     * Применение изменения к копии экземпляра бизнес-модели человека.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param oldPerson Содержащийся в хранилище экземпляр; не
+     *     изменяется.
+     * @param mutation Изменение.
+     * @return Результат с изменённой копией и различающимися полями.
+     * @throws ValidationException Изменение нарушает инварианты
+     *     бизнес-модели человека.
+     * @since 0.5.0
+     */
+    public static PersonModification of(Person oldPerson, IPersonMutation mutation) throws ValidationException {
+        Person newPerson = oldPerson.copy();
+
+        mutation.apply(newPerson);
+
+        return new PersonModification(
+            MutationResult.APPLIED,
+            newPerson,
+            Collections.unmodifiableSet(PersonField.changedBetween(oldPerson, newPerson))
+        );
+    }
+
+    public static PersonModification notFound() {
+        return NOT_FOUND;
+    }
+
+    public MutationResult getResult() {
+        return result;
+    }
+
+    /**
+     * Получение экземпляра после изменения.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Экземпляр после изменения или {@code null}, если
+     *     экземпляр не содержится в хранилище.
+     * @since 0.5.0
+     */
+    public Person getPerson() {
+        return person;
+    }
+
+    public Set<PersonField> getChangedFields() {
+        return changedFields;
+    }
+
+    public boolean isApplied() {
+        return result.isApplied();
+    }
+
+    /**
+     * Изменение применено и изменило хотя бы одно поле; иначе
+     * хранилище, его версия и слушатели не затрагиваются.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Изменены поля.
+     * @since 0.5.0
+     */
+    public boolean hasChanges() {
+        return !changedFields.isEmpty();
+    }
+}
@@ -0,0 +1,46 @@
+package site.buraki.observer.core.person;
+
+import java.util.Comparator;
+
+/**
+ * Перечисление распространённых порядков экземпляров бизнес-модели
+ * человека.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonRanking
+ * @see IPersonRepository#getTop(Comparator, int)
+ * @since 0.5.0
+ */
+public enum PersonOrder {
+
+    /**
+     * По имени, как {@link Person#compareTo(Person)}.
+     */
+    NAME(Comparator.naturalOrder()),
+
+    /**
+     * По удалённости локации от начала координат, как
+     * {@link Location#compareTo(Location)}.
+     */
+    DISTANCE_TO_ORIGIN(Comparator.comparing(Person::getLocation)),
+
+    /**
+     * По убыванию роста.
+     */
+    HEIGHT_DESCENDING(Comparator.comparingDouble(Person::getHeight).reversed());
+
+    private final Comparator<Person> comparator;
+
+    PersonOrder(Comparator<Person> comparator) {
+        this.comparator = comparator;
+    }
+
+    public Comparator<Person> getComparator() {
+        return comparator;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "." + name();
+    }
+}
@@ -0,0 +1,84 @@
+package site.buraki.observer.core.person;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Выбор первых экземпляров бизнес-модели человека в заданном порядке
+ * без полной сортировки.
+ *
+ * <p>Кандидаты отбираются ограниченной кучей из {@code limit}
+ * элементов, на вершине которой находится худший из отобранных:
+ * экземпляр, не лучше вершины, отбрасывается одним сравнением, поэтому
+ * выбор занимает {@code O(n log k)} времени и {@code O(k)} памяти.
+ * Равные по компаратору экземпляры упорядочиваются по уникальному
+ * идентификатору, чтобы результат не зависел от порядка обхода.
+ *
+ * <pre>{@code
+ *     List<Person> tallest = PersonRanking.top(people, PersonOrder.HEIGHT_DESCENDING.getComparator(), 10);
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonOrder
+ * @since 0.5.0
+ */
+public class PersonRanking {
+
+    private PersonRanking() {
+    }
+
+    /**
+     * Выбор первых экземпляров.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param people Экземпляры бизнес-модели человека.
+     * @param comparator Порядок.
+     * @param limit Наибольшее число результатов.
+     * @return Не больше {@code limit} экземпляров в заданном порядке.
+     * @since 0.5.0
+     */
+    public static List<Person> top(Iterable<Person> people, Comparator<? super Person> comparator, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        Comparator<Person> order = totalOrder(comparator);
+        PriorityQueue<Person> heap = new PriorityQueue<>(Math.min(limit, 1024), order.reversed());
+
+        for (Person person : people) {
+            if (heap.size() < limit) {
+                heap.add(person);
+            }
+            else if (order.compare(person, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(person);
+            }
+        }
+
+        List<Person> result = new ArrayList<>(heap);
+
+        result.sort(order);
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Дополнение порядка сравнением уникальных идентификаторов.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param comparator Порядок.
+     * @return Порядок, различающий любые два экземпляра с разными
+     *     идентификаторами.
+     * @since 0.5.0
+     */
+    public static Comparator<Person> totalOrder(Comparator<? super Person> comparator) {
+        return (left, right) -> {
+            int comparison = comparator.compare(left, right);
+
+            return comparison != 0 ? comparison : Long.compare(left.getID(), right.getID());
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package site.buraki.observer.infrastructure.caching;
+
+/**
+ * JMX-интерфейс метрик кэша хранилища.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see CachingPersonRepository
+ * @since 0.5.0
+ */
+public interface CacheMetricsMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getEvictionCount();
+
+    long getRejectionCount();
+
+    int getCachedCount();
+
+    int getMaximumSize();
+
+    long getPendingWriteCount();
+
+    String dump();
+}
@@ -0,0 +1,746 @@
+package site.buraki.observer.infrastructure.caching;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonModification;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Декоратор хранилища, кэширующий популярные экземпляры бизнес-модели
+ * человека для {@link #getByID(long)}.
+ *
+ * <p><b>Политика</b> — W-TinyLFU: новые записи попадают в окно LRU
+ * размером {@value #WINDOW_PERCENT}% кэша, а вытесненные из окна
+ * допускаются в основную сегментированную LRU-область, только если
+ * оценка частоты обращений к ним в {@link FrequencySketch} выше, чем у
+ * жертвы основной области. Повторное обращение переводит запись из
+ * испытательного сегмента в защищённый ({@value #PROTECTED_PERCENT}%
+ * основной области). Размер кэша ограничен числом записей.
+ *
+ * <p><b>Чтения</b> выполняются через {@link ConcurrentHashMap} без
+ * блокировок. Обращения записываются в {@link ReadBuffer} с потерями и
+ * применяются к политике пакетами тем потоком, которому удалось
+ * захватить блокировку политики без ожидания.
+ *
+ * <p><b>Согласованность</b>: кэш подписан на слушателей хранилища и
+ * обновляет или удаляет записи при любых изменениях хранилища, в том
+ * числе выполненных в обход кэша. Значение, прочитанное из хранилища
+ * до конкурентного изменения, в кэш не попадает.
+ *
+ * <p><b>Запись</b> выполняется согласно {@link WritePolicy}. В режиме
+ * {@link WritePolicy#WRITE_BEHIND} обновления и удаления сначала
+ * попадают в таблицу ожидающих записей, которую читатели проверяют
+ * раньше кэша, и применяются фоновым потоком по порядку. Существование
+ * экземпляра проверяется на момент постановки в очередь, а ошибки
+ * фонового применения выводятся в {@code System.err}. Добавление,
+ * удаление всех экземпляров и запросы ко всем экземплярам сначала
+ * дожидаются применения очереди. Собственная версия декоратора
+ * увеличивается при постановке изменения в очередь и при каждом
+ * изменении хранилища, поэтому ожидающие записи сразу меняют версию, и
+ * кэши ответов, сверяющиеся с ней, не отдают устаревших данных.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see WritePolicy
+ * @see IPersonRepository
+ * @since 0.5.0
+ */
+public class CachingPersonRepository implements IPersonRepository, CacheMetricsMXBean, Closeable {
+
+    private static final String JMX_DOMAIN = "site.buraki.observer";
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private final IPersonRepository personRepository;
+    private final WritePolicy writePolicy;
+    private final int maximumSize;
+    private final int maximumWindowSize;
+    private final int maximumProtectedSize;
+
+    private final ConcurrentHashMap<Long, Node> nodes = new ConcurrentHashMap<>();
+    private final ReadBuffer<Node> readBuffer = new ReadBuffer<>();
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final NodeDeque window = new NodeDeque();
+    private final NodeDeque probation = new NodeDeque();
+    private final NodeDeque protectedSegment = new NodeDeque();
+    private int windowSize;
+    private int protectedSize;
+    private volatile long invalidationCount;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder rejectionCount = new LongAdder();
+
+    private final ConcurrentHashMap<Long, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<PendingWrite> writeQueue = new LinkedBlockingQueue<>();
+    private final ReentrantLock writeBehindLock = new ReentrantLock();
+    private final Thread writeBehindThread;
+    private final AtomicLong version;
+
+    private final IPersonRepositoryListener invalidationListener = new IPersonRepositoryListener() {
+
+        @Override
+        public void onAdd(Person newPerson) {
+            version.incrementAndGet();
+        }
+
+        @Override
+        public void onUpdate(Person oldPerson, Person newPerson) {
+            version.incrementAndGet();
+
+            policyLock.lock();
+            try {
+                invalidationCount++;
+
+                Node node = nodes.get(newPerson.getID());
+
+                if (node != null) {
+                    node.value = newPerson;
+                }
+            }
+            finally {
+                policyLock.unlock();
+            }
+        }
+
+        @Override
+        public void onRemove(Person oldPerson) {
+            version.incrementAndGet();
+
+            policyLock.lock();
+            try {
+                invalidationCount++;
+
+                Node node = nodes.get(oldPerson.getID());
+
+                if (node != null) {
+                    unlink(node);
+                }
+            }
+            finally {
+                policyLock.unlock();
+            }
+        }
+
+        @Override
+        public void onRemoveAll() {
+            version.incrementAndGet();
+
+            policyLock.lock();
+            try {
+                invalidationCount++;
+
+                for (Node node : nodes.values()) {
+                    unlink(node);
+                }
+            }
+            finally {
+                policyLock.unlock();
+            }
+        }
+    };
+
+    /**
+     * Конструктор кэширующего декоратора.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @param maximumSize Наибольшее число кэшируемых экземпляров.
+     * @param writePolicy Способ передачи изменений в хранилище.
+     * @since 0.5.0
+     */
+    public CachingPersonRepository(IPersonRepository personRepository, int maximumSize, WritePolicy writePolicy) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным");
+        }
+
+        int maximumMainSize = maximumSize - Math.max(1, maximumSize * WINDOW_PERCENT / 100);
+
+        this.personRepository = personRepository;
+        this.writePolicy = writePolicy;
+        this.maximumSize = maximumSize;
+        this.maximumWindowSize = maximumSize - maximumMainSize;
+        this.maximumProtectedSize = maximumMainSize * PROTECTED_PERCENT / 100;
+        this.sketch = new FrequencySketch(maximumSize);
+        this.version = new AtomicLong(personRepository.getVersion());
+
+        personRepository.addListener(invalidationListener);
+
+        if (writePolicy == WritePolicy.WRITE_BEHIND) {
+            writeBehindThread = new Thread(this::applyPendingWrites, "person-repository-write-behind");
+            writeBehindThread.setDaemon(true);
+            writeBehindThread.start();
+        }
+        else {
+            writeBehindThread = null;
+        }
+    }
+
+    @Override
+    public MutationResult tryAdd(Person newPerson) {
+        flush();
+        return personRepository.tryAdd(newPerson);
+    }
+
+    @Override
+    public long nextID() {
+        return personRepository.nextID();
+    }
+
+    @Override
+    public Optional<Person> getByID(long id) {
+        PendingWrite pendingWrite = pendingWrites.get(id);
+
+        if (pendingWrite != null) {
+            hitCount.increment();
+            return Optional.ofNullable(pendingWrite.newPerson);
+        }
+
+        Node node = nodes.get(id);
+
+        if (node != null) {
+            Person person = node.value;
+
+            hitCount.increment();
+
+            if (readBuffer.offer(node)) {
+                tryMaintain();
+            }
+
+            return Optional.of(person);
+        }
+
+        missCount.increment();
+
+        long expectedInvalidationCount = invalidationCount;
+        Optional<Person> person = personRepository.getByID(id);
+
+        person.ifPresent(value -> admit(value, expectedInvalidationCount));
+
+        return person;
+    }
+
+    @Override
+    public List<Person> getAll() {
+        flush();
+        return personRepository.getAll();
+    }
+
+    @Override
+    public List<Person> getAllSortedByLocation() {
+        flush();
+        return personRepository.getAllSortedByLocation();
+    }
+
+    @Override
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        flush();
+        return personRepository.getWithinDistance(center, distance);
+    }
+
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        flush();
+        return personRepository.getInBox(min, max);
+    }
+
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        flush();
+        return personRepository.getTop(comparator, limit);
+    }
+
+    @Override
+    public int getSize() {
+        flush();
+        return personRepository.getSize();
+    }
+
+    @Override
+    public MutationResult tryUpdate(Person newPerson) {
+        if (writePolicy == WritePolicy.WRITE_THROUGH) {
+            return personRepository.tryUpdate(newPerson);
+        }
+
+        writeBehindLock.lock();
+        try {
+            if (getByID(newPerson.getID()).isEmpty()) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            enqueue(new PendingWrite(newPerson.getID(), newPerson));
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) throws ValidationException {
+        if (writePolicy == WritePolicy.WRITE_THROUGH) {
+            return personRepository.modify(id, mutation);
+        }
+
+        writeBehindLock.lock();
+        try {
+            Optional<Person> existingPerson = getByID(id);
+
+            if (existingPerson.isEmpty()) {
+                return PersonModification.notFound();
+            }
+
+            PersonModification modification = PersonModification.of(existingPerson.get(), mutation);
+
+            if (modification.hasChanges()) {
+                enqueue(new PendingWrite(id, modification.getPerson()));
+            }
+
+            return modification;
+        }
+        finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        if (writePolicy == WritePolicy.WRITE_THROUGH) {
+            return personRepository.tryRemove(id);
+        }
+
+        writeBehindLock.lock();
+        try {
+            if (getByID(id).isEmpty()) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            enqueue(new PendingWrite(id, null));
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeBehindLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        flush();
+        personRepository.removeAll();
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        personRepository.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        personRepository.removeListener(listener);
+    }
+
+    /**
+     * Ожидание применения всех отложенных изменений к хранилищу.
+     *
+     * <p>В режиме {@link WritePolicy#WRITE_THROUGH} возвращает
+     * управление сразу.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    public void flush() {
+        if (writeBehindThread == null || pendingWrites.isEmpty()) {
+            return;
+        }
+
+        PendingWrite barrier = new PendingWrite(0, null);
+
+        writeQueue.add(barrier);
+        barrier.applied.join();
+    }
+
+    /**
+     * Применение отложенных изменений и отписка от хранилища.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    @Override
+    public void close() {
+        flush();
+
+        if (writeBehindThread != null) {
+            writeBehindThread.interrupt();
+        }
+
+        personRepository.removeListener(invalidationListener);
+    }
+
+    /**
+     * Регистрация MBean-а метрик кэша.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param mBeanServer Сервер MBean-ов.
+     * @throws JMException Ошибка регистрации.
+     * @since 0.5.0
+     */
+    public void register(MBeanServer mBeanServer) throws JMException {
+        mBeanServer.registerMBean(this, new ObjectName(JMX_DOMAIN + ":type=PersonRepositoryCache"));
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long requests = hits + missCount.sum();
+
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public long getRejectionCount() {
+        return rejectionCount.sum();
+    }
+
+    @Override
+    public int getCachedCount() {
+        return nodes.size();
+    }
+
+    @Override
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    @Override
+    public long getPendingWriteCount() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Текстовый дамп метрик кэша в формате экспозиции Prometheus.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Дамп метрик.
+     * @since 0.5.0
+     */
+    @Override
+    public String dump() {
+        return "person_repository_cache_hits_total " + getHitCount() + '\n' +
+            "person_repository_cache_misses_total " + getMissCount() + '\n' +
+            "person_repository_cache_hit_rate " + String.format(Locale.ROOT, "%.4f", getHitRate()) + '\n' +
+            "person_repository_cache_evictions_total " + getEvictionCount() + '\n' +
+            "person_repository_cache_rejections_total " + getRejectionCount() + '\n' +
+            "person_repository_cache_size " + getCachedCount() + '\n' +
+            "person_repository_cache_pending_writes " + getPendingWriteCount() + '\n';
+    }
+
+    private void admit(Person person, long expectedInvalidationCount) {
+        policyLock.lock();
+        try {
+            drainReadBuffer();
+
+            if (invalidationCount != expectedInvalidationCount || nodes.containsKey(person.getID())) {
+                return;
+            }
+
+            Node node = new Node(person);
+
+            nodes.put(node.id, node);
+            sketch.increment(node.id);
+            window.addLast(node);
+            windowSize++;
+
+            evict();
+        }
+        finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void tryMaintain() {
+        if (policyLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            }
+            finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffer() {
+        readBuffer.drainTo(this::onAccess);
+    }
+
+    private void onAccess(Node node) {
+        if (node.segment < 0) {
+            return;
+        }
+
+        sketch.increment(node.id);
+
+        switch (node.segment) {
+            case WINDOW -> window.moveToBack(node);
+            case PROTECTED -> protectedSegment.moveToBack(node);
+            default -> {
+                probation.remove(node);
+                node.segment = PROTECTED;
+                protectedSegment.addLast(node);
+                protectedSize++;
+
+                if (protectedSize > maximumProtectedSize) {
+                    Node demoted = protectedSegment.pollFirst();
+
+                    protectedSize--;
+                    demoted.segment = PROBATION;
+                    probation.addLast(demoted);
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        int candidateCount = 0;
+
+        while (windowSize > maximumWindowSize) {
+            Node candidate = window.pollFirst();
+
+            windowSize--;
+            candidate.segment = PROBATION;
+            probation.addLast(candidate);
+            candidateCount++;
+        }
+
+        while (nodes.size() > maximumSize) {
+            Node victim = probation.peekFirst();
+            Node candidate = candidateCount > 0 ? probation.peekLast() : null;
+
+            if (victim == null) {
+                victim = protectedSegment.peekFirst() != null ? protectedSegment.peekFirst() : window.peekFirst();
+            }
+            else if (candidate != null && candidate != victim) {
+                candidateCount--;
+
+                if (sketch.frequency(candidate.id) <= sketch.frequency(victim.id)) {
+                    rejectionCount.increment();
+                    victim = candidate;
+                }
+            }
+            else if (candidate != null) {
+                candidateCount--;
+            }
+
+            unlink(victim);
+            evictionCount.increment();
+        }
+    }
+
+    private void unlink(Node node) {
+        switch (node.segment) {
+            case WINDOW -> {
+                window.remove(node);
+                windowSize--;
+            }
+            case PROBATION -> probation.remove(node);
+            case PROTECTED -> {
+                protectedSegment.remove(node);
+                protectedSize--;
+            }
+            default -> {
+                return;
+            }
+        }
+
+        node.segment = -1;
+        nodes.remove(node.id, node);
+    }
+
+    private void enqueue(PendingWrite pendingWrite) {
+        pendingWrites.put(pendingWrite.id, pendingWrite);
+        version.incrementAndGet();
+        writeQueue.add(pendingWrite);
+    }
+
+    private void applyPendingWrites() {
+        while (true) {
+            PendingWrite pendingWrite;
+
+            try {
+                pendingWrite = writeQueue.take();
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+
+            if (pendingWrite.id != 0) {
+                try {
+                    MutationResult result = pendingWrite.newPerson == null
+                        ? personRepository.tryRemove(pendingWrite.id)
+                        : personRepository.tryUpdate(pendingWrite.newPerson);
+
+                    if (!result.isApplied()) {
+                        System.err.println(
+                            "Отложенное изменение экземпляра " + pendingWrite.id + " не применено: " + result
+                        );
+                    }
+                }
+                catch (RuntimeException e) {
+                    System.err.println(e.getMessage());
+                }
+
+                pendingWrites.remove(pendingWrite.id, pendingWrite);
+            }
+
+            pendingWrite.applied.complete(null);
+        }
+    }
+
+    /**
+     * Отложенное изменение; {@code newPerson == null} означает
+     * удаление, а нулевой идентификатор — барьер
+     * {@link #flush()}.
+     */
+    private static class PendingWrite {
+
+        final long id;
+        final Person newPerson;
+        final CompletableFuture<Void> applied = new CompletableFuture<>();
+
+        PendingWrite(long id, Person newPerson) {
+            this.id = id;
+            this.newPerson = newPerson;
+        }
+    }
+
+    /**
+     * Кэшированная запись; служебные поля изменяются под блокировкой
+     * политики.
+     */
+    private static class Node {
+
+        final long id;
+        volatile Person value;
+        byte segment = WINDOW;
+        Node previous;
+        Node next;
+
+        Node(Person value) {
+            this.id = value.getID();
+            this.value = value;
+        }
+    }
+
+    /**
+     * Интрузивная двусвязная очередь записей в порядке обращений.
+     */
+    private static class NodeDeque {
+
+        private Node first;
+        private Node last;
+
+        Node peekFirst() {
+            return first;
+        }
+
+        Node peekLast() {
+            return last;
+        }
+
+        void addLast(Node node) {
+            node.previous = last;
+            node.next = null;
+
+            if (last == null) {
+                first = node;
+            }
+            else {
+                last.next = node;
+            }
+
+            last = node;
+        }
+
+        Node pollFirst() {
+            Node node = first;
+
+            if (node != null) {
+                remove(node);
+            }
+
+            return node;
+        }
+
+        void moveToBack(Node node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node node) {
+            if (node.previous == null) {
+                first = node.next;
+            }
+            else {
+                node.previous.next = node.next;
+            }
+
+            if (node.next == null) {
+                last = node.previous;
+            }
+            else {
+                node.next.previous = node.previous;
+            }
+
+            node.previous = null;
+            node.next = null;
+        }
+    }
+}
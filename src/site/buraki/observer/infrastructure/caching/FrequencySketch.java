@@ -0,0 +1,91 @@
+package site.buraki.observer.infrastructure.caching;
+
+/**
+ * Приближённый счётчик частот обращений (count-min sketch) с
+ * 4-битными счётчиками и периодическим старением.
+ *
+ * <p>Каждый ключ отображается в {@value #DEPTH} счётчика, частота
+ * оценивается их минимумом. После {@code 10 * maximumSize}
+ * увеличений все счётчики делятся пополам, так что частоты отражают
+ * недавнюю популярность.
+ *
+ * <p>Не потокобезопасен: используется под блокировкой политики.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see CachingPersonRepository
+ * @since 0.5.0
+ */
+class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_FREQUENCY = 15;
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int counters = Integer.highestOneBit(Math.max(16, maximumSize - 1) << 1);
+
+        this.table = new long[Math.max(1, counters / 16) * DEPTH];
+        this.tableMask = table.length - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(1, maximumSize));
+    }
+
+    int frequency(long key) {
+        int frequency = MAX_FREQUENCY;
+
+        for (int i = 0; i < DEPTH; i++) {
+            long hash = hash(key, i);
+            frequency = Math.min(frequency, (int) (table[index(hash)] >>> offset(hash)) & MAX_FREQUENCY);
+        }
+
+        return frequency;
+    }
+
+    void increment(long key) {
+        boolean incremented = false;
+
+        for (int i = 0; i < DEPTH; i++) {
+            long hash = hash(key, i);
+            int index = index(hash);
+            int offset = offset(hash);
+
+            if (((table[index] >>> offset) & MAX_FREQUENCY) != MAX_FREQUENCY) {
+                table[index] += 1L << offset;
+                incremented = true;
+            }
+        }
+
+        if (incremented && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+
+        additions /= 2;
+    }
+
+    private int index(long hash) {
+        return (int) (hash >>> 32) & tableMask;
+    }
+
+    private static int offset(long hash) {
+        return ((int) hash & 15) << 2;
+    }
+
+    private static long hash(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[(row + 1) & 3];
+
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,104 @@
+package site.buraki.observer.infrastructure.caching;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Полосатый буфер событий чтения с потерями.
+ *
+ * <p>Читатели записывают события в полосу, выбранную по потоку, одной
+ * операцией CAS и без блокировок. Переполненная полоса отбрасывает
+ * событие: для политики вытеснения потеря части обращений допустима.
+ * Вычитывание выполняется одним потоком под блокировкой политики.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see CachingPersonRepository
+ * @since 0.5.0
+ */
+class ReadBuffer<E> {
+
+    static final int STRIPE_CAPACITY = 16;
+
+    private static final int STRIPE_MASK = STRIPE_CAPACITY - 1;
+
+    private final Stripe<E>[] stripes;
+    private final int stripeMask;
+
+    @SuppressWarnings("unchecked")
+    ReadBuffer() {
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+
+        this.stripes = (Stripe<E>[]) new Stripe<?>[stripeCount];
+        this.stripeMask = stripeCount - 1;
+
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>();
+        }
+    }
+
+    /**
+     * Запись события.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param element Событие.
+     * @return {@code true}, если полоса заполнена и её следует
+     *     вычитать.
+     * @since 0.5.0
+     */
+    boolean offer(E element) {
+        Stripe<E> stripe = stripes[(int) (Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L >>> 32) & stripeMask];
+        long tail = stripe.tail.get();
+        long size = tail - stripe.head;
+
+        if (size >= STRIPE_CAPACITY) {
+            return true;
+        }
+
+        if (stripe.tail.compareAndSet(tail, tail + 1)) {
+            stripe.elements.lazySet((int) tail & STRIPE_MASK, element);
+            return size + 1 >= STRIPE_CAPACITY;
+        }
+
+        return false;
+    }
+
+    /**
+     * Вычитывание всех опубликованных событий.
+     *
+     * <p>Вызывается одним потоком за раз.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param consumer Обработчик событий.
+     * @since 0.5.0
+     */
+    void drainTo(Consumer<E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            long head = stripe.head;
+            long tail = stripe.tail.get();
+
+            while (head < tail) {
+                int index = (int) head & STRIPE_MASK;
+                E element = stripe.elements.get(index);
+
+                if (element == null) {
+                    // Событие зарезервировано, но ещё не опубликовано.
+                    break;
+                }
+
+                stripe.elements.lazySet(index, null);
+                consumer.accept(element);
+                head++;
+            }
+
+            stripe.head = head;
+        }
+    }
+
+    private static class Stripe<E> {
+
+        final AtomicReferenceArray<E> elements = new AtomicReferenceArray<>(STRIPE_CAPACITY);
+        final AtomicLong tail = new AtomicLong();
+        volatile long head;
+    }
+}
@@ -0,0 +1,27 @@
+package site.buraki.observer.infrastructure.caching;
+
+/**
+ * Перечисление способов передачи изменений кэша в хранилище.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see CachingPersonRepository
+ * @since 0.5.0
+ */
+public enum WritePolicy {
+
+    /**
+     * Изменение применяется к хранилищу до возврата из метода.
+     */
+    WRITE_THROUGH,
+
+    /**
+     * Изменение видно читателям кэша сразу, а к хранилищу применяется
+     * фоновым потоком в порядке поступления.
+     */
+    WRITE_BEHIND;
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "." + name();
+    }
+}
@@ -0,0 +1,361 @@
+package site.buraki.observer.infrastructure.dal.repositories;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonModification;
+import site.buraki.observer.core.person.PersonRanking;
+import site.buraki.observer.infrastructure.dal.sequences.BlockIDSequence;
+import site.buraki.observer.infrastructure.dal.sequences.IIDSequence;
+import site.buraki.observer.infrastructure.dal.sequences.IIDSequenceStore;
+import site.buraki.observer.infrastructure.dal.storage.BPlusTree;
+import site.buraki.observer.infrastructure.marshalling.binary.PersonBinaryCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранилище экземпляров бизнес-модели человека на диске, основанное на
+ * B+-дереве по уникальному идентификатору.
+ *
+ * <p>В куче находятся только страницы пула буферов, поэтому объём
+ * хранилища ограничен диском, а не памятью. Исключение — операции,
+ * возвращающие все экземпляры ({@link #getAll()} и запросы по
+ * координатам), которые материализуют результат целиком.
+ *
+ * <p>Каждое изменение фиксируется атомарно вместе с версией хранилища
+ * до оповещения слушателей. При ошибке записи изменение откатывается
+ * и выбрасывается {@link UncheckedIOException}. Верхняя граница
+ * зарезервированных уникальных идентификаторов хранится в метаданных
+ * того же файла.
+ *
+ * <p>Потокобезопасно: чтения выполняются параллельно, изменения
+ * исключают друг друга и чтения.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see BPlusTree
+ * @see PersonBinaryCodec
+ * @since 0.5.0
+ */
+class DiskPersonRepository implements IPersonRepository, Closeable {
+
+    private static final int VERSION_SLOT = 0;
+    private static final int RESERVED_ID_LIMIT_SLOT = 1;
+
+    private final BPlusTree tree;
+    private final IIDSequence idSequence;
+    private final PersonRepositoryListeners listeners = new PersonRepositoryListeners();
+    private volatile long version;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    DiskPersonRepository(BPlusTree tree) throws IOException {
+        this.tree = tree;
+        this.version = tree.getUserValue(VERSION_SLOT);
+        this.idSequence = new BlockIDSequence(new TreeIDSequenceStore(), tree.getLastKey());
+    }
+
+    @Override
+    public MutationResult tryAdd(Person newPerson) {
+        byte[] record = PersonBinaryCodec.encode(newPerson);
+
+        writeLock.lock();
+        try {
+            if (!apply(() -> tree.insert(newPerson.getID(), record))) {
+                return MutationResult.ALREADY_EXISTS;
+            }
+
+            listeners.onAdd(newPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long nextID() {
+        return idSequence.next();
+    }
+
+    @Override
+    public Optional<Person> getByID(long id) {
+        readLock.lock();
+        try {
+            return findByID(id);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Person> getAll() {
+        readLock.lock();
+        try {
+            List<Person> people = new ArrayList<>((int) tree.getSize());
+
+            tree.forEach((id, record) -> people.add(decode(record)));
+
+            return people;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения хранилища", e);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Person> getAllSortedByLocation() {
+        return new PackedCoordinates(getAll()).sortByRadiusVectorLength();
+    }
+
+    @Override
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        return new PackedCoordinates(getAll()).selectWithinDistance(center, distance);
+    }
+
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        return new PackedCoordinates(getAll()).selectInBox(min, max);
+    }
+
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        return PersonRanking.top(getAll(), comparator, limit);
+    }
+
+    @Override
+    public int getSize() {
+        readLock.lock();
+        try {
+            return (int) Math.min(Integer.MAX_VALUE, tree.getSize());
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public MutationResult tryUpdate(Person newPerson) {
+        byte[] record = PersonBinaryCodec.encode(newPerson);
+
+        writeLock.lock();
+        try {
+            Optional<Person> existingPerson = findByID(newPerson.getID());
+
+            if (existingPerson.isEmpty()) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            apply(() -> tree.replace(newPerson.getID(), record));
+            listeners.onUpdate(existingPerson.get(), newPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Изменение сериализуется блокировкой записи всего хранилища.
+     */
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) throws ValidationException {
+        writeLock.lock();
+        try {
+            Optional<Person> existingPerson = findByID(id);
+
+            if (existingPerson.isEmpty()) {
+                return PersonModification.notFound();
+            }
+
+            PersonModification modification = PersonModification.of(existingPerson.get(), mutation);
+
+            if (modification.hasChanges()) {
+                byte[] record = PersonBinaryCodec.encode(modification.getPerson());
+
+                apply(() -> tree.replace(id, record));
+                listeners.onModify(existingPerson.get(), modification.getPerson(), modification.getChangedFields());
+            }
+
+            return modification;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        writeLock.lock();
+        try {
+            Optional<Person> existingPerson = findByID(id);
+
+            if (existingPerson.isEmpty()) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            apply(() -> tree.remove(id));
+            listeners.onRemove(existingPerson.get());
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        writeLock.lock();
+        try {
+            apply(() -> {
+                tree.clear();
+                return true;
+            });
+            listeners.onRemoveAll();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Закрытие файла хранилища.
+     *
+     * <p>Все изменения к этому моменту уже зафиксированы.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка закрытия файла.
+     * @since 0.5.0
+     */
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            tree.close();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Optional<Person> findByID(long id) {
+        try {
+            return Optional.ofNullable(tree.get(id))
+                .map(DiskPersonRepository::decode);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения хранилища", e);
+        }
+    }
+
+    /**
+     * Применение изменения дерева с фиксацией вместе с новой версией
+     * хранилища.
+     *
+     * <p>Вызывается под блокировкой записи.
+     */
+    private boolean apply(TreeMutation mutation) {
+        try {
+            if (!mutation.apply()) {
+                tree.rollback();
+                return false;
+            }
+
+            tree.setUserValue(VERSION_SLOT, version + 1);
+            tree.commit();
+            version++;
+
+            return true;
+        }
+        catch (IOException e) {
+            UncheckedIOException exception = new UncheckedIOException("Ошибка записи хранилища", e);
+
+            try {
+                tree.rollback();
+            }
+            catch (IOException rollbackException) {
+                exception.addSuppressed(rollbackException);
+            }
+
+            throw exception;
+        }
+    }
+
+    private static Person decode(byte[] record) {
+        try {
+            return PersonBinaryCodec.decode(record);
+        }
+        catch (ValidationException e) {
+            throw new UncheckedIOException(new IOException("Повреждена запись хранилища", e));
+        }
+    }
+
+    @FunctionalInterface
+    private interface TreeMutation {
+
+        boolean apply() throws IOException;
+    }
+
+    /**
+     * Хранилище верхней границы зарезервированных уникальных
+     * идентификаторов в метаданных B+-дерева.
+     */
+    private class TreeIDSequenceStore implements IIDSequenceStore {
+
+        @Override
+        public long load() {
+            return tree.getUserValue(RESERVED_ID_LIMIT_SLOT);
+        }
+
+        @Override
+        public void store(long reservedLimit) throws IOException {
+            writeLock.lock();
+            try {
+                tree.setUserValue(RESERVED_ID_LIMIT_SLOT, reservedLimit);
+                tree.commit();
+            }
+            catch (IOException e) {
+                tree.rollback();
+                throw e;
+            }
+            finally {
+                writeLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package site.buraki.observer.infrastructure.dal.repositories;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.common.validation.BatchValidationReport;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonBatch;
+import site.buraki.observer.core.person.PersonModification;
+import site.buraki.observer.core.person.PersonRanking;
+import site.buraki.observer.infrastructure.dal.sequences.IIDSequence;
+import site.buraki.observer.infrastructure.marshalling.IDeserializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранилище экземпляров бизнес-модели человека, лениво читающее записи
+ * файла сохранения по индексу смещений.
+ *
+ * <p>При загрузке в памяти оказываются только уникальные
+ * идентификаторы и смещения записей ({@link SaveFileOffsetIndex}).
+ * {@link #getByID(long)} десериализует запись при первом обращении и
+ * запоминает экземпляр. Операции, возвращающие все экземпляры, читают
+ * файл последовательно окнами и не запоминают прочитанное, поэтому
+ * память растёт только с числом запрошенных по идентификатору
+ * записей.
+ *
+ * <p>Добавленные и изменённые экземпляры хранятся в памяти поверх
+ * файла, а заменённые и удалённые записи файла исключаются; сам файл
+ * не изменяется и не должен изменяться, пока хранилище открыто.
+ * Невалидная запись обнаруживается при первом чтении: описание
+ * выводится в {@code System.err}, и запись считается отсутствующей.
+ * До первого чтения такие записи учитываются в размере хранилища.
+ *
+ * <p>Потокобезопасно: чтения, в том числе с десериализацией,
+ * выполняются параллельно, изменения исключают друг друга и чтения.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see SaveFileOffsetIndex
+ * @see PersonRepository
+ * @since 0.5.0
+ */
+class LazyPersonRepository implements IPersonRepository, Closeable {
+
+    private static final int SCAN_WINDOW_SIZE = 1 << 20;
+
+    private final FileChannel saveFileChannel;
+    private final SaveFileOffsetIndex offsetIndex;
+    private final IDeserializer<Person> deserializer;
+    private final IIDSequence idSequence;
+    private final PersonRepositoryListeners listeners = new PersonRepositoryListeners();
+    private volatile long version;
+
+    // Позиции записей файла по уникальному идентификатору; повторные
+    // записи исключаются при загрузке.
+    private final HashMap<Long, Integer> filePositions;
+    private final boolean[] excluded;
+    private int includedCount;
+    // Десериализованные записи; пустое значение — невалидная запись.
+    private final AtomicReferenceArray<Optional<Person>> materialized;
+    private final AtomicInteger invalidCount = new AtomicInteger();
+    private final LinkedHashMap<Long, Person> overlay = new LinkedHashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    LazyPersonRepository(
+            FileChannel saveFileChannel,
+            SaveFileOffsetIndex offsetIndex,
+            IDeserializer<Person> deserializer,
+            IIDSequence idSequence
+    ) {
+        this.saveFileChannel = saveFileChannel;
+        this.offsetIndex = offsetIndex;
+        this.deserializer = deserializer;
+        this.idSequence = idSequence;
+        this.filePositions = HashMap.newHashMap(offsetIndex.getSize());
+        this.excluded = new boolean[offsetIndex.getSize()];
+        this.includedCount = offsetIndex.getSize();
+        this.materialized = new AtomicReferenceArray<>(offsetIndex.getSize());
+
+        for (int position = 0; position < offsetIndex.getSize(); position++) {
+            long id = offsetIndex.getID(position);
+
+            if (filePositions.putIfAbsent(id, position) != null) {
+                excluded[position] = true;
+                includedCount--;
+                System.err.println("Экземпляр бизнес-модели человека " + id + " повторяется в файле сохранения");
+            }
+        }
+    }
+
+    @Override
+    public MutationResult tryAdd(Person newPerson) {
+        writeLock.lock();
+        try {
+            if (findByID(newPerson.getID()).isPresent()) {
+                return MutationResult.ALREADY_EXISTS;
+            }
+
+            // Невалидная запись файла с тем же идентификатором
+            // замещается.
+            exclude(newPerson.getID());
+            overlay.put(newPerson.getID(), newPerson);
+
+            version++;
+            listeners.onAdd(newPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long nextID() {
+        return idSequence.next();
+    }
+
+    @Override
+    public Optional<Person> getByID(long id) {
+        readLock.lock();
+        try {
+            return findByID(id);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Person> getAll() {
+        readLock.lock();
+        try {
+            List<Person> people = new ArrayList<>(includedCount - invalidCount.get() + overlay.size());
+            ScanWindow window = new ScanWindow();
+
+            for (int position = 0; position < excluded.length; position++) {
+                if (excluded[position]) {
+                    continue;
+                }
+
+                Optional<Person> person = materialized.get(position);
+
+                if (person == null) {
+                    person = decode(position, window.read(position));
+
+                    // Валидные записи при просмотре не запоминаются,
+                    // невалидные — чтобы не разбирать их повторно.
+                    if (person.isEmpty() && materialized.compareAndSet(position, null, person)) {
+                        invalidCount.incrementAndGet();
+                    }
+                }
+
+                person.ifPresent(people::add);
+            }
+
+            people.addAll(overlay.values());
+
+            return people;
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Person> getAllSortedByLocation() {
+        return new PackedCoordinates(getAll()).sortByRadiusVectorLength();
+    }
+
+    @Override
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        return new PackedCoordinates(getAll()).selectWithinDistance(center, distance);
+    }
+
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        return new PackedCoordinates(getAll()).selectInBox(min, max);
+    }
+
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        return PersonRanking.top(getAll(), comparator, limit);
+    }
+
+    @Override
+    public int getSize() {
+        readLock.lock();
+        try {
+            return includedCount - invalidCount.get() + overlay.size();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public MutationResult tryUpdate(Person newPerson) {
+        writeLock.lock();
+        try {
+            Optional<Person> existingPerson = findByID(newPerson.getID());
+
+            if (existingPerson.isEmpty()) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            replace(newPerson);
+
+            version++;
+            listeners.onUpdate(existingPerson.get(), newPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Изменение сериализуется блокировкой записи всего хранилища.
+     */
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) throws ValidationException {
+        writeLock.lock();
+        try {
+            Optional<Person> existingPerson = findByID(id);
+
+            if (existingPerson.isEmpty()) {
+                return PersonModification.notFound();
+            }
+
+            PersonModification modification = PersonModification.of(existingPerson.get(), mutation);
+
+            if (modification.hasChanges()) {
+                replace(modification.getPerson());
+
+                version++;
+                listeners.onModify(existingPerson.get(), modification.getPerson(), modification.getChangedFields());
+            }
+
+            return modification;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        writeLock.lock();
+        try {
+            Optional<Person> existingPerson = findByID(id);
+
+            if (existingPerson.isEmpty()) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            overlay.remove(id);
+            exclude(id);
+
+            version++;
+            listeners.onRemove(existingPerson.get());
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        writeLock.lock();
+        try {
+            overlay.clear();
+
+            for (int position = 0; position < excluded.length; position++) {
+                excluded[position] = true;
+                materialized.set(position, null);
+            }
+
+            includedCount = 0;
+            invalidCount.set(0);
+
+            version++;
+            listeners.onRemoveAll();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Закрытие файла сохранения. Изменения, сделанные после загрузки, в
+     * файл не записываются.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка закрытия файла.
+     * @since 0.5.0
+     */
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            saveFileChannel.close();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Optional<Person> findByID(long id) {
+        Person person = overlay.get(id);
+
+        if (person != null) {
+            return Optional.of(person);
+        }
+
+        Integer position = filePositions.get(id);
+
+        if (position == null || excluded[position]) {
+            return Optional.empty();
+        }
+
+        return materialize(position);
+    }
+
+    /**
+     * Чтение записи файла при первом обращении. Параллельные чтения
+     * одной записи могут десериализовать её дважды, но запоминается и
+     * возвращается один экземпляр.
+     */
+    private Optional<Person> materialize(int position) {
+        Optional<Person> person = materialized.get(position);
+
+        if (person != null) {
+            return person;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(offsetIndex.getLength(position));
+
+        try {
+            long offset = offsetIndex.getOffset(position);
+
+            while (record.hasRemaining()) {
+                if (saveFileChannel.read(record, offset + record.position()) < 0) {
+                    throw new IOException("Файл сохранения изменён после загрузки");
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения файла сохранения", e);
+        }
+
+        person = decode(position, record.array());
+
+        if (materialized.compareAndSet(position, null, person)) {
+            if (person.isEmpty()) {
+                invalidCount.incrementAndGet();
+            }
+
+            return person;
+        }
+
+        return materialized.get(position);
+    }
+
+    private Optional<Person> decode(int position, byte[] record) {
+        Person person = deserializer.deserializeOne(Person.class, new ByteArrayInputStream(record));
+
+        if (person == null || person.getID() != offsetIndex.getID(position)) {
+            System.err.println("Запись #" + position + ": не соответствует индексу файла сохранения");
+            return Optional.empty();
+        }
+
+        PersonBatch batch = new PersonBatch(1);
+
+        batch.append(person);
+
+        BatchValidationReport report = batch.validate();
+
+        if (!report.isValid()) {
+            System.err.println(
+                "Запись #" + position + ": " +
+                report.getInvalidRecords().getFirst().getException().getMessage()
+            );
+            return Optional.empty();
+        }
+
+        return Optional.of(person);
+    }
+
+    /**
+     * Замена экземпляра экземпляром из памяти. Вызывается под
+     * блокировкой записи.
+     */
+    private void replace(Person newPerson) {
+        overlay.remove(newPerson.getID());
+        exclude(newPerson.getID());
+        overlay.put(newPerson.getID(), newPerson);
+    }
+
+    /**
+     * Исключение записи файла. Вызывается под блокировкой записи.
+     */
+    private void exclude(long id) {
+        Integer position = filePositions.get(id);
+
+        if (position == null || excluded[position]) {
+            return;
+        }
+
+        Optional<Person> person = materialized.getAndSet(position, null);
+
+        if (person != null && person.isEmpty()) {
+            invalidCount.decrementAndGet();
+        }
+
+        excluded[position] = true;
+        includedCount--;
+    }
+
+    /**
+     * Окно последовательного чтения файла для операций по всем
+     * записям. Записи читаются в порядке смещений, поэтому файл
+     * читается один раз крупными блоками.
+     */
+    private class ScanWindow {
+
+        private ByteBuffer window = ByteBuffer.allocate(0);
+        private long windowOffset;
+
+        byte[] read(int position) {
+            long offset = offsetIndex.getOffset(position);
+            int length = offsetIndex.getLength(position);
+
+            if (offset < windowOffset || offset + length > windowOffset + window.limit()) {
+                fill(offset, Math.max(length, SCAN_WINDOW_SIZE));
+            }
+
+            byte[] record = new byte[length];
+
+            window.get((int) (offset - windowOffset), record);
+
+            return record;
+        }
+
+        private void fill(long offset, int capacity) {
+            if (window.capacity() < capacity) {
+                window = ByteBuffer.allocate(capacity);
+            }
+
+            window.clear();
+            windowOffset = offset;
+
+            try {
+                int read;
+
+                do {
+                    read = saveFileChannel.read(window, offset + window.position());
+                }
+                while (read >= 0 && window.hasRemaining());
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Ошибка чтения файла сохранения", e);
+            }
+
+            window.flip();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package site.buraki.observer.infrastructure.dal.repositories;
+
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.kernels.CoordinateKernelsFactory;
+import site.buraki.observer.infrastructure.kernels.ICoordinateKernels;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Координаты локаций экземпляров бизнес-модели человека, упакованные
+ * в массивы для пакетных вычислительных ядер.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ICoordinateKernels
+ * @since 0.5.0
+ */
+class PackedCoordinates {
+
+    /**
+     * Наибольшая разность соседних ключей сортировки в единицах
+     * последнего разряда {@code float}, при которой порядок проверяется
+     * по точному значению; с запасом покрывает погрешность ядра.
+     */
+    private static final long KEY_TOLERANCE = 8;
+
+    private final ICoordinateKernels kernels = CoordinateKernelsFactory.getCoordinateKernels();
+
+    private final List<Person> people;
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] zs;
+
+    PackedCoordinates(List<Person> people) {
+        int size = people.size();
+
+        this.people = people;
+        this.xs = new float[size];
+        this.ys = new float[size];
+        this.zs = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            Coordinates coordinates = people.get(i).getLocation().getCoordinates();
+
+            xs[i] = coordinates.getX();
+            ys[i] = coordinates.getY();
+            zs[i] = coordinates.getZ();
+        }
+    }
+
+    /**
+     * Упорядочивание по удалённости от начала координат в порядке
+     * {@link Coordinates#compareTo(Coordinates)}: по квадрату длины
+     * радиус-вектора в {@code double}, равные — в исходном порядке.
+     *
+     * <p>Квадраты длин в {@code float} вычисляются ядром
+     * {@link ICoordinateKernels#squaredDistances}. Неотрицательные
+     * значения упорядочены так же, как их битовое представление, поэтому
+     * ключ сортировки объединяет его с индексом в одном {@code long}, что
+     * даёт устойчивую сортировку примитивного массива без сравнений
+     * объектов. Погрешность ядра не превышает нескольких единиц последнего
+     * разряда, поэтому неверно упорядоченными могут оказаться только
+     * соседние экземпляры с почти равными ключами: такие отрезки
+     * упорядочиваются по точному значению.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Экземпляры в порядке возрастания удалённости.
+     * @since 0.5.0
+     */
+    List<Person> sortByRadiusVectorLength() {
+        int size = people.size();
+        float[] squaredLengths = new float[size];
+        long[] keys = new long[size];
+
+        kernels.squaredDistances(xs, ys, zs, size, 0, 0, 0, squaredLengths);
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) Float.floatToRawIntBits(squaredLengths[i]) << Integer.SIZE) | i;
+        }
+
+        Arrays.sort(keys);
+
+        for (int start = 0, end; start < size; start = end) {
+            end = start + 1;
+
+            while (end < size && (keys[end] >>> Integer.SIZE) - (keys[end - 1] >>> Integer.SIZE) <= KEY_TOLERANCE) {
+                end++;
+            }
+
+            if (end - start > 1) {
+                sortByExactLength(keys, start, end);
+            }
+        }
+
+        List<Person> sortedPeople = new ArrayList<>(size);
+
+        for (long key : keys) {
+            sortedPeople.add(people.get((int) key));
+        }
+
+        return sortedPeople;
+    }
+
+    List<Person> selectWithinDistance(Coordinates center, float distance) {
+        if (!(distance >= 0)) {
+            throw new IllegalArgumentException("Отрицательное расстояние");
+        }
+
+        int[] indices = new int[people.size()];
+        int count = kernels.selectWithinSquaredDistance(
+            xs, ys, zs, people.size(),
+            center.getX(), center.getY(), center.getZ(),
+            distance * distance,
+            indices
+        );
+
+        return collect(indices, count);
+    }
+
+    List<Person> selectInBox(Coordinates min, Coordinates max) {
+        int[] indices = new int[people.size()];
+        int count = kernels.selectInBox(
+            xs, ys, zs, people.size(),
+            min.getX(), min.getY(), min.getZ(),
+            max.getX(), max.getY(), max.getZ(),
+            indices
+        );
+
+        return collect(indices, count);
+    }
+
+    /**
+     * Упорядочивание отрезка ключей по точному квадрату длины, а равных —
+     * по индексу.
+     *
+     * <p>Квадраты длин заменяются рангами среди различных значений
+     * отрезка, чтобы ранг и индекс поместились в один {@code long}.
+     */
+    private void sortByExactLength(long[] keys, int start, int end) {
+        int length = end - start;
+        long[] squaredLengths = new long[length];
+
+        for (int i = 0; i < length; i++) {
+            squaredLengths[i] = Double.doubleToRawLongBits(squaredLength((int) keys[start + i]));
+        }
+
+        long[] distinctLengths = squaredLengths.clone();
+
+        Arrays.sort(distinctLengths);
+
+        int distinctCount = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (distinctCount == 0 || distinctLengths[distinctCount - 1] != distinctLengths[i]) {
+                distinctLengths[distinctCount++] = distinctLengths[i];
+            }
+        }
+
+        for (int i = 0; i < length; i++) {
+            long rank = Arrays.binarySearch(distinctLengths, 0, distinctCount, squaredLengths[i]);
+
+            keys[start + i] = (rank << Integer.SIZE) | (keys[start + i] & 0xFFFFFFFFL);
+        }
+
+        Arrays.sort(keys, start, end);
+    }
+
+    private double squaredLength(int index) {
+        return (double) xs[index] * xs[index] + (double) ys[index] * ys[index] + (double) zs[index] * zs[index];
+    }
+
+    private List<Person> collect(int[] indices, int count) {
+        List<Person> selectedPeople = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            selectedPeople.add(people.get(indices[i]));
+        }
+
+        return selectedPeople;
+    }
+}
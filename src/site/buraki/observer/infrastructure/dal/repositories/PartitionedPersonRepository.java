@@ -0,0 +1,399 @@
+package site.buraki.observer.infrastructure.dal.repositories;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonModification;
+import site.buraki.observer.core.person.PersonRanking;
+import site.buraki.observer.infrastructure.dal.sequences.IIDSequence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Хранилище экземпляров бизнес-модели человека, разделённое на
+ * независимые секции по перемешанному хешу уникального
+ * идентификатора.
+ *
+ * <p>Каждая секция — {@link LinkedHashMap} под собственной
+ * {@link ReentrantReadWriteLock}, поэтому изменения в разных секциях
+ * не конкурируют. Запросы ко всем экземплярам обходят секции
+ * параллельно задачами {@link ForkJoinPool} и объединяют результаты в
+ * порядке секций. Согласованность таких запросов задаётся
+ * {@link ScanConsistency}: в режиме {@link ScanConsistency#SNAPSHOT}
+ * блокировки всех секций берутся в порядке номеров, что исключает
+ * взаимоблокировку с изменениями, затрагивающими одну секцию.
+ *
+ * <p>Слушатели оповещаются под блокировкой записи изменённой секции,
+ * поэтому изменения разных секций могут оповещать их конкурентно.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ScanConsistency
+ * @see IPersonRepository
+ * @since 0.5.0
+ */
+class PartitionedPersonRepository implements IPersonRepository {
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final ScanConsistency scanConsistency;
+    private final ForkJoinPool pool;
+    private final IIDSequence idSequence;
+    private final PersonRepositoryListeners listeners = new PersonRepositoryListeners();
+    private final AtomicLong version = new AtomicLong();
+
+    PartitionedPersonRepository(
+            IIDSequence idSequence,
+            int shardCount,
+            ScanConsistency scanConsistency,
+            ForkJoinPool pool
+    ) {
+        int roundedShardCount = Integer.highestOneBit(Math.max(1, shardCount - 1) << 1);
+
+        this.shards = new Shard[roundedShardCount];
+        this.shardMask = roundedShardCount - 1;
+        this.scanConsistency = scanConsistency;
+        this.pool = pool;
+        this.idSequence = idSequence;
+
+        for (int i = 0; i < roundedShardCount; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @Override
+    public MutationResult tryAdd(Person newPerson) {
+        Shard shard = shardOf(newPerson.getID());
+
+        shard.writeLock.lock();
+        try {
+            if (shard.people.putIfAbsent(newPerson.getID(), newPerson) != null) {
+                return MutationResult.ALREADY_EXISTS;
+            }
+
+            version.incrementAndGet();
+            listeners.onAdd(newPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            shard.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long nextID() {
+        return idSequence.next();
+    }
+
+    @Override
+    public Optional<Person> getByID(long id) {
+        Shard shard = shardOf(id);
+
+        shard.readLock.lock();
+        try {
+            return Optional.ofNullable(shard.people.get(id));
+        }
+        finally {
+            shard.readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Person> getAll() {
+        return scan(people -> people);
+    }
+
+    @Override
+    public List<Person> getAllSortedByLocation() {
+        return new PackedCoordinates(getAll()).sortByRadiusVectorLength();
+    }
+
+    @Override
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        return scan(people -> new PackedCoordinates(people).selectWithinDistance(center, distance));
+    }
+
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        return scan(people -> new PackedCoordinates(people).selectInBox(min, max));
+    }
+
+    /**
+     * Первые экземпляры выбираются в каждой части параллельно, после
+     * чего из не больше {@code limit} кандидатов каждой части
+     * выбираются итоговые.
+     */
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        return PersonRanking.top(scan(people -> PersonRanking.top(people, comparator, limit)), comparator, limit);
+    }
+
+    @Override
+    public int getSize() {
+        if (scanConsistency == ScanConsistency.SNAPSHOT) {
+            lockAll();
+        }
+
+        try {
+            int size = 0;
+
+            for (Shard shard : shards) {
+                size += scanConsistency == ScanConsistency.SNAPSHOT ? shard.people.size() : shard.getSize();
+            }
+
+            return size;
+        }
+        finally {
+            if (scanConsistency == ScanConsistency.SNAPSHOT) {
+                unlockAll();
+            }
+        }
+    }
+
+    @Override
+    public MutationResult tryUpdate(Person newPerson) {
+        Shard shard = shardOf(newPerson.getID());
+
+        shard.writeLock.lock();
+        try {
+            Person existingPerson = shard.people.get(newPerson.getID());
+
+            if (existingPerson == null) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            shard.people.put(newPerson.getID(), newPerson);
+
+            version.incrementAndGet();
+            listeners.onUpdate(existingPerson, newPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            shard.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Изменение выполняется под блокировкой записи секции экземпляра.
+     */
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) throws ValidationException {
+        Shard shard = shardOf(id);
+
+        shard.writeLock.lock();
+        try {
+            Person existingPerson = shard.people.get(id);
+
+            if (existingPerson == null) {
+                return PersonModification.notFound();
+            }
+
+            PersonModification modification = PersonModification.of(existingPerson, mutation);
+
+            if (modification.hasChanges()) {
+                shard.people.put(id, modification.getPerson());
+
+                version.incrementAndGet();
+                listeners.onModify(existingPerson, modification.getPerson(), modification.getChangedFields());
+            }
+
+            return modification;
+        }
+        finally {
+            shard.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        Shard shard = shardOf(id);
+
+        shard.writeLock.lock();
+        try {
+            Person existingPerson = shard.people.remove(id);
+
+            if (existingPerson == null) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            version.incrementAndGet();
+            listeners.onRemove(existingPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            shard.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        for (Shard shard : shards) {
+            shard.writeLock.lock();
+        }
+
+        try {
+            for (Shard shard : shards) {
+                shard.people.clear();
+            }
+
+            version.incrementAndGet();
+            listeners.onRemoveAll();
+        }
+        finally {
+            for (int i = shards.length - 1; i >= 0; i--) {
+                shards[i].writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    private Shard shardOf(long id) {
+        long hash = id;
+
+        // Финальное перемешивание MurmurHash3: последовательные
+        // идентификаторы распределяются по секциям равномерно.
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return shards[(int) hash & shardMask];
+    }
+
+    private List<Person> scan(Function<List<Person>, List<Person>> shardQuery) {
+        boolean snapshot = scanConsistency == ScanConsistency.SNAPSHOT;
+
+        if (snapshot) {
+            lockAll();
+        }
+
+        try {
+            return pool.invoke(new ShardScanTask(shardQuery, 0, shards.length, !snapshot));
+        }
+        finally {
+            if (snapshot) {
+                unlockAll();
+            }
+        }
+    }
+
+    private void lockAll() {
+        for (Shard shard : shards) {
+            shard.readLock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = shards.length - 1; i >= 0; i--) {
+            shards[i].readLock.unlock();
+        }
+    }
+
+    /**
+     * Задача параллельного обхода диапазона секций.
+     *
+     * <p>Диапазон делится пополам до одной секции, результаты
+     * объединяются в порядке секций.
+     */
+    private class ShardScanTask extends RecursiveTask<List<Person>> {
+
+        private final Function<List<Person>, List<Person>> shardQuery;
+        private final int from;
+        private final int to;
+        private final boolean lockShards;
+
+        ShardScanTask(Function<List<Person>, List<Person>> shardQuery, int from, int to, boolean lockShards) {
+            this.shardQuery = shardQuery;
+            this.from = from;
+            this.to = to;
+            this.lockShards = lockShards;
+        }
+
+        @Override
+        protected List<Person> compute() {
+            if (to - from == 1) {
+                return shardQuery.apply(shards[from].copy(lockShards));
+            }
+
+            int middle = (from + to) >>> 1;
+            ShardScanTask right = new ShardScanTask(shardQuery, middle, to, lockShards);
+
+            right.fork();
+
+            List<Person> leftPeople = new ShardScanTask(shardQuery, from, middle, lockShards).compute();
+            List<Person> rightPeople = right.join();
+            List<Person> people = new ArrayList<>(leftPeople.size() + rightPeople.size());
+
+            people.addAll(leftPeople);
+            people.addAll(rightPeople);
+
+            return people;
+        }
+    }
+
+    /**
+     * Секция хранилища.
+     */
+    private static class Shard {
+
+        final LinkedHashMap<Long, Person> people = new LinkedHashMap<>();
+
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        final ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+
+        List<Person> copy(boolean lockShard) {
+            if (!lockShard) {
+                return new ArrayList<>(people.values());
+            }
+
+            readLock.lock();
+            try {
+                return new ArrayList<>(people.values());
+            }
+            finally {
+                readLock.unlock();
+            }
+        }
+
+        int getSize() {
+            readLock.lock();
+            try {
+                return people.size();
+            }
+            finally {
+                readLock.unlock();
+            }
+        }
+    }
+}
@@ -1,16 +1,42 @@
 package site.buraki.observer.infrastructure.dal.repositories;
 
-import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
 import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
 import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonModification;
+import site.buraki.observer.core.person.PersonRanking;
+import site.buraki.observer.infrastructure.dal.sequences.IIDSequence;
 
-import java.util.LinkedHashSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Хранилище экземпляров бизнес-модели человека, основанное на
- * коллекции LinkedHashSet.
+ * коллекции LinkedHashMap.
+ *
+ * <p>Экземпляры хранятся по уникальному идентификатору в порядке
+ * добавления, поэтому поиск, замена и удаление не обходят коллекцию.
+ *
+ * <p>Потокобезопасно: чтения выполняются параллельно, изменения
+ * исключают друг друга и чтения. Используется
+ * {@link ReentrantReadWriteLock}, а не {@code synchronized}, чтобы не
+ * закреплять виртуальные потоки за потоками-носителями.
+ *
+ * <p>Версия хранилища увеличивается под блокировкой записи до
+ * оповещения слушателей.
+ *
+ * <p>{@link #modify(long, IPersonMutation)} сериализуется по
+ * экземпляру полосатыми блокировками записей и держит блокировку
+ * записи хранилища только на время замены экземпляра.
  *
  * @author Расим "Buraki" Эминов
  * @see IPersonRepository
@@ -18,64 +44,242 @@ import java.util.Optional;
  */
 class PersonRepository implements IPersonRepository {
 
-    private final LinkedHashSet<Person> innerCollection = new LinkedHashSet<>();
+    private static final int RECORD_LOCK_COUNT = 64;
+
+    private final LinkedHashMap<Long, Person> innerCollection = new LinkedHashMap<>();
+    private final IIDSequence idSequence;
+    private final PersonRepositoryListeners listeners = new PersonRepositoryListeners();
+    private volatile long version;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+    private final Lock[] recordLocks = new Lock[RECORD_LOCK_COUNT];
+
+    PersonRepository(IIDSequence idSequence) {
+        this.idSequence = idSequence;
+
+        for (int i = 0; i < RECORD_LOCK_COUNT; i++) {
+            recordLocks[i] = new ReentrantLock();
+        }
+    }
 
     @Override
-    public void add(Person newPerson) throws DataIntegrityException {
-        if (!innerCollection.add(newPerson)) {
-            throw new DataIntegrityException(
-                "Добавляемый экземпляр бизнес-модели человека уже содержится в хранилище"
-            );
+    public MutationResult tryAdd(Person newPerson) {
+        writeLock.lock();
+        try {
+            if (innerCollection.putIfAbsent(newPerson.getID(), newPerson) != null) {
+                return MutationResult.ALREADY_EXISTS;
+            }
+
+            version++;
+            listeners.onAdd(newPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
         }
     }
 
+    @Override
+    public long nextID() {
+        return idSequence.next();
+    }
+
     @Override
     public Optional<Person> getByID(long id) {
-        return innerCollection.stream()
-            .filter(person -> person.getID() == id)
-            .findFirst();
+        readLock.lock();
+        try {
+            return Optional.ofNullable(innerCollection.get(id));
+        }
+        finally {
+            readLock.unlock();
+        }
     }
 
     @Override
     public List<Person> getAll() {
-        return innerCollection.stream()
-            .toList();
+        readLock.lock();
+        try {
+            return innerCollection.values()
+                .stream()
+                .toList();
+        }
+        finally {
+            readLock.unlock();
+        }
     }
 
     @Override
-    public int getSize() {
-        return innerCollection.size();
+    public List<Person> getAllSortedByLocation() {
+        return new PackedCoordinates(getAll()).sortByRadiusVectorLength();
     }
 
     @Override
-    public void update(Person newPerson) throws DataIntegrityException {
-        Optional<Person> existingPerson = getByID(newPerson.getID());
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        return new PackedCoordinates(getAll()).selectWithinDistance(center, distance);
+    }
 
-        if (existingPerson.isEmpty()) {
-            throw new DataIntegrityException(
-                "Обновляемый экземпляр бизнес-модели человека не содержится в хранилище"
-            );
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        return new PackedCoordinates(getAll()).selectInBox(min, max);
+    }
+
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        readLock.lock();
+        try {
+            return PersonRanking.top(innerCollection.values(), comparator, limit);
+        }
+        finally {
+            readLock.unlock();
         }
+    }
 
-        innerCollection.remove(existingPerson.get());
-        innerCollection.add(newPerson);
+    @Override
+    public int getSize() {
+        readLock.lock();
+        try {
+            return innerCollection.size();
+        }
+        finally {
+            readLock.unlock();
+        }
     }
 
     @Override
-    public void removeByID(long id) throws DataIntegrityException {
-        Optional<Person> existingPerson = getByID(id);
+    public MutationResult tryUpdate(Person newPerson) {
+        writeLock.lock();
+        try {
+            Person existingPerson = innerCollection.remove(newPerson.getID());
 
-        if (existingPerson.isEmpty()) {
-            throw new DataIntegrityException(
-                "Удаляемый экземпляр бизнес-модели человека не содержится в хранилище"
-            );
+            if (existingPerson == null) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            innerCollection.put(newPerson.getID(), newPerson);
+
+            version++;
+            listeners.onUpdate(existingPerson, newPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
         }
+    }
+
+    /**
+     * Изменение выполняется под блокировкой записи экземпляра, а не
+     * хранилища: поиск — под блокировкой чтения, мутация копии — без
+     * блокировки хранилища. Под блокировкой записи хранилища копия
+     * заменяет экземпляр, только если он не был заменён в обход
+     * {@code modify}; иначе изменение повторяется над новым состоянием.
+     * Поиск и замена выполняются по уникальному идентификатору без
+     * обхода коллекции.
+     */
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) throws ValidationException {
+        Lock recordLock = recordLockOf(id);
+
+        recordLock.lock();
+        try {
+            while (true) {
+                Person existingPerson = getByID(id).orElse(null);
+
+                if (existingPerson == null) {
+                    return PersonModification.notFound();
+                }
+
+                PersonModification modification = PersonModification.of(existingPerson, mutation);
+
+                if (!modification.hasChanges()) {
+                    return modification;
+                }
+
+                writeLock.lock();
+                try {
+                    Person currentPerson = innerCollection.get(id);
+
+                    if (currentPerson == null) {
+                        return PersonModification.notFound();
+                    }
+                    if (currentPerson != existingPerson) {
+                        continue;
+                    }
 
-        innerCollection.remove(existingPerson.get());
+                    innerCollection.remove(id);
+                    innerCollection.put(id, modification.getPerson());
+
+                    version++;
+                    listeners.onModify(existingPerson, modification.getPerson(), modification.getChangedFields());
+
+                    return modification;
+                }
+                finally {
+                    writeLock.unlock();
+                }
+            }
+        }
+        finally {
+            recordLock.unlock();
+        }
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        writeLock.lock();
+        try {
+            Person existingPerson = innerCollection.remove(id);
+
+            if (existingPerson == null) {
+                return MutationResult.NOT_FOUND;
+            }
+
+            version++;
+            listeners.onRemove(existingPerson);
+
+            return MutationResult.APPLIED;
+        }
+        finally {
+            writeLock.unlock();
+        }
     }
 
     @Override
     public void removeAll() {
-        innerCollection.clear();
+        writeLock.lock();
+        try {
+            innerCollection.clear();
+
+            version++;
+            listeners.onRemoveAll();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Последовательные идентификаторы попадают в разные полосы.
+     */
+    private Lock recordLockOf(long id) {
+        return recordLocks[(int) (id & (RECORD_LOCK_COUNT - 1))];
     }
 }
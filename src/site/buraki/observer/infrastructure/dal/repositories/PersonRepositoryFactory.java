@@ -1,30 +1,132 @@
 package site.buraki.observer.infrastructure.dal.repositories;
 
-import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.common.validation.BatchValidationReport;
+import site.buraki.observer.common.validation.InvalidRecord;
 import site.buraki.observer.core.person.IPersonRepository;
 import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonBatch;
+import site.buraki.observer.infrastructure.dal.sequences.BlockIDSequence;
+import site.buraki.observer.infrastructure.dal.sequences.FileIDSequenceStore;
+import site.buraki.observer.infrastructure.dal.sequences.InMemoryIDSequenceStore;
+import site.buraki.observer.infrastructure.dal.storage.BPlusTree;
+import site.buraki.observer.infrastructure.diagnostics.RepositoryLoadPhaseEvent;
+import site.buraki.observer.infrastructure.importing.ImportError;
+import site.buraki.observer.infrastructure.importing.ImportReport;
+import site.buraki.observer.infrastructure.importing.PersonImporter;
 import site.buraki.observer.infrastructure.marshalling.IDeserializer;
 import site.buraki.observer.infrastructure.marshalling.MarshallingManagerFactory;
 
 import java.io.BufferedInputStream;
+import java.io.Closeable;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Фабрика хранилищ экземпляров бизнес-модели человека.
  *
+ * <p>Верхняя граница выданных уникальных идентификаторов хранится
+ * рядом с файлом сохранения, в файле с суффиксом
+ * {@value #SEQUENCE_FILE_SUFFIX}.
+ *
+ * <p>Фазы загрузки записываются в JFR событиями
+ * {@link RepositoryLoadPhaseEvent}.
+ *
  * @author Расим "Buraki" Эминов
  * @see PersonRepository
  * @since 0.4.0
  */
 public class PersonRepositoryFactory {
 
-    private static final IPersonRepository personRepository = new PersonRepository();
+    private static final String SEQUENCE_FILE_SUFFIX = ".seq";
+
+    /**
+     * Получение хранилища, загруженного из файла сохранения по пути из
+     * переменной окружения {@code SAVE_FILEPATH}.
+     *
+     * <p>Загрузка выполняется один раз, при первом обращении. Если
+     * переменная окружения {@code HOT_RELOAD} равна {@code true},
+     * хранилище следит за файлом и перезагружается при его изменении
+     * ({@link #loadReloadablePersonRepository(Path)}); иначе, если
+     * переменная окружения {@code LAZY_LOAD} равна {@code true}, записи
+     * читаются лениво ({@link #loadLazyPersonRepository(Path)}).
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Хранилище экземпляров бизнес-модели человека.
+     * @since 0.4.0
+     */
+    public static IPersonRepository getPersonRepository() {
+        return SavedPersonRepositoryHolder.personRepository;
+    }
 
-    static {
-        Path saveFilepath = Path.of(System.getenv("SAVE_FILEPATH"));
+    /**
+     * Создание пустого хранилища в памяти, уникальные идентификаторы
+     * которого не сохраняются между перезапусками.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Хранилище экземпляров бизнес-модели человека.
+     * @since 0.5.0
+     */
+    public static IPersonRepository createPersonRepository() {
+        try {
+            return new PersonRepository(new BlockIDSequence(new InMemoryIDSequenceStore(), 0));
+        }
+        catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Создание пустого секционированного хранилища в памяти.
+     *
+     * <p>Запросы ко всем экземплярам выполняются в общем
+     * {@link ForkJoinPool}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param shardCount Число секций, округляемое вверх до степени
+     *     двойки.
+     * @param scanConsistency Согласованность запросов ко всем
+     *     экземплярам.
+     * @return Хранилище экземпляров бизнес-модели человека.
+     * @since 0.5.0
+     */
+    public static IPersonRepository createPartitionedPersonRepository(
+            int shardCount,
+            ScanConsistency scanConsistency
+    ) {
+        try {
+            return new PartitionedPersonRepository(
+                new BlockIDSequence(new InMemoryIDSequenceStore(), 0),
+                shardCount,
+                scanConsistency,
+                ForkJoinPool.commonPool()
+            );
+        }
+        catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Загрузка хранилища из файла сохранения.
+     *
+     * <p>Невалидные записи и записи с повторяющимися уникальными
+     * идентификаторами пропускаются с выводом описания в
+     * {@code System.err}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param saveFilepath Путь к файлу сохранения.
+     * @return Хранилище экземпляров бизнес-модели человека.
+     * @throws IOException Ошибка чтения файла сохранения или файла
+     *     последовательности идентификаторов.
+     * @since 0.5.0
+     */
+    public static IPersonRepository loadPersonRepository(Path saveFilepath) throws IOException {
         IDeserializer<Person> deserializer = MarshallingManagerFactory
             .<Person>getJSONMarshallingManager()
             .getDeserializer();
@@ -33,25 +135,288 @@ public class PersonRepositoryFactory {
             FileInputStream fileInputStream = new FileInputStream(saveFilepath.toFile());
             BufferedInputStream bufferedInputStream = new BufferedInputStream(fileInputStream)
         ) {
+            RepositoryLoadPhaseEvent deserializeEvent = beginLoadPhase();
             List<Person> people = deserializer.deserializeMany(Person.class, bufferedInputStream);
 
-            if (people != null) {
-                for (Person person : people) {
-                    try {
-                        personRepository.add(person);
-                    }
-                    catch (DataIntegrityException e) {
-                        System.err.println(e.getMessage());
-                    }
+            if (people == null) {
+                people = List.of();
+            }
+
+            commitLoadPhase(deserializeEvent, RepositoryLoadPhaseEvent.DESERIALIZE, saveFilepath, people.size());
+
+            RepositoryLoadPhaseEvent validateEvent = beginLoadPhase();
+            people = filterValid(people);
+            commitLoadPhase(validateEvent, RepositoryLoadPhaseEvent.VALIDATE, saveFilepath, people.size());
+
+            RepositoryLoadPhaseEvent populateEvent = beginLoadPhase();
+
+            long maxSeenID = 0;
+            for (Person person : people) {
+                maxSeenID = Math.max(maxSeenID, person.getID());
+            }
+
+            IPersonRepository personRepository = new PersonRepository(
+                new BlockIDSequence(
+                    new FileIDSequenceStore(
+                        saveFilepath.resolveSibling(saveFilepath.getFileName() + SEQUENCE_FILE_SUFFIX)
+                    ),
+                    maxSeenID
+                )
+            );
+
+            for (Person person : people) {
+                if (!personRepository.tryAdd(person).isApplied()) {
+                    System.err.println(
+                        "Экземпляр бизнес-модели человека " + person.getID() + " повторяется в файле сохранения"
+                    );
                 }
             }
+
+            commitLoadPhase(populateEvent, RepositoryLoadPhaseEvent.POPULATE, saveFilepath, personRepository.getSize());
+
+            return personRepository;
         }
-        catch (IOException e) {
-            throw new AssertionError("Application is not setup");
+    }
+
+    /**
+     * Загрузка секционированного хранилища из файла сохранения
+     * конвейерным импортом.
+     *
+     * <p>В отличие от {@link #loadPersonRepository(Path)}, разбор,
+     * проверка и вставка выполняются параллельно, а порядок
+     * экземпляров в хранилище не сохраняется. Отклонённые записи
+     * выводятся в {@code System.err}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param saveFilepath Путь к файлу сохранения.
+     * @param shardCount Число секций, округляемое вверх до степени
+     *     двойки.
+     * @param scanConsistency Согласованность запросов ко всем
+     *     экземплярам.
+     * @param personImporter Настроенный конвейер импорта.
+     * @return Хранилище экземпляров бизнес-модели человека.
+     * @throws IOException Ошибка чтения файла сохранения или файла
+     *     последовательности идентификаторов.
+     * @see PersonImporter
+     * @since 0.5.0
+     */
+    public static IPersonRepository importPartitionedPersonRepository(
+            Path saveFilepath,
+            int shardCount,
+            ScanConsistency scanConsistency,
+            PersonImporter personImporter
+    ) throws IOException {
+        BlockIDSequence idSequence = new BlockIDSequence(
+            new FileIDSequenceStore(saveFilepath.resolveSibling(saveFilepath.getFileName() + SEQUENCE_FILE_SUFFIX)),
+            0
+        );
+        IPersonRepository personRepository = new PartitionedPersonRepository(
+            idSequence,
+            shardCount,
+            scanConsistency,
+            ForkJoinPool.commonPool()
+        );
+
+        RepositoryLoadPhaseEvent populateEvent = beginLoadPhase();
+        ImportReport report = personImporter.importFrom(saveFilepath, personRepository);
+        commitLoadPhase(populateEvent, RepositoryLoadPhaseEvent.POPULATE, saveFilepath, report.getImportedCount());
+        printImportErrors(report);
+
+        idSequence.advancePast(report.getMaxID());
+
+        return personRepository;
+    }
+
+    /**
+     * Ленивая загрузка хранилища из файла сохранения.
+     *
+     * <p>Файл просматривается один раз для построения индекса
+     * уникальных идентификаторов и смещений записей; экземпляры
+     * десериализуются при первом обращении. Время загрузки и память
+     * зависят от числа записей, а не от их содержимого. Возвращаемое
+     * хранилище реализует {@link Closeable} и держит файл открытым.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param saveFilepath Путь к файлу сохранения.
+     * @return Хранилище экземпляров бизнес-модели человека.
+     * @throws IOException Ошибка чтения файла сохранения или файла
+     *     последовательности идентификаторов.
+     * @see LazyPersonRepository
+     * @since 0.5.0
+     */
+    public static IPersonRepository loadLazyPersonRepository(Path saveFilepath) throws IOException {
+        RepositoryLoadPhaseEvent indexEvent = beginLoadPhase();
+        SaveFileOffsetIndex offsetIndex = SaveFileOffsetIndex.scan(saveFilepath);
+        commitLoadPhase(indexEvent, RepositoryLoadPhaseEvent.INDEX, saveFilepath, offsetIndex.getSize());
+
+        FileChannel saveFileChannel = FileChannel.open(saveFilepath, StandardOpenOption.READ);
+
+        try {
+            return new LazyPersonRepository(
+                saveFileChannel,
+                offsetIndex,
+                MarshallingManagerFactory.<Person>getJSONMarshallingManager().getDeserializer(),
+                new BlockIDSequence(
+                    new FileIDSequenceStore(
+                        saveFilepath.resolveSibling(saveFilepath.getFileName() + SEQUENCE_FILE_SUFFIX)
+                    ),
+                    offsetIndex.getMaxID()
+                )
+            );
+        }
+        catch (IOException | RuntimeException e) {
+            saveFileChannel.close();
+            throw e;
         }
     }
 
-    public static IPersonRepository getPersonRepository() {
+    /**
+     * Открытие или создание хранилища на диске.
+     *
+     * <p>Каждое изменение фиксируется в файле атомарно и со сбросом на
+     * носитель. Возвращаемое хранилище реализует {@link Closeable}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param storageFilepath Путь к файлу хранилища.
+     * @param memoryBudget Бюджет памяти пула буферов страниц в байтах.
+     * @return Хранилище экземпляров бизнес-модели человека.
+     * @throws IOException Ошибка открытия файла или восстановления
+     *     после сбоя.
+     * @since 0.5.0
+     */
+    public static IPersonRepository openDiskPersonRepository(Path storageFilepath, long memoryBudget) throws IOException {
+        BPlusTree tree = BPlusTree.open(storageFilepath, BPlusTree.DEFAULT_PAGE_SIZE, memoryBudget, true);
+
+        try {
+            return new DiskPersonRepository(tree);
+        }
+        catch (IOException | RuntimeException e) {
+            tree.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Загрузка хранилища из файла сохранения с перезагрузкой при
+     * изменении файла другим процессом.
+     *
+     * <p>Файл читается потоковым импортом; при изменении к хранилищу
+     * применяется только разница с файлом, а чтения не
+     * приостанавливаются. Возвращаемое хранилище реализует
+     * {@link Closeable}: закрытие останавливает наблюдение за файлом.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param saveFilepath Путь к файлу сохранения.
+     * @return Хранилище экземпляров бизнес-модели человека.
+     * @throws IOException Ошибка чтения файла сохранения, файла
+     *     последовательности идентификаторов или регистрации
+     *     наблюдения за каталогом.
+     * @see ReloadablePersonRepository
+     * @since 0.5.0
+     */
+    public static IPersonRepository loadReloadablePersonRepository(Path saveFilepath) throws IOException {
+        ReloadablePersonRepository personRepository = new ReloadablePersonRepository(
+            saveFilepath,
+            new BlockIDSequence(
+                new FileIDSequenceStore(saveFilepath.resolveSibling(saveFilepath.getFileName() + SEQUENCE_FILE_SUFFIX)),
+                0
+            )
+        );
+
+        personRepository.reload();
+        personRepository.startWatching();
+
         return personRepository;
     }
+
+    static RepositoryLoadPhaseEvent beginLoadPhase() {
+        RepositoryLoadPhaseEvent event = new RepositoryLoadPhaseEvent();
+        event.begin();
+
+        return event;
+    }
+
+    static void commitLoadPhase(
+            RepositoryLoadPhaseEvent event,
+            String phase,
+            Path saveFilepath,
+            long records
+    ) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.saveFilepath = saveFilepath.toString();
+            event.records = records;
+            event.bytes = saveFilepath.toFile().length();
+            event.commit();
+        }
+    }
+
+    static void printImportErrors(ImportReport report) {
+        for (ImportError error : report.getErrors()) {
+            System.err.println("Запись #" + error.getPosition() + ": " + error.getException().getMessage());
+        }
+        if (report.getErrorCount() > report.getErrors().size()) {
+            System.err.println("Ещё отклонено записей: " + (report.getErrorCount() - report.getErrors().size()));
+        }
+    }
+
+    private static List<Person> filterValid(List<Person> people) {
+        PersonBatch batch = new PersonBatch(people.size());
+
+        for (Person person : people) {
+            batch.append(person);
+        }
+
+        BatchValidationReport report = batch.validate();
+
+        if (report.isValid()) {
+            return people;
+        }
+
+        boolean[] invalid = new boolean[people.size()];
+
+        for (InvalidRecord invalidRecord : report.getInvalidRecords()) {
+            invalid[invalidRecord.getPosition()] = true;
+            System.err.println(
+                "Запись #" + invalidRecord.getPosition() + ": " +
+                invalidRecord.getException().getMessage()
+            );
+        }
+
+        List<Person> validPeople = new ArrayList<>(people.size() - report.getInvalidRecords().size());
+
+        for (int i = 0; i < people.size(); i++) {
+            if (!invalid[i]) {
+                validPeople.add(people.get(i));
+            }
+        }
+
+        return validPeople;
+    }
+
+    private static class SavedPersonRepositoryHolder {
+
+        private static final IPersonRepository personRepository;
+
+        static {
+            try {
+                Path saveFilepath = Path.of(System.getenv("SAVE_FILEPATH"));
+
+                if (Boolean.parseBoolean(System.getenv("HOT_RELOAD"))) {
+                    personRepository = loadReloadablePersonRepository(saveFilepath);
+                }
+                else if (Boolean.parseBoolean(System.getenv("LAZY_LOAD"))) {
+                    personRepository = loadLazyPersonRepository(saveFilepath);
+                }
+                else {
+                    personRepository = loadPersonRepository(saveFilepath);
+                }
+            }
+            catch (IOException e) {
+                throw new AssertionError("Application is not setup");
+            }
+        }
+    }
 }
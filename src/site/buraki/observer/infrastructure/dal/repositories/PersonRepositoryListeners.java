@@ -0,0 +1,63 @@
+package site.buraki.observer.infrastructure.dal.repositories;
+
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonField;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Набор слушателей изменений хранилища, оповещаемых по очереди.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepositoryListener
+ * @since 0.5.0
+ */
+class PersonRepositoryListeners implements IPersonRepositoryListener {
+
+    private final CopyOnWriteArrayList<IPersonRepositoryListener> listeners = new CopyOnWriteArrayList<>();
+
+    void add(IPersonRepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    void remove(IPersonRepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void onAdd(Person newPerson) {
+        for (IPersonRepositoryListener listener : listeners) {
+            listener.onAdd(newPerson);
+        }
+    }
+
+    @Override
+    public void onUpdate(Person oldPerson, Person newPerson) {
+        for (IPersonRepositoryListener listener : listeners) {
+            listener.onUpdate(oldPerson, newPerson);
+        }
+    }
+
+    @Override
+    public void onModify(Person oldPerson, Person newPerson, Set<PersonField> changedFields) {
+        for (IPersonRepositoryListener listener : listeners) {
+            listener.onModify(oldPerson, newPerson, changedFields);
+        }
+    }
+
+    @Override
+    public void onRemove(Person oldPerson) {
+        for (IPersonRepositoryListener listener : listeners) {
+            listener.onRemove(oldPerson);
+        }
+    }
+
+    @Override
+    public void onRemoveAll() {
+        for (IPersonRepositoryListener listener : listeners) {
+            listener.onRemoveAll();
+        }
+    }
+}
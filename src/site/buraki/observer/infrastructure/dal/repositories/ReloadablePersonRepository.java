@@ -0,0 +1,605 @@
+package site.buraki.observer.infrastructure.dal.repositories;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonField;
+import site.buraki.observer.core.person.PersonModification;
+import site.buraki.observer.infrastructure.dal.sequences.BlockIDSequence;
+import site.buraki.observer.infrastructure.diagnostics.RepositoryLoadPhaseEvent;
+import site.buraki.observer.infrastructure.importing.ImportReport;
+import site.buraki.observer.infrastructure.importing.ImportStage;
+import site.buraki.observer.infrastructure.importing.PersonImporter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранилище экземпляров бизнес-модели человека, перезагружаемое при
+ * изменении файла сохранения другим процессом.
+ *
+ * <p>Состояние хранится в поколении — {@link PersonRepository}, на
+ * которое указывает изменчивая ссылка. Перезагрузка потоково
+ * импортирует файл ({@link PersonImporter}) в новое поколение, не
+ * трогая текущее, сравнивает поколения по уникальным идентификаторам
+ * и подменяет ссылку. Чтения не берут блокировок хранилища и не ждут
+ * перезагрузку: каждое целиком выполняется над старым или новым
+ * поколением. Изменения ждут только подмену, а изменения, сделанные
+ * во время импорта, учитываются при сравнении под той же
+ * блокировкой; после подмены содержимое совпадает с файлом.
+ *
+ * <p>Слушатели получают только разницу поколений: добавления,
+ * удаления и замены. Замена, затронувшая лишь изменяемые поля,
+ * передаётся как {@link IPersonRepositoryListener#onModify}, поэтому
+ * индексы пропускают не касающиеся их изменения. Неизменившиеся
+ * записи не оповещают слушателей.
+ *
+ * <p>Файл, записанный не полностью или изменившийся во время
+ * импорта, не применяется: перезагрузка повторится по следующему
+ * событию файловой системы. Последовательность идентификаторов
+ * продвигается за наибольший идентификатор файла, но блоки, уже
+ * выданные потокам, могут пересечься с идентификаторами, добавленными
+ * другим процессом; такие добавления отклоняются как повторные.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonImporter
+ * @see PersonRepository
+ * @since 0.5.0
+ */
+class ReloadablePersonRepository implements IPersonRepository, Closeable {
+
+    private static final long QUIET_PERIOD_MILLIS = 200;
+    private static final int TAIL_SIZE = 64;
+
+    private final Path saveFilepath;
+    private final BlockIDSequence idSequence;
+    private final PersonImporter personImporter = new PersonImporter();
+    private final PersonRepositoryListeners listeners = new PersonRepositoryListeners();
+    private volatile Generation generation;
+
+    // Изменения разделяют блокировку, подмена поколения исключает их.
+    private final ReentrantReadWriteLock switchLock = new ReentrantReadWriteLock();
+    private final Lock sharedSwitchLock = switchLock.readLock();
+    private final Lock exclusiveSwitchLock = switchLock.writeLock();
+    private final Lock reloadLock = new ReentrantLock();
+    private FileState loadedFileState;
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    ReloadablePersonRepository(Path saveFilepath, BlockIDSequence idSequence) {
+        this.saveFilepath = saveFilepath.toAbsolutePath();
+        this.idSequence = idSequence;
+        this.generation = new Generation(new PersonRepository(idSequence), 0);
+        this.generation.repository.addListener(listeners);
+
+        // По одному потоку на стадию, чтобы порядок экземпляров
+        // совпадал с файлом.
+        personImporter.setParallelism(ImportStage.PARSE, 1);
+    }
+
+    /**
+     * Перезагрузка файла сохранения, если он изменился с прошлой.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Число применённых изменений.
+     * @throws IOException Ошибка чтения файла сохранения; текущее
+     *     поколение сохраняется.
+     * @since 0.5.0
+     */
+    int reload() throws IOException {
+        reloadLock.lock();
+        try {
+            FileState fileState = FileState.of(saveFilepath);
+
+            if (fileState.equals(loadedFileState)) {
+                return 0;
+            }
+
+            RepositoryLoadPhaseEvent reloadEvent = PersonRepositoryFactory.beginLoadPhase();
+            Generation current = generation;
+            DirtyIDs dirtyIDs = new DirtyIDs();
+
+            current.repository.addListener(dirtyIDs);
+            try {
+                PersonRepository next = new PersonRepository(idSequence);
+                ImportReport report = personImporter.importFrom(saveFilepath, next);
+
+                if (!fileState.equals(FileState.of(saveFilepath)) || !isComplete(saveFilepath)) {
+                    if (loadedFileState != null) {
+                        System.err.println("Файл сохранения записан не полностью, перезагрузка отложена");
+                    }
+
+                    return 0;
+                }
+
+                PersonRepositoryFactory.printImportErrors(report);
+
+                List<Person> nextPeople = next.getAll();
+                HashMap<Long, Person> nextByID = indexByID(nextPeople);
+                LinkedHashMap<Long, Change> changes = diff(current.repository.getAll(), nextPeople, nextByID);
+
+                exclusiveSwitchLock.lock();
+                try {
+                    if (dirtyIDs.all) {
+                        changes = diff(current.repository.getAll(), nextPeople, nextByID);
+                    }
+                    else if (!dirtyIDs.ids.isEmpty()) {
+                        HashMap<Long, Person> currentByID = indexByID(current.repository.getAll());
+
+                        for (long id : dirtyIDs.ids) {
+                            putChange(changes, id, currentByID.get(id), nextByID.get(id));
+                        }
+                    }
+
+                    if (!changes.isEmpty()) {
+                        current.repository.removeListener(listeners);
+                        next.addListener(listeners);
+                        generation = new Generation(next, current.getVersion() + 1 - next.getVersion());
+
+                        for (Change change : changes.values()) {
+                            change.dispatch(listeners);
+                        }
+                    }
+                }
+                finally {
+                    exclusiveSwitchLock.unlock();
+                }
+
+                idSequence.advancePast(report.getMaxID());
+                loadedFileState = fileState;
+                PersonRepositoryFactory.commitLoadPhase(
+                    reloadEvent,
+                    RepositoryLoadPhaseEvent.RELOAD,
+                    saveFilepath,
+                    changes.size()
+                );
+
+                return changes.size();
+            }
+            finally {
+                current.repository.removeListener(dirtyIDs);
+            }
+        }
+        finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Запуск потока, перезагружающего хранилище при изменении файла
+     * сохранения. Серия событий записи файла сворачивается в одну
+     * перезагрузку после паузы без событий.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка регистрации наблюдения за каталогом.
+     * @since 0.5.0
+     */
+    void startWatching() throws IOException {
+        watchService = saveFilepath.getFileSystem().newWatchService();
+        saveFilepath.getParent().register(
+            watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY
+        );
+
+        watcher = Thread.ofPlatform()
+            .daemon()
+            .name("save-file-reloader")
+            .start(this::watch);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService == null) {
+            return;
+        }
+
+        watchService.close();
+
+        try {
+            watcher.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public MutationResult tryAdd(Person newPerson) {
+        sharedSwitchLock.lock();
+        try {
+            return generation.repository.tryAdd(newPerson);
+        }
+        finally {
+            sharedSwitchLock.unlock();
+        }
+    }
+
+    @Override
+    public long nextID() {
+        return idSequence.next();
+    }
+
+    @Override
+    public Optional<Person> getByID(long id) {
+        return generation.repository.getByID(id);
+    }
+
+    @Override
+    public List<Person> getAll() {
+        return generation.repository.getAll();
+    }
+
+    @Override
+    public List<Person> getAllSortedByLocation() {
+        return generation.repository.getAllSortedByLocation();
+    }
+
+    @Override
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        return generation.repository.getWithinDistance(center, distance);
+    }
+
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        return generation.repository.getInBox(min, max);
+    }
+
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        return generation.repository.getTop(comparator, limit);
+    }
+
+    @Override
+    public int getSize() {
+        return generation.repository.getSize();
+    }
+
+    @Override
+    public MutationResult tryUpdate(Person newPerson) {
+        sharedSwitchLock.lock();
+        try {
+            return generation.repository.tryUpdate(newPerson);
+        }
+        finally {
+            sharedSwitchLock.unlock();
+        }
+    }
+
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) throws ValidationException {
+        sharedSwitchLock.lock();
+        try {
+            return generation.repository.modify(id, mutation);
+        }
+        finally {
+            sharedSwitchLock.unlock();
+        }
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        sharedSwitchLock.lock();
+        try {
+            return generation.repository.tryRemove(id);
+        }
+        finally {
+            sharedSwitchLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        sharedSwitchLock.lock();
+        try {
+            generation.repository.removeAll();
+        }
+        finally {
+            sharedSwitchLock.unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return generation.getVersion();
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void watch() {
+        Path fileName = saveFilepath.getFileName();
+
+        try {
+            while (true) {
+                boolean changed = pollEvents(watchService.take(), fileName);
+
+                while (changed) {
+                    WatchKey key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+
+                    if (key == null) {
+                        break;
+                    }
+
+                    pollEvents(key, fileName);
+                }
+
+                if (changed) {
+                    try {
+                        reload();
+                    }
+                    catch (IOException | RuntimeException e) {
+                        System.err.println("Ошибка перезагрузки файла сохранения: " + e.getMessage());
+                    }
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e) {
+            // Наблюдение остановлено.
+        }
+    }
+
+    private static boolean pollEvents(WatchKey key, Path fileName) {
+        boolean changed = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+        }
+
+        key.reset();
+
+        return changed;
+    }
+
+    /**
+     * Разница поколений в порядке нового поколения, затем удаления.
+     * Поиск по идентификатору в {@link PersonRepository} линеен,
+     * поэтому поколения сравниваются по словарям снимков.
+     */
+    private static LinkedHashMap<Long, Change> diff(
+            List<Person> currentPeople,
+            List<Person> nextPeople,
+            HashMap<Long, Person> nextByID
+    ) {
+        HashMap<Long, Person> currentByID = indexByID(currentPeople);
+        LinkedHashMap<Long, Change> changes = new LinkedHashMap<>();
+
+        for (Person newPerson : nextPeople) {
+            putChange(changes, newPerson.getID(), currentByID.get(newPerson.getID()), newPerson);
+        }
+
+        for (Person oldPerson : currentPeople) {
+            if (!nextByID.containsKey(oldPerson.getID())) {
+                changes.put(oldPerson.getID(), new Change(oldPerson, null));
+            }
+        }
+
+        return changes;
+    }
+
+    private static HashMap<Long, Person> indexByID(List<Person> people) {
+        HashMap<Long, Person> peopleByID = HashMap.newHashMap(people.size());
+
+        for (Person person : people) {
+            peopleByID.put(person.getID(), person);
+        }
+
+        return peopleByID;
+    }
+
+    private static void putChange(LinkedHashMap<Long, Change> changes, long id, Person oldPerson, Person newPerson) {
+        changes.remove(id);
+
+        if (oldPerson == null && newPerson == null
+            || oldPerson != null && newPerson != null && isSameState(oldPerson, newPerson)) {
+            return;
+        }
+
+        changes.put(id, new Change(oldPerson, newPerson));
+    }
+
+    private static boolean isSameState(Person oldPerson, Person newPerson) {
+        return isSameIdentity(oldPerson, newPerson) && PersonField.changedBetween(oldPerson, newPerson).isEmpty();
+    }
+
+    /**
+     * Совпадение неизменяемых полей: различие в них означает замену
+     * экземпляра, а не изменение.
+     */
+    private static boolean isSameIdentity(Person oldPerson, Person newPerson) {
+        return oldPerson.getCreatedAt().equals(newPerson.getCreatedAt())
+            && oldPerson.getEyeColor() == newPerson.getEyeColor();
+    }
+
+    /**
+     * Проверка, что файл заканчивается закрывающей скобкой массива.
+     * Файл, перезаписываемый на месте, до конца записи обрезан.
+     */
+    private static boolean isComplete(Path saveFilepath) throws IOException {
+        try (FileChannel channel = FileChannel.open(saveFilepath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer tail = ByteBuffer.allocate((int) Math.min(size, TAIL_SIZE));
+
+            long tailStart = size - tail.capacity();
+
+            while (tail.hasRemaining()) {
+                if (channel.read(tail, tailStart + tail.position()) < 0) {
+                    return false;
+                }
+            }
+
+            for (int i = tail.position() - 1; i >= 0; i--) {
+                byte b = tail.get(i);
+
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return b == ']';
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Поколение и смещение его версии, сохраняющее рост версии
+     * хранилища между поколениями.
+     */
+    private static class Generation {
+
+        final PersonRepository repository;
+        final long versionOffset;
+
+        Generation(PersonRepository repository, long versionOffset) {
+            this.repository = repository;
+            this.versionOffset = versionOffset;
+        }
+
+        long getVersion() {
+            return versionOffset + repository.getVersion();
+        }
+    }
+
+    /**
+     * Изменение одного экземпляра между поколениями; отсутствующая
+     * сторона — {@code null}.
+     */
+    private static class Change {
+
+        final Person oldPerson;
+        final Person newPerson;
+
+        Change(Person oldPerson, Person newPerson) {
+            this.oldPerson = oldPerson;
+            this.newPerson = newPerson;
+        }
+
+        void dispatch(IPersonRepositoryListener listener) {
+            if (oldPerson == null) {
+                listener.onAdd(newPerson);
+            }
+            else if (newPerson == null) {
+                listener.onRemove(oldPerson);
+            }
+            else if (isSameIdentity(oldPerson, newPerson)) {
+                listener.onModify(oldPerson, newPerson, PersonField.changedBetween(oldPerson, newPerson));
+            }
+            else {
+                listener.onUpdate(oldPerson, newPerson);
+            }
+        }
+    }
+
+    /**
+     * Уникальные идентификаторы, изменённые в текущем поколении во
+     * время перезагрузки.
+     */
+    private static class DirtyIDs implements IPersonRepositoryListener {
+
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+        volatile boolean all;
+
+        @Override
+        public void onAdd(Person newPerson) {
+            ids.add(newPerson.getID());
+        }
+
+        @Override
+        public void onUpdate(Person oldPerson, Person newPerson) {
+            ids.add(newPerson.getID());
+        }
+
+        @Override
+        public void onModify(Person oldPerson, Person newPerson, Set<PersonField> changedFields) {
+            ids.add(newPerson.getID());
+        }
+
+        @Override
+        public void onRemove(Person oldPerson) {
+            ids.add(oldPerson.getID());
+        }
+
+        @Override
+        public void onRemoveAll() {
+            all = true;
+        }
+    }
+
+    /**
+     * Размер, время изменения и ключ файла; ключ меняется при замене
+     * файла переименованием.
+     */
+    private static class FileState {
+
+        final long size;
+        final long lastModifiedNanos;
+        final Object fileKey;
+
+        FileState(long size, long lastModifiedNanos, Object fileKey) {
+            this.size = size;
+            this.lastModifiedNanos = lastModifiedNanos;
+            this.fileKey = fileKey;
+        }
+
+        static FileState of(Path filepath) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(filepath, BasicFileAttributes.class);
+
+            return new FileState(
+                attributes.size(),
+                attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS),
+                attributes.fileKey()
+            );
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            FileState otherFileState = (FileState) o;
+
+            return size == otherFileState.size &&
+                   lastModifiedNanos == otherFileState.lastModifiedNanos &&
+                   Objects.equals(fileKey, otherFileState.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, lastModifiedNanos, fileKey);
+        }
+    }
+}
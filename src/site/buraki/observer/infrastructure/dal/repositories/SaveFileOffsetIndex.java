@@ -0,0 +1,96 @@
+package site.buraki.observer.infrastructure.dal.repositories;
+
+import site.buraki.observer.infrastructure.marshalling.json.JSONRecordScanner;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Индекс смещений записей файла сохранения: уникальный идентификатор,
+ * смещение и длина каждого объекта верхнего уровня JSON-массива.
+ *
+ * <p>Файл просматривается один раз без разбора значений
+ * ({@link JSONRecordScanner}). Записи без числового уникального
+ * идентификатора пропускаются с выводом описания в
+ * {@code System.err}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see LazyPersonRepository
+ * @since 0.5.0
+ */
+class SaveFileOffsetIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int size;
+    private long maxID;
+
+    private SaveFileOffsetIndex() {
+    }
+
+    /**
+     * Построение индекса просмотром файла сохранения.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param saveFilepath Путь к файлу сохранения.
+     * @return Индекс записей в порядке следования в файле.
+     * @throws IOException Ошибка чтения файла сохранения.
+     * @since 0.5.0
+     */
+    static SaveFileOffsetIndex scan(Path saveFilepath) throws IOException {
+        SaveFileOffsetIndex index = new SaveFileOffsetIndex();
+
+        try (InputStream inputStream = new FileInputStream(saveFilepath.toFile())) {
+            new JSONRecordScanner(false).scan(inputStream, (number, offset, length, content, hasID, id) -> {
+                if (hasID) {
+                    index.append(id, offset, length);
+                }
+                else {
+                    System.err.println("Запись #" + number + ": уникальный идентификатор не найден");
+                }
+            });
+        }
+
+        return index;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    long getMaxID() {
+        return maxID;
+    }
+
+    long getID(int position) {
+        return ids[position];
+    }
+
+    long getOffset(int position) {
+        return offsets[position];
+    }
+
+    int getLength(int position) {
+        return lengths[position];
+    }
+
+    private void append(long id, long offset, int length) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            offsets = Arrays.copyOf(offsets, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+
+        ids[size] = id;
+        offsets[size] = offset;
+        lengths[size] = length;
+        size++;
+        maxID = Math.max(maxID, id);
+    }
+}
@@ -0,0 +1,30 @@
+package site.buraki.observer.infrastructure.dal.repositories;
+
+/**
+ * Перечисление уровней согласованности запросов ко всем экземплярам
+ * секционированного хранилища.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PartitionedPersonRepository
+ * @since 0.5.0
+ */
+public enum ScanConsistency {
+
+    /**
+     * Каждая секция читается под собственной блокировкой; изменения в
+     * других секциях во время запроса могут попасть в результат
+     * частично.
+     */
+    PER_SHARD,
+
+    /**
+     * Все секции блокируются на чтение на время запроса, и результат
+     * соответствует одной версии хранилища. Предназначен для экспорта.
+     */
+    SNAPSHOT;
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "." + name();
+    }
+}
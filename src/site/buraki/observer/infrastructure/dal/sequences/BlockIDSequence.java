@@ -0,0 +1,136 @@
+package site.buraki.observer.infrastructure.dal.sequences;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Последовательность уникальных идентификаторов, выдающая каждому
+ * потоку собственный блок идентификаторов.
+ *
+ * <p>Общий счётчик затрагивается одной операцией fetch-and-add на
+ * блок, а идентификаторы внутри блока выдаются из локального для
+ * потока состояния без синхронизации. Повторных попыток после
+ * коллизий не бывает: блоки не пересекаются по построению.
+ *
+ * <p>Блоки выдаются только долгоживущим платформенным потокам.
+ * Виртуальный поток обычно обслуживает один запрос и выделил бы блок
+ * ради одного идентификатора, поэтому виртуальные потоки получают
+ * идентификаторы из общего счётчика по одному той же операцией
+ * fetch-and-add.
+ *
+ * <p>Для сохранения уникальности между перезапусками верхняя граница
+ * выделенных блоков резервируется в хранилище с запасом. Запись в
+ * хранилище происходит только при исчерпании резерва, то есть раз в
+ * {@value #RESERVATION_SIZE} идентификаторов. После перезапуска
+ * неиспользованный остаток резерва пропускается. Запись выполняется
+ * под {@link ReentrantLock}, а не {@code synchronized}, чтобы
+ * виртуальный поток не закреплял поток-носитель на время
+ * ввода-вывода.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IIDSequence
+ * @see IIDSequenceStore
+ * @since 0.5.0
+ */
+public class BlockIDSequence implements IIDSequence {
+
+    private static final int BLOCK_SIZE = 64;
+    private static final int RESERVATION_SIZE = 64 * 1024;
+
+    private final IIDSequenceStore store;
+    private final AtomicLong nextBlockStart;
+    private volatile long reservedLimit;
+    private final Lock reservationLock = new ReentrantLock();
+
+    private final ThreadLocal<long[]> localBlock = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Конструктор последовательности уникальных идентификаторов.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param store Хранилище верхней границы зарезервированных
+     *     идентификаторов.
+     * @param maxSeenID Максимальный уникальный идентификатор среди
+     *     загруженных экземпляров.
+     * @throws IOException Ошибка чтения хранилища.
+     * @since 0.5.0
+     */
+    public BlockIDSequence(IIDSequenceStore store, long maxSeenID) throws IOException {
+        long start = Math.max(maxSeenID + 1, Math.max(store.load(), 1));
+
+        this.store = store;
+        this.nextBlockStart = new AtomicLong(start);
+        this.reservedLimit = start;
+    }
+
+    @Override
+    public long next() {
+        if (Thread.currentThread().isVirtual()) {
+            long id = nextBlockStart.getAndIncrement();
+
+            if (id >= reservedLimit) {
+                reserve(id + 1);
+            }
+
+            return id;
+        }
+
+        long[] block = localBlock.get();
+
+        if (block[0] == block[1]) {
+            long blockStart = nextBlockStart.getAndAdd(BLOCK_SIZE);
+            long blockEnd = blockStart + BLOCK_SIZE;
+
+            if (blockEnd > reservedLimit) {
+                reserve(blockEnd);
+            }
+
+            block[0] = blockStart;
+            block[1] = blockEnd;
+        }
+
+        return block[0]++;
+    }
+
+    /**
+     * Продвижение последовательности за уникальный идентификатор,
+     * загруженный после её создания.
+     *
+     * <p>Вызывается до выдачи первого идентификатора: уже выданные
+     * потокам блоки не пересматриваются.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param maxSeenID Максимальный уникальный идентификатор среди
+     *     загруженных экземпляров.
+     * @since 0.5.0
+     */
+    public void advancePast(long maxSeenID) {
+        nextBlockStart.accumulateAndGet(maxSeenID + 1, Math::max);
+    }
+
+    private void reserve(long blockEnd) {
+        reservationLock.lock();
+        try {
+            if (blockEnd <= reservedLimit) {
+                return;
+            }
+
+            long newReservedLimit = blockEnd + RESERVATION_SIZE;
+
+            try {
+                store.store(newReservedLimit);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Ошибка резервирования уникальных идентификаторов", e);
+            }
+
+            reservedLimit = newReservedLimit;
+        }
+        finally {
+            reservationLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package site.buraki.observer.infrastructure.dal.sequences;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Хранилище верхней границы зарезервированных уникальных
+ * идентификаторов в текстовом файле.
+ *
+ * <p>Запись выполняется во временный файл с последующим атомарным
+ * перемещением, поэтому сбой во время записи не повреждает ранее
+ * сохранённое значение.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IIDSequenceStore
+ * @since 0.5.0
+ */
+public class FileIDSequenceStore implements IIDSequenceStore {
+
+    private final Path filepath;
+
+    public FileIDSequenceStore(Path filepath) {
+        this.filepath = filepath;
+    }
+
+    @Override
+    public long load() throws IOException {
+        if (!Files.exists(filepath)) {
+            return 0;
+        }
+
+        String content = Files.readString(filepath, StandardCharsets.UTF_8).strip();
+
+        try {
+            return content.isEmpty() ? 0 : Long.parseLong(content);
+        }
+        catch (NumberFormatException e) {
+            throw new IOException("Повреждён файл последовательности идентификаторов", e);
+        }
+    }
+
+    @Override
+    public void store(long reservedLimit) throws IOException {
+        Path temporaryFilepath = filepath.resolveSibling(filepath.getFileName() + ".tmp");
+
+        Files.writeString(temporaryFilepath, Long.toString(reservedLimit), StandardCharsets.UTF_8);
+        Files.move(
+            temporaryFilepath,
+            filepath,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+}
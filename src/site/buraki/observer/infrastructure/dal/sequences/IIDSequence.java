@@ -0,0 +1,19 @@
+package site.buraki.observer.infrastructure.dal.sequences;
+
+/**
+ * Абстрактная последовательность уникальных идентификаторов.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+public interface IIDSequence {
+
+    /**
+     * Выделение очередного уникального идентификатора.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Уникальный идентификатор больше 0.
+     * @since 0.5.0
+     */
+    long next();
+}
@@ -0,0 +1,34 @@
+package site.buraki.observer.infrastructure.dal.sequences;
+
+import java.io.IOException;
+
+/**
+ * Абстрактное хранилище верхней границы зарезервированных
+ * уникальных идентификаторов.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see BlockIDSequence
+ * @since 0.5.0
+ */
+public interface IIDSequenceStore {
+
+    /**
+     * Чтение сохранённой верхней границы.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Верхняя граница или 0, если она ещё не сохранялась.
+     * @throws IOException Ошибка чтения.
+     * @since 0.5.0
+     */
+    long load() throws IOException;
+
+    /**
+     * Сохранение верхней границы.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param reservedLimit Верхняя граница (не включительно).
+     * @throws IOException Ошибка записи.
+     * @since 0.5.0
+     */
+    void store(long reservedLimit) throws IOException;
+}
@@ -0,0 +1,25 @@
+package site.buraki.observer.infrastructure.dal.sequences;
+
+/**
+ * Хранилище верхней границы зарезервированных уникальных
+ * идентификаторов в памяти процесса, без сохранения между
+ * перезапусками.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IIDSequenceStore
+ * @since 0.5.0
+ */
+public class InMemoryIDSequenceStore implements IIDSequenceStore {
+
+    private volatile long reservedLimit;
+
+    @Override
+    public long load() {
+        return reservedLimit;
+    }
+
+    @Override
+    public void store(long reservedLimit) {
+        this.reservedLimit = reservedLimit;
+    }
+}
@@ -0,0 +1,993 @@
+package site.buraki.observer.infrastructure.dal.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Страничное B+-дерево в одном файле, отображающее ключи
+ * {@code long} на значения произвольной длины.
+ *
+ * <p><b>Страницы</b>: нулевая страница хранит метаданные (корень,
+ * число страниц, список свободных страниц, число записей и
+ * {@value #USER_SLOT_COUNT} пользовательских слота), остальные — узлы
+ * дерева, цепочки переполнения и свободные страницы. Листья связаны в
+ * двусвязный список в порядке ключей. Значения длиннее четверти
+ * страницы выносятся в цепочку страниц переполнения, что гарантирует
+ * размещение любого листа после разделения.
+ *
+ * <p><b>Удаление</b>: опустевшие листья исключаются из дерева и
+ * списка листьев, а их страницы, как и страницы переполнения,
+ * переиспользуются через список свободных страниц. Неполные узлы не
+ * сливаются.
+ *
+ * <p><b>Фиксация</b>: изменения накапливаются в пуле буферов и
+ * атомарно записываются вызовом {@link #commit()} либо отменяются
+ * вызовом {@link #rollback()}. Память ограничена бюджетом пула
+ * буферов, а не числом записей.
+ *
+ * <p>Чтения потокобезопасны относительно друг друга; изменения,
+ * фиксация и откат требуют внешнего исключения всех остальных
+ * операций.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see BufferPool
+ * @see PageFile
+ * @since 0.5.0
+ */
+public class BPlusTree implements Closeable {
+
+    public static final int DEFAULT_PAGE_SIZE = 8 * 1024;
+    public static final int USER_SLOT_COUNT = 4;
+
+    private static final int MIN_FRAME_COUNT = 16;
+    private static final long MAGIC = 0x4F42534250545231L;
+    private static final long META_PAGE_ID = 0;
+    private static final long NO_PAGE = 0;
+
+    private static final byte TYPE_META = 1;
+    private static final byte TYPE_LEAF = 2;
+    private static final byte TYPE_INTERNAL = 3;
+    private static final byte TYPE_OVERFLOW = 4;
+    private static final byte TYPE_FREE = 5;
+
+    private static final int TYPE_OFFSET = PageFile.CHECKSUM_SIZE;
+    private static final int COUNT_OFFSET = 6;
+    private static final int NEXT_OFFSET = 8;
+    private static final int PREVIOUS_OFFSET = 16;
+    private static final int HEADER_SIZE = 24;
+
+    private static final int META_MAGIC_OFFSET = HEADER_SIZE;
+    private static final int META_PAGE_SIZE_OFFSET = META_MAGIC_OFFSET + Long.BYTES;
+    private static final int META_ROOT_OFFSET = META_PAGE_SIZE_OFFSET + Long.BYTES;
+    private static final int META_PAGE_COUNT_OFFSET = META_ROOT_OFFSET + Long.BYTES;
+    private static final int META_FREE_LIST_OFFSET = META_PAGE_COUNT_OFFSET + Long.BYTES;
+    private static final int META_SIZE_OFFSET = META_FREE_LIST_OFFSET + Long.BYTES;
+    private static final int META_USER_SLOTS_OFFSET = META_SIZE_OFFSET + Long.BYTES;
+
+    private static final int LEAF_ENTRY_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int INTERNAL_ENTRY_SIZE = Long.BYTES * 2;
+    private static final int OVERFLOW_LENGTH_OFFSET = HEADER_SIZE;
+    private static final int OVERFLOW_DATA_OFFSET = OVERFLOW_LENGTH_OFFSET + Integer.BYTES;
+
+    private static final byte INLINE_VALUE = 0;
+    private static final byte OVERFLOW_VALUE = 1;
+    private static final int OVERFLOW_REFERENCE_SIZE = 1 + Integer.BYTES + Long.BYTES;
+
+    private final PageFile pageFile;
+    private final BufferPool bufferPool;
+    private final BufferPool.Frame metaFrame;
+    private final int pageSize;
+    private final int maxInlineValueSize;
+    private final int maxInternalKeyCount;
+    private boolean truncatePending;
+
+    private BPlusTree(PageFile pageFile, BufferPool bufferPool) throws IOException {
+        this.pageFile = pageFile;
+        this.bufferPool = bufferPool;
+        this.pageSize = pageFile.getPageSize();
+        this.maxInlineValueSize = (pageSize - HEADER_SIZE) / 4 - LEAF_ENTRY_HEADER_SIZE - 1;
+        this.maxInternalKeyCount = (pageSize - HEADER_SIZE - Long.BYTES) / INTERNAL_ENTRY_SIZE;
+
+        if (pageFile.getPageCount() == 0) {
+            this.metaFrame = bufferPool.pinNew(META_PAGE_ID);
+            format();
+            commit();
+        }
+        else {
+            this.metaFrame = bufferPool.pin(META_PAGE_ID);
+
+            if (
+                metaFrame.data[TYPE_OFFSET] != TYPE_META ||
+                PageBytes.getLong(metaFrame.data, META_MAGIC_OFFSET) != MAGIC ||
+                PageBytes.getLong(metaFrame.data, META_PAGE_SIZE_OFFSET) != pageSize
+            ) {
+                throw new IOException("Файл не является B+-деревом с размером страницы " + pageSize);
+            }
+        }
+    }
+
+    /**
+     * Открытие или создание B+-дерева в файле.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param filepath Путь к файлу дерева.
+     * @param pageSize Размер страницы в байтах.
+     * @param memoryBudget Бюджет памяти пула буферов в байтах.
+     * @param durable Сбрасывать данные на носитель при фиксации.
+     * @return B+-дерево.
+     * @throws IOException Ошибка открытия файла, восстановления после
+     *     сбоя или несовпадение формата.
+     * @since 0.5.0
+     */
+    public static BPlusTree open(Path filepath, int pageSize, long memoryBudget, boolean durable) throws IOException {
+        PageFile pageFile = new PageFile(filepath, pageSize, durable);
+
+        try {
+            return new BPlusTree(
+                pageFile,
+                new BufferPool(pageFile, (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_FRAME_COUNT, memoryBudget / pageSize)))
+            );
+        }
+        catch (IOException | RuntimeException e) {
+            pageFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Получение значения по ключу.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param key Ключ.
+     * @return Значение или {@code null}, если ключ отсутствует.
+     * @throws IOException Ошибка чтения страниц.
+     * @since 0.5.0
+     */
+    public byte[] get(long key) throws IOException {
+        long pageID = getMeta(META_ROOT_OFFSET);
+
+        while (true) {
+            BufferPool.Frame frame = bufferPool.pin(pageID);
+            try {
+                byte[] page = frame.data;
+
+                if (page[TYPE_OFFSET] == TYPE_INTERNAL) {
+                    pageID = PageBytes.getLong(page, childOffset(findChild(page, key)));
+                    continue;
+                }
+
+                int offset = HEADER_SIZE;
+                int count = getCount(page);
+
+                for (int i = 0; i < count; i++) {
+                    long entryKey = PageBytes.getLong(page, offset);
+                    int entryLength = PageBytes.getInt(page, offset + Long.BYTES);
+
+                    if (entryKey == key) {
+                        int entryOffset = offset + LEAF_ENTRY_HEADER_SIZE;
+
+                        return readValue(Arrays.copyOfRange(page, entryOffset, entryOffset + entryLength));
+                    }
+
+                    if (entryKey > key) {
+                        return null;
+                    }
+
+                    offset += LEAF_ENTRY_HEADER_SIZE + entryLength;
+                }
+
+                return null;
+            }
+            finally {
+                bufferPool.unpin(frame);
+            }
+        }
+    }
+
+    /**
+     * Вставка значения по отсутствующему ключу.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param key Ключ.
+     * @param value Значение.
+     * @return {@code false}, если ключ уже присутствует.
+     * @throws IOException Ошибка чтения страниц.
+     * @since 0.5.0
+     */
+    public boolean insert(long key, byte[] value) throws IOException {
+        return put(key, value, true);
+    }
+
+    /**
+     * Замена значения по присутствующему ключу.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param key Ключ.
+     * @param value Новое значение.
+     * @return {@code false}, если ключ отсутствует.
+     * @throws IOException Ошибка чтения страниц.
+     * @since 0.5.0
+     */
+    public boolean replace(long key, byte[] value) throws IOException {
+        return put(key, value, false);
+    }
+
+    /**
+     * Удаление значения по ключу.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param key Ключ.
+     * @return {@code false}, если ключ отсутствует.
+     * @throws IOException Ошибка чтения страниц.
+     * @since 0.5.0
+     */
+    public boolean remove(long key) throws IOException {
+        long rootPageID = getMeta(META_ROOT_OFFSET);
+        Node[] path = new Node[64];
+        int[] childIndexes = new int[64];
+        int depth = 0;
+
+        Node node = readNode(rootPageID);
+
+        while (!node.leaf) {
+            int childIndex = node.findChild(key);
+
+            path[depth] = node;
+            childIndexes[depth] = childIndex;
+            depth++;
+            node = readNode(node.children[childIndex]);
+        }
+
+        int index = node.search(key);
+
+        if (index < 0) {
+            return false;
+        }
+
+        freeValue(node.entries[index]);
+        node.removeEntry(index);
+        setMeta(META_SIZE_OFFSET, getMeta(META_SIZE_OFFSET) - 1);
+
+        if (node.count > 0 || depth == 0) {
+            writeNode(node);
+            return true;
+        }
+
+        unlinkLeaf(node);
+        freePage(node.pageID);
+
+        for (int level = depth - 1; level >= 0; level--) {
+            Node parent = path[level];
+            parent.removeChild(childIndexes[level]);
+
+            if (parent.children.length > 0) {
+                writeNode(parent);
+                break;
+            }
+
+            freePage(parent.pageID);
+        }
+
+        collapseRoot();
+
+        return true;
+    }
+
+    /**
+     * Удаление всех значений.
+     *
+     * <p>Файл усекается при следующей фиксации.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка записи страниц.
+     * @since 0.5.0
+     */
+    public void clear() throws IOException {
+        long[] userSlots = new long[USER_SLOT_COUNT];
+
+        for (int slot = 0; slot < USER_SLOT_COUNT; slot++) {
+            userSlots[slot] = getUserValue(slot);
+        }
+
+        format();
+
+        for (int slot = 0; slot < USER_SLOT_COUNT; slot++) {
+            setUserValue(slot, userSlots[slot]);
+        }
+
+        truncatePending = true;
+    }
+
+    /**
+     * Обход всех значений в порядке возрастания ключей.
+     *
+     * <p>В памяти одновременно находится только текущий лист.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param visitor Посетитель записей.
+     * @throws IOException Ошибка чтения страниц.
+     * @since 0.5.0
+     */
+    public void forEach(EntryVisitor visitor) throws IOException {
+        Node node = readNode(getMeta(META_ROOT_OFFSET));
+
+        while (!node.leaf) {
+            node = readNode(node.children[0]);
+        }
+
+        while (true) {
+            for (int i = 0; i < node.count; i++) {
+                visitor.visit(node.keys[i], readValue(node.entries[i]));
+            }
+
+            if (node.next == NO_PAGE) {
+                return;
+            }
+
+            node = readNode(node.next);
+        }
+    }
+
+    /**
+     * Получение наибольшего ключа.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Наибольший ключ или 0, если дерево пусто.
+     * @throws IOException Ошибка чтения страниц.
+     * @since 0.5.0
+     */
+    public long getLastKey() throws IOException {
+        Node node = readNode(getMeta(META_ROOT_OFFSET));
+
+        while (!node.leaf) {
+            node = readNode(node.children[node.children.length - 1]);
+        }
+
+        return node.count == 0 ? 0 : node.keys[node.count - 1];
+    }
+
+    public long getSize() {
+        return getMeta(META_SIZE_OFFSET);
+    }
+
+    public long getUserValue(int slot) {
+        return getMeta(userSlotOffset(slot));
+    }
+
+    /**
+     * Установка значения пользовательского слота метаданных.
+     *
+     * <p>Значение фиксируется вместе с остальными изменениями.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param slot Номер слота от 0 до {@value #USER_SLOT_COUNT} - 1.
+     * @param value Значение.
+     * @since 0.5.0
+     */
+    public void setUserValue(int slot, long value) {
+        setMeta(userSlotOffset(slot), value);
+    }
+
+    /**
+     * Атомарная фиксация изменений.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка записи. Изменения остаются
+     *     незафиксированными.
+     * @since 0.5.0
+     */
+    public void commit() throws IOException {
+        bufferPool.commit();
+
+        if (truncatePending) {
+            truncatePending = false;
+            bufferPool.discardFrom(getMeta(META_PAGE_COUNT_OFFSET));
+            pageFile.truncate(getMeta(META_PAGE_COUNT_OFFSET));
+        }
+    }
+
+    /**
+     * Отмена незафиксированных изменений.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка чтения страниц.
+     * @since 0.5.0
+     */
+    public void rollback() throws IOException {
+        truncatePending = false;
+        bufferPool.rollback();
+    }
+
+    /**
+     * Закрытие файла без фиксации изменений.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка закрытия файла.
+     * @since 0.5.0
+     */
+    @Override
+    public void close() throws IOException {
+        pageFile.close();
+    }
+
+    private void format() {
+        long rootPageID = META_PAGE_ID + 1;
+        byte[] meta = metaFrame.data;
+
+        Arrays.fill(meta, (byte) 0);
+        meta[TYPE_OFFSET] = TYPE_META;
+        PageBytes.putLong(meta, META_MAGIC_OFFSET, MAGIC);
+        PageBytes.putLong(meta, META_PAGE_SIZE_OFFSET, pageSize);
+        PageBytes.putLong(meta, META_ROOT_OFFSET, rootPageID);
+        PageBytes.putLong(meta, META_PAGE_COUNT_OFFSET, rootPageID + 1);
+        bufferPool.markDirty(metaFrame);
+
+        writeNode(Node.leaf(rootPageID, new long[0], new byte[0][]));
+    }
+
+    private boolean put(long key, byte[] value, boolean insert) throws IOException {
+        long rootPageID = getMeta(META_ROOT_OFFSET);
+        boolean[] applied = new boolean[1];
+        Split split = put(rootPageID, key, value, insert, applied);
+
+        if (split != null) {
+            Node root = Node.internal(
+                allocatePage(),
+                new long[] {split.key},
+                new long[] {rootPageID, split.pageID}
+            );
+
+            writeNode(root);
+            setMeta(META_ROOT_OFFSET, root.pageID);
+        }
+
+        if (applied[0] && insert) {
+            setMeta(META_SIZE_OFFSET, getMeta(META_SIZE_OFFSET) + 1);
+        }
+
+        return applied[0];
+    }
+
+    private Split put(long pageID, long key, byte[] value, boolean insert, boolean[] applied) throws IOException {
+        Node node = readNode(pageID);
+
+        if (!node.leaf) {
+            int childIndex = node.findChild(key);
+            Split split = put(node.children[childIndex], key, value, insert, applied);
+
+            if (split == null) {
+                return null;
+            }
+
+            node.insertChild(childIndex, split.key, split.pageID);
+
+            return writeInternal(node);
+        }
+
+        int index = node.search(key);
+
+        if (index >= 0) {
+            if (insert) {
+                return null;
+            }
+
+            freeValue(node.entries[index]);
+            node.entries[index] = createValue(value);
+        }
+        else {
+            if (!insert) {
+                return null;
+            }
+
+            node.insertEntry(-index - 1, key, createValue(value));
+        }
+
+        applied[0] = true;
+
+        return writeLeaf(node);
+    }
+
+    private Split writeLeaf(Node node) throws IOException {
+        int payloadSize = node.leafPayloadSize();
+
+        if (HEADER_SIZE + payloadSize <= pageSize) {
+            writeNode(node);
+            return null;
+        }
+
+        int splitIndex = 0;
+        int leftSize = 0;
+
+        while (leftSize < payloadSize / 2) {
+            leftSize += LEAF_ENTRY_HEADER_SIZE + node.entries[splitIndex].length;
+            splitIndex++;
+        }
+
+        Node right = Node.leaf(
+            allocatePage(),
+            Arrays.copyOfRange(node.keys, splitIndex, node.count),
+            Arrays.copyOfRange(node.entries, splitIndex, node.count)
+        );
+
+        right.next = node.next;
+        right.previous = node.pageID;
+
+        if (node.next != NO_PAGE) {
+            setPrevious(node.next, right.pageID);
+        }
+
+        node.keys = Arrays.copyOf(node.keys, splitIndex);
+        node.entries = Arrays.copyOf(node.entries, splitIndex);
+        node.count = splitIndex;
+        node.next = right.pageID;
+
+        writeNode(node);
+        writeNode(right);
+
+        return new Split(right.keys[0], right.pageID);
+    }
+
+    private Split writeInternal(Node node) throws IOException {
+        if (node.count <= maxInternalKeyCount) {
+            writeNode(node);
+            return null;
+        }
+
+        int middle = node.count / 2;
+        Node right = Node.internal(
+            allocatePage(),
+            Arrays.copyOfRange(node.keys, middle + 1, node.count),
+            Arrays.copyOfRange(node.children, middle + 1, node.count + 1)
+        );
+        long separator = node.keys[middle];
+
+        node.keys = Arrays.copyOf(node.keys, middle);
+        node.children = Arrays.copyOf(node.children, middle + 1);
+        node.count = middle;
+
+        writeNode(node);
+        writeNode(right);
+
+        return new Split(separator, right.pageID);
+    }
+
+    private void unlinkLeaf(Node node) throws IOException {
+        if (node.previous != NO_PAGE) {
+            Node previous = readNode(node.previous);
+            previous.next = node.next;
+            writeNode(previous);
+        }
+
+        if (node.next != NO_PAGE) {
+            setPrevious(node.next, node.previous);
+        }
+    }
+
+    private void setPrevious(long pageID, long previousPageID) throws IOException {
+        BufferPool.Frame frame = bufferPool.pin(pageID);
+        try {
+            PageBytes.putLong(frame.data, PREVIOUS_OFFSET, previousPageID);
+            bufferPool.markDirty(frame);
+        }
+        finally {
+            bufferPool.unpin(frame);
+        }
+    }
+
+    private void collapseRoot() throws IOException {
+        long rootPageID = getMeta(META_ROOT_OFFSET);
+        Node root = readNode(rootPageID);
+
+        while (!root.leaf && root.count == 0) {
+            freePage(rootPageID);
+            rootPageID = root.children[0];
+            root = readNode(rootPageID);
+        }
+
+        if (root.leaf) {
+            root.previous = NO_PAGE;
+            root.next = NO_PAGE;
+            writeNode(root);
+        }
+
+        setMeta(META_ROOT_OFFSET, rootPageID);
+    }
+
+    private byte[] createValue(byte[] value) throws IOException {
+        if (value.length <= maxInlineValueSize) {
+            byte[] entry = new byte[value.length + 1];
+            entry[0] = INLINE_VALUE;
+            System.arraycopy(value, 0, entry, 1, value.length);
+
+            return entry;
+        }
+
+        int chunkCapacity = pageSize - OVERFLOW_DATA_OFFSET;
+        long nextPageID = NO_PAGE;
+
+        for (int chunkStart = (value.length - 1) / chunkCapacity * chunkCapacity; chunkStart >= 0; chunkStart -= chunkCapacity) {
+            long pageID = allocatePage();
+            int chunkLength = Math.min(chunkCapacity, value.length - chunkStart);
+            BufferPool.Frame frame = bufferPool.pinNew(pageID);
+            try {
+                frame.data[TYPE_OFFSET] = TYPE_OVERFLOW;
+                PageBytes.putLong(frame.data, NEXT_OFFSET, nextPageID);
+                PageBytes.putInt(frame.data, OVERFLOW_LENGTH_OFFSET, chunkLength);
+                System.arraycopy(value, chunkStart, frame.data, OVERFLOW_DATA_OFFSET, chunkLength);
+            }
+            finally {
+                bufferPool.unpin(frame);
+            }
+
+            nextPageID = pageID;
+        }
+
+        byte[] entry = new byte[OVERFLOW_REFERENCE_SIZE];
+        entry[0] = OVERFLOW_VALUE;
+        PageBytes.putInt(entry, 1, value.length);
+        PageBytes.putLong(entry, 1 + Integer.BYTES, nextPageID);
+
+        return entry;
+    }
+
+    private byte[] readValue(byte[] entry) throws IOException {
+        if (entry[0] == INLINE_VALUE) {
+            return Arrays.copyOfRange(entry, 1, entry.length);
+        }
+
+        byte[] value = new byte[PageBytes.getInt(entry, 1)];
+        long pageID = PageBytes.getLong(entry, 1 + Integer.BYTES);
+        int position = 0;
+
+        while (pageID != NO_PAGE) {
+            BufferPool.Frame frame = bufferPool.pin(pageID);
+            try {
+                int chunkLength = PageBytes.getInt(frame.data, OVERFLOW_LENGTH_OFFSET);
+
+                System.arraycopy(frame.data, OVERFLOW_DATA_OFFSET, value, position, chunkLength);
+                position += chunkLength;
+                pageID = PageBytes.getLong(frame.data, NEXT_OFFSET);
+            }
+            finally {
+                bufferPool.unpin(frame);
+            }
+        }
+
+        return value;
+    }
+
+    private void freeValue(byte[] entry) throws IOException {
+        if (entry[0] == INLINE_VALUE) {
+            return;
+        }
+
+        long pageID = PageBytes.getLong(entry, 1 + Integer.BYTES);
+
+        while (pageID != NO_PAGE) {
+            long nextPageID;
+
+            BufferPool.Frame frame = bufferPool.pin(pageID);
+            try {
+                nextPageID = PageBytes.getLong(frame.data, NEXT_OFFSET);
+            }
+            finally {
+                bufferPool.unpin(frame);
+            }
+
+            freePage(pageID);
+            pageID = nextPageID;
+        }
+    }
+
+    private long allocatePage() throws IOException {
+        long freePageID = getMeta(META_FREE_LIST_OFFSET);
+
+        if (freePageID == NO_PAGE) {
+            long pageID = getMeta(META_PAGE_COUNT_OFFSET);
+            setMeta(META_PAGE_COUNT_OFFSET, pageID + 1);
+
+            return pageID;
+        }
+
+        BufferPool.Frame frame = bufferPool.pin(freePageID);
+        try {
+            setMeta(META_FREE_LIST_OFFSET, PageBytes.getLong(frame.data, NEXT_OFFSET));
+        }
+        finally {
+            bufferPool.unpin(frame);
+        }
+
+        return freePageID;
+    }
+
+    private void freePage(long pageID) {
+        BufferPool.Frame frame = bufferPool.pinNew(pageID);
+        try {
+            frame.data[TYPE_OFFSET] = TYPE_FREE;
+            PageBytes.putLong(frame.data, NEXT_OFFSET, getMeta(META_FREE_LIST_OFFSET));
+        }
+        finally {
+            bufferPool.unpin(frame);
+        }
+
+        setMeta(META_FREE_LIST_OFFSET, pageID);
+    }
+
+    private Node readNode(long pageID) throws IOException {
+        BufferPool.Frame frame = bufferPool.pin(pageID);
+        try {
+            byte[] page = frame.data;
+            int count = getCount(page);
+            long[] keys = new long[count];
+
+            if (page[TYPE_OFFSET] == TYPE_LEAF) {
+                byte[][] entries = new byte[count][];
+                int offset = HEADER_SIZE;
+
+                for (int i = 0; i < count; i++) {
+                    int entryLength = PageBytes.getInt(page, offset + Long.BYTES);
+
+                    keys[i] = PageBytes.getLong(page, offset);
+                    entries[i] = Arrays.copyOfRange(
+                        page,
+                        offset + LEAF_ENTRY_HEADER_SIZE,
+                        offset + LEAF_ENTRY_HEADER_SIZE + entryLength
+                    );
+                    offset += LEAF_ENTRY_HEADER_SIZE + entryLength;
+                }
+
+                Node node = Node.leaf(pageID, keys, entries);
+                node.next = PageBytes.getLong(page, NEXT_OFFSET);
+                node.previous = PageBytes.getLong(page, PREVIOUS_OFFSET);
+
+                return node;
+            }
+
+            if (page[TYPE_OFFSET] != TYPE_INTERNAL) {
+                throw new IOException("Страница " + pageID + " не является узлом B+-дерева");
+            }
+
+            long[] children = new long[count + 1];
+            children[0] = PageBytes.getLong(page, HEADER_SIZE);
+
+            for (int i = 0; i < count; i++) {
+                int offset = HEADER_SIZE + Long.BYTES + i * INTERNAL_ENTRY_SIZE;
+
+                keys[i] = PageBytes.getLong(page, offset);
+                children[i + 1] = PageBytes.getLong(page, offset + Long.BYTES);
+            }
+
+            return Node.internal(pageID, keys, children);
+        }
+        finally {
+            bufferPool.unpin(frame);
+        }
+    }
+
+    private void writeNode(Node node) {
+        // Страница перезаписывается целиком, поэтому не читается из файла.
+        BufferPool.Frame frame = bufferPool.pinNew(node.pageID);
+        try {
+            byte[] page = frame.data;
+
+            page[TYPE_OFFSET] = node.leaf ? TYPE_LEAF : TYPE_INTERNAL;
+            PageBytes.putShort(page, COUNT_OFFSET, node.count);
+
+            if (node.leaf) {
+                int offset = HEADER_SIZE;
+
+                PageBytes.putLong(page, NEXT_OFFSET, node.next);
+                PageBytes.putLong(page, PREVIOUS_OFFSET, node.previous);
+
+                for (int i = 0; i < node.count; i++) {
+                    PageBytes.putLong(page, offset, node.keys[i]);
+                    PageBytes.putInt(page, offset + Long.BYTES, node.entries[i].length);
+                    System.arraycopy(node.entries[i], 0, page, offset + LEAF_ENTRY_HEADER_SIZE, node.entries[i].length);
+                    offset += LEAF_ENTRY_HEADER_SIZE + node.entries[i].length;
+                }
+            }
+            else {
+                PageBytes.putLong(page, HEADER_SIZE, node.children[0]);
+
+                for (int i = 0; i < node.count; i++) {
+                    int offset = HEADER_SIZE + Long.BYTES + i * INTERNAL_ENTRY_SIZE;
+
+                    PageBytes.putLong(page, offset, node.keys[i]);
+                    PageBytes.putLong(page, offset + Long.BYTES, node.children[i + 1]);
+                }
+            }
+
+        }
+        finally {
+            bufferPool.unpin(frame);
+        }
+    }
+
+    private long getMeta(int offset) {
+        return PageBytes.getLong(metaFrame.data, offset);
+    }
+
+    private void setMeta(int offset, long value) {
+        PageBytes.putLong(metaFrame.data, offset, value);
+        bufferPool.markDirty(metaFrame);
+    }
+
+    private static int userSlotOffset(int slot) {
+        if (slot < 0 || slot >= USER_SLOT_COUNT) {
+            throw new IndexOutOfBoundsException(slot);
+        }
+
+        return META_USER_SLOTS_OFFSET + slot * Long.BYTES;
+    }
+
+    private static int getCount(byte[] page) {
+        return PageBytes.getUnsignedShort(page, COUNT_OFFSET);
+    }
+
+    private static int childOffset(int childIndex) {
+        return childIndex == 0
+            ? HEADER_SIZE
+            : HEADER_SIZE + Long.BYTES + (childIndex - 1) * INTERNAL_ENTRY_SIZE + Long.BYTES;
+    }
+
+    private static int findChild(byte[] page, long key) {
+        int low = 0;
+        int high = getCount(page);
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (PageBytes.getLong(page, HEADER_SIZE + Long.BYTES + middle * INTERNAL_ENTRY_SIZE) <= key) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Посетитель записей B+-дерева.
+     *
+     * @author Расим "Buraki" Эминов
+     * @see #forEach(EntryVisitor)
+     * @since 0.5.0
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+
+        void visit(long key, byte[] value);
+    }
+
+    private static class Split {
+
+        final long key;
+        final long pageID;
+
+        Split(long key, long pageID) {
+            this.key = key;
+            this.pageID = pageID;
+        }
+    }
+
+    /**
+     * Декодированная копия узла B+-дерева.
+     *
+     * <p>Лист хранит ключи и записи значений, внутренний узел — ключи
+     * и на одного потомка больше.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    private static class Node {
+
+        final long pageID;
+        final boolean leaf;
+        int count;
+        long[] keys;
+        byte[][] entries;
+        long[] children;
+        long next;
+        long previous;
+
+        private Node(long pageID, boolean leaf, long[] keys) {
+            this.pageID = pageID;
+            this.leaf = leaf;
+            this.keys = keys;
+            this.count = keys.length;
+        }
+
+        static Node leaf(long pageID, long[] keys, byte[][] entries) {
+            Node node = new Node(pageID, true, keys);
+            node.entries = entries;
+
+            return node;
+        }
+
+        static Node internal(long pageID, long[] keys, long[] children) {
+            Node node = new Node(pageID, false, keys);
+            node.children = children;
+
+            return node;
+        }
+
+        int search(long key) {
+            return Arrays.binarySearch(keys, 0, count, key);
+        }
+
+        int findChild(long key) {
+            int index = Arrays.binarySearch(keys, 0, count, key);
+
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        int leafPayloadSize() {
+            int size = 0;
+
+            for (int i = 0; i < count; i++) {
+                size += LEAF_ENTRY_HEADER_SIZE + entries[i].length;
+            }
+
+            return size;
+        }
+
+        void insertEntry(int index, long key, byte[] entry) {
+            keys = insert(keys, index, key);
+
+            byte[][] newEntries = new byte[count + 1][];
+            System.arraycopy(entries, 0, newEntries, 0, index);
+            System.arraycopy(entries, index, newEntries, index + 1, count - index);
+            newEntries[index] = entry;
+            entries = newEntries;
+
+            count++;
+        }
+
+        void removeEntry(int index) {
+            keys = remove(keys, index);
+
+            byte[][] newEntries = new byte[count - 1][];
+            System.arraycopy(entries, 0, newEntries, 0, index);
+            System.arraycopy(entries, index + 1, newEntries, index, count - index - 1);
+            entries = newEntries;
+
+            count--;
+        }
+
+        void insertChild(int childIndex, long key, long childPageID) {
+            keys = insert(keys, childIndex, key);
+            children = insert(children, childIndex + 1, childPageID);
+            count++;
+        }
+
+        void removeChild(int childIndex) {
+            children = remove(children, childIndex);
+
+            if (count > 0) {
+                keys = remove(keys, childIndex == 0 ? 0 : childIndex - 1);
+                count--;
+            }
+        }
+
+        private static long[] insert(long[] array, int index, long value) {
+            long[] result = new long[array.length + 1];
+            System.arraycopy(array, 0, result, 0, index);
+            System.arraycopy(array, index, result, index + 1, array.length - index);
+            result[index] = value;
+
+            return result;
+        }
+
+        private static long[] remove(long[] array, int index) {
+            long[] result = new long[array.length - 1];
+            System.arraycopy(array, 0, result, 0, index);
+            System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+
+            return result;
+        }
+    }
+}
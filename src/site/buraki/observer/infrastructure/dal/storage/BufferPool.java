@@ -0,0 +1,311 @@
+package site.buraki.observer.infrastructure.dal.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Пул буферов страниц с вытеснением по алгоритму CLOCK.
+ *
+ * <p>Число кадров ограничено бюджетом памяти. Закреплённые кадры и
+ * кадры с незафиксированными изменениями не вытесняются (политика
+ * no-steal), поэтому незафиксированные изменения никогда не попадают
+ * в файл страниц. Если все кадры закреплены или изменены, пул
+ * временно выходит за бюджет и возвращается в него при фиксации.
+ *
+ * <p>Закрепление и открепление потокобезопасны. Изменение содержимого
+ * кадров, фиксация и откат должны выполняться без конкурентных
+ * читателей.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PageFile
+ * @since 0.5.0
+ */
+class BufferPool {
+
+    private static final long NO_PAGE = -1;
+
+    private final PageFile pageFile;
+    private final int capacity;
+    private final HashMap<Long, Frame> framesByPageID = new HashMap<>();
+    private final ArrayList<Frame> frames = new ArrayList<>();
+    private final ArrayList<Frame> dirtyFrames = new ArrayList<>();
+    private int clockHand;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    BufferPool(PageFile pageFile, int capacity) {
+        this.pageFile = pageFile;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Закрепление кадра со страницей, загружаемой из файла при
+     * отсутствии в пуле.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param pageID Номер страницы.
+     * @return Закреплённый кадр.
+     * @throws IOException Ошибка чтения страницы.
+     * @since 0.5.0
+     */
+    Frame pin(long pageID) throws IOException {
+        lock.lock();
+        try {
+            Frame frame = framesByPageID.get(pageID);
+
+            if (frame == null) {
+                frame = acquireFrame();
+
+                try {
+                    pageFile.read(pageID, frame.data);
+                }
+                catch (IOException e) {
+                    frame.pageID = NO_PAGE;
+                    throw e;
+                }
+
+                frame.pageID = pageID;
+                framesByPageID.put(pageID, frame);
+            }
+
+            frame.pinCount++;
+            frame.referenced = true;
+
+            return frame;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Закрепление кадра с новой, заполненной нулями страницей без
+     * чтения из файла.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param pageID Номер страницы.
+     * @return Закреплённый изменённый кадр.
+     * @since 0.5.0
+     */
+    Frame pinNew(long pageID) {
+        lock.lock();
+        try {
+            Frame frame = framesByPageID.get(pageID);
+
+            if (frame == null) {
+                frame = acquireFrame();
+                frame.pageID = pageID;
+                framesByPageID.put(pageID, frame);
+            }
+
+            Arrays.fill(frame.data, (byte) 0);
+            frame.pinCount++;
+            frame.referenced = true;
+            setDirty(frame);
+
+            return frame;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    void unpin(Frame frame) {
+        lock.lock();
+        try {
+            frame.pinCount--;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    void markDirty(Frame frame) {
+        lock.lock();
+        try {
+            setDirty(frame);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Атомарная запись всех изменённых страниц в файл.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка записи. Изменённые кадры остаются
+     *     изменёнными.
+     * @since 0.5.0
+     */
+    void commit() throws IOException {
+        lock.lock();
+        try {
+            TreeMap<Long, byte[]> dirtyPages = new TreeMap<>();
+
+            for (Frame frame : dirtyFrames) {
+                dirtyPages.put(frame.pageID, frame.data);
+            }
+
+            pageFile.writeAtomically(dirtyPages);
+
+            for (Frame frame : dirtyFrames) {
+                frame.dirty = false;
+            }
+
+            dirtyFrames.clear();
+
+            shrink();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Отмена незафиксированных изменений.
+     *
+     * <p>Незакреплённые изменённые кадры освобождаются, закреплённые
+     * перечитываются из файла.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка чтения страницы.
+     * @since 0.5.0
+     */
+    void rollback() throws IOException {
+        lock.lock();
+        try {
+            for (Frame frame : dirtyFrames) {
+                frame.dirty = false;
+
+                if (frame.pinCount > 0) {
+                    pageFile.read(frame.pageID, frame.data);
+                }
+                else {
+                    framesByPageID.remove(frame.pageID);
+                    frame.pageID = NO_PAGE;
+                }
+            }
+
+            dirtyFrames.clear();
+            shrink();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождение незакреплённых кадров со страницами, номера которых
+     * не меньше заданного.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param pageID Наименьший номер освобождаемой страницы.
+     * @since 0.5.0
+     */
+    void discardFrom(long pageID) {
+        lock.lock();
+        try {
+            for (Frame frame : frames) {
+                if (frame.pageID >= pageID && frame.pinCount == 0 && !frame.dirty) {
+                    framesByPageID.remove(frame.pageID);
+                    frame.pageID = NO_PAGE;
+                }
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void setDirty(Frame frame) {
+        if (!frame.dirty) {
+            frame.dirty = true;
+            dirtyFrames.add(frame);
+        }
+    }
+
+    private Frame acquireFrame() {
+        if (frames.size() < capacity) {
+            return addFrame();
+        }
+
+        for (int step = 0; step < frames.size() * 2; step++) {
+            Frame frame = frames.get(clockHand);
+            clockHand = (clockHand + 1) % frames.size();
+
+            if (frame.pageID == NO_PAGE) {
+                return frame;
+            }
+
+            if (frame.pinCount > 0 || frame.dirty) {
+                continue;
+            }
+
+            if (frame.referenced) {
+                frame.referenced = false;
+                continue;
+            }
+
+            framesByPageID.remove(frame.pageID);
+            frame.pageID = NO_PAGE;
+
+            return frame;
+        }
+
+        return addFrame();
+    }
+
+    private Frame addFrame() {
+        Frame frame = new Frame(pageFile.getPageSize());
+        frames.add(frame);
+
+        return frame;
+    }
+
+    private void shrink() {
+        Iterator<Frame> iterator = frames.iterator();
+
+        while (frames.size() > capacity && iterator.hasNext()) {
+            Frame frame = iterator.next();
+
+            if (frame.pinCount == 0 && !frame.dirty) {
+                if (frame.pageID != NO_PAGE) {
+                    framesByPageID.remove(frame.pageID);
+                }
+
+                iterator.remove();
+            }
+        }
+
+        if (clockHand >= frames.size()) {
+            clockHand = 0;
+        }
+    }
+
+    /**
+     * Кадр пула буферов.
+     *
+     * <p>Служебные поля изменяются только под блокировкой пула.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    static class Frame {
+
+        final byte[] data;
+        long pageID = NO_PAGE;
+        int pinCount;
+        boolean referenced;
+        boolean dirty;
+
+        Frame(int pageSize) {
+            this.data = new byte[pageSize];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package site.buraki.observer.infrastructure.dal.storage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Чтение и запись примитивов в массив байтов страницы (big-endian).
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+final class PageBytes {
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+    private PageBytes() {
+    }
+
+    static long getLong(byte[] page, int offset) {
+        return (long) LONG.get(page, offset);
+    }
+
+    static void putLong(byte[] page, int offset, long value) {
+        LONG.set(page, offset, value);
+    }
+
+    static int getInt(byte[] page, int offset) {
+        return (int) INT.get(page, offset);
+    }
+
+    static void putInt(byte[] page, int offset, int value) {
+        INT.set(page, offset, value);
+    }
+
+    static int getUnsignedShort(byte[] page, int offset) {
+        return Short.toUnsignedInt((short) SHORT.get(page, offset));
+    }
+
+    static void putShort(byte[] page, int offset, int value) {
+        SHORT.set(page, offset, (short) value);
+    }
+}
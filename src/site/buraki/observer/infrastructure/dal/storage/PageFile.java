@@ -0,0 +1,268 @@
+package site.buraki.observer.infrastructure.dal.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Файл страниц фиксированного размера с атомарной записью группы
+ * страниц.
+ *
+ * <p>Первые {@value #CHECKSUM_SIZE} байта каждой страницы занимает
+ * контрольная сумма CRC32C остальной части страницы. Страница из одних
+ * нулей считается ещё не записанной.
+ *
+ * <p><b>Атомарность записи</b>: группа страниц сначала целиком
+ * записывается в журнал (файл с суффиксом {@value #JOURNAL_SUFFIX}) с
+ * контрольной суммой и маркером завершения, и лишь затем — на свои
+ * места в файле страниц. После сбоя при открытии файла завершённый
+ * журнал применяется повторно, а незавершённый отбрасывается. Поэтому
+ * после сбоя файл содержит либо все страницы группы, либо ни одной, и
+ * разорванных страниц не бывает.
+ *
+ * <p>Не потокобезопасен для записи.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+class PageFile implements Closeable {
+
+    static final int CHECKSUM_SIZE = Integer.BYTES;
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final long JOURNAL_MAGIC = 0x4F42534A524E4C31L;
+    private static final long COMMIT_MAGIC = 0x4F4253434D4D5431L;
+    private static final int JOURNAL_HEADER_SIZE = Long.BYTES + Integer.BYTES * 2;
+    private static final int JOURNAL_TRAILER_SIZE = Long.BYTES * 2;
+
+    private final FileChannel dataChannel;
+    private final FileChannel journalChannel;
+    private final int pageSize;
+    private final boolean durable;
+
+    /**
+     * Открытие файла страниц с восстановлением после сбоя.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param filepath Путь к файлу страниц.
+     * @param pageSize Размер страницы в байтах.
+     * @param durable Принудительно сбрасывать записанные данные на
+     *     носитель ({@code fsync}) перед завершением записи.
+     * @throws IOException Ошибка открытия файла или применения журнала.
+     * @since 0.5.0
+     */
+    PageFile(Path filepath, int pageSize, boolean durable) throws IOException {
+        this.dataChannel = FileChannel.open(
+            filepath,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+        this.journalChannel = FileChannel.open(
+            filepath.resolveSibling(filepath.getFileName() + JOURNAL_SUFFIX),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+        this.pageSize = pageSize;
+        this.durable = durable;
+
+        recover();
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    long getPageCount() throws IOException {
+        return dataChannel.size() / pageSize;
+    }
+
+    /**
+     * Чтение страницы с проверкой контрольной суммы.
+     *
+     * <p>Страница за концом файла читается как страница из нулей.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param pageID Номер страницы.
+     * @param page Буфер размером в страницу.
+     * @throws IOException Ошибка чтения или несовпадение контрольной
+     *     суммы.
+     * @since 0.5.0
+     */
+    void read(long pageID, byte[] page) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(page);
+        long position = pageID * pageSize;
+
+        while (buffer.hasRemaining()) {
+            if (dataChannel.read(buffer, position + buffer.position()) < 0) {
+                Arrays.fill(page, buffer.position(), page.length, (byte) 0);
+                break;
+            }
+        }
+
+        if (PageBytes.getInt(page, 0) != checksum(page) && !isBlank(page)) {
+            throw new IOException("Нарушена контрольная сумма страницы " + pageID);
+        }
+    }
+
+    /**
+     * Атомарная запись группы страниц через журнал.
+     *
+     * <p>Контрольные суммы страниц вычисляются и записываются в сами
+     * буферы страниц.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param pages Буферы страниц по номерам.
+     * @throws IOException Ошибка записи.
+     * @since 0.5.0
+     */
+    void writeAtomically(SortedMap<Long, byte[]> pages) throws IOException {
+        if (pages.isEmpty()) {
+            return;
+        }
+
+        ByteBuffer journal = ByteBuffer.allocate(
+            JOURNAL_HEADER_SIZE + pages.size() * (Long.BYTES + pageSize) + JOURNAL_TRAILER_SIZE
+        );
+
+        journal.putLong(JOURNAL_MAGIC).putInt(pages.size()).putInt(pageSize);
+
+        for (Map.Entry<Long, byte[]> page : pages.entrySet()) {
+            PageBytes.putInt(page.getValue(), 0, checksum(page.getValue()));
+            journal.putLong(page.getKey()).put(page.getValue());
+        }
+
+        CRC32C journalChecksum = new CRC32C();
+        journalChecksum.update(journal.array(), 0, journal.position());
+        journal.putLong(journalChecksum.getValue()).putLong(COMMIT_MAGIC).flip();
+
+        journalChannel.truncate(0);
+        writeFully(journalChannel, journal, 0);
+
+        if (durable) {
+            journalChannel.force(false);
+        }
+
+        for (Map.Entry<Long, byte[]> page : pages.entrySet()) {
+            writeFully(dataChannel, ByteBuffer.wrap(page.getValue()), page.getKey() * pageSize);
+        }
+
+        if (durable) {
+            dataChannel.force(false);
+        }
+
+        journalChannel.truncate(0);
+    }
+
+    /**
+     * Усечение файла страниц до заданного числа страниц.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param pageCount Число сохраняемых страниц.
+     * @throws IOException Ошибка усечения.
+     * @since 0.5.0
+     */
+    void truncate(long pageCount) throws IOException {
+        dataChannel.truncate(pageCount * pageSize);
+
+        if (durable) {
+            dataChannel.force(true);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (journalChannel) {
+            dataChannel.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        long journalSize = journalChannel.size();
+
+        if (journalSize == 0) {
+            return;
+        }
+
+        if (journalSize >= JOURNAL_HEADER_SIZE + JOURNAL_TRAILER_SIZE && journalSize <= Integer.MAX_VALUE) {
+            ByteBuffer journal = ByteBuffer.allocate((int) journalSize);
+
+            while (journal.hasRemaining() && journalChannel.read(journal, journal.position()) >= 0) {
+                // Чтение до конца журнала.
+            }
+
+            journal.flip();
+
+            if (isCommitted(journal)) {
+                int pageCount = journal.getInt(Long.BYTES);
+
+                for (int i = 0; i < pageCount; i++) {
+                    int offset = JOURNAL_HEADER_SIZE + i * (Long.BYTES + pageSize);
+
+                    writeFully(
+                        dataChannel,
+                        journal.slice(offset + Long.BYTES, pageSize),
+                        journal.getLong(offset) * pageSize
+                    );
+                }
+
+                dataChannel.force(false);
+            }
+        }
+
+        journalChannel.truncate(0);
+        journalChannel.force(false);
+    }
+
+    private boolean isCommitted(ByteBuffer journal) {
+        int size = journal.limit();
+
+        if (journal.getLong(0) != JOURNAL_MAGIC || journal.getInt(Long.BYTES + Integer.BYTES) != pageSize) {
+            return false;
+        }
+
+        long expectedSize = JOURNAL_HEADER_SIZE +
+            (long) journal.getInt(Long.BYTES) * (Long.BYTES + pageSize) +
+            JOURNAL_TRAILER_SIZE;
+
+        if (size != expectedSize || journal.getLong(size - Long.BYTES) != COMMIT_MAGIC) {
+            return false;
+        }
+
+        CRC32C journalChecksum = new CRC32C();
+        journalChecksum.update(journal.array(), 0, size - JOURNAL_TRAILER_SIZE);
+
+        return journal.getLong(size - JOURNAL_TRAILER_SIZE) == journalChecksum.getValue();
+    }
+
+    private static int checksum(byte[] page) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(page, CHECKSUM_SIZE, page.length - CHECKSUM_SIZE);
+
+        return (int) checksum.getValue();
+    }
+
+    private static boolean isBlank(byte[] page) {
+        for (byte value : page) {
+            if (value != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package site.buraki.observer.infrastructure.dal.transactions;
+
+import site.buraki.observer.common.exceptions.core.TransactionConflictException;
+
+/**
+ * Абстрактное тело транзакции, повторяемое при конфликте.
+ *
+ * <p>Тело может быть выполнено несколько раз, поэтому не должно иметь
+ * побочных эффектов вне транзакции.
+ *
+ * @author Расим "Buraki" Эминов
+ * @param <T> Тип результата.
+ * @see TransactionalPersonRepository#execute(ITransactionBody, int)
+ * @since 0.5.0
+ */
+@FunctionalInterface
+public interface ITransactionBody<T> {
+
+    T run(PersonTransaction transaction) throws TransactionConflictException;
+}
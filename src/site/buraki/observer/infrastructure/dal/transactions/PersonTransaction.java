@@ -0,0 +1,216 @@
+package site.buraki.observer.infrastructure.dal.transactions;
+
+import site.buraki.observer.common.exceptions.core.TransactionConflictException;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+/**
+ * Оптимистичная транзакция над хранилищем экземпляров бизнес-модели
+ * человека.
+ *
+ * <p>Чтения видят снимок хранилища на момент начала транзакции: чтение
+ * экземпляра, изменённого позже, прерывает транзакцию конфликтом.
+ * Изменения буферизуются и применяются к хранилищу только при
+ * {@link #commit()}, которая проверяет, что прочитанные и изменяемые
+ * экземпляры не изменились, и применяет все изменения атомарно.
+ *
+ * <p>Транзакция хранит копии прочитанных экземпляров и выдаёт их
+ * копии, поэтому изменение полученного экземпляра не затрагивает ни
+ * хранилище, ни снимок транзакции. Изменения применяются только через
+ * {@link #tryUpdate(Person)} с новым или скопированным экземпляром.
+ *
+ * <p>Не потокобезопасна: транзакция используется одним потоком.
+ *
+ * <pre>{@code
+ *     boolean replaced = transactionalRepository.execute(transaction -> {
+ *         if (!transaction.tryRemove(oldPerson.getID()).isApplied()) {
+ *             return false;
+ *         }
+ *
+ *         return transaction.tryAdd(newPerson).isApplied();
+ *     }, 8);
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see TransactionalPersonRepository
+ * @since 0.5.0
+ */
+public class PersonTransaction {
+
+    private final TransactionalPersonRepository repository;
+    private final long readVersion;
+    private final HashMap<Long, ReadEntry> reads = new HashMap<>();
+    private final LinkedHashMap<Long, Person> writes = new LinkedHashMap<>();
+    private boolean finished;
+
+    PersonTransaction(TransactionalPersonRepository repository, long readVersion) {
+        this.repository = repository;
+        this.readVersion = readVersion;
+    }
+
+    /**
+     * Получение экземпляра бизнес-модели человека из снимка хранилища с
+     * учётом изменений транзакции.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param id Уникальный идентификатор.
+     * @return Копия экземпляра бизнес-модели человека, если он
+     *     содержится в снимке.
+     * @throws TransactionConflictException Экземпляр изменён после
+     *     начала транзакции.
+     * @since 0.5.0
+     */
+    public Optional<Person> getByID(long id) throws TransactionConflictException {
+        return Optional.ofNullable(find(id)).map(Person::copy);
+    }
+
+    /**
+     * Добавление экземпляра бизнес-модели человека при фиксации.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param newPerson Добавляемый экземпляр бизнес-модели человека.
+     * @return {@link MutationResult#APPLIED} или
+     *     {@link MutationResult#ALREADY_EXISTS}.
+     * @throws TransactionConflictException Экземпляр изменён после
+     *     начала транзакции.
+     * @since 0.5.0
+     */
+    public MutationResult tryAdd(Person newPerson) throws TransactionConflictException {
+        if (find(newPerson.getID()) != null) {
+            return MutationResult.ALREADY_EXISTS;
+        }
+
+        writes.put(newPerson.getID(), newPerson);
+
+        return MutationResult.APPLIED;
+    }
+
+    /**
+     * Обновление экземпляра бизнес-модели человека при фиксации.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param newPerson Экземпляр-заменитель бизнес-модели человека.
+     * @return {@link MutationResult#APPLIED} или
+     *     {@link MutationResult#NOT_FOUND}.
+     * @throws TransactionConflictException Экземпляр изменён после
+     *     начала транзакции.
+     * @since 0.5.0
+     */
+    public MutationResult tryUpdate(Person newPerson) throws TransactionConflictException {
+        if (find(newPerson.getID()) == null) {
+            return MutationResult.NOT_FOUND;
+        }
+
+        writes.put(newPerson.getID(), newPerson);
+
+        return MutationResult.APPLIED;
+    }
+
+    /**
+     * Удаление экземпляра бизнес-модели человека при фиксации.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param id Уникальный идентификатор.
+     * @return {@link MutationResult#APPLIED} или
+     *     {@link MutationResult#NOT_FOUND}.
+     * @throws TransactionConflictException Экземпляр изменён после
+     *     начала транзакции.
+     * @since 0.5.0
+     */
+    public MutationResult tryRemove(long id) throws TransactionConflictException {
+        if (find(id) == null) {
+            return MutationResult.NOT_FOUND;
+        }
+
+        writes.put(id, null);
+
+        return MutationResult.APPLIED;
+    }
+
+    /**
+     * Фиксация транзакции.
+     *
+     * <p>Транзакция только с чтениями фиксируется без проверок, так как
+     * каждое чтение проверено при выполнении.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws TransactionConflictException Прочитанный или изменяемый
+     *     экземпляр изменён после начала транзакции; изменения не
+     *     применены.
+     * @since 0.5.0
+     */
+    public void commit() throws TransactionConflictException {
+        checkActive();
+        finished = true;
+
+        if (!writes.isEmpty()) {
+            repository.commit(this);
+        }
+    }
+
+    /**
+     * Отмена транзакции. Изменения не применяются.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    public void rollback() {
+        finished = true;
+    }
+
+    long getReadVersion() {
+        return readVersion;
+    }
+
+    HashMap<Long, ReadEntry> getReads() {
+        return reads;
+    }
+
+    LinkedHashMap<Long, Person> getWrites() {
+        return writes;
+    }
+
+    private Person find(long id) throws TransactionConflictException {
+        checkActive();
+
+        if (writes.containsKey(id)) {
+            return writes.get(id);
+        }
+
+        ReadEntry entry = reads.get(id);
+
+        if (entry == null) {
+            entry = repository.read(id, readVersion);
+            reads.put(id, entry);
+        }
+
+        return entry.person;
+    }
+
+    private void checkActive() {
+        if (finished) {
+            throw new IllegalStateException("Транзакция уже завершена");
+        }
+    }
+
+    /**
+     * Копия прочитанного экземпляра ({@code null}, если не содержится)
+     * и слово его ячейки в таблице штампов на момент чтения.
+     */
+    static class ReadEntry {
+
+        final int index;
+        final long word;
+        final Person person;
+
+        ReadEntry(int index, long word, Person person) {
+            this.index = index;
+            this.word = word;
+            this.person = person;
+        }
+    }
+}
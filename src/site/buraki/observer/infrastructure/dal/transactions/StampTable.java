@@ -0,0 +1,130 @@
+package site.buraki.observer.infrastructure.dal.transactions;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Таблица штампов версий экземпляров бизнес-модели человека,
+ * совмещённых с блокировками фиксации.
+ *
+ * <p>Экземпляр отображается на ячейку по уникальному идентификатору,
+ * поэтому память таблицы не зависит от размера хранилища, а
+ * экземпляры одной ячейки разделяют штамп. Слово ячейки —
+ * {@code (version << 1) | locked}: версия последней фиксации, которая
+ * изменила экземпляр ячейки, и признак фиксации в процессе.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see TransactionalPersonRepository
+ * @since 0.5.0
+ */
+class StampTable {
+
+    private static final long LOCKED = 1;
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private final AtomicLongArray words;
+    private final int mask;
+
+    StampTable(int size) {
+        int roundedSize = Integer.highestOneBit(Math.max(1, size - 1) << 1);
+
+        this.words = new AtomicLongArray(roundedSize);
+        this.mask = roundedSize - 1;
+    }
+
+    int indexOf(long id) {
+        long hash = id;
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return (int) hash & mask;
+    }
+
+    long read(int index) {
+        return words.get(index);
+    }
+
+    static boolean isLocked(long word) {
+        return (word & LOCKED) != 0;
+    }
+
+    static long versionOf(long word) {
+        return word >>> 1;
+    }
+
+    /**
+     * Попытка блокировки ячейки без ожидания.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param index Ячейка.
+     * @param expectedWord Ожидаемое незаблокированное слово ячейки.
+     * @return Ячейка заблокирована этим вызовом.
+     * @since 0.5.0
+     */
+    boolean tryLock(int index, long expectedWord) {
+        return !isLocked(expectedWord) && words.compareAndSet(index, expectedWord, expectedWord | LOCKED);
+    }
+
+    /**
+     * Блокировка ячейки с ожиданием завершения чужой фиксации.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param index Ячейка.
+     * @return Слово ячейки до блокировки.
+     * @since 0.5.0
+     */
+    long lock(int index) {
+        for (int spins = 0; ; spins++) {
+            long word = words.get(index);
+
+            if (tryLock(index, word)) {
+                return word;
+            }
+
+            if (spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            }
+            else {
+                Thread.yield();
+            }
+        }
+    }
+
+    void unlock(int index, long version) {
+        words.set(index, version << 1);
+    }
+
+    void restore(int index, long word) {
+        words.set(index, word);
+    }
+
+    /**
+     * Блокировка всех ячеек. Вызывающий исключает параллельные
+     * фиксации.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    void lockAll() {
+        for (int i = 0; i <= mask; i++) {
+            words.set(i, words.get(i) | LOCKED);
+        }
+    }
+
+    /**
+     * Установка версии всех ячеек. Вызывающий исключает параллельные
+     * фиксации.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param version Версия.
+     * @since 0.5.0
+     */
+    void publishAll(long version) {
+        for (int i = 0; i <= mask; i++) {
+            words.set(i, version << 1);
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package site.buraki.observer.infrastructure.dal.transactions;
+
+import site.buraki.observer.common.exceptions.core.TransactionConflictException;
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonModification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Декоратор хранилища с оптимистичными транзакциями из нескольких
+ * операций.
+ *
+ * <p>Каждому экземпляру соответствует штамп версии — номер последней
+ * фиксации, изменившей его, по глобальным часам фиксаций. Транзакция
+ * запоминает показание часов при начале и читает только экземпляры со
+ * штампом не новее него, поэтому видит согласованный снимок. Фиксация блокирует
+ * ячейки изменяемых экземпляров без ожидания, получает новую версию,
+ * проверяет штампы прочитанных экземпляров и применяет изменения к
+ * хранилищу. При конфликте изменения не применяются и выбрасывается
+ * {@link TransactionConflictException}.
+ *
+ * <p>Штампы хранятся в таблице фиксированного размера по уникальному
+ * идентификатору, а не в экземплярах, поэтому форматы сериализации не
+ * меняются; экземпляры одной ячейки изредка конфликтуют ложно.
+ *
+ * <p>Одиночные изменения декоратора — транзакции из одной операции,
+ * которые ожидают чужую фиксацию вместо конфликта. Чтения вне
+ * транзакций передаются хранилищу без проверок. Изменения хранилища в
+ * обход декоратора транзакции не обнаруживают.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonTransaction
+ * @see IPersonRepository
+ * @since 0.5.0
+ */
+public class TransactionalPersonRepository implements IPersonRepository {
+
+    private static final int DEFAULT_STAMP_TABLE_SIZE = 1 << 16;
+
+    private final IPersonRepository personRepository;
+    private final StampTable stamps;
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder commitCount = new LongAdder();
+    private final LongAdder conflictCount = new LongAdder();
+
+    // Фиксации разделяют блокировку, removeAll исключает их.
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+    private final Lock sharedCommitLock = commitLock.readLock();
+    private final Lock exclusiveCommitLock = commitLock.writeLock();
+
+    public TransactionalPersonRepository(IPersonRepository personRepository) {
+        this(personRepository, DEFAULT_STAMP_TABLE_SIZE);
+    }
+
+    /**
+     * Конструктор декоратора.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @param stampTableSize Число ячеек таблицы штампов; округляется
+     *     вверх до степени двойки.
+     * @since 0.5.0
+     */
+    public TransactionalPersonRepository(IPersonRepository personRepository, int stampTableSize) {
+        this.personRepository = personRepository;
+        this.stamps = new StampTable(stampTableSize);
+    }
+
+    public long getCommitCount() {
+        return commitCount.sum();
+    }
+
+    public long getConflictCount() {
+        return conflictCount.sum();
+    }
+
+    /**
+     * Начало транзакции.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Транзакция.
+     * @since 0.5.0
+     */
+    public PersonTransaction begin() {
+        return new PersonTransaction(this, clock.get());
+    }
+
+    /**
+     * Выполнение тела в транзакции с повтором при конфликте.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param body Тело транзакции.
+     * @param maxAttempts Наибольшее число попыток.
+     * @param <T> Тип результата.
+     * @return Результат тела в зафиксированной попытке.
+     * @throws TransactionConflictException Конфликт в последней
+     *     попытке.
+     * @since 0.5.0
+     */
+    public <T> T execute(ITransactionBody<T> body, int maxAttempts) throws TransactionConflictException {
+        for (int attempt = 1; ; attempt++) {
+            PersonTransaction transaction = begin();
+
+            try {
+                T result = body.run(transaction);
+
+                transaction.commit();
+
+                return result;
+            }
+            catch (TransactionConflictException e) {
+                transaction.rollback();
+
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+
+                Thread.yield();
+            }
+        }
+    }
+
+    @Override
+    public MutationResult tryAdd(Person newPerson) {
+        return writeThrough(newPerson.getID(), () -> personRepository.tryAdd(newPerson), MutationResult::isApplied);
+    }
+
+    @Override
+    public long nextID() {
+        return personRepository.nextID();
+    }
+
+    @Override
+    public Optional<Person> getByID(long id) {
+        return personRepository.getByID(id);
+    }
+
+    @Override
+    public List<Person> getAll() {
+        return personRepository.getAll();
+    }
+
+    @Override
+    public List<Person> getAllSortedByLocation() {
+        return personRepository.getAllSortedByLocation();
+    }
+
+    @Override
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        return personRepository.getWithinDistance(center, distance);
+    }
+
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        return personRepository.getInBox(min, max);
+    }
+
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        return personRepository.getTop(comparator, limit);
+    }
+
+    @Override
+    public int getSize() {
+        return personRepository.getSize();
+    }
+
+    @Override
+    public MutationResult tryUpdate(Person newPerson) {
+        return writeThrough(newPerson.getID(), () -> personRepository.tryUpdate(newPerson), MutationResult::isApplied);
+    }
+
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) throws ValidationException {
+        return writeThrough(id, () -> personRepository.modify(id, mutation), PersonModification::hasChanges);
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        return writeThrough(id, () -> personRepository.tryRemove(id), MutationResult::isApplied);
+    }
+
+    @Override
+    public void removeAll() {
+        exclusiveCommitLock.lock();
+        try {
+            stamps.lockAll();
+
+            long writeVersion = clock.incrementAndGet();
+
+            try {
+                personRepository.removeAll();
+            }
+            finally {
+                stamps.publishAll(writeVersion);
+            }
+        }
+        finally {
+            exclusiveCommitLock.unlock();
+        }
+    }
+
+    @Override
+    public long getVersion() {
+        return personRepository.getVersion();
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        personRepository.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        personRepository.removeListener(listener);
+    }
+
+    /**
+     * Чтение копии экземпляра транзакцией: штамп ячейки должен быть не
+     * новее снимка и не измениться за время чтения.
+     */
+    PersonTransaction.ReadEntry read(long id, long readVersion) throws TransactionConflictException {
+        int index = stamps.indexOf(id);
+        long word = stamps.read(index);
+
+        if (StampTable.isLocked(word) || StampTable.versionOf(word) > readVersion) {
+            throw conflict();
+        }
+
+        Person person = personRepository.getByID(id).orElse(null);
+
+        if (stamps.read(index) != word) {
+            throw conflict();
+        }
+
+        // Копия отделяет снимок от экземпляра хранилища: иначе изменение
+        // выданного экземпляра меняло бы хранилище, а откат не
+        // восстанавливал бы его.
+        return new PersonTransaction.ReadEntry(index, word, person == null ? null : person.copy());
+    }
+
+    void commit(PersonTransaction transaction) throws TransactionConflictException {
+        long readVersion = transaction.getReadVersion();
+        int[] indexes = lockIndexesOf(transaction);
+        long[] lockedWords = new long[indexes.length];
+        int lockedCount = 0;
+        long writeVersion = 0;
+
+        sharedCommitLock.lock();
+        try {
+            for (int index : indexes) {
+                long word = stamps.read(index);
+
+                if (StampTable.versionOf(word) > readVersion || !stamps.tryLock(index, word)) {
+                    throw conflict();
+                }
+
+                lockedWords[lockedCount++] = word;
+            }
+
+            writeVersion = clock.incrementAndGet();
+
+            // Если между началом и фиксацией других фиксаций не было,
+            // прочитанные штампы заведомо не изменились.
+            if (writeVersion != readVersion + 1) {
+                validateReads(transaction, indexes, lockedWords);
+            }
+
+            apply(transaction);
+            commitCount.increment();
+        }
+        finally {
+            for (int i = 0; i < lockedCount; i++) {
+                if (writeVersion == 0) {
+                    stamps.restore(indexes[i], lockedWords[i]);
+                }
+                else {
+                    stamps.unlock(indexes[i], writeVersion);
+                }
+            }
+
+            sharedCommitLock.unlock();
+        }
+    }
+
+    private int[] lockIndexesOf(PersonTransaction transaction) {
+        int[] indexes = new int[transaction.getWrites().size()];
+        int count = 0;
+
+        for (long id : transaction.getWrites().keySet()) {
+            indexes[count++] = stamps.indexOf(id);
+        }
+
+        Arrays.sort(indexes);
+
+        int distinctCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || indexes[i] != indexes[i - 1]) {
+                indexes[distinctCount++] = indexes[i];
+            }
+        }
+
+        return distinctCount == count ? indexes : Arrays.copyOf(indexes, distinctCount);
+    }
+
+    private void validateReads(PersonTransaction transaction, int[] indexes, long[] lockedWords)
+            throws TransactionConflictException {
+        long readVersion = transaction.getReadVersion();
+
+        for (PersonTransaction.ReadEntry entry : transaction.getReads().values()) {
+            int position = Arrays.binarySearch(indexes, entry.index);
+            long word = position >= 0 ? lockedWords[position] : stamps.read(entry.index);
+
+            if (StampTable.isLocked(word) || StampTable.versionOf(word) > readVersion) {
+                throw conflict();
+            }
+        }
+    }
+
+    /**
+     * Применение изменений транзакции к хранилищу. Если хранилище
+     * изменено в обход декоратора и изменение неприменимо, применённые
+     * изменения откатываются.
+     */
+    private void apply(PersonTransaction transaction) throws TransactionConflictException {
+        List<Person[]> appliedWrites = new ArrayList<>(transaction.getWrites().size());
+
+        try {
+            for (Map.Entry<Long, Person> write : transaction.getWrites().entrySet()) {
+                long id = write.getKey();
+                Person oldPerson = transaction.getReads().get(id).person;
+                Person newPerson = write.getValue();
+
+                if (oldPerson == null && newPerson == null) {
+                    continue;
+                }
+
+                MutationResult result = oldPerson == null
+                    ? personRepository.tryAdd(newPerson)
+                    : newPerson == null
+                        ? personRepository.tryRemove(id)
+                        : personRepository.tryUpdate(newPerson);
+
+                if (!result.isApplied()) {
+                    undo(appliedWrites);
+                    throw conflict();
+                }
+
+                appliedWrites.add(new Person[] {oldPerson, newPerson});
+            }
+        }
+        catch (RuntimeException e) {
+            undo(appliedWrites);
+            throw e;
+        }
+    }
+
+    private void undo(List<Person[]> appliedWrites) {
+        for (int i = appliedWrites.size() - 1; i >= 0; i--) {
+            Person oldPerson = appliedWrites.get(i)[0];
+            Person newPerson = appliedWrites.get(i)[1];
+
+            if (oldPerson == null) {
+                personRepository.tryRemove(newPerson.getID());
+            }
+            else if (newPerson == null) {
+                personRepository.tryAdd(oldPerson);
+            }
+            else {
+                personRepository.tryUpdate(oldPerson);
+            }
+        }
+    }
+
+    private <T, E extends Exception> T writeThrough(long id, IStampedWrite<T, E> write, Predicate<T> isApplied)
+            throws E {
+        int index = stamps.indexOf(id);
+
+        sharedCommitLock.lock();
+        try {
+            long word = stamps.lock(index);
+            // Версия выделяется до применения, чтобы фиксация, начатая
+            // позже, не пропустила проверку прочитанных штампов.
+            long writeVersion = clock.incrementAndGet();
+            boolean applied = true;
+
+            try {
+                T result = write.apply();
+
+                applied = isApplied.test(result);
+
+                return result;
+            }
+            finally {
+                if (applied) {
+                    stamps.unlock(index, writeVersion);
+                }
+                else {
+                    stamps.restore(index, word);
+                }
+            }
+        }
+        finally {
+            sharedCommitLock.unlock();
+        }
+    }
+
+    private TransactionConflictException conflict() {
+        conflictCount.increment();
+
+        return new TransactionConflictException(
+            "Экземпляр бизнес-модели человека изменён после начала транзакции",
+            null,
+            false
+        );
+    }
+
+    /**
+     * Одиночное изменение хранилища под блокировкой ячейки.
+     */
+    @FunctionalInterface
+    private interface IStampedWrite<T, E extends Exception> {
+
+        T apply() throws E;
+    }
+}
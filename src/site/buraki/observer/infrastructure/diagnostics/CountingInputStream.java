@@ -0,0 +1,56 @@
+package site.buraki.observer.infrastructure.diagnostics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Поток ввода, подсчитывающий прочитанные байты.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see MarshallingEvent
+ * @since 0.5.0
+ */
+public class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    public CountingInputStream(InputStream inputStream) {
+        super(inputStream);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+
+        if (b != -1) {
+            count++;
+        }
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = in.read(b, off, len);
+
+        if (read > 0) {
+            count += read;
+        }
+
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(n);
+
+        count += skipped;
+
+        return skipped;
+    }
+}
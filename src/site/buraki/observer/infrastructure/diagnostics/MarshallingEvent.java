@@ -0,0 +1,39 @@
+package site.buraki.observer.infrastructure.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR вызова сериализатора или десериализатора.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+@Name("site.buraki.observer.Marshalling")
+@Label("Marshalling")
+@Category({"Observer", "Marshalling"})
+@Description("Вызов сериализатора или десериализатора")
+@StackTrace(false)
+public class MarshallingEvent extends Event {
+
+    @Label("Format")
+    public String format;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Object Type")
+    public Class<?> objectType;
+
+    @Label("Records")
+    public long records;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,45 @@
+package site.buraki.observer.infrastructure.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Событие JFR фазы загрузки хранилища из файла сохранения.
+ *
+ * <p>Для фазы {@value #RELOAD} число записей — число применённых
+ * изменений.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+@Name("site.buraki.observer.RepositoryLoadPhase")
+@Label("Repository Load Phase")
+@Category({"Observer", "Repository"})
+@Description("Фаза загрузки или перезагрузки хранилища из файла сохранения")
+@StackTrace(false)
+public class RepositoryLoadPhaseEvent extends Event {
+
+    public static final String INDEX = "index";
+    public static final String DESERIALIZE = "deserialize";
+    public static final String VALIDATE = "validate";
+    public static final String POPULATE = "populate";
+    public static final String RELOAD = "reload";
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Save File")
+    public String saveFilepath;
+
+    @Label("Records")
+    public long records;
+
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+}
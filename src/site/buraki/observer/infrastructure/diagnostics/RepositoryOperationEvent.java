@@ -0,0 +1,37 @@
+package site.buraki.observer.infrastructure.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Событие JFR медленной операции хранилища.
+ *
+ * <p>Записывается только для операций дольше порога (по умолчанию
+ * {@code 1 ms}, настраивается в конфигурации записи), поэтому может
+ * оставаться включённым постоянно.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+@Name("site.buraki.observer.RepositoryOperation")
+@Label("Slow Repository Operation")
+@Category({"Observer", "Repository"})
+@Description("Операция хранилища дольше порога")
+@Threshold("1 ms")
+@StackTrace(false)
+public class RepositoryOperationEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Failed")
+    public boolean failed;
+
+    @Label("Repository Size")
+    public int repositorySize;
+}
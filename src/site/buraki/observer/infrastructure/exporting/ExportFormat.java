@@ -0,0 +1,38 @@
+package site.buraki.observer.infrastructure.exporting;
+
+/**
+ * Перечисление форматов экспорта экземпляров бизнес-модели человека.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonExporter
+ * @since 0.5.0
+ */
+public enum ExportFormat {
+
+    /**
+     * Объект JSON на строку, поля в порядке объявления, как у
+     * сериализатора JSON, но без форматирования.
+     */
+    NDJSON("ndjson"),
+
+    /**
+     * Таблица по RFC 4180 со строкой заголовков; локация разложена на
+     * имя и координаты.
+     */
+    CSV("csv");
+
+    private final String formatName;
+
+    ExportFormat(String formatName) {
+        this.formatName = formatName;
+    }
+
+    public String getFormatName() {
+        return formatName;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "." + name();
+    }
+}
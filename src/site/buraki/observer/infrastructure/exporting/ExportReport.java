@@ -0,0 +1,145 @@
+package site.buraki.observer.infrastructure.exporting;
+
+import java.util.Locale;
+
+/**
+ * Отчёт экспорта: число записей, байтов, пакетов и вызовов записи в
+ * канал, а также время кодирования, записи и ожидания записывающего
+ * потока.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonExporter
+ * @since 0.5.0
+ */
+public class ExportReport {
+
+    private final ExportFormat format;
+    private final int parallelism;
+    private final long recordCount;
+    private final long byteCount;
+    private final long chunkCount;
+    private final long writeCount;
+    private final long encodeNanos;
+    private final long writeNanos;
+    private final long writerWaitNanos;
+    private final long elapsedNanos;
+
+    public ExportReport(
+            ExportFormat format,
+            int parallelism,
+            long recordCount,
+            long byteCount,
+            long chunkCount,
+            long writeCount,
+            long encodeNanos,
+            long writeNanos,
+            long writerWaitNanos,
+            long elapsedNanos
+    ) {
+        this.format = format;
+        this.parallelism = parallelism;
+        this.recordCount = recordCount;
+        this.byteCount = byteCount;
+        this.chunkCount = chunkCount;
+        this.writeCount = writeCount;
+        this.encodeNanos = encodeNanos;
+        this.writeNanos = writeNanos;
+        this.writerWaitNanos = writerWaitNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    public long getChunkCount() {
+        return chunkCount;
+    }
+
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public long getEncodeNanos() {
+        return encodeNanos;
+    }
+
+    public long getWriteNanos() {
+        return writeNanos;
+    }
+
+    public long getWriterWaitNanos() {
+        return writerWaitNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getThroughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : recordCount * 1e9 / elapsedNanos;
+    }
+
+    public double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : byteCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Доля времени экспорта, которую записывающий поток провёл в
+     * записи в канал. Близкая к единице доля означает, что экспорт
+     * упирается в диск, а не в кодирование.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Доля от 0 до 1.
+     * @since 0.5.0
+     */
+    public double getWriterUtilization() {
+        return elapsedNanos == 0 ? 0 : Math.min(1, (double) writeNanos / elapsedNanos);
+    }
+
+    /**
+     * Сводка экспорта в текстовом формате метрик.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Строки {@code имя{метки} значение}.
+     * @since 0.5.0
+     */
+    public String dump() {
+        StringBuilder dump = new StringBuilder(512);
+        String labels = "format=\"" + format.getFormatName() + "\"";
+
+        appendLine(dump, "person_export_parallelism", labels, parallelism);
+        appendLine(dump, "person_export_records_total", labels, recordCount);
+        appendLine(dump, "person_export_bytes_total", labels, byteCount);
+        appendLine(dump, "person_export_chunks_total", labels, chunkCount);
+        appendLine(dump, "person_export_writes_total", labels, writeCount);
+        appendLine(dump, "person_export_encode_nanos", labels, encodeNanos);
+        appendLine(dump, "person_export_write_nanos", labels, writeNanos);
+        appendLine(dump, "person_export_writer_wait_nanos", labels, writerWaitNanos);
+        appendLine(dump, "person_export_elapsed_nanos", labels, elapsedNanos);
+        appendLine(dump, "person_export_throughput_per_second", labels,
+            String.format(Locale.ROOT, "%.3f", getThroughputPerSecond()));
+        appendLine(dump, "person_export_bytes_per_second", labels,
+            String.format(Locale.ROOT, "%.3f", getBytesPerSecond()));
+        appendLine(dump, "person_export_writer_utilization", labels,
+            String.format(Locale.ROOT, "%.3f", getWriterUtilization()));
+
+        return dump.toString();
+    }
+
+    private static void appendLine(StringBuilder dump, String name, String labels, Object value) {
+        dump.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+}
@@ -0,0 +1,445 @@
+package site.buraki.observer.infrastructure.exporting;
+
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.diagnostics.MarshallingEvent;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Параллельный потоковый экспорт экземпляров бизнес-модели человека в
+ * NDJSON или CSV ({@link ExportFormat}).
+ *
+ * <p>Снимок хранилища делится на пакеты по {@link #getChunkSize()}
+ * экземпляров. Потоки кодирования берут пакеты по порядку и кодируют
+ * их собственным переиспользуемым кодировщиком в буфер из общего
+ * ограниченного пула; вызывающий поток собирает готовые пакеты в
+ * исходном порядке и записывает подряд идущие одним вызовом
+ * {@link GatheringByteChannel#write(ByteBuffer[], int, int)}. Поток
+ * кодирования, опередивший запись на размер пула, ждёт свободный
+ * буфер, поэтому память экспорта ограничена пулом, а не числом
+ * экземпляров, а файл никогда не собирается в памяти целиком.
+ *
+ * <p>Экспортируется снимок {@link IPersonRepository#getAll()}: он
+ * содержит только ссылки на экземпляры, уже находящиеся в хранилище.
+ *
+ * <pre>{@code
+ *     PersonExporter personExporter = new PersonExporter();
+ *
+ *     ExportReport report = personExporter.exportTo(targetFilepath, personRepository, ExportFormat.NDJSON);
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ExportReport
+ * @since 0.5.0
+ */
+public class PersonExporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+    private static final long FAILURE_POLL_MILLIS = 100;
+    private static final int INITIAL_BUFFER_CAPACITY = 1024 * 1024;
+
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int bufferCount = 2 * parallelism;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Установка числа потоков кодирования. Размер пула буферов
+     * становится вдвое больше, чтобы потоки не простаивали, пока
+     * записывающий поток держит буферы.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param parallelism Число потоков, не меньше одного.
+     * @since 0.5.0
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Число потоков кодирования меньше 1");
+        }
+
+        this.parallelism = parallelism;
+        this.bufferCount = 2 * parallelism;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Размер пакета меньше 1");
+        }
+
+        this.chunkSize = chunkSize;
+    }
+
+    public int getBufferCount() {
+        return bufferCount;
+    }
+
+    /**
+     * Установка размера пула буферов — наибольшего числа
+     * закодированных, но не записанных пакетов.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param bufferCount Размер пула, не меньше одного.
+     * @since 0.5.0
+     */
+    public void setBufferCount(int bufferCount) {
+        if (bufferCount < 1) {
+            throw new IllegalArgumentException("Размер пула буферов меньше 1");
+        }
+
+        this.bufferCount = bufferCount;
+    }
+
+    /**
+     * Экспорт в файл. Существующий файл перезаписывается.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param targetFilepath Путь к файлу.
+     * @param personRepository Хранилище.
+     * @param format Формат.
+     * @return Отчёт экспорта.
+     * @throws IOException Ошибка записи; файл может быть записан
+     *     частично.
+     * @since 0.5.0
+     */
+    public ExportReport exportTo(
+            Path targetFilepath,
+            IPersonRepository personRepository,
+            ExportFormat format
+    ) throws IOException {
+        try (
+            FileChannel fileChannel = FileChannel.open(
+                targetFilepath,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            return exportTo(fileChannel, personRepository, format);
+        }
+    }
+
+    /**
+     * Экспорт в канал с его текущей позиции. Канал не закрывается.
+     *
+     * <p>Запись выполняется в вызывающем потоке, кодирование — в
+     * собственных потоках, завершающихся вместе с экспортом.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param channel Канал, например {@link FileChannel}.
+     * @param personRepository Хранилище.
+     * @param format Формат.
+     * @return Отчёт экспорта.
+     * @throws IOException Ошибка записи или прерывание вызывающего
+     *     потока; экспорт прерван.
+     * @since 0.5.0
+     */
+    public ExportReport exportTo(
+            GatheringByteChannel channel,
+            IPersonRepository personRepository,
+            ExportFormat format
+    ) throws IOException {
+        MarshallingEvent event = new MarshallingEvent();
+
+        event.begin();
+
+        ExportReport report = new ExportRun(personRepository.getAll(), format).execute(channel);
+
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.format = format.name();
+            event.operation = "export";
+            event.objectType = Person.class;
+            event.records = report.getRecordCount();
+            event.bytes = report.getByteCount();
+            event.commit();
+        }
+
+        return report;
+    }
+
+    /**
+     * Закодированный пакет, ожидающий записи.
+     */
+    private static class EncodedChunk {
+
+        final int index;
+        final ByteBuffer buffer;
+
+        EncodedChunk(int index, ByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Состояние одного экспорта.
+     *
+     * <p>Поток кодирования сначала берёт буфер из пула и только затем
+     * номер пакета, поэтому незаписанные пакеты всегда лежат в окне
+     * из {@code bufferCount} номеров, начиная со следующего
+     * записываемого, и ячейка {@code номер % bufferCount} однозначна.
+     */
+    private class ExportRun {
+
+        private final List<Person> persons;
+        private final ExportFormat format;
+        private final int chunkCount;
+        private final int windowSize = bufferCount;
+        private final int runParallelism = parallelism;
+        private final int runChunkSize = chunkSize;
+
+        private final BlockingQueue<ByteBuffer> freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+        private final BlockingQueue<EncodedChunk> encodedChunks = new LinkedBlockingQueue<>();
+        private final AtomicInteger nextChunkIndex = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<Thread> workers = new ArrayList<>();
+        private final LongAdder encodeNanos = new LongAdder();
+
+        ExportRun(List<Person> persons, ExportFormat format) {
+            this.persons = persons;
+            this.format = format;
+            this.chunkCount = (int) ((persons.size() + (long) runChunkSize - 1) / runChunkSize);
+        }
+
+        ExportReport execute(GatheringByteChannel channel) throws IOException {
+            long start = System.nanoTime();
+            long byteCount = 0;
+            long writeCount = 0;
+            long writeNanos = 0;
+            long writerWaitNanos = 0;
+
+            for (int i = 0; i < windowSize; i++) {
+                freeBuffers.add(ByteBuffer.allocateDirect(INITIAL_BUFFER_CAPACITY));
+            }
+
+            Thread.Builder builder = Thread.ofPlatform()
+                .daemon()
+                .name("person-export-", 0);
+
+            for (int i = 0; i < Math.min(runParallelism, Math.max(1, chunkCount)); i++) {
+                workers.add(builder.unstarted(this::work));
+            }
+
+            for (Thread worker : workers) {
+                worker.start();
+            }
+
+            try {
+                if (format == ExportFormat.CSV) {
+                    long writeStart = System.nanoTime();
+
+                    byteCount += writeFully(channel, new ByteBuffer[] {
+                        ByteBuffer.wrap(PersonRecordEncoder.CSV_HEADER.getBytes(StandardCharsets.US_ASCII))
+                    }, 1);
+                    writeNanos += System.nanoTime() - writeStart;
+                    writeCount++;
+                }
+
+                EncodedChunk[] window = new EncodedChunk[windowSize];
+                ByteBuffer[] gathered = new ByteBuffer[windowSize];
+                int nextWriteIndex = 0;
+
+                while (nextWriteIndex < chunkCount) {
+                    long waitStart = System.nanoTime();
+
+                    while (window[nextWriteIndex % windowSize] == null) {
+                        EncodedChunk chunk = pollEncodedChunk();
+
+                        window[chunk.index % windowSize] = chunk;
+                    }
+
+                    for (EncodedChunk chunk = encodedChunks.poll(); chunk != null; chunk = encodedChunks.poll()) {
+                        window[chunk.index % windowSize] = chunk;
+                    }
+
+                    long writeStart = System.nanoTime();
+                    int gatheredCount = 0;
+
+                    writerWaitNanos += writeStart - waitStart;
+
+                    while (nextWriteIndex < chunkCount && window[nextWriteIndex % windowSize] != null) {
+                        gathered[gatheredCount++] = window[nextWriteIndex % windowSize].buffer;
+                        window[nextWriteIndex % windowSize] = null;
+                        nextWriteIndex++;
+                    }
+
+                    byteCount += writeFully(channel, gathered, gatheredCount);
+                    writeNanos += System.nanoTime() - writeStart;
+                    writeCount++;
+
+                    for (int i = 0; i < gatheredCount; i++) {
+                        freeBuffers.add(gathered[i]);
+                        gathered[i] = null;
+                    }
+                }
+            }
+            catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+
+            if (join()) {
+                Thread.currentThread().interrupt();
+            }
+
+            Throwable exportFailure = failure.get();
+
+            if (exportFailure instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (exportFailure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (exportFailure instanceof Error error) {
+                throw error;
+            }
+
+            return new ExportReport(
+                format,
+                runParallelism,
+                persons.size(),
+                byteCount,
+                chunkCount,
+                writeCount,
+                encodeNanos.sum(),
+                writeNanos,
+                writerWaitNanos,
+                System.nanoTime() - start
+            );
+        }
+
+        /**
+         * Ожидание следующего закодированного пакета. Вызывающий поток
+         * не прерывается при сбое кодирования, поэтому ожидание
+         * периодически проверяет сбой.
+         */
+        private EncodedChunk pollEncodedChunk() throws IOException {
+            try {
+                while (true) {
+                    EncodedChunk chunk = encodedChunks.poll(FAILURE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+
+                    if (chunk != null) {
+                        return chunk;
+                    }
+                    if (failure.get() != null) {
+                        throw new InterruptedIOException("Экспорт прерван сбоем кодирования");
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Экспорт прерван");
+            }
+        }
+
+        private long writeFully(GatheringByteChannel channel, ByteBuffer[] buffers, int count) throws IOException {
+            long remaining = 0;
+
+            for (int i = 0; i < count; i++) {
+                remaining += buffers[i].remaining();
+            }
+
+            long written = remaining;
+
+            while (remaining > 0) {
+                remaining -= channel.write(buffers, 0, count);
+            }
+
+            return written;
+        }
+
+        private void work() {
+            PersonRecordEncoder encoder = new PersonRecordEncoder(format);
+
+            try {
+                while (true) {
+                    ByteBuffer buffer = freeBuffers.take();
+                    int index = nextChunkIndex.getAndIncrement();
+
+                    if (index >= chunkCount) {
+                        freeBuffers.add(buffer);
+                        break;
+                    }
+
+                    long encodeStart = System.nanoTime();
+                    int from = index * runChunkSize;
+                    ByteBuffer encoded = encoder.encode(
+                        persons.subList(from, Math.min(persons.size(), from + runChunkSize)),
+                        buffer
+                    );
+
+                    encodeNanos.add(System.nanoTime() - encodeStart);
+                    encodedChunks.add(new EncodedChunk(index, encoded));
+                }
+            }
+            catch (InterruptedException e) {
+                fail(new InterruptedIOException("Экспорт прерван"));
+            }
+            catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Фиксация первого сбоя и остановка потоков кодирования.
+         */
+        private void fail(Throwable cause) {
+            if (!failure.compareAndSet(null, cause)) {
+                return;
+            }
+
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+        }
+
+        /**
+         * Ожидание завершения потоков кодирования.
+         *
+         * @return Вызывающий поток был прерван во время ожидания.
+         */
+        private boolean join() {
+            boolean interrupted = false;
+
+            for (Thread worker : workers) {
+                while (true) {
+                    try {
+                        worker.join();
+                        break;
+                    }
+                    catch (InterruptedException e) {
+                        interrupted = true;
+                        fail(new InterruptedIOException("Экспорт прерван"));
+                    }
+                }
+            }
+
+            return interrupted;
+        }
+    }
+}
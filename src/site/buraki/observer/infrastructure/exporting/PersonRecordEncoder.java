@@ -0,0 +1,339 @@
+package site.buraki.observer.infrastructure.exporting;
+
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.Location;
+import site.buraki.observer.core.person.Person;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Кодировщик записей экспорта в UTF-8. Экземпляр принадлежит одному
+ * потоку и переиспользует свой массив между пакетами, поэтому после
+ * прогрева кодирование не выделяет память под вывод.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ExportFormat
+ * @since 0.5.0
+ */
+class PersonRecordEncoder {
+
+    static final String CSV_HEADER =
+        "id,name,createdAt,hairColor,eyeColor,height,weight,location.name,location.x,location.y,location.z\r\n";
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final ExportFormat format;
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    PersonRecordEncoder(ExportFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Кодирование пакета в буфер.
+     *
+     * @param buffer Буфер, очищаемый перед записью.
+     * @return Тот же буфер либо больший, если пакет не поместился;
+     *     готов к чтению.
+     */
+    ByteBuffer encode(List<Person> persons, ByteBuffer buffer) {
+        size = 0;
+
+        for (Person person : persons) {
+            if (format == ExportFormat.NDJSON) {
+                encodeNDJSON(person);
+            }
+            else {
+                encodeCSV(person);
+            }
+        }
+
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(Math.max(size, buffer.capacity() * 2));
+        }
+
+        buffer.clear();
+        buffer.put(bytes, 0, size);
+
+        return buffer.flip();
+    }
+
+    private void encodeNDJSON(Person person) {
+        Location location = person.getLocation();
+        Coordinates coordinates = location.getCoordinates();
+
+        writeASCII("{\"id\":");
+        writeLong(person.getID());
+        writeASCII(",\"name\":");
+        writeJSONString(person.getName());
+        writeASCII(",\"createdAt\":\"");
+        writeDateTime(person.getCreatedAt());
+        writeASCII("\",\"hairColor\":\"");
+        writeASCII(person.getHairColor().name());
+        writeASCII("\",\"eyeColor\":\"");
+        writeASCII(person.getEyeColor().name());
+        writeASCII("\",\"height\":");
+        writeASCII(Float.toString(person.getHeight()));
+        writeASCII(",\"weight\":");
+        writeASCII(Float.toString(person.getWeight()));
+        writeASCII(",\"location\":{\"name\":");
+        writeJSONString(location.getName());
+        writeASCII(",\"coordinates\":{\"x\":");
+        writeASCII(Float.toString(coordinates.getX()));
+        writeASCII(",\"y\":");
+        writeASCII(Float.toString(coordinates.getY()));
+        writeASCII(",\"z\":");
+        writeASCII(Float.toString(coordinates.getZ()));
+        writeASCII("}}}\n");
+    }
+
+    private void encodeCSV(Person person) {
+        Location location = person.getLocation();
+        Coordinates coordinates = location.getCoordinates();
+
+        writeLong(person.getID());
+        writeByte(',');
+        writeCSVField(person.getName());
+        writeByte(',');
+        writeDateTime(person.getCreatedAt());
+        writeByte(',');
+        writeASCII(person.getHairColor().name());
+        writeByte(',');
+        writeASCII(person.getEyeColor().name());
+        writeByte(',');
+        writeASCII(Float.toString(person.getHeight()));
+        writeByte(',');
+        writeASCII(Float.toString(person.getWeight()));
+        writeByte(',');
+        writeCSVField(location.getName());
+        writeByte(',');
+        writeASCII(Float.toString(coordinates.getX()));
+        writeByte(',');
+        writeASCII(Float.toString(coordinates.getY()));
+        writeByte(',');
+        writeASCII(Float.toString(coordinates.getZ()));
+        writeASCII("\r\n");
+    }
+
+    /**
+     * Строка JSON. Экранируются только обязательные символы и
+     * разделители строк U+2028, U+2029.
+     */
+    private void writeJSONString(String value) {
+        writeByte('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '"' -> writeASCII("\\\"");
+                case '\\' -> writeASCII("\\\\");
+                case '\n' -> writeASCII("\\n");
+                case '\r' -> writeASCII("\\r");
+                case '\t' -> writeASCII("\\t");
+                case '\b' -> writeASCII("\\b");
+                case '\f' -> writeASCII("\\f");
+                case '\u2028', '\u2029' -> writeUnicodeEscape(c);
+                default -> {
+                    if (c < 0x20) {
+                        writeUnicodeEscape(c);
+                    }
+                    else {
+                        i = writeUTF8(value, i);
+                    }
+                }
+            }
+        }
+
+        writeByte('"');
+    }
+
+    /**
+     * Поле CSV; заключается в кавычки, только если содержит
+     * разделитель, кавычку или перевод строки.
+     */
+    private void writeCSVField(String value) {
+        boolean quoted = false;
+
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quoted) {
+            for (int i = 0; i < value.length(); i++) {
+                i = writeUTF8(value, i);
+            }
+
+            return;
+        }
+
+        writeByte('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writeByte('"');
+            }
+
+            i = writeUTF8(value, i);
+        }
+
+        writeByte('"');
+    }
+
+    /**
+     * Дата в формате {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, как
+     * у сериализатора JSON; годы вне {@code [0, 9999]} форматируются
+     * через него же.
+     */
+    private void writeDateTime(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+
+        if (year < 0 || year > 9999) {
+            writeASCII(dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+
+        writeDigits(year, 4);
+        writeByte('-');
+        writeDigits(dateTime.getMonthValue(), 2);
+        writeByte('-');
+        writeDigits(dateTime.getDayOfMonth(), 2);
+        writeByte('T');
+        writeDigits(dateTime.getHour(), 2);
+        writeByte(':');
+        writeDigits(dateTime.getMinute(), 2);
+        writeByte(':');
+        writeDigits(dateTime.getSecond(), 2);
+
+        int nano = dateTime.getNano();
+
+        if (nano != 0) {
+            int digitCount = 9;
+
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digitCount--;
+            }
+
+            writeByte('.');
+            writeDigits(nano, digitCount);
+        }
+    }
+
+    private void writeDigits(int value, int digitCount) {
+        ensureCapacity(digitCount);
+
+        for (int i = digitCount - 1; i >= 0; i--) {
+            bytes[size + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+
+        size += digitCount;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeASCII(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+
+        int digitCount = 1;
+
+        for (long bound = 10; digitCount < 19 && value >= bound; bound *= 10) {
+            digitCount++;
+        }
+
+        ensureCapacity(digitCount);
+
+        for (int i = digitCount - 1; i >= 0; i--) {
+            bytes[size + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+
+        size += digitCount;
+    }
+
+    private void writeUnicodeEscape(char c) {
+        ensureCapacity(6);
+        bytes[size++] = '\\';
+        bytes[size++] = 'u';
+        bytes[size++] = HEX_DIGITS[c >> 12 & 0xF];
+        bytes[size++] = HEX_DIGITS[c >> 8 & 0xF];
+        bytes[size++] = HEX_DIGITS[c >> 4 & 0xF];
+        bytes[size++] = HEX_DIGITS[c & 0xF];
+    }
+
+    /**
+     * Запись символа строки в UTF-8. Непарный суррогат заменяется на
+     * {@code '?'}, как в {@link String#getBytes}.
+     *
+     * @return Индекс последнего записанного символа.
+     */
+    private int writeUTF8(String value, int index) {
+        char c = value.charAt(index);
+
+        ensureCapacity(4);
+
+        if (c < 0x80) {
+            bytes[size++] = (byte) c;
+        }
+        else if (c < 0x800) {
+            bytes[size++] = (byte) (0xC0 | c >> 6);
+            bytes[size++] = (byte) (0x80 | c & 0x3F);
+        }
+        else if (Character.isHighSurrogate(c)
+            && index + 1 < value.length()
+            && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++index));
+
+            bytes[size++] = (byte) (0xF0 | codePoint >> 18);
+            bytes[size++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            bytes[size++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            bytes[size++] = (byte) (0x80 | codePoint & 0x3F);
+        }
+        else if (Character.isSurrogate(c)) {
+            bytes[size++] = '?';
+        }
+        else {
+            bytes[size++] = (byte) (0xE0 | c >> 12);
+            bytes[size++] = (byte) (0x80 | c >> 6 & 0x3F);
+            bytes[size++] = (byte) (0x80 | c & 0x3F);
+        }
+
+        return index;
+    }
+
+    private void writeASCII(String value) {
+        int length = value.length();
+
+        ensureCapacity(length);
+
+        for (int i = 0; i < length; i++) {
+            bytes[size++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) c;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(size + additional, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package site.buraki.observer.infrastructure.importing;
+
+import site.buraki.observer.common.exceptions.core.CoreLayerException;
+
+/**
+ * Запись источника, отклонённая конвейером импорта, с её позицией,
+ * стадией и причиной: {@code ValidationException} для неразобранных и
+ * невалидных записей, {@code DataIntegrityException} для повторов.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ImportReport
+ * @since 0.5.0
+ */
+public class ImportError {
+
+    private final int position;
+    private final ImportStage stage;
+    private final CoreLayerException exception;
+
+    public ImportError(int position, ImportStage stage, CoreLayerException exception) {
+        this.position = position;
+        this.stage = stage;
+        this.exception = exception;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public ImportStage getStage() {
+        return stage;
+    }
+
+    public CoreLayerException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(\n" +
+               ("position=" + position + ",").indent(4) +
+               ("stage=" + stage + ",").indent(4) +
+               ("message=\"" + exception.getMessage() + "\"").indent(4) +
+               ")";
+    }
+}
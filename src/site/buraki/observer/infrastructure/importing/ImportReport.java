@@ -0,0 +1,114 @@
+package site.buraki.observer.infrastructure.importing;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Отчёт конвейера импорта: число записей, импортированных и
+ * отклонённых, отклонённые записи по возрастанию позиции, пропускная
+ * способность и статистика стадий.
+ *
+ * <p>Список отклонённых записей ограничен при импорте; число
+ * отклонённых записей учитывает все.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonImporter
+ * @since 0.5.0
+ */
+public class ImportReport {
+
+    private final long recordCount;
+    private final long importedCount;
+    private final long errorCount;
+    private final List<ImportError> errors;
+    private final long maxID;
+    private final long elapsedNanos;
+    private final List<StageStatistics> stageStatistics;
+
+    public ImportReport(
+            long recordCount,
+            long importedCount,
+            long errorCount,
+            List<ImportError> errors,
+            long maxID,
+            long elapsedNanos,
+            List<StageStatistics> stageStatistics
+    ) {
+        this.recordCount = recordCount;
+        this.importedCount = importedCount;
+        this.errorCount = errorCount;
+        this.errors = List.copyOf(errors);
+        this.maxID = maxID;
+        this.elapsedNanos = elapsedNanos;
+        this.stageStatistics = List.copyOf(stageStatistics);
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public long getMaxID() {
+        return maxID;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public List<StageStatistics> getStageStatistics() {
+        return stageStatistics;
+    }
+
+    public double getThroughputPerSecond() {
+        return elapsedNanos == 0 ? 0 : recordCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Сводка импорта в текстовом формате метрик.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Строки {@code имя{метки} значение}.
+     * @since 0.5.0
+     */
+    public String dump() {
+        StringBuilder dump = new StringBuilder(1024);
+
+        dump.append("person_import_records_total ").append(recordCount).append('\n');
+        dump.append("person_import_imported_total ").append(importedCount).append('\n');
+        dump.append("person_import_errors_total ").append(errorCount).append('\n');
+        dump.append("person_import_elapsed_nanos ").append(elapsedNanos).append('\n');
+        dump.append("person_import_throughput_per_second ")
+            .append(String.format(Locale.ROOT, "%.3f", getThroughputPerSecond()))
+            .append('\n');
+
+        for (StageStatistics statistics : stageStatistics) {
+            String labels = "stage=\"" + statistics.getStage().getStageName() + "\"";
+
+            appendLine(dump, "person_import_stage_parallelism", labels, statistics.getParallelism());
+            appendLine(dump, "person_import_stage_processed_total", labels, statistics.getProcessedCount());
+            appendLine(dump, "person_import_stage_busy_nanos", labels, statistics.getBusyNanos());
+            appendLine(dump, "person_import_stage_input_wait_nanos", labels, statistics.getInputWaitNanos());
+            appendLine(dump, "person_import_stage_output_wait_nanos", labels, statistics.getOutputWaitNanos());
+            appendLine(dump, "person_import_stage_utilization", labels,
+                String.format(Locale.ROOT, "%.3f", statistics.getUtilization()));
+        }
+
+        return dump.toString();
+    }
+
+    private static void appendLine(StringBuilder dump, String name, String labels, Object value) {
+        dump.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+}
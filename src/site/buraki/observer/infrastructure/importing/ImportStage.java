@@ -0,0 +1,35 @@
+package site.buraki.observer.infrastructure.importing;
+
+/**
+ * Перечисление стадий конвейера импорта в порядке прохождения записей.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PersonImporter
+ * @since 0.5.0
+ */
+public enum ImportStage {
+
+    /**
+     * Поиск границ записей в источнике; всегда один поток.
+     */
+    READ("read"),
+    PARSE("parse"),
+    VALIDATE("validate"),
+    DEDUPLICATE("deduplicate"),
+    INSERT("insert");
+
+    private final String stageName;
+
+    ImportStage(String stageName) {
+        this.stageName = stageName;
+    }
+
+    public String getStageName() {
+        return stageName;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "." + name();
+    }
+}
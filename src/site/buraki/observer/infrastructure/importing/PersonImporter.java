@@ -0,0 +1,598 @@
+package site.buraki.observer.infrastructure.importing;
+
+import site.buraki.observer.common.exceptions.core.CoreLayerException;
+import site.buraki.observer.common.exceptions.core.DataIntegrityException;
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.common.validation.BatchValidationReport;
+import site.buraki.observer.common.validation.InvalidRecord;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonBatch;
+import site.buraki.observer.infrastructure.marshalling.IDeserializer;
+import site.buraki.observer.infrastructure.marshalling.MarshallingManagerFactory;
+import site.buraki.observer.infrastructure.marshalling.json.JSONRecordScanner;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Конвейерный импорт экземпляров бизнес-модели человека из JSON-массива
+ * в хранилище.
+ *
+ * <p>Стадии ({@link ImportStage}) связаны ограниченными очередями:
+ * чтение находит границы записей ({@link JSONRecordScanner}), разбор
+ * десериализует их, проверка применяет инварианты, устранение повторов
+ * отклоняет уже встречавшиеся уникальные идентификаторы, вставка
+ * добавляет экземпляры в хранилище. Каждая стадия, кроме чтения,
+ * выполняется заданным числом потоков; заполненная очередь
+ * приостанавливает предыдущую стадию, поэтому память конвейера
+ * ограничена ёмкостью очередей, а не размером источника. Записи
+ * передаются между стадиями пакетами, чтобы стоимость передачи через
+ * очередь делилась на пакет; проверка применяет инварианты ко всему
+ * пакету сразу ({@link PersonBatch}).
+ *
+ * <p>Отклонённые записи попадают в отчёт ({@link ImportReport}) с
+ * позицией в источнике и исключением без трассировки стека; импорт
+ * при этом продолжается. Ошибка чтения источника или хранилища
+ * останавливает все стадии и выбрасывается из
+ * {@link #importFrom(InputStream, IPersonRepository)}.
+ *
+ * <p>Записи внутри стадии обрабатываются параллельно, поэтому порядок
+ * вставки и то, какой из повторов будет импортирован, зависят от
+ * планирования, если число потоков разбора и проверки больше одного.
+ *
+ * <pre>{@code
+ *     PersonImporter personImporter = new PersonImporter();
+ *
+ *     personImporter.setParallelism(ImportStage.PARSE, 8);
+ *     ImportReport report = personImporter.importFrom(sourceFilepath, personRepository);
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ImportReport
+ * @since 0.5.0
+ */
+public class PersonImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    public static final int DEFAULT_MAX_REPORTED_ERRORS = 10_000;
+
+    private static final long FAILURE_POLL_MILLIS = 100;
+    private static final Batch END = new Batch(0);
+
+    private final EnumMap<ImportStage, Integer> parallelism = new EnumMap<>(ImportStage.class);
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int maxReportedErrors = DEFAULT_MAX_REPORTED_ERRORS;
+
+    /**
+     * Конструктор конвейера. Разбор, самая дорогая стадия, по умолчанию
+     * занимает половину процессоров, остальные стадии — по потоку.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    public PersonImporter() {
+        for (ImportStage stage : ImportStage.values()) {
+            parallelism.put(stage, 1);
+        }
+
+        parallelism.put(ImportStage.PARSE, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public int getParallelism(ImportStage stage) {
+        return parallelism.get(stage);
+    }
+
+    /**
+     * Установка числа потоков стадии.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param stage Стадия; чтение всегда выполняется одним потоком.
+     * @param stageParallelism Число потоков, не меньше одного.
+     * @since 0.5.0
+     */
+    public void setParallelism(ImportStage stage, int stageParallelism) {
+        if (stageParallelism < 1 || stage == ImportStage.READ && stageParallelism != 1) {
+            throw new IllegalArgumentException("Недопустимое число потоков стадии " + stage + ": " + stageParallelism);
+        }
+
+        parallelism.put(stage, stageParallelism);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Размер пакета меньше 1");
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Установка ёмкости очередей между стадиями.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param queueCapacity Ёмкость очереди в пакетах.
+     * @since 0.5.0
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Ёмкость очереди меньше 1");
+        }
+
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+
+    public void setMaxReportedErrors(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Импорт из файла.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param sourceFilepath Путь к файлу JSON-массива экземпляров.
+     * @param personRepository Хранилище, в которое добавляются
+     *     экземпляры.
+     * @return Отчёт импорта.
+     * @throws IOException Ошибка чтения файла; импорт прерван.
+     * @since 0.5.0
+     */
+    public ImportReport importFrom(Path sourceFilepath, IPersonRepository personRepository) throws IOException {
+        try (InputStream inputStream = new FileInputStream(sourceFilepath.toFile())) {
+            return importFrom(inputStream, personRepository);
+        }
+    }
+
+    /**
+     * Импорт из потока.
+     *
+     * <p>Чтение выполняется в вызывающем потоке, остальные стадии — в
+     * собственных потоках, завершающихся вместе с импортом.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param inputStream Поток JSON-массива экземпляров.
+     * @param personRepository Хранилище, в которое добавляются
+     *     экземпляры.
+     * @return Отчёт импорта.
+     * @throws IOException Ошибка чтения потока или прерывание
+     *     вызывающего потока; импорт прерван.
+     * @since 0.5.0
+     */
+    public ImportReport importFrom(InputStream inputStream, IPersonRepository personRepository) throws IOException {
+        return new ImportRun(personRepository).execute(inputStream);
+    }
+
+    /**
+     * Обработка пакета стадией.
+     */
+    @FunctionalInterface
+    private interface StageStep {
+
+        /**
+         * Обработка записей входного пакета; записи для следующей
+         * стадии добавляются в выходной.
+         */
+        void apply(Batch input, Batch output);
+    }
+
+    /**
+     * Пакет записей с их позициями в источнике.
+     */
+    private static class Batch {
+
+        final int[] positions;
+        final Object[] payloads;
+        int size;
+
+        Batch(int capacity) {
+            this.positions = new int[capacity];
+            this.payloads = new Object[capacity];
+        }
+
+        void add(int position, Object payload) {
+            positions[size] = position;
+            payloads[size] = payload;
+            size++;
+        }
+
+        boolean isFull() {
+            return size == positions.length;
+        }
+    }
+
+    /**
+     * Состояние одного импорта.
+     */
+    private class ImportRun {
+
+        private final IPersonRepository personRepository;
+        private final IDeserializer<Person> deserializer = MarshallingManagerFactory
+            .<Person>getJSONMarshallingManager()
+            .getDeserializer();
+        private final Set<Long> seenIDs = ConcurrentHashMap.newKeySet();
+        private final AtomicLong maxID = new AtomicLong();
+        private final LongAdder importedCount = new LongAdder();
+        private final AtomicLong errorCount = new AtomicLong();
+        private final ConcurrentLinkedQueue<ImportError> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<StageRunner> runners = new ArrayList<>();
+
+        ImportRun(IPersonRepository personRepository) {
+            this.personRepository = personRepository;
+        }
+
+        ImportReport execute(InputStream inputStream) throws IOException {
+            long start = System.nanoTime();
+
+            StageRunner insertRunner = new StageRunner(ImportStage.INSERT, null, this::insert);
+            StageRunner deduplicateRunner = new StageRunner(ImportStage.DEDUPLICATE, insertRunner, this::deduplicate);
+            StageRunner validateRunner = new StageRunner(ImportStage.VALIDATE, deduplicateRunner, this::validate);
+            StageRunner parseRunner = new StageRunner(ImportStage.PARSE, validateRunner, this::parse);
+
+            runners.addAll(List.of(parseRunner, validateRunner, deduplicateRunner, insertRunner));
+
+            for (StageRunner runner : runners) {
+                runner.start();
+            }
+
+            long[] readCounters = new long[2];
+            Batch[] batch = {new Batch(batchSize)};
+            boolean interrupted = false;
+
+            try {
+                new JSONRecordScanner(true).scan(inputStream, (number, offset, length, content, hasID, id) -> {
+                    readCounters[0]++;
+                    batch[0].add(number, content);
+
+                    if (batch[0].isFull()) {
+                        readCounters[1] += offerFromReader(parseRunner, batch[0]);
+                        batch[0] = new Batch(batchSize);
+                    }
+                });
+
+                if (batch[0].size > 0) {
+                    readCounters[1] += offerFromReader(parseRunner, batch[0]);
+                }
+                for (int i = 0; i < parseRunner.parallelism; i++) {
+                    readCounters[1] += offerFromReader(parseRunner, END);
+                }
+            }
+            catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+
+            for (StageRunner runner : runners) {
+                interrupted |= runner.join();
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            Throwable importFailure = failure.get();
+
+            if (importFailure instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (importFailure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (importFailure instanceof Error error) {
+                throw error;
+            }
+
+            long elapsedNanos = System.nanoTime() - start;
+            List<StageStatistics> stageStatistics = new ArrayList<>();
+
+            stageStatistics.add(new StageStatistics(
+                ImportStage.READ,
+                1,
+                readCounters[0],
+                elapsedNanos - readCounters[1],
+                0,
+                readCounters[1],
+                elapsedNanos
+            ));
+
+            for (StageRunner runner : runners) {
+                stageStatistics.add(runner.getStatistics(elapsedNanos));
+            }
+
+            List<ImportError> sortedErrors = new ArrayList<>(errors);
+
+            sortedErrors.sort(Comparator.comparingInt(ImportError::getPosition));
+
+            return new ImportReport(
+                readCounters[0],
+                importedCount.sum(),
+                errorCount.get(),
+                sortedErrors,
+                maxID.get(),
+                elapsedNanos,
+                stageStatistics
+            );
+        }
+
+        private void parse(Batch input, Batch output) {
+            for (int i = 0; i < input.size; i++) {
+                int position = input.positions[i];
+
+                try {
+                    Person person = deserializer.deserializeOne(
+                        Person.class,
+                        new ByteArrayInputStream((byte[]) input.payloads[i])
+                    );
+
+                    if (person != null) {
+                        output.add(position, person);
+                    }
+                    else {
+                        reject(position, ImportStage.PARSE, new ValidationException("Запись не разобрана", null, false));
+                    }
+                }
+                catch (RuntimeException e) {
+                    reject(position, ImportStage.PARSE, new ValidationException(
+                        "Запись не разобрана: " + e.getMessage(), e, false
+                    ));
+                }
+            }
+        }
+
+        private void validate(Batch input, Batch output) {
+            PersonBatch personBatch = new PersonBatch(input.size);
+
+            for (int i = 0; i < input.size; i++) {
+                personBatch.append((Person) input.payloads[i]);
+            }
+
+            BatchValidationReport report = personBatch.validate();
+            boolean[] invalid = new boolean[input.size];
+
+            for (InvalidRecord invalidRecord : report.getInvalidRecords()) {
+                invalid[invalidRecord.getPosition()] = true;
+                reject(input.positions[invalidRecord.getPosition()], ImportStage.VALIDATE, invalidRecord.getException());
+            }
+
+            for (int i = 0; i < input.size; i++) {
+                if (!invalid[i]) {
+                    output.add(input.positions[i], input.payloads[i]);
+                }
+            }
+        }
+
+        private void deduplicate(Batch input, Batch output) {
+            for (int i = 0; i < input.size; i++) {
+                long id = ((Person) input.payloads[i]).getID();
+
+                if (seenIDs.add(id)) {
+                    maxID.accumulateAndGet(id, Math::max);
+                    output.add(input.positions[i], input.payloads[i]);
+                }
+                else {
+                    reject(input.positions[i], ImportStage.DEDUPLICATE, new DataIntegrityException(
+                        "Экземпляр бизнес-модели человека " + id + " повторяется в источнике", null, false
+                    ));
+                }
+            }
+        }
+
+        private void insert(Batch input, Batch output) {
+            for (int i = 0; i < input.size; i++) {
+                Person person = (Person) input.payloads[i];
+
+                if (personRepository.tryAdd(person).isApplied()) {
+                    importedCount.increment();
+                }
+                else {
+                    reject(input.positions[i], ImportStage.INSERT, new DataIntegrityException(
+                        "Экземпляр бизнес-модели человека " + person.getID() + " уже есть в хранилище", null, false
+                    ));
+                }
+            }
+        }
+
+        private void reject(int position, ImportStage stage, CoreLayerException exception) {
+            if (errorCount.incrementAndGet() <= maxReportedErrors) {
+                errors.add(new ImportError(position, stage, exception));
+            }
+        }
+
+        /**
+         * Передача записи из читающего (вызывающего) потока. Вызывающий
+         * поток не прерывается при сбое стадии, поэтому ожидание
+         * периодически проверяет сбой.
+         *
+         * @return Время ожидания в наносекундах.
+         */
+        private long offerFromReader(StageRunner runner, Batch batch) throws IOException {
+            long waitStart = System.nanoTime();
+
+            try {
+                while (!runner.input.offer(batch, FAILURE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        throw new InterruptedIOException("Импорт прерван сбоем стадии");
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Импорт прерван");
+            }
+
+            return System.nanoTime() - waitStart;
+        }
+
+        /**
+         * Фиксация первого сбоя и остановка потоков стадий.
+         */
+        private void fail(Throwable cause) {
+            if (!failure.compareAndSet(null, cause)) {
+                return;
+            }
+
+            for (StageRunner runner : runners) {
+                runner.interrupt();
+            }
+        }
+
+        /**
+         * Потоки стадии, разбирающие общую входную очередь.
+         */
+        private class StageRunner {
+
+            private final ImportStage stage;
+            private final int parallelism;
+            private final BlockingQueue<Batch> input;
+            private final StageRunner next;
+            private final StageStep step;
+            private final List<Thread> workers = new ArrayList<>();
+            private final AtomicInteger activeWorkerCount;
+
+            private final LongAdder processedCount = new LongAdder();
+            private final LongAdder busyNanos = new LongAdder();
+            private final LongAdder inputWaitNanos = new LongAdder();
+            private final LongAdder outputWaitNanos = new LongAdder();
+
+            StageRunner(ImportStage stage, StageRunner next, StageStep step) {
+                this.stage = stage;
+                this.parallelism = getParallelism(stage);
+                this.input = new ArrayBlockingQueue<>(queueCapacity);
+                this.next = next;
+                this.step = step;
+                this.activeWorkerCount = new AtomicInteger(parallelism);
+
+                Thread.Builder builder = Thread.ofPlatform()
+                    .daemon()
+                    .name("person-import-" + stage.getStageName() + "-", 0);
+
+                for (int i = 0; i < parallelism; i++) {
+                    workers.add(builder.unstarted(this::work));
+                }
+            }
+
+            void start() {
+                for (Thread worker : workers) {
+                    worker.start();
+                }
+            }
+
+            void interrupt() {
+                for (Thread worker : workers) {
+                    worker.interrupt();
+                }
+            }
+
+            /**
+             * Ожидание завершения потоков стадии.
+             *
+             * @return Вызывающий поток был прерван во время ожидания.
+             */
+            boolean join() {
+                boolean interrupted = false;
+
+                for (Thread worker : workers) {
+                    while (true) {
+                        try {
+                            worker.join();
+                            break;
+                        }
+                        catch (InterruptedException e) {
+                            interrupted = true;
+                            fail(new InterruptedIOException("Импорт прерван"));
+                        }
+                    }
+                }
+
+                return interrupted;
+            }
+
+            StageStatistics getStatistics(long elapsedNanos) {
+                return new StageStatistics(
+                    stage,
+                    parallelism,
+                    processedCount.sum(),
+                    busyNanos.sum(),
+                    inputWaitNanos.sum(),
+                    outputWaitNanos.sum(),
+                    elapsedNanos
+                );
+            }
+
+            private void work() {
+                try {
+                    while (true) {
+                        long takeStart = System.nanoTime();
+                        Batch batch = input.take();
+                        long stepStart = System.nanoTime();
+
+                        inputWaitNanos.add(stepStart - takeStart);
+
+                        if (batch == END) {
+                            break;
+                        }
+
+                        Batch output = next != null ? new Batch(batch.size) : null;
+
+                        step.apply(batch, output);
+
+                        long stepEnd = System.nanoTime();
+
+                        busyNanos.add(stepEnd - stepStart);
+                        processedCount.add(batch.size);
+
+                        if (output != null && output.size > 0) {
+                            next.input.put(output);
+                            outputWaitNanos.add(System.nanoTime() - stepEnd);
+                        }
+                    }
+
+                    // Последний завершившийся поток завершает следующую
+                    // стадию.
+                    if (activeWorkerCount.decrementAndGet() == 0 && next != null) {
+                        for (int i = 0; i < next.parallelism; i++) {
+                            next.input.put(END);
+                        }
+                    }
+                }
+                catch (InterruptedException e) {
+                    fail(new InterruptedIOException("Импорт прерван"));
+                }
+                catch (RuntimeException | Error e) {
+                    fail(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package site.buraki.observer.infrastructure.importing;
+
+/**
+ * Статистика стадии конвейера импорта.
+ *
+ * <p>Время каждого потока стадии делится на работу, ожидание входной
+ * очереди (стадия простаивает из-за предыдущей) и ожидание выходной
+ * (стадию сдерживает следующая). Загрузка — доля работы во времени
+ * всех потоков стадии.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ImportReport
+ * @since 0.5.0
+ */
+public class StageStatistics {
+
+    private final ImportStage stage;
+    private final int parallelism;
+    private final long processedCount;
+    private final long busyNanos;
+    private final long inputWaitNanos;
+    private final long outputWaitNanos;
+    private final long elapsedNanos;
+
+    public StageStatistics(
+            ImportStage stage,
+            int parallelism,
+            long processedCount,
+            long busyNanos,
+            long inputWaitNanos,
+            long outputWaitNanos,
+            long elapsedNanos
+    ) {
+        this.stage = stage;
+        this.parallelism = parallelism;
+        this.processedCount = processedCount;
+        this.busyNanos = busyNanos;
+        this.inputWaitNanos = inputWaitNanos;
+        this.outputWaitNanos = outputWaitNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public ImportStage getStage() {
+        return stage;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    public long getInputWaitNanos() {
+        return inputWaitNanos;
+    }
+
+    public long getOutputWaitNanos() {
+        return outputWaitNanos;
+    }
+
+    public double getUtilization() {
+        return elapsedNanos == 0 ? 0 : (double) busyNanos / ((double) elapsedNanos * parallelism);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(\n" +
+               ("stage=" + stage + ",").indent(4) +
+               ("parallelism=" + parallelism + ",").indent(4) +
+               ("processedCount=" + processedCount + ",").indent(4) +
+               ("utilization=" + getUtilization()).indent(4) +
+               ")";
+    }
+}
@@ -0,0 +1,185 @@
+package site.buraki.observer.infrastructure.indexes;
+
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonField;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Вторичный индекс экземпляров бизнес-модели человека, поддерживаемый
+ * как слушатель хранилища.
+ *
+ * <p>Наследник реализует вставку, удаление и очистку под блокировкой
+ * записи индекса, а запросы выполняет под блокировкой чтения. Вставка
+ * и удаление должны быть идемпотентными: при подключении
+ * ({@link #attach(IPersonRepository)}) изменения, пришедшие во время
+ * чтения содержимого хранилища, повторно применяются к нему по
+ * порядку.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepositoryListener
+ * @since 0.5.0
+ */
+public abstract class AbstractPersonIndex implements IPersonRepositoryListener {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    protected final Lock readLock = lock.readLock();
+    protected final Lock writeLock = lock.writeLock();
+
+    // Изменения во время подключения: пары {до, после}; пара из двух
+    // null — удаление всех экземпляров.
+    private List<Person[]> backlog;
+
+    /**
+     * Подключение индекса к хранилищу и заполнение его содержимым.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @since 0.5.0
+     */
+    public void attach(IPersonRepository personRepository) {
+        writeLock.lock();
+        try {
+            backlog = new ArrayList<>();
+        }
+        finally {
+            writeLock.unlock();
+        }
+
+        personRepository.addListener(this);
+
+        // Содержимое читается без блокировки индекса: слушатель
+        // вызывается под блокировкой хранилища.
+        List<Person> people = personRepository.getAll();
+
+        writeLock.lock();
+        try {
+            for (Person person : people) {
+                insert(person);
+            }
+            for (Person[] change : backlog) {
+                apply(change[0], change[1]);
+            }
+
+            backlog = null;
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Отключение индекса от хранилища. Содержимое индекса сохраняется,
+     * но больше не обновляется.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @since 0.5.0
+     */
+    public void detach(IPersonRepository personRepository) {
+        personRepository.removeListener(this);
+    }
+
+    @Override
+    public void onAdd(Person newPerson) {
+        change(null, newPerson);
+    }
+
+    @Override
+    public void onUpdate(Person oldPerson, Person newPerson) {
+        change(oldPerson, newPerson);
+    }
+
+    @Override
+    public void onModify(Person oldPerson, Person newPerson, Set<PersonField> changedFields) {
+        if (isAffectedBy(changedFields)) {
+            change(oldPerson, newPerson);
+        }
+    }
+
+    @Override
+    public void onRemove(Person oldPerson) {
+        change(oldPerson, null);
+    }
+
+    @Override
+    public void onRemoveAll() {
+        change(null, null);
+    }
+
+    /**
+     * Вставка экземпляра; повторная вставка не меняет индекс.
+     */
+    protected abstract void insert(Person person);
+
+    /**
+     * Удаление экземпляра; удаление отсутствующего не меняет индекс.
+     */
+    protected abstract void delete(Person person);
+
+    protected abstract void clear();
+
+    /**
+     * Проверка, затрагивает ли изменение указанных полей ключи
+     * индекса. По умолчанию затрагивает любое.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param changedFields Изменённые поля.
+     * @return Индекс требует обновления.
+     * @since 0.5.0
+     */
+    protected boolean isAffectedBy(Set<PersonField> changedFields) {
+        return true;
+    }
+
+    /**
+     * Проверка ограничения числа результатов запроса к индексу.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param limit Наибольшее число результатов.
+     * @throws IllegalArgumentException Ограничение отрицательно.
+     * @since 0.5.0
+     */
+    protected static void checkLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Ограничение числа результатов меньше 0");
+        }
+    }
+
+    private void change(Person oldPerson, Person newPerson) {
+        writeLock.lock();
+        try {
+            if (backlog != null) {
+                backlog.add(new Person[] {oldPerson, newPerson});
+            }
+            else {
+                apply(oldPerson, newPerson);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void apply(Person oldPerson, Person newPerson) {
+        if (oldPerson == null && newPerson == null) {
+            clear();
+            return;
+        }
+
+        if (oldPerson != null) {
+            delete(oldPerson);
+        }
+        if (newPerson != null) {
+            insert(newPerson);
+        }
+    }
+}
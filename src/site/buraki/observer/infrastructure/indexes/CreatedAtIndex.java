@@ -0,0 +1,406 @@
+package site.buraki.observer.infrastructure.indexes;
+
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonField;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Индекс экземпляров бизнес-модели человека по дате создания,
+ * разбитый на корзины по периодам эпохи.
+ *
+ * <p>Корзина хранит секунды и наносекунды эпохи (UTC) и уникальные
+ * идентификаторы в параллельных массивах примитивов, упорядоченных по
+ * дате создания, поэтому запрос по диапазону сравнивает даты только в
+ * двух крайних корзинах, а промежуточные копирует целиком. Запросы
+ * возвращают уникальные идентификаторы; экземпляры получаются из
+ * хранилища.
+ *
+ * <pre>{@code
+ *     CreatedAtIndex createdAtIndex = new CreatedAtIndex(Duration.ofDays(1));
+ *
+ *     createdAtIndex.attach(personRepository);
+ *     long[] ids = createdAtIndex.findBetween(from, to, 100);
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see AbstractPersonIndex
+ * @since 0.5.0
+ */
+public class CreatedAtIndex extends AbstractPersonIndex {
+
+    public static final Duration DEFAULT_BUCKET_PERIOD = Duration.ofDays(1);
+
+    private final long bucketSeconds;
+    private final TreeMap<Long, Bucket> buckets = new TreeMap<>();
+    private int size;
+
+    public CreatedAtIndex() {
+        this(DEFAULT_BUCKET_PERIOD);
+    }
+
+    /**
+     * Конструктор индекса.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param bucketPeriod Период корзины, не меньше секунды. Чем ближе
+     *     он к типичной ширине запроса, тем меньше дат сравнивается.
+     * @since 0.5.0
+     */
+    public CreatedAtIndex(Duration bucketPeriod) {
+        if (bucketPeriod.getSeconds() < 1) {
+            throw new IllegalArgumentException("Период корзины меньше секунды");
+        }
+
+        this.bucketSeconds = bucketPeriod.getSeconds();
+    }
+
+    public int getSize() {
+        readLock.lock();
+        try {
+            return size;
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    public int getBucketCount() {
+        readLock.lock();
+        try {
+            return buckets.size();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Поиск экземпляров, созданных в полуинтервале {@code [from, to)},
+     * в порядке возрастания даты создания.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param from Начало, включительно.
+     * @param to Конец, не включительно.
+     * @param limit Наибольшее число результатов, не меньше 0.
+     * @return Уникальные идентификаторы.
+     * @throws IllegalArgumentException Ограничение отрицательно.
+     * @since 0.5.0
+     */
+    public long[] findBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        checkLimit(limit);
+
+        long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+
+        readLock.lock();
+        try {
+            LongArrayBuilder ids = new LongArrayBuilder(limit);
+
+            for (Bucket bucket : bucketsBetween(fromSecond, toSecond).values()) {
+                int start = bucket.lowerBound(fromSecond, from.getNano());
+                int end = bucket.lowerBound(toSecond, to.getNano());
+
+                if (!ids.addAll(bucket.ids, start, end)) {
+                    break;
+                }
+            }
+
+            return ids.toArray();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Подсчёт экземпляров, созданных в полуинтервале
+     * {@code [from, to)}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param from Начало, включительно.
+     * @param to Конец, не включительно.
+     * @return Число экземпляров.
+     * @since 0.5.0
+     */
+    public int countBetween(LocalDateTime from, LocalDateTime to) {
+        long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+
+        readLock.lock();
+        try {
+            int count = 0;
+
+            for (Bucket bucket : bucketsBetween(fromSecond, toSecond).values()) {
+                count += bucket.lowerBound(toSecond, to.getNano()) - bucket.lowerBound(fromSecond, from.getNano());
+            }
+
+            return count;
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Поиск последних созданных экземпляров до заданной даты в порядке
+     * убывания даты создания.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param before Дата, не включительно; {@code null} — без
+     *     ограничения.
+     * @param limit Наибольшее число результатов, не меньше 0.
+     * @return Уникальные идентификаторы.
+     * @throws IllegalArgumentException Ограничение отрицательно.
+     * @since 0.5.0
+     */
+    public long[] findNewest(LocalDateTime before, int limit) {
+        checkLimit(limit);
+
+        readLock.lock();
+        try {
+            LongArrayBuilder ids = new LongArrayBuilder(limit);
+            NavigableMap<Long, Bucket> candidates = before == null
+                ? buckets.descendingMap()
+                : buckets.headMap(bucketOf(before.toEpochSecond(ZoneOffset.UTC)), true).descendingMap();
+
+            for (Bucket bucket : candidates.values()) {
+                int end = before == null
+                    ? bucket.size
+                    : bucket.lowerBound(before.toEpochSecond(ZoneOffset.UTC), before.getNano());
+
+                if (!ids.addAllReversed(bucket.ids, 0, end)) {
+                    break;
+                }
+            }
+
+            return ids.toArray();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Удаление из хранилища экземпляров, созданных раньше порога.
+     *
+     * <p>Корзины целиком раньше порога отсоединяются от индекса без
+     * сравнения дат, после чего их экземпляры удаляются через
+     * хранилище; оповещения об этих удалениях индекс уже не ищет.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param cutoff Порог, не включительно.
+     * @param personRepository Хранилище, к которому подключён индекс.
+     * @return Число удалённых экземпляров.
+     * @since 0.5.0
+     */
+    public int sweepBefore(LocalDateTime cutoff, IPersonRepository personRepository) {
+        long cutoffSecond = cutoff.toEpochSecond(ZoneOffset.UTC);
+        long cutoffBucket = bucketOf(cutoffSecond);
+        LongArrayBuilder expiredIDs = new LongArrayBuilder(Integer.MAX_VALUE);
+
+        writeLock.lock();
+        try {
+            Iterator<Map.Entry<Long, Bucket>> iterator = buckets.headMap(cutoffBucket, false).entrySet().iterator();
+
+            while (iterator.hasNext()) {
+                Bucket bucket = iterator.next().getValue();
+
+                expiredIDs.addAll(bucket.ids, 0, bucket.size);
+                size -= bucket.size;
+                iterator.remove();
+            }
+
+            Bucket boundaryBucket = buckets.get(cutoffBucket);
+
+            if (boundaryBucket != null) {
+                expiredIDs.addAll(boundaryBucket.ids, 0, boundaryBucket.lowerBound(cutoffSecond, cutoff.getNano()));
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+
+        int removedCount = 0;
+
+        for (long id : expiredIDs.toArray()) {
+            if (personRepository.tryRemove(id).isApplied()) {
+                removedCount++;
+            }
+        }
+
+        return removedCount;
+    }
+
+    @Override
+    protected void insert(Person person) {
+        LocalDateTime createdAt = person.getCreatedAt();
+        long second = createdAt.toEpochSecond(ZoneOffset.UTC);
+
+        if (buckets.computeIfAbsent(bucketOf(second), key -> new Bucket()).insert(second, createdAt.getNano(), person.getID())) {
+            size++;
+        }
+    }
+
+    @Override
+    protected void delete(Person person) {
+        LocalDateTime createdAt = person.getCreatedAt();
+        long second = createdAt.toEpochSecond(ZoneOffset.UTC);
+        long bucketKey = bucketOf(second);
+        Bucket bucket = buckets.get(bucketKey);
+
+        if (bucket != null && bucket.delete(second, createdAt.getNano(), person.getID())) {
+            size--;
+
+            if (bucket.size == 0) {
+                buckets.remove(bucketKey);
+            }
+        }
+    }
+
+    @Override
+    protected void clear() {
+        buckets.clear();
+        size = 0;
+    }
+
+    /**
+     * Дата создания неизменяема и меняется только при замене
+     * экземпляра целиком.
+     */
+    @Override
+    protected boolean isAffectedBy(Set<PersonField> changedFields) {
+        return false;
+    }
+
+    private long bucketOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, bucketSeconds);
+    }
+
+    private NavigableMap<Long, Bucket> bucketsBetween(long fromSecond, long toSecond) {
+        long fromBucket = bucketOf(fromSecond);
+        long toBucket = bucketOf(toSecond);
+
+        if (fromBucket > toBucket) {
+            return new TreeMap<>();
+        }
+
+        return buckets.subMap(fromBucket, true, toBucket, true);
+    }
+
+    /**
+     * Корзина: параллельные массивы, упорядоченные по (секунда,
+     * наносекунда, идентификатор). Вставка в конец — частый случай
+     * для новых экземпляров — выполняется без сдвига.
+     */
+    private static class Bucket {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        long[] seconds = new long[INITIAL_CAPACITY];
+        int[] nanos = new int[INITIAL_CAPACITY];
+        long[] ids = new long[INITIAL_CAPACITY];
+        int size;
+
+        boolean insert(long second, int nano, long id) {
+            int position = search(second, nano, id);
+
+            if (position >= 0) {
+                return false;
+            }
+
+            position = -position - 1;
+
+            if (size == ids.length) {
+                int capacity = size * 2;
+
+                seconds = Arrays.copyOf(seconds, capacity);
+                nanos = Arrays.copyOf(nanos, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+
+            System.arraycopy(seconds, position, seconds, position + 1, size - position);
+            System.arraycopy(nanos, position, nanos, position + 1, size - position);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+
+            seconds[position] = second;
+            nanos[position] = nano;
+            ids[position] = id;
+            size++;
+
+            return true;
+        }
+
+        boolean delete(long second, int nano, long id) {
+            int position = search(second, nano, id);
+
+            if (position < 0) {
+                return false;
+            }
+
+            System.arraycopy(seconds, position + 1, seconds, position, size - position - 1);
+            System.arraycopy(nanos, position + 1, nanos, position, size - position - 1);
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+
+            return true;
+        }
+
+        /**
+         * Позиция первой записи не раньше заданной даты.
+         */
+        int lowerBound(long second, int nano) {
+            int position = search(second, nano, Long.MIN_VALUE);
+
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private int search(long second, int nano, long id) {
+            if (size == 0 || compare(size - 1, second, nano, id) < 0) {
+                return -size - 1;
+            }
+
+            int low = 0;
+            int high = size - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = compare(middle, second, nano, id);
+
+                if (comparison < 0) {
+                    low = middle + 1;
+                }
+                else if (comparison > 0) {
+                    high = middle - 1;
+                }
+                else {
+                    return middle;
+                }
+            }
+
+            return -low - 1;
+        }
+
+        private int compare(int position, long second, int nano, long id) {
+            int comparison = Long.compare(seconds[position], second);
+
+            if (comparison == 0) {
+                comparison = Integer.compare(nanos[position], nano);
+            }
+            if (comparison == 0) {
+                comparison = Long.compare(ids[position], id);
+            }
+
+            return comparison;
+        }
+    }
+}
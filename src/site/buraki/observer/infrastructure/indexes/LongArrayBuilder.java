@@ -0,0 +1,87 @@
+package site.buraki.observer.infrastructure.indexes;
+
+import java.util.Arrays;
+
+/**
+ * Растущий массив {@code long} с ограничением числа элементов для
+ * результатов запросов к индексам.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+class LongArrayBuilder {
+
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final int limit;
+    private long[] values;
+    private int size;
+
+    LongArrayBuilder(int limit) {
+        this.limit = limit;
+        this.values = new long[Math.min(limit, MAX_INITIAL_CAPACITY)];
+    }
+
+    boolean isFull() {
+        return size >= limit;
+    }
+
+    /**
+     * Добавление одного элемента.
+     *
+     * @return Ограничение ещё не достигнуто.
+     */
+    boolean add(long value) {
+        if (isFull()) {
+            return false;
+        }
+
+        ensureCapacity(size + 1);
+        values[size++] = value;
+
+        return !isFull();
+    }
+
+    /**
+     * Добавление элементов {@code source[start, end)} по порядку.
+     *
+     * @return Ограничение ещё не достигнуто.
+     */
+    boolean addAll(long[] source, int start, int end) {
+        int count = Math.min(Math.max(0, end - start), limit - size);
+
+        ensureCapacity(size + count);
+        System.arraycopy(source, start, values, size, count);
+        size += count;
+
+        return !isFull();
+    }
+
+    /**
+     * Добавление элементов {@code source[start, end)} в обратном
+     * порядке.
+     *
+     * @return Ограничение ещё не достигнуто.
+     */
+    boolean addAllReversed(long[] source, int start, int end) {
+        int count = Math.min(Math.max(0, end - start), limit - size);
+
+        ensureCapacity(size + count);
+
+        for (int i = 0; i < count; i++) {
+            values[size++] = source[end - 1 - i];
+        }
+
+        return !isFull();
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, values.length * 2L)));
+        }
+    }
+}
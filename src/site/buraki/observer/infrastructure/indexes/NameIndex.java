@@ -0,0 +1,596 @@
+package site.buraki.observer.infrastructure.indexes;
+
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonField;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Индекс экземпляров бизнес-модели человека по имени для поиска по
+ * префиксу и подстроке.
+ *
+ * <p>Различные имена (термы) хранятся в сжатом префиксном дереве,
+ * листья и внутренние узлы которого ссылаются на уникальные
+ * идентификаторы носителей имени. Для поиска по подстроке каждый терм
+ * разбивается на триграммы, и для каждой триграммы хранится
+ * упорядоченный список номеров термов; запрос пересекает списки своих
+ * триграмм, начиная с кратчайшего, и проверяет кандидатов. Поиск не
+ * зависит от регистра.
+ *
+ * <p>Оба запроса ограничены числом результатов и прекращают обход при
+ * его достижении, поэтому время ответа определяется ограничением, а не
+ * размером индекса. Результаты поиска по префиксу упорядочены по
+ * имени, по подстроке — по времени появления имени в индексе.
+ *
+ * <p>Номер удалённого терма освобождается, но не переиспользуется,
+ * чтобы номера в списках триграмм оставались упорядоченными по времени
+ * появления. Когда освобождённых номеров становится больше, чем живых
+ * термов, термы перенумеровываются подряд с сохранением порядка, поэтому
+ * список термов не растёт неограниченно при переименованиях.
+ *
+ * <p>Изменение имени через
+ * {@link site.buraki.observer.core.person.IPersonRepository#modify}
+ * обновляет индекс; изменения других полей его не затрагивают.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see AbstractPersonIndex
+ * @since 0.5.0
+ */
+public class NameIndex extends AbstractPersonIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int MIN_COMPACTION_DEAD_TERMS = 1024;
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node("");
+    private final List<Term> terms = new ArrayList<>();
+    private final HashMap<Long, Posting> postings = new HashMap<>();
+    private int size;
+    private int termCount;
+
+    public int getSize() {
+        readLock.lock();
+        try {
+            return size;
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    public int getTermCount() {
+        readLock.lock();
+        try {
+            return termCount;
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Поиск экземпляров, имя которых начинается с префикса.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param prefix Префикс.
+     * @param limit Наибольшее число результатов, не меньше 0.
+     * @return Уникальные идентификаторы в порядке имён.
+     * @throws IllegalArgumentException Ограничение отрицательно.
+     * @since 0.5.0
+     */
+    public long[] findByPrefix(String prefix, int limit) {
+        checkLimit(limit);
+
+        String normalizedPrefix = normalize(prefix);
+
+        readLock.lock();
+        try {
+            LongArrayBuilder ids = new LongArrayBuilder(limit);
+            Node node = root;
+            int matched = 0;
+
+            while (matched < normalizedPrefix.length()) {
+                Node child = node.getChild(normalizedPrefix.charAt(matched));
+
+                if (child == null) {
+                    return ids.toArray();
+                }
+
+                int common = commonPrefixLength(child.label, normalizedPrefix, matched);
+
+                if (common < child.label.length() && matched + common < normalizedPrefix.length()) {
+                    return ids.toArray();
+                }
+
+                matched += common;
+                node = child;
+            }
+
+            collect(node, ids);
+
+            return ids.toArray();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Поиск экземпляров, имя которых содержит подстроку.
+     *
+     * <p>Подстроки короче триграммы проверяются по всем термам.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param substring Подстрока.
+     * @param limit Наибольшее число результатов, не меньше 0.
+     * @return Уникальные идентификаторы.
+     * @throws IllegalArgumentException Ограничение отрицательно.
+     * @since 0.5.0
+     */
+    public long[] findBySubstring(String substring, int limit) {
+        checkLimit(limit);
+
+        String normalizedSubstring = normalize(substring);
+
+        readLock.lock();
+        try {
+            LongArrayBuilder ids = new LongArrayBuilder(limit);
+
+            if (normalizedSubstring.length() < GRAM_LENGTH) {
+                for (Term term : terms) {
+                    if (term != null && term.name.contains(normalizedSubstring) && !term.collectTo(ids)) {
+                        break;
+                    }
+                }
+
+                return ids.toArray();
+            }
+
+            Posting[] gramPostings = postingsOf(normalizedSubstring);
+
+            if (gramPostings == null) {
+                return ids.toArray();
+            }
+
+            Posting shortest = gramPostings[0];
+
+            for (int i = 0; i < shortest.size; i++) {
+                int termID = shortest.termIDs[i];
+
+                if (!containsInAll(gramPostings, termID)) {
+                    continue;
+                }
+
+                Term term = terms.get(termID);
+
+                if (term.name.contains(normalizedSubstring) && !term.collectTo(ids)) {
+                    break;
+                }
+            }
+
+            return ids.toArray();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    protected void insert(Person person) {
+        String name = normalize(person.getName());
+        Node node = insertNode(name);
+
+        if (node.term == null) {
+            node.term = new Term(name, terms.size());
+            terms.add(node.term);
+            termCount++;
+            indexGrams(node.term);
+        }
+
+        if (node.term.add(person.getID())) {
+            size++;
+        }
+    }
+
+    @Override
+    protected void delete(Person person) {
+        String name = normalize(person.getName());
+        Deque<Node> path = findPath(name);
+
+        if (path == null) {
+            return;
+        }
+
+        Node node = path.peek();
+
+        if (node.term == null || !node.term.remove(person.getID())) {
+            return;
+        }
+
+        size--;
+
+        if (node.term.idCount == 0) {
+            unindexGrams(node.term);
+            terms.set(node.term.termID, null);
+            termCount--;
+            node.term = null;
+            prune(path);
+
+            int deadTermCount = terms.size() - termCount;
+
+            if (deadTermCount >= MIN_COMPACTION_DEAD_TERMS && deadTermCount > termCount) {
+                compactTerms();
+            }
+        }
+    }
+
+    @Override
+    protected void clear() {
+        root.keys = NO_KEYS;
+        root.children = NO_CHILDREN;
+        root.term = null;
+        terms.clear();
+        postings.clear();
+        size = 0;
+        termCount = 0;
+    }
+
+    @Override
+    protected boolean isAffectedBy(Set<PersonField> changedFields) {
+        return changedFields.contains(PersonField.NAME);
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gramOf(String name, int position) {
+        return (long) name.charAt(position) << 32 |
+               (long) name.charAt(position + 1) << 16 |
+               name.charAt(position + 2);
+    }
+
+    private static int commonPrefixLength(String label, String name, int offset) {
+        int length = Math.min(label.length(), name.length() - offset);
+        int common = 0;
+
+        while (common < length && label.charAt(common) == name.charAt(offset + common)) {
+            common++;
+        }
+
+        return common;
+    }
+
+    /**
+     * Обход поддерева в порядке ключей с добавлением идентификаторов
+     * до достижения ограничения.
+     */
+    private static boolean collect(Node node, LongArrayBuilder ids) {
+        if (node.term != null && !node.term.collectTo(ids)) {
+            return false;
+        }
+
+        for (Node child : node.children) {
+            if (!collect(child, ids)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Node insertNode(String name) {
+        Node node = root;
+        int matched = 0;
+
+        while (matched < name.length()) {
+            Node child = node.getChild(name.charAt(matched));
+
+            if (child == null) {
+                child = new Node(name.substring(matched));
+                node.addChild(child);
+                return child;
+            }
+
+            int common = commonPrefixLength(child.label, name, matched);
+
+            if (common < child.label.length()) {
+                // Разделение ребра: общий префикс становится
+                // промежуточным узлом.
+                Node middle = new Node(child.label.substring(0, common));
+
+                node.replaceChild(child, middle);
+                child.label = child.label.substring(common);
+                middle.addChild(child);
+                child = middle;
+            }
+
+            matched += common;
+            node = child;
+        }
+
+        return node;
+    }
+
+    /**
+     * Путь от корня до узла имени, узел имени — на вершине стека.
+     */
+    private Deque<Node> findPath(String name) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int matched = 0;
+
+        path.push(node);
+
+        while (matched < name.length()) {
+            Node child = node.getChild(name.charAt(matched));
+
+            if (child == null || !name.startsWith(child.label, matched)) {
+                return null;
+            }
+
+            matched += child.label.length();
+            node = child;
+            path.push(node);
+        }
+
+        return path;
+    }
+
+    /**
+     * Удаление узлов без имени и детей и слияние узлов без имени с
+     * единственным ребёнком вверх по пути.
+     */
+    private static void prune(Deque<Node> path) {
+        Node node = path.pop();
+
+        while (!path.isEmpty()) {
+            Node parent = path.pop();
+
+            if (node.term == null && node.children.length == 0) {
+                parent.removeChild(node);
+            }
+            else if (node.term == null && node.children.length == 1) {
+                Node child = node.children[0];
+
+                child.label = node.label + child.label;
+                parent.replaceChild(node, child);
+                return;
+            }
+            else {
+                return;
+            }
+
+            node = parent;
+        }
+    }
+
+    /**
+     * Перенумерация живых термов подряд. Отображение номеров монотонно,
+     * поэтому списки триграмм остаются упорядоченными.
+     */
+    private void compactTerms() {
+        int[] newTermIDs = new int[terms.size()];
+        List<Term> liveTerms = new ArrayList<>(termCount);
+
+        for (Term term : terms) {
+            if (term != null) {
+                newTermIDs[term.termID] = liveTerms.size();
+                term.termID = liveTerms.size();
+                liveTerms.add(term);
+            }
+        }
+
+        for (Posting posting : postings.values()) {
+            for (int i = 0; i < posting.size; i++) {
+                posting.termIDs[i] = newTermIDs[posting.termIDs[i]];
+            }
+        }
+
+        terms.clear();
+        terms.addAll(liveTerms);
+    }
+
+    private void indexGrams(Term term) {
+        for (int i = 0; i + GRAM_LENGTH <= term.name.length(); i++) {
+            postings.computeIfAbsent(gramOf(term.name, i), gram -> new Posting()).add(term.termID);
+        }
+    }
+
+    private void unindexGrams(Term term) {
+        for (int i = 0; i + GRAM_LENGTH <= term.name.length(); i++) {
+            long gram = gramOf(term.name, i);
+            Posting posting = postings.get(gram);
+
+            if (posting != null && posting.remove(term.termID) && posting.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Списки триграмм подстроки по возрастанию длины или {@code null},
+     * если какой-то триграммы нет в индексе.
+     */
+    private Posting[] postingsOf(String substring) {
+        Posting[] gramPostings = new Posting[substring.length() - GRAM_LENGTH + 1];
+
+        for (int i = 0; i < gramPostings.length; i++) {
+            gramPostings[i] = postings.get(gramOf(substring, i));
+
+            if (gramPostings[i] == null) {
+                return null;
+            }
+        }
+
+        Arrays.sort(gramPostings, (first, second) -> Integer.compare(first.size, second.size));
+
+        return gramPostings;
+    }
+
+    private static boolean containsInAll(Posting[] gramPostings, int termID) {
+        for (int i = 1; i < gramPostings.length; i++) {
+            if (gramPostings[i].indexOf(termID) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Узел сжатого префиксного дерева. Дети упорядочены по первому
+     * символу метки ребра.
+     */
+    private static class Node {
+
+        String label;
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        Term term;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node getChild(char key) {
+            int position = Arrays.binarySearch(keys, key);
+
+            return position >= 0 ? children[position] : null;
+        }
+
+        void addChild(Node child) {
+            int position = -Arrays.binarySearch(keys, child.label.charAt(0)) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newKeys[position] = child.label.charAt(0);
+            newChildren[position] = child;
+            System.arraycopy(keys, position, newKeys, position + 1, keys.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void replaceChild(Node oldChild, Node newChild) {
+            children[Arrays.binarySearch(keys, oldChild.label.charAt(0))] = newChild;
+        }
+
+        void removeChild(Node child) {
+            int position = Arrays.binarySearch(keys, child.label.charAt(0));
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            System.arraycopy(keys, position + 1, newKeys, position, keys.length - position - 1);
+            System.arraycopy(children, position + 1, newChildren, position, children.length - position - 1);
+
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+
+    /**
+     * Различное имя и упорядоченные идентификаторы его носителей.
+     */
+    private static class Term {
+
+        final String name;
+        int termID;
+        long[] ids = new long[1];
+        int idCount;
+
+        Term(String name, int termID) {
+            this.name = name;
+            this.termID = termID;
+        }
+
+        boolean add(long id) {
+            int position = Arrays.binarySearch(ids, 0, idCount, id);
+
+            if (position >= 0) {
+                return false;
+            }
+
+            position = -position - 1;
+
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, idCount * 2);
+            }
+
+            System.arraycopy(ids, position, ids, position + 1, idCount - position);
+            ids[position] = id;
+            idCount++;
+
+            return true;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, idCount, id);
+
+            if (position < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, position + 1, ids, position, idCount - position - 1);
+            idCount--;
+
+            return true;
+        }
+
+        boolean collectTo(LongArrayBuilder builder) {
+            return builder.addAll(ids, 0, idCount);
+        }
+    }
+
+    /**
+     * Упорядоченный список номеров термов, содержащих триграмму. Номера
+     * новых термов растут, поэтому добавление — в конец.
+     */
+    private static class Posting {
+
+        int[] termIDs = new int[2];
+        int size;
+
+        void add(int termID) {
+            if (size > 0 && termIDs[size - 1] == termID) {
+                return;
+            }
+
+            if (size == termIDs.length) {
+                termIDs = Arrays.copyOf(termIDs, size * 2);
+            }
+
+            termIDs[size++] = termID;
+        }
+
+        boolean remove(int termID) {
+            int position = indexOf(termID);
+
+            if (position < 0) {
+                return false;
+            }
+
+            System.arraycopy(termIDs, position + 1, termIDs, position, size - position - 1);
+            size--;
+
+            return true;
+        }
+
+        int indexOf(int termID) {
+            return Arrays.binarySearch(termIDs, 0, size, termID);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package site.buraki.observer.infrastructure.indexes;
+
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonOrder;
+import site.buraki.observer.core.person.PersonRanking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Упорядоченное представление экземпляров бизнес-модели человека,
+ * поддерживаемое при изменениях хранилища вместо сортировки на каждый
+ * запрос.
+ *
+ * <p>Экземпляры хранятся в списке блоков ограниченной вместимости,
+ * упорядоченных по компаратору, дополненному сравнением уникальных
+ * идентификаторов. Блок вставки ищется двоичным поиском по последним
+ * элементам блоков, позиция в нём — двоичным поиском, поэтому
+ * изменение сдвигает не больше одного блока. Переполненный блок
+ * делится пополам, соседние малые блоки сливаются.
+ *
+ * <p>Компаратор может зависеть от любого поля, поэтому представление
+ * обновляется при любом изменении экземпляра. Хранилище заменяет
+ * экземпляр копией при изменении, поэтому содержащиеся в представлении
+ * экземпляры не меняются и порядок блоков остаётся верным.
+ *
+ * <pre>{@code
+ *     SortedPersonView byName = new SortedPersonView(PersonOrder.NAME);
+ *
+ *     byName.attach(personRepository);
+ *     List<Person> page = byName.getPage(40, 20);
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see AbstractPersonIndex
+ * @see PersonOrder
+ * @since 0.5.0
+ */
+public class SortedPersonView extends AbstractPersonIndex {
+
+    public static final int DEFAULT_BLOCK_CAPACITY = 512;
+
+    private final Comparator<Person> order;
+    private final int blockCapacity;
+    private final ArrayList<Block> blocks = new ArrayList<>();
+    private int size;
+
+    public SortedPersonView(PersonOrder order) {
+        this(order.getComparator());
+    }
+
+    public SortedPersonView(Comparator<? super Person> comparator) {
+        this(comparator, DEFAULT_BLOCK_CAPACITY);
+    }
+
+    /**
+     * Конструктор представления.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param comparator Порядок; равные по нему экземпляры
+     *     упорядочиваются по уникальному идентификатору.
+     * @param blockCapacity Вместимость блока, не меньше 4. Большие
+     *     блоки ускоряют пропуск при постраничном чтении, малые —
+     *     изменения.
+     * @since 0.5.0
+     */
+    public SortedPersonView(Comparator<? super Person> comparator, int blockCapacity) {
+        if (blockCapacity < 4) {
+            throw new IllegalArgumentException("Вместимость блока меньше 4");
+        }
+
+        this.order = PersonRanking.totalOrder(comparator);
+        this.blockCapacity = blockCapacity;
+    }
+
+    public int getSize() {
+        readLock.lock();
+        try {
+            return size;
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    public int getBlockCount() {
+        readLock.lock();
+        try {
+            return blocks.size();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Получение страницы представления.
+     *
+     * <p>Блоки до смещения пропускаются по размерам без обхода
+     * экземпляров.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param offset Номер первого экземпляра страницы, начиная с 0.
+     * @param limit Наибольшее число результатов.
+     * @return Экземпляры бизнес-модели человека в порядке
+     *     представления.
+     * @since 0.5.0
+     */
+    public List<Person> getPage(int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Смещение меньше 0");
+        }
+
+        readLock.lock();
+        try {
+            List<Person> page = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+            int index = 0;
+
+            while (index < blocks.size() && offset >= blocks.get(index).size) {
+                offset -= blocks.get(index).size;
+                index++;
+            }
+
+            for (; index < blocks.size() && page.size() < limit; index++) {
+                Block block = blocks.get(index);
+                int end = Math.min(block.size, offset + limit - page.size());
+
+                page.addAll(Arrays.asList(block.people).subList(offset, end));
+                offset = 0;
+            }
+
+            return Collections.unmodifiableList(page);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    protected void insert(Person person) {
+        if (blocks.isEmpty()) {
+            blocks.add(new Block(blockCapacity));
+        }
+
+        int index = blockOf(person);
+        Block block = blocks.get(index);
+        int position = block.search(person, order);
+
+        if (position >= 0) {
+            return;
+        }
+
+        position = -position - 1;
+
+        if (block.size == blockCapacity) {
+            Block right = block.split();
+
+            blocks.add(index + 1, right);
+
+            if (position > block.size) {
+                position -= block.size;
+                block = right;
+            }
+        }
+
+        block.insert(position, person);
+        size++;
+    }
+
+    @Override
+    protected void delete(Person person) {
+        if (blocks.isEmpty()) {
+            return;
+        }
+
+        int index = blockOf(person);
+        Block block = blocks.get(index);
+        int position = block.search(person, order);
+
+        if (position < 0) {
+            return;
+        }
+
+        block.delete(position);
+        size--;
+
+        if (block.size == 0) {
+            blocks.remove(index);
+        }
+        else if (index + 1 < blocks.size() && block.size + blocks.get(index + 1).size <= blockCapacity / 2) {
+            block.append(blocks.remove(index + 1));
+        }
+    }
+
+    @Override
+    protected void clear() {
+        blocks.clear();
+        size = 0;
+    }
+
+    /**
+     * Номер первого блока, последний экземпляр которого не меньше
+     * заданного, либо последнего блока.
+     */
+    private int blockOf(Person person) {
+        int low = 0;
+        int high = blocks.size() - 1;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (order.compare(blocks.get(middle).last(), person) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Блок: упорядоченный массив экземпляров фиксированной вместимости.
+     */
+    private static class Block {
+
+        final Person[] people;
+        int size;
+
+        Block(int capacity) {
+            this.people = new Person[capacity];
+        }
+
+        Person last() {
+            return people[size - 1];
+        }
+
+        int search(Person person, Comparator<Person> order) {
+            return Arrays.binarySearch(people, 0, size, person, order);
+        }
+
+        void insert(int position, Person person) {
+            System.arraycopy(people, position, people, position + 1, size - position);
+            people[position] = person;
+            size++;
+        }
+
+        void delete(int position) {
+            System.arraycopy(people, position + 1, people, position, size - position - 1);
+            people[--size] = null;
+        }
+
+        /**
+         * Перенос старшей половины в новый блок.
+         */
+        Block split() {
+            Block right = new Block(people.length);
+            int half = size >>> 1;
+
+            right.size = size - half;
+            System.arraycopy(people, half, right.people, 0, right.size);
+            Arrays.fill(people, half, size, null);
+            size = half;
+
+            return right;
+        }
+
+        void append(Block next) {
+            System.arraycopy(next.people, 0, people, size, next.size);
+            size += next.size;
+        }
+    }
+}
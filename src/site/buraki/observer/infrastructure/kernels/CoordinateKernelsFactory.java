@@ -0,0 +1,35 @@
+package site.buraki.observer.infrastructure.kernels;
+
+/**
+ * Фабрика вычислительных ядер над координатами.
+ *
+ * <p>Векторизованная реализация выбирается, если модуль
+ * {@code jdk.incubator.vector} подключён к приложению
+ * ({@code --add-modules jdk.incubator.vector}), иначе используется
+ * скалярная.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ICoordinateKernels
+ * @since 0.5.0
+ */
+public class CoordinateKernelsFactory {
+
+    private static final ICoordinateKernels coordinateKernels = createCoordinateKernels();
+
+    public static ICoordinateKernels getCoordinateKernels() {
+        return coordinateKernels;
+    }
+
+    private static ICoordinateKernels createCoordinateKernels() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorCoordinateKernels();
+            }
+            catch (LinkageError e) {
+                System.err.println("Векторизованные ядра недоступны: " + e.getMessage());
+            }
+        }
+
+        return new ScalarCoordinateKernels();
+    }
+}
@@ -0,0 +1,108 @@
+package site.buraki.observer.infrastructure.kernels;
+
+/**
+ * Абстрактные пакетные вычислительные ядра над координатами в
+ * трёхмерном пространстве.
+ *
+ * <p>Координаты передаются упакованными в три массива одинаковой
+ * длины: абсциссы, ординаты и аппликаты. Обрабатываются первые
+ * {@code length} элементов.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see CoordinateKernelsFactory
+ * @since 0.5.0
+ */
+public interface ICoordinateKernels {
+
+    /**
+     * Вычисление квадратов расстояний до центра.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param xs Абсциссы.
+     * @param ys Ординаты.
+     * @param zs Аппликаты.
+     * @param length Количество обрабатываемых элементов.
+     * @param cx Абсцисса центра.
+     * @param cy Ордината центра.
+     * @param cz Аппликата центра.
+     * @param result Массив-приёмник квадратов расстояний.
+     * @since 0.5.0
+     */
+    void squaredDistances(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float[] result
+    );
+
+    /**
+     * Вычисление расстояний до центра.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param xs Абсциссы.
+     * @param ys Ординаты.
+     * @param zs Аппликаты.
+     * @param length Количество обрабатываемых элементов.
+     * @param cx Абсцисса центра.
+     * @param cy Ордината центра.
+     * @param cz Аппликата центра.
+     * @param result Массив-приёмник расстояний.
+     * @since 0.5.0
+     */
+    void distances(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float[] result
+    );
+
+    /**
+     * Отбор точек, квадрат расстояния от которых до центра не больше
+     * заданного.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param xs Абсциссы.
+     * @param ys Ординаты.
+     * @param zs Аппликаты.
+     * @param length Количество обрабатываемых элементов.
+     * @param cx Абсцисса центра.
+     * @param cy Ордината центра.
+     * @param cz Аппликата центра.
+     * @param maxSquaredDistance Максимальный квадрат расстояния.
+     * @param indices Массив-приёмник индексов отобранных точек
+     *     длиной не меньше {@code length}.
+     * @return Количество отобранных точек.
+     * @since 0.5.0
+     */
+    int selectWithinSquaredDistance(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float maxSquaredDistance,
+            int[] indices
+    );
+
+    /**
+     * Отбор точек, попадающих в прямоугольный параллелепипед
+     * (границы включительно).
+     *
+     * @author Расим "Buraki" Эминов
+     * @param xs Абсциссы.
+     * @param ys Ординаты.
+     * @param zs Аппликаты.
+     * @param length Количество обрабатываемых элементов.
+     * @param minX Минимальная абсцисса.
+     * @param minY Минимальная ордината.
+     * @param minZ Минимальная аппликата.
+     * @param maxX Максимальная абсцисса.
+     * @param maxY Максимальная ордината.
+     * @param maxZ Максимальная аппликата.
+     * @param indices Массив-приёмник индексов отобранных точек
+     *     длиной не меньше {@code length}.
+     * @return Количество отобранных точек.
+     * @since 0.5.0
+     */
+    int selectInBox(
+            float[] xs, float[] ys, float[] zs, int length,
+            float minX, float minY, float minZ,
+            float maxX, float maxY, float maxZ,
+            int[] indices
+    );
+}
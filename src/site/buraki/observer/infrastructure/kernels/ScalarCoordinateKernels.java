@@ -0,0 +1,82 @@
+package site.buraki.observer.infrastructure.kernels;
+
+/**
+ * Скалярные вычислительные ядра над координатами, используемые при
+ * недоступности модуля {@code jdk.incubator.vector}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ICoordinateKernels
+ * @since 0.5.0
+ */
+class ScalarCoordinateKernels implements ICoordinateKernels {
+
+    @Override
+    public void squaredDistances(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float[] result
+    ) {
+        for (int i = 0; i < length; i++) {
+            float dx = xs[i] - cx;
+            float dy = ys[i] - cy;
+            float dz = zs[i] - cz;
+
+            result[i] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    @Override
+    public void distances(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float[] result
+    ) {
+        squaredDistances(xs, ys, zs, length, cx, cy, cz, result);
+
+        for (int i = 0; i < length; i++) {
+            result[i] = (float) Math.sqrt(result[i]);
+        }
+    }
+
+    @Override
+    public int selectWithinSquaredDistance(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float maxSquaredDistance,
+            int[] indices
+    ) {
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            float dx = xs[i] - cx;
+            float dy = ys[i] - cy;
+            float dz = zs[i] - cz;
+
+            if (dx * dx + dy * dy + dz * dz <= maxSquaredDistance) {
+                indices[count++] = i;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public int selectInBox(
+            float[] xs, float[] ys, float[] zs, int length,
+            float minX, float minY, float minZ,
+            float maxX, float maxY, float maxZ,
+            int[] indices
+    ) {
+        int count = 0;
+
+        for (int i = 0; i < length; i++) {
+            if (xs[i] >= minX && xs[i] <= maxX &&
+                ys[i] >= minY && ys[i] <= maxY &&
+                zs[i] >= minZ && zs[i] <= maxZ) {
+                indices[count++] = i;
+            }
+        }
+
+        return count;
+    }
+}
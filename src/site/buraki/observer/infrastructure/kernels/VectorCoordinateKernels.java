@@ -0,0 +1,155 @@
+package site.buraki.observer.infrastructure.kernels;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторизованные вычислительные ядра над координатами на основе
+ * модуля {@code jdk.incubator.vector}.
+ *
+ * <p>Основной цикл обрабатывает по {@code SPECIES.length()} точек за
+ * итерацию, хвост массива дообрабатывается скалярным кодом.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ICoordinateKernels
+ * @see ScalarCoordinateKernels
+ * @since 0.5.0
+ */
+class VectorCoordinateKernels implements ICoordinateKernels {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public void squaredDistances(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float[] result
+    ) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            squaredDistance(xs, ys, zs, i, cx, cy, cz).intoArray(result, i);
+        }
+        for (; i < length; i++) {
+            float dx = xs[i] - cx;
+            float dy = ys[i] - cy;
+            float dz = zs[i] - cz;
+
+            result[i] = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    @Override
+    public void distances(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float[] result
+    ) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            squaredDistance(xs, ys, zs, i, cx, cy, cz)
+                .lanewise(VectorOperators.SQRT)
+                .intoArray(result, i);
+        }
+        for (; i < length; i++) {
+            float dx = xs[i] - cx;
+            float dy = ys[i] - cy;
+            float dz = zs[i] - cz;
+
+            result[i] = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+    }
+
+    @Override
+    public int selectWithinSquaredDistance(
+            float[] xs, float[] ys, float[] zs, int length,
+            float cx, float cy, float cz,
+            float maxSquaredDistance,
+            int[] indices
+    ) {
+        int bound = SPECIES.loopBound(length);
+        int count = 0;
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            VectorMask<Float> mask = squaredDistance(xs, ys, zs, i, cx, cy, cz)
+                .compare(VectorOperators.LE, maxSquaredDistance);
+
+            count = appendIndices(mask, i, indices, count);
+        }
+        for (; i < length; i++) {
+            float dx = xs[i] - cx;
+            float dy = ys[i] - cy;
+            float dz = zs[i] - cz;
+
+            if (dx * dx + dy * dy + dz * dz <= maxSquaredDistance) {
+                indices[count++] = i;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public int selectInBox(
+            float[] xs, float[] ys, float[] zs, int length,
+            float minX, float minY, float minZ,
+            float maxX, float maxY, float maxZ,
+            int[] indices
+    ) {
+        int bound = SPECIES.loopBound(length);
+        int count = 0;
+        int i = 0;
+
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, xs, i);
+            FloatVector y = FloatVector.fromArray(SPECIES, ys, i);
+            FloatVector z = FloatVector.fromArray(SPECIES, zs, i);
+
+            VectorMask<Float> mask = x.compare(VectorOperators.GE, minX)
+                .and(x.compare(VectorOperators.LE, maxX))
+                .and(y.compare(VectorOperators.GE, minY))
+                .and(y.compare(VectorOperators.LE, maxY))
+                .and(z.compare(VectorOperators.GE, minZ))
+                .and(z.compare(VectorOperators.LE, maxZ));
+
+            count = appendIndices(mask, i, indices, count);
+        }
+        for (; i < length; i++) {
+            if (xs[i] >= minX && xs[i] <= maxX &&
+                ys[i] >= minY && ys[i] <= maxY &&
+                zs[i] >= minZ && zs[i] <= maxZ) {
+                indices[count++] = i;
+            }
+        }
+
+        return count;
+    }
+
+    private static FloatVector squaredDistance(
+            float[] xs, float[] ys, float[] zs, int offset,
+            float cx, float cy, float cz
+    ) {
+        FloatVector dx = FloatVector.fromArray(SPECIES, xs, offset).sub(cx);
+        FloatVector dy = FloatVector.fromArray(SPECIES, ys, offset).sub(cy);
+        FloatVector dz = FloatVector.fromArray(SPECIES, zs, offset).sub(cz);
+
+        return dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+    }
+
+    private static int appendIndices(VectorMask<Float> mask, int offset, int[] indices, int count) {
+        long bits = mask.toLong();
+
+        while (bits != 0) {
+            indices[count++] = offset + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+        }
+
+        return count;
+    }
+}
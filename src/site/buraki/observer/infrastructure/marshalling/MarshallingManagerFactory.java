@@ -14,4 +14,8 @@ public class MarshallingManagerFactory {
     public static <T> IMarshallingManager<T> getJSONMarshallingManager() {
         return new JSONMarshallingManager<>();
     }
+
+    public static <T> IMarshallingManager<T> getCompactJSONMarshallingManager() {
+        return new JSONMarshallingManager<>(false);
+    }
 }
@@ -0,0 +1,132 @@
+package site.buraki.observer.infrastructure.marshalling.binary;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.EyeColor;
+import site.buraki.observer.core.person.HairColor;
+import site.buraki.observer.core.person.Location;
+import site.buraki.observer.core.person.LocationPool;
+import site.buraki.observer.core.person.Person;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Компактный двоичный кодек бизнес-модели человека.
+ *
+ * <p><b>Формат записи</b> (big-endian):
+ *
+ * <pre>{@literal
+ *     id:            int64
+ *     name:          int32 длина + UTF-8
+ *     createdAt:     int64 секунды эпохи (UTC) + int32 наносекунды
+ *     hairColor:     int8 порядковый номер
+ *     eyeColor:      int8 порядковый номер
+ *     height:        float32
+ *     weight:        float32
+ *     location.name: int32 длина + UTF-8
+ *     x, y, z:       float32 x 3
+ * }</pre>
+ *
+ * <p>Декодирование выполняется через конструкторы бизнес-моделей, так
+ * что инварианты проверяются, а локации берутся из
+ * {@link LocationPool}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see Person
+ * @since 0.5.0
+ */
+public class PersonBinaryCodec {
+
+    private static final HairColor[] HAIR_COLORS = HairColor.values();
+    private static final EyeColor[] EYE_COLORS = EyeColor.values();
+
+    /**
+     * Кодирование экземпляра бизнес-модели человека.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param person Экземпляр бизнес-модели человека.
+     * @return Двоичная запись.
+     * @since 0.5.0
+     */
+    public static byte[] encode(Person person) {
+        byte[] name = person.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] locationName = person.getLocation().getName().getBytes(StandardCharsets.UTF_8);
+        Coordinates coordinates = person.getLocation().getCoordinates();
+        LocalDateTime createdAt = person.getCreatedAt();
+
+        ByteBuffer buffer = ByteBuffer.allocate(
+            Long.BYTES + Integer.BYTES + name.length + Long.BYTES + Integer.BYTES + 2 +
+            Float.BYTES * 2 + Integer.BYTES + locationName.length + Float.BYTES * 3
+        );
+
+        buffer.putLong(person.getID());
+        buffer.putInt(name.length).put(name);
+        buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC)).putInt(createdAt.getNano());
+        buffer.put((byte) person.getHairColor().ordinal());
+        buffer.put((byte) person.getEyeColor().ordinal());
+        buffer.putFloat(person.getHeight()).putFloat(person.getWeight());
+        buffer.putInt(locationName.length).put(locationName);
+        buffer.putFloat(coordinates.getX()).putFloat(coordinates.getY()).putFloat(coordinates.getZ());
+
+        return buffer.array();
+    }
+
+    /**
+     * Декодирование экземпляра бизнес-модели человека.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param record Двоичная запись.
+     * @return Экземпляр бизнес-модели человека.
+     * @throws ValidationException Запись нарушает инварианты
+     *     бизнес-моделей.
+     * @since 0.5.0
+     */
+    public static Person decode(byte[] record) throws ValidationException {
+        return decode(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Декодирование экземпляра бизнес-модели человека с текущей
+     * позиции буфера.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param buffer Буфер, позиция которого сдвигается за запись.
+     * @return Экземпляр бизнес-модели человека.
+     * @throws ValidationException Запись нарушает инварианты
+     *     бизнес-моделей.
+     * @since 0.5.0
+     */
+    public static Person decode(ByteBuffer buffer) throws ValidationException {
+        long id = buffer.getLong();
+        String name = readString(buffer);
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        HairColor hairColor = HAIR_COLORS[buffer.get()];
+        EyeColor eyeColor = EYE_COLORS[buffer.get()];
+        float height = buffer.getFloat();
+        float weight = buffer.getFloat();
+        String locationName = readString(buffer);
+        Coordinates coordinates = new Coordinates(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+
+        return new Person(
+            id,
+            name,
+            createdAt,
+            hairColor,
+            eyeColor,
+            height,
+            weight,
+            LocationPool.intern(new Location(locationName, coordinates))
+        );
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
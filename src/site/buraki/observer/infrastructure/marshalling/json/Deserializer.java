@@ -3,8 +3,11 @@ package site.buraki.observer.infrastructure.marshalling.json;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import site.buraki.observer.infrastructure.diagnostics.CountingInputStream;
+import site.buraki.observer.infrastructure.diagnostics.MarshallingEvent;
 import site.buraki.observer.infrastructure.marshalling.IDeserializer;
 import site.buraki.observer.infrastructure.marshalling.json.adapters.LocalDateTimeAdapter;
+import site.buraki.observer.infrastructure.marshalling.json.adapters.LocationInterningAdapterFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -27,45 +30,85 @@ class Deserializer<T> implements IDeserializer<T> {
 
     private final Gson gson = new GsonBuilder()
         .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+        .registerTypeAdapterFactory(new LocationInterningAdapterFactory())
         .serializeNulls()
         .setPrettyPrinting()
         .create();
 
     @Override
     public T deserializeOne(Class<T> objectType, InputStream inputStream) {
+        MarshallingEvent event = new MarshallingEvent();
+        CountingInputStream countingInputStream = event.isEnabled()
+            ? new CountingInputStream(inputStream)
+            : null;
+        T object = null;
+
+        event.begin();
         try (
             InputStreamReader inputStreamReader = new InputStreamReader(
-                inputStream,
+                countingInputStream != null ? countingInputStream : inputStream,
                 StandardCharsets.UTF_8
             )
         ) {
-            return gson.fromJson(
+            object = gson.fromJson(
                 inputStreamReader,
                 objectType
             );
         }
         catch (IOException e) {
             System.err.println("Ошибка десериализации объекта: " + e.getMessage());
-            return null;
         }
+
+        commit(event, "deserializeOne", objectType, object == null ? 0 : 1, countingInputStream);
+
+        return object;
     }
 
     @Override
     public List<T> deserializeMany(Class<T> objectsType, InputStream inputStream) {
+        MarshallingEvent event = new MarshallingEvent();
+        CountingInputStream countingInputStream = event.isEnabled()
+            ? new CountingInputStream(inputStream)
+            : null;
+        List<T> objects = null;
+
+        event.begin();
         try (
             InputStreamReader inputStreamReader = new InputStreamReader(
-                inputStream,
+                countingInputStream != null ? countingInputStream : inputStream,
                 StandardCharsets.UTF_8
             )
         ) {
-            return gson.fromJson(
+            objects = gson.fromJson(
                 inputStreamReader,
                 TypeToken.getParameterized(ArrayList.class, objectsType).getType()
             );
         }
         catch (IOException e) {
             System.err.println("Ошибка десериализации объектов: " + e.getMessage());
-            return null;
+        }
+
+        commit(event, "deserializeMany", objectsType, objects == null ? 0 : objects.size(), countingInputStream);
+
+        return objects;
+    }
+
+    private static void commit(
+            MarshallingEvent event,
+            String operation,
+            Class<?> objectType,
+            long records,
+            CountingInputStream countingInputStream
+    ) {
+        event.end();
+
+        if (countingInputStream != null && event.shouldCommit()) {
+            event.format = "JSON";
+            event.operation = operation;
+            event.objectType = objectType;
+            event.records = records;
+            event.bytes = countingInputStream.getCount();
+            event.commit();
         }
     }
 }
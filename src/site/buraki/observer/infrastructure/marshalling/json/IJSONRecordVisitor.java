@@ -0,0 +1,31 @@
+package site.buraki.observer.infrastructure.marshalling.json;
+
+import java.io.IOException;
+
+/**
+ * Обработчик записей JSON-массива, найденных
+ * {@link JSONRecordScanner}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see JSONRecordScanner
+ * @since 0.5.0
+ */
+@FunctionalInterface
+public interface IJSONRecordVisitor {
+
+    /**
+     * Обработка записи.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param number Номер записи в массиве, с нуля.
+     * @param offset Смещение записи в байтах.
+     * @param length Длина записи в байтах.
+     * @param content Байты записи или {@code null}, если сканер их не
+     *     копирует.
+     * @param hasID У записи есть числовое поле {@code "id"}.
+     * @param id Значение поля {@code "id"}.
+     * @throws IOException Ошибка обработки, прерывающая просмотр.
+     * @since 0.5.0
+     */
+    void visit(int number, long offset, int length, byte[] content, boolean hasID, long id) throws IOException;
+}
@@ -16,8 +16,25 @@ import site.buraki.observer.infrastructure.marshalling.ISerializer;
  */
 public class JSONMarshallingManager<T> implements IMarshallingManager<T> {
 
-    private final ISerializer<T> serializer = new Serializer<>();
-    private final IDeserializer<T> deserializer = new Deserializer<>();
+    private final ISerializer<T> serializer;
+    private final IDeserializer<T> deserializer;
+
+    public JSONMarshallingManager() {
+        this(true);
+    }
+
+    /**
+     * Конструктор менеджера маршалинга языка разметки JSON.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param prettyPrinting Форматирование вывода отступами и
+     *     переводами строк.
+     * @since 0.5.0
+     */
+    public JSONMarshallingManager(boolean prettyPrinting) {
+        this.serializer = new Serializer<>(prettyPrinting);
+        this.deserializer = new Deserializer<>();
+    }
 
     @Override
     public ISerializer<T> getSerializer() {
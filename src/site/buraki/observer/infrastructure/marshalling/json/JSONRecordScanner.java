@@ -0,0 +1,197 @@
+package site.buraki.observer.infrastructure.marshalling.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Побайтовый просмотр JSON-массива объектов без разбора значений.
+ *
+ * <p>Отслеживаются только строки, глубина вложенности и числовое поле
+ * {@code "id"} объекта верхнего уровня; каждый объект массива
+ * передаётся обработчику со смещением, длиной и, при необходимости,
+ * копией байтов. Структурные символы JSON однобайтовые в UTF-8,
+ * поэтому текст не декодируется, а границы записей находятся
+ * быстрее десериализации на порядок.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IJSONRecordVisitor
+ * @since 0.5.0
+ */
+public class JSONRecordScanner {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] ID_KEY = {'i', 'd'};
+
+    // Состояния разбора уникального идентификатора записи.
+    private static final int ID_NONE = 0;
+    private static final int ID_AWAIT_COLON = 1;
+    private static final int ID_AWAIT_VALUE = 2;
+    private static final int ID_IN_NUMBER = 3;
+
+    private final boolean copyContent;
+    private byte[] content = new byte[BUFFER_SIZE];
+    private int contentSize;
+
+    /**
+     * Конструктор сканера.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param copyContent Передавать обработчику копию байтов записи.
+     * @since 0.5.0
+     */
+    public JSONRecordScanner(boolean copyContent) {
+        this.copyContent = copyContent;
+    }
+
+    /**
+     * Просмотр потока до конца.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param inputStream Поток JSON-массива объектов.
+     * @param visitor Обработчик записей.
+     * @throws IOException Ошибка чтения потока или обработчика.
+     * @since 0.5.0
+     */
+    public void scan(InputStream inputStream, IJSONRecordVisitor visitor) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long base = 0;
+        int read;
+
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        int stringLength = 0;
+        boolean stringIsIDKey = false;
+
+        int recordNumber = 0;
+        long recordStart = 0;
+        int copyFrom = -1;
+        int idState = ID_NONE;
+        boolean idFound = false;
+        boolean idNegative = false;
+        long idValue = 0;
+
+        while ((read = inputStream.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                        stringIsIDKey = false;
+                    }
+                    else if (b == '\\') {
+                        escaped = true;
+                    }
+                    else if (b == '"') {
+                        inString = false;
+
+                        if (depth == 2 && stringIsIDKey && stringLength == ID_KEY.length) {
+                            idState = ID_AWAIT_COLON;
+                        }
+                        continue;
+                    }
+                    else if (stringLength >= ID_KEY.length || b != ID_KEY[stringLength]) {
+                        stringIsIDKey = false;
+                    }
+
+                    stringLength++;
+                    continue;
+                }
+
+                if (idState == ID_IN_NUMBER) {
+                    if (b >= '0' && b <= '9') {
+                        idValue = idValue * 10 + (b - '0');
+                        continue;
+                    }
+
+                    idState = ID_NONE;
+                    idFound = true;
+                }
+                if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                    continue;
+                }
+                if (idState == ID_AWAIT_COLON) {
+                    idState = b == ':' ? ID_AWAIT_VALUE : ID_NONE;
+
+                    if (b == ':') {
+                        continue;
+                    }
+                }
+                else if (idState == ID_AWAIT_VALUE) {
+                    if (b == '-' || b >= '0' && b <= '9') {
+                        idState = ID_IN_NUMBER;
+                        idNegative = b == '-';
+                        idValue = idNegative ? 0 : b - '0';
+                        continue;
+                    }
+
+                    idState = ID_NONE;
+                }
+
+                switch (b) {
+                    case '"' -> {
+                        inString = true;
+                        stringLength = 0;
+                        stringIsIDKey = true;
+                    }
+                    case '{', '[' -> {
+                        depth++;
+
+                        if (b == '{' && depth == 2) {
+                            recordStart = base + i;
+                            copyFrom = i;
+                            contentSize = 0;
+                            idFound = false;
+                        }
+                    }
+                    case '}', ']' -> {
+                        if (b == '}' && depth == 2) {
+                            int length = (int) (base + i + 1 - recordStart);
+                            byte[] recordContent = null;
+
+                            if (copyContent) {
+                                copy(buffer, copyFrom, i + 1);
+                                recordContent = Arrays.copyOf(content, contentSize);
+                            }
+
+                            visitor.visit(
+                                recordNumber++,
+                                recordStart,
+                                length,
+                                recordContent,
+                                idFound,
+                                idNegative ? -idValue : idValue
+                            );
+                            copyFrom = -1;
+                        }
+
+                        depth--;
+                    }
+                    default -> {
+                    }
+                }
+            }
+
+            // Запись продолжается в следующем блоке.
+            if (copyContent && copyFrom >= 0) {
+                copy(buffer, copyFrom, read);
+                copyFrom = 0;
+            }
+
+            base += read;
+        }
+    }
+
+    private void copy(byte[] buffer, int from, int to) {
+        int length = to - from;
+
+        if (contentSize + length > content.length) {
+            content = Arrays.copyOf(content, Math.max(contentSize + length, content.length * 2));
+        }
+
+        System.arraycopy(buffer, from, content, contentSize, length);
+        contentSize += length;
+    }
+}
@@ -2,6 +2,8 @@ package site.buraki.observer.infrastructure.marshalling.json;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import site.buraki.observer.infrastructure.diagnostics.CountingOutputStream;
+import site.buraki.observer.infrastructure.diagnostics.MarshallingEvent;
 import site.buraki.observer.infrastructure.marshalling.ISerializer;
 import site.buraki.observer.infrastructure.marshalling.json.adapters.LocalDateTimeAdapter;
 
@@ -23,17 +25,31 @@ import java.util.List;
  */
 class Serializer<T> implements ISerializer<T> {
 
-    private final Gson gson = new GsonBuilder()
-        .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-        .serializeNulls()
-        .setPrettyPrinting()
-        .create();
+    private final Gson gson;
+
+    Serializer(boolean prettyPrinting) {
+        GsonBuilder gsonBuilder = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .serializeNulls();
+
+        if (prettyPrinting) {
+            gsonBuilder.setPrettyPrinting();
+        }
+
+        gson = gsonBuilder.create();
+    }
 
     @Override
     public void serializeOne(T object, OutputStream outputStream) {
+        MarshallingEvent event = new MarshallingEvent();
+        CountingOutputStream countingOutputStream = event.isEnabled()
+            ? new CountingOutputStream(outputStream)
+            : null;
+
+        event.begin();
         try (
             OutputStreamWriter outputStreamWriter = new OutputStreamWriter(
-                outputStream,
+                countingOutputStream != null ? countingOutputStream : outputStream,
                 StandardCharsets.UTF_8
             )
         ) {
@@ -42,13 +58,21 @@ class Serializer<T> implements ISerializer<T> {
         catch (IOException e) {
             System.err.println("Ошибка сериализации объекта: " + e.getMessage());
         }
+
+        commit(event, "serializeOne", object == null ? null : object.getClass(), 1, countingOutputStream);
     }
 
     @Override
     public void serializeMany(List<T> objects, OutputStream outputStream) {
+        MarshallingEvent event = new MarshallingEvent();
+        CountingOutputStream countingOutputStream = event.isEnabled()
+            ? new CountingOutputStream(outputStream)
+            : null;
+
+        event.begin();
         try (
             OutputStreamWriter outputStreamWriter = new OutputStreamWriter(
-                outputStream,
+                countingOutputStream != null ? countingOutputStream : outputStream,
                 StandardCharsets.UTF_8
             )
         ) {
@@ -57,5 +81,32 @@ class Serializer<T> implements ISerializer<T> {
         catch (IOException e) {
             System.err.println("Ошибка сериализации объектов: " + e.getMessage());
         }
+
+        commit(
+            event,
+            "serializeMany",
+            objects == null || objects.isEmpty() ? null : objects.get(0).getClass(),
+            objects == null ? 0 : objects.size(),
+            countingOutputStream
+        );
+    }
+
+    private static void commit(
+            MarshallingEvent event,
+            String operation,
+            Class<?> objectType,
+            long records,
+            CountingOutputStream countingOutputStream
+    ) {
+        event.end();
+
+        if (countingOutputStream != null && event.shouldCommit()) {
+            event.format = "JSON";
+            event.operation = operation;
+            event.objectType = objectType;
+            event.records = records;
+            event.bytes = countingOutputStream.getCount();
+            event.commit();
+        }
     }
 }
@@ -0,0 +1,46 @@
+package site.buraki.observer.infrastructure.marshalling.json.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import site.buraki.observer.core.person.Location;
+import site.buraki.observer.core.person.LocationPool;
+
+import java.io.IOException;
+
+/**
+ * Фабрика адаптеров, заменяющих десериализованные локации
+ * каноническими экземплярами из {@link LocationPool}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see LocationPool
+ * @since 0.5.0
+ */
+public class LocationInterningAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != Location.class) {
+            return null;
+        }
+
+        TypeAdapter<Location> delegate = gson.getDelegateAdapter(this, TypeToken.get(Location.class));
+
+        return (TypeAdapter<T>) new TypeAdapter<Location>() {
+
+            @Override
+            public void write(JsonWriter jsonWriter, Location location) throws IOException {
+                delegate.write(jsonWriter, location);
+            }
+
+            @Override
+            public Location read(JsonReader jsonReader) throws IOException {
+                return LocationPool.intern(delegate.read(jsonReader));
+            }
+        };
+    }
+}
@@ -0,0 +1,285 @@
+package site.buraki.observer.infrastructure.metrics;
+
+import jdk.jfr.EventType;
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonModification;
+import site.buraki.observer.infrastructure.diagnostics.RepositoryOperationEvent;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Декоратор хранилища, собирающий метрики задержек и пропускной
+ * способности каждой операции.
+ *
+ * <p>Накладные расходы на вызов — два чтения {@link System#nanoTime()}
+ * и несколько атомарных инкрементов без блокировок. Лямбда вызова и
+ * упаковка результатов {@link #nextID()} и {@link #getSize()} могут
+ * выделять память, если JIT не устранит их.
+ *
+ * <p>Метрики публикуются как JMX MBean-ы в домене {@value #JMX_DOMAIN}
+ * и в виде текстового дампа {@link #dump()}. Операции дольше порога
+ * дополнительно записываются в JFR событием
+ * {@link RepositoryOperationEvent}, которое создаётся, только если оно
+ * включено в записи.
+ *
+ * <pre>{@code
+ *     InstrumentedPersonRepository personRepository =
+ *         new InstrumentedPersonRepository(PersonRepositoryFactory.getPersonRepository());
+ *
+ *     personRepository.register(ManagementFactory.getPlatformMBeanServer());
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see LatencyHistogram
+ * @see IPersonRepository
+ * @since 0.5.0
+ */
+public class InstrumentedPersonRepository implements IPersonRepository, PersonRepositoryMetricsMXBean {
+
+    private static final String JMX_DOMAIN = "site.buraki.observer";
+    private static final EventType OPERATION_EVENT_TYPE = EventType.getEventType(RepositoryOperationEvent.class);
+    private static final Predicate<Object> NEVER_FAILED = result -> false;
+
+    private final IPersonRepository personRepository;
+    private final EnumMap<RepositoryOperation, OperationMetrics> metrics = new EnumMap<>(RepositoryOperation.class);
+
+    public InstrumentedPersonRepository(IPersonRepository personRepository) {
+        this.personRepository = personRepository;
+
+        for (RepositoryOperation operation : RepositoryOperation.values()) {
+            metrics.put(operation, new OperationMetrics());
+        }
+    }
+
+    public OperationMetrics getMetrics(RepositoryOperation operation) {
+        return metrics.get(operation);
+    }
+
+    /**
+     * Регистрация MBean-ов метрик.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param mBeanServer Сервер MBean-ов.
+     * @throws JMException Ошибка регистрации.
+     * @since 0.5.0
+     */
+    public void register(MBeanServer mBeanServer) throws JMException {
+        mBeanServer.registerMBean(this, new ObjectName(JMX_DOMAIN + ":type=PersonRepository"));
+
+        for (RepositoryOperation operation : RepositoryOperation.values()) {
+            mBeanServer.registerMBean(
+                metrics.get(operation),
+                new ObjectName(
+                    JMX_DOMAIN + ":type=PersonRepository,operation=" + operation.getMethodName()
+                )
+            );
+        }
+    }
+
+    @Override
+    public MutationResult tryAdd(Person newPerson) {
+        return measure(
+            RepositoryOperation.ADD,
+            () -> personRepository.tryAdd(newPerson),
+            result -> !result.isApplied()
+        );
+    }
+
+    @Override
+    public long nextID() {
+        return measure(RepositoryOperation.NEXT_ID, personRepository::nextID, NEVER_FAILED);
+    }
+
+    @Override
+    public Optional<Person> getByID(long id) {
+        return measure(RepositoryOperation.GET_BY_ID, () -> personRepository.getByID(id), NEVER_FAILED);
+    }
+
+    @Override
+    public List<Person> getAll() {
+        return measure(RepositoryOperation.GET_ALL, personRepository::getAll, NEVER_FAILED);
+    }
+
+    @Override
+    public List<Person> getAllSortedByLocation() {
+        return measure(
+            RepositoryOperation.GET_ALL_SORTED_BY_LOCATION,
+            personRepository::getAllSortedByLocation,
+            NEVER_FAILED
+        );
+    }
+
+    @Override
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        return measure(
+            RepositoryOperation.GET_WITHIN_DISTANCE,
+            () -> personRepository.getWithinDistance(center, distance),
+            NEVER_FAILED
+        );
+    }
+
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        return measure(RepositoryOperation.GET_IN_BOX, () -> personRepository.getInBox(min, max), NEVER_FAILED);
+    }
+
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        return measure(RepositoryOperation.GET_TOP, () -> personRepository.getTop(comparator, limit), NEVER_FAILED);
+    }
+
+    @Override
+    public int getSize() {
+        return measure(RepositoryOperation.GET_SIZE, personRepository::getSize, NEVER_FAILED);
+    }
+
+    @Override
+    public MutationResult tryUpdate(Person newPerson) {
+        return measure(
+            RepositoryOperation.UPDATE,
+            () -> personRepository.tryUpdate(newPerson),
+            result -> !result.isApplied()
+        );
+    }
+
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) throws ValidationException {
+        return measure(
+            RepositoryOperation.MODIFY,
+            () -> personRepository.modify(id, mutation),
+            result -> !result.isApplied()
+        );
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        return measure(
+            RepositoryOperation.REMOVE_BY_ID,
+            () -> personRepository.tryRemove(id),
+            result -> !result.isApplied()
+        );
+    }
+
+    @Override
+    public void removeAll() {
+        measure(RepositoryOperation.REMOVE_ALL, () -> {
+            personRepository.removeAll();
+            return null;
+        }, NEVER_FAILED);
+    }
+
+    @Override
+    public long getVersion() {
+        return personRepository.getVersion();
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        personRepository.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        personRepository.removeListener(listener);
+    }
+
+    /**
+     * Текстовый дамп метрик в формате экспозиции Prometheus.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Дамп метрик.
+     * @since 0.5.0
+     */
+    @Override
+    public String dump() {
+        StringBuilder dump = new StringBuilder(4096);
+
+        dump.append("person_repository_size ").append(personRepository.getSize()).append('\n');
+        dump.append("person_repository_version ").append(personRepository.getVersion()).append('\n');
+
+        for (RepositoryOperation operation : RepositoryOperation.values()) {
+            OperationMetrics operationMetrics = metrics.get(operation);
+            String labels = "operation=\"" + operation.getMethodName() + "\"";
+
+            appendLine(dump, "person_repository_operations_total", labels, operationMetrics.getCount());
+            appendLine(dump, "person_repository_failures_total", labels, operationMetrics.getFailureCount());
+            appendLine(dump, "person_repository_throughput_per_second", labels,
+                String.format(Locale.ROOT, "%.3f", operationMetrics.getThroughputPerSecond()));
+            appendLine(dump, "person_repository_latency_nanos", labels + ",quantile=\"0.5\"",
+                operationMetrics.getP50Nanos());
+            appendLine(dump, "person_repository_latency_nanos", labels + ",quantile=\"0.99\"",
+                operationMetrics.getP99Nanos());
+            appendLine(dump, "person_repository_latency_nanos", labels + ",quantile=\"0.999\"",
+                operationMetrics.getP999Nanos());
+            appendLine(dump, "person_repository_latency_nanos", labels + ",quantile=\"1\"",
+                operationMetrics.getMaxNanos());
+        }
+
+        return dump.toString();
+    }
+
+    /**
+     * Замер вызова: запись задержки и исхода в метрики операции и, если
+     * событие включено в записи JFR, событие медленной операции.
+     */
+    private <T, E extends Exception> T measure(
+            RepositoryOperation operation,
+            IRepositoryCall<T, E> call,
+            Predicate<? super T> isFailed
+    ) throws E {
+        RepositoryOperationEvent event = OPERATION_EVENT_TYPE.isEnabled() ? new RepositoryOperationEvent() : null;
+
+        if (event != null) {
+            event.begin();
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = isFailed.test(result);
+            return result;
+        }
+        finally {
+            metrics.get(operation).record(System.nanoTime() - start, failed);
+
+            if (event != null) {
+                event.end();
+
+                if (event.shouldCommit()) {
+                    event.operation = operation.getMethodName();
+                    event.failed = failed;
+                    event.repositorySize = personRepository.getSize();
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    private static void appendLine(StringBuilder dump, String name, String labels, Object value) {
+        dump.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    /**
+     * Вызов операции декорируемого хранилища.
+     */
+    @FunctionalInterface
+    private interface IRepositoryCall<T, E extends Exception> {
+
+        T call() throws E;
+    }
+}
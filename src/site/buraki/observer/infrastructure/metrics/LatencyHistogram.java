@@ -0,0 +1,130 @@
+package site.buraki.observer.infrastructure.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Неблокирующая гистограмма задержек с логарифмическими корзинами.
+ *
+ * <p>Каждая степень двойки делится на {@value #SUB_BUCKET_COUNT}
+ * линейных корзин, поэтому относительная ошибка квантилей не больше
+ * 1/{@value #SUB_BUCKET_COUNT}. Запись значения — одна атомарная
+ * операция инкремента корзины и счётчиков без блокировок и без
+ * выделения памяти; максимум обновляется через CAS только при его
+ * росте.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Запись значения задержки.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param nanos Задержка в наносекундах.
+     * @since 0.5.0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+
+        buckets.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Вычисление квантиля задержки.
+     *
+     * <p>Корзины читаются без общей блокировки, поэтому при
+     * конкурентной записи результат приблизителен в пределах
+     * записей, сделанных во время вычисления.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param quantile Квантиль от 0 до 1.
+     * @return Верхняя граница корзины, содержащей квантиль, в
+     *     наносекундах, или 0, если записей нет.
+     * @since 0.5.0
+     */
+    public long getQuantile(double quantile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+
+        if (shift >= Long.SIZE - SUB_BUCKET_BITS - 2) {
+            return Long.MAX_VALUE;
+        }
+
+        long subBucket = index % SUB_BUCKET_COUNT;
+        long lowerBound = (SUB_BUCKET_COUNT + subBucket) << shift;
+
+        return lowerBound + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,74 @@
+package site.buraki.observer.infrastructure.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики одной операции хранилища: гистограмма задержек и счётчик
+ * неуспешных вызовов.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see OperationMetricsMXBean
+ * @since 0.5.0
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final long startedAt = System.nanoTime();
+
+    void record(long nanos, boolean failed) {
+        latencies.record(nanos);
+
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public double getThroughputPerSecond() {
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+        return elapsedSeconds > 0 ? latencies.getCount() / elapsedSeconds : 0;
+    }
+
+    @Override
+    public long getMeanNanos() {
+        long count = latencies.getCount();
+
+        return count == 0 ? 0 : latencies.getSum() / count;
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return latencies.getQuantile(0.5);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return latencies.getQuantile(0.99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return latencies.getQuantile(0.999);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return latencies.getMax();
+    }
+}
@@ -0,0 +1,27 @@
+package site.buraki.observer.infrastructure.metrics;
+
+/**
+ * JMX-интерфейс метрик одной операции хранилища.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see OperationMetrics
+ * @since 0.5.0
+ */
+public interface OperationMetricsMXBean {
+
+    long getCount();
+
+    long getFailureCount();
+
+    double getThroughputPerSecond();
+
+    long getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaxNanos();
+}
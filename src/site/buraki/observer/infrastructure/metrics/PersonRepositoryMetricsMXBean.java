@@ -0,0 +1,17 @@
+package site.buraki.observer.infrastructure.metrics;
+
+/**
+ * JMX-интерфейс общих метрик хранилища.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see InstrumentedPersonRepository
+ * @since 0.5.0
+ */
+public interface PersonRepositoryMetricsMXBean {
+
+    int getSize();
+
+    long getVersion();
+
+    String dump();
+}
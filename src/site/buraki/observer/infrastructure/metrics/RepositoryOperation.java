@@ -0,0 +1,40 @@
+package site.buraki.observer.infrastructure.metrics;
+
+/**
+ * Перечисление операций хранилища, для которых собираются метрики.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see InstrumentedPersonRepository
+ * @since 0.5.0
+ */
+public enum RepositoryOperation {
+
+    ADD("add"),
+    NEXT_ID("nextID"),
+    GET_BY_ID("getByID"),
+    GET_ALL("getAll"),
+    GET_ALL_SORTED_BY_LOCATION("getAllSortedByLocation"),
+    GET_WITHIN_DISTANCE("getWithinDistance"),
+    GET_IN_BOX("getInBox"),
+    GET_TOP("getTop"),
+    GET_SIZE("getSize"),
+    UPDATE("update"),
+    MODIFY("modify"),
+    REMOVE_BY_ID("removeByID"),
+    REMOVE_ALL("removeAll");
+
+    private final String methodName;
+
+    RepositoryOperation(String methodName) {
+        this.methodName = methodName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "." + name();
+    }
+}
@@ -0,0 +1,192 @@
+package site.buraki.observer.infrastructure.replication;
+
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.marshalling.binary.PersonBinaryCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Упорядоченный журнал изменений хранилища для репликации.
+ *
+ * <p>Журнал — слушатель хранилища: каждое изменение получает
+ * следующее смещение начиная с 1 и сохраняется с полным двоичным
+ * состоянием экземпляра, поэтому повторное применение записей
+ * идемпотентно. Хранятся последние {@code capacity} записей; более
+ * старые вытесняются, и отставшим последователям передаётся снимок.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ReplicationPrimary
+ * @since 0.5.0
+ */
+public class MutationLog implements IPersonRepositoryListener {
+
+    private final LogEntry[] entries;
+    private long firstOffset = 1;
+    private long endOffset = 1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    public MutationLog(int capacity) {
+        this.entries = new LogEntry[capacity];
+    }
+
+    @Override
+    public void onAdd(Person newPerson) {
+        append(LogEntry.ADD, newPerson.getID(), PersonBinaryCodec.encode(newPerson));
+    }
+
+    @Override
+    public void onUpdate(Person oldPerson, Person newPerson) {
+        append(LogEntry.UPDATE, newPerson.getID(), PersonBinaryCodec.encode(newPerson));
+    }
+
+    @Override
+    public void onRemove(Person oldPerson) {
+        append(LogEntry.REMOVE, oldPerson.getID(), null);
+    }
+
+    @Override
+    public void onRemoveAll() {
+        append(LogEntry.REMOVE_ALL, 0, null);
+    }
+
+    public long getFirstOffset() {
+        lock.lock();
+        try {
+            return firstOffset;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEndOffset() {
+        lock.lock();
+        try {
+            return endOffset;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Получение записей начиная со смещения с ожиданием появления
+     * новых.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param offset Смещение первой запрашиваемой записи.
+     * @param maxCount Наибольшее число возвращаемых записей.
+     * @param timeout Наибольшее время ожидания в миллисекундах.
+     * @return Записи, пустой список по истечении ожидания или
+     *     {@code null}, если запись по смещению уже вытеснена.
+     * @throws InterruptedException Ожидание прервано.
+     * @since 0.5.0
+     */
+    List<LogEntry> awaitFrom(long offset, int maxCount, long timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+
+            while (offset >= endOffset) {
+                if (remainingNanos <= 0) {
+                    return List.of();
+                }
+
+                remainingNanos = appended.awaitNanos(remainingNanos);
+            }
+
+            if (offset < firstOffset) {
+                return null;
+            }
+
+            int count = (int) Math.min(maxCount, endOffset - offset);
+            List<LogEntry> batch = new ArrayList<>(count);
+
+            for (long current = offset; current < offset + count; current++) {
+                batch.add(entries[(int) (current % entries.length)]);
+            }
+
+            return batch;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Получение времени последней записи.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Время в миллисекундах эпохи или 0, если записей нет.
+     * @since 0.5.0
+     */
+    long getLastTimestamp() {
+        lock.lock();
+        try {
+            return endOffset == firstOffset ? 0 : entries[(int) ((endOffset - 1) % entries.length)].timestamp;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(byte operation, long id, byte[] record) {
+        lock.lock();
+        try {
+            entries[(int) (endOffset % entries.length)] = new LogEntry(
+                endOffset,
+                System.currentTimeMillis(),
+                operation,
+                id,
+                record
+            );
+            endOffset++;
+
+            if (endOffset - firstOffset > entries.length) {
+                firstOffset++;
+            }
+
+            appended.signalAll();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Запись журнала изменений.
+     *
+     * <p>Для удалений двоичное состояние экземпляра отсутствует.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    static class LogEntry {
+
+        static final byte ADD = 1;
+        static final byte UPDATE = 2;
+        static final byte REMOVE = 3;
+        static final byte REMOVE_ALL = 4;
+
+        final long offset;
+        final long timestamp;
+        final byte operation;
+        final long id;
+        final byte[] record;
+
+        LogEntry(long offset, long timestamp, byte operation, long id, byte[] record) {
+            this.offset = offset;
+            this.timestamp = timestamp;
+            this.operation = operation;
+            this.id = id;
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package site.buraki.observer.infrastructure.replication;
+
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonMutation;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.MutationResult;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonModification;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Декоратор хранилища, запрещающий изменения.
+ *
+ * <p>Изменяющие операции выбрасывают
+ * {@link UnsupportedOperationException}. Используется для чтения из
+ * хранилища последователя репликации.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ReplicationFollower
+ * @since 0.5.0
+ */
+public class ReadOnlyPersonRepository implements IPersonRepository {
+
+    private static final String READ_ONLY_MESSAGE = "Хранилище доступно только для чтения";
+
+    private final IPersonRepository personRepository;
+
+    public ReadOnlyPersonRepository(IPersonRepository personRepository) {
+        this.personRepository = personRepository;
+    }
+
+    @Override
+    public MutationResult tryAdd(Person newPerson) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public long nextID() {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public Optional<Person> getByID(long id) {
+        return personRepository.getByID(id);
+    }
+
+    @Override
+    public List<Person> getAll() {
+        return personRepository.getAll();
+    }
+
+    @Override
+    public List<Person> getAllSortedByLocation() {
+        return personRepository.getAllSortedByLocation();
+    }
+
+    @Override
+    public List<Person> getWithinDistance(Coordinates center, float distance) {
+        return personRepository.getWithinDistance(center, distance);
+    }
+
+    @Override
+    public List<Person> getInBox(Coordinates min, Coordinates max) {
+        return personRepository.getInBox(min, max);
+    }
+
+    @Override
+    public List<Person> getTop(Comparator<? super Person> comparator, int limit) {
+        return personRepository.getTop(comparator, limit);
+    }
+
+    @Override
+    public int getSize() {
+        return personRepository.getSize();
+    }
+
+    @Override
+    public MutationResult tryUpdate(Person newPerson) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public PersonModification modify(long id, IPersonMutation mutation) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public MutationResult tryRemove(long id) {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void removeAll() {
+        throw new UnsupportedOperationException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public long getVersion() {
+        return personRepository.getVersion();
+    }
+
+    @Override
+    public void addListener(IPersonRepositoryListener listener) {
+        personRepository.addListener(listener);
+    }
+
+    @Override
+    public void removeListener(IPersonRepositoryListener listener) {
+        personRepository.removeListener(listener);
+    }
+}
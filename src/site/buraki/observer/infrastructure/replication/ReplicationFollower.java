@@ -0,0 +1,299 @@
+package site.buraki.observer.infrastructure.replication;
+
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.marshalling.binary.PersonBinaryCodec;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Последователь репликации: применяет журнал изменений ведущего к
+ * собственному хранилищу.
+ *
+ * <p>После разрыва соединения последователь переподключается с
+ * растущей задержкой и продолжает с последнего применённого смещения,
+ * а если ведущий его уже не хранит — со снимка. Снимок применяется
+ * как разность: содержащиеся в нём экземпляры добавляются или
+ * обновляются, а затем удаляются отсутствующие в нём, поэтому читатели
+ * реплики не видят пустого хранилища.
+ *
+ * <p>Отставание сообщается числом неприменённых записей и разницей
+ * времени последней записи ведущего и последней применённой записи.
+ * Хранилище последователя должно изменяться только им; для чтения
+ * снаружи предназначен {@link ReadOnlyPersonRepository}.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ReplicationPrimary
+ * @since 0.5.0
+ */
+public class ReplicationFollower implements ReplicationFollowerMXBean, Closeable {
+
+    private static final String JMX_DOMAIN = "site.buraki.observer";
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int MIN_RECONNECT_DELAY_MILLIS = 100;
+    private static final int MAX_RECONNECT_DELAY_MILLIS = 5000;
+
+    private final IPersonRepository personRepository;
+    private final InetSocketAddress primaryAddress;
+    private final Thread followerThread;
+
+    private volatile boolean closed;
+    private volatile Socket socket;
+    private volatile boolean connected;
+    private volatile long epoch;
+    private volatile long nextOffset;
+    private volatile long primaryEndOffset;
+    private volatile long primaryLastTimestamp;
+    private volatile long appliedTimestamp;
+    private volatile long snapshotCount;
+
+    public ReplicationFollower(IPersonRepository personRepository, InetSocketAddress primaryAddress) {
+        this.personRepository = personRepository;
+        this.primaryAddress = primaryAddress;
+        this.followerThread = new Thread(this::follow, "replication-follower");
+        followerThread.setDaemon(true);
+    }
+
+    /**
+     * Запуск подключения к ведущему и применения журнала.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    public void start() {
+        followerThread.start();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public long getAppliedOffset() {
+        return Math.max(0, nextOffset - 1);
+    }
+
+    @Override
+    public long getPrimaryEndOffset() {
+        return primaryEndOffset;
+    }
+
+    @Override
+    public long getLagRecords() {
+        return Math.max(0, primaryEndOffset - Math.max(1, nextOffset));
+    }
+
+    @Override
+    public long getLagMillis() {
+        return getLagRecords() == 0 ? 0 : Math.max(0, primaryLastTimestamp - appliedTimestamp);
+    }
+
+    @Override
+    public long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * Текстовый дамп состояния в формате экспозиции Prometheus.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Дамп метрик.
+     * @since 0.5.0
+     */
+    @Override
+    public String dump() {
+        return "person_repository_replica_connected " + (connected ? 1 : 0) + '\n' +
+            "person_repository_replica_applied_offset " + getAppliedOffset() + '\n' +
+            "person_repository_replica_lag_records " + getLagRecords() + '\n' +
+            "person_repository_replica_lag_millis " + getLagMillis() + '\n' +
+            "person_repository_replica_snapshots_total " + snapshotCount + '\n';
+    }
+
+    /**
+     * Регистрация MBean-а состояния последователя.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param mBeanServer Сервер MBean-ов.
+     * @throws JMException Ошибка регистрации.
+     * @since 0.5.0
+     */
+    public void register(MBeanServer mBeanServer) throws JMException {
+        mBeanServer.registerMBean(this, new ObjectName(JMX_DOMAIN + ":type=ReplicationFollower"));
+    }
+
+    /**
+     * Отключение от ведущего.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка закрытия сокета.
+     * @since 0.5.0
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        followerThread.interrupt();
+
+        Socket currentSocket = socket;
+
+        if (currentSocket != null) {
+            currentSocket.close();
+        }
+    }
+
+    private void follow() {
+        int reconnectDelay = MIN_RECONNECT_DELAY_MILLIS;
+
+        while (!closed) {
+            try (Socket newSocket = new Socket()) {
+                socket = newSocket;
+                newSocket.connect(primaryAddress, CONNECT_TIMEOUT_MILLIS);
+                newSocket.setTcpNoDelay(true);
+                newSocket.setSoTimeout(ReplicationProtocol.HEARTBEAT_INTERVAL_MILLIS * 4);
+
+                connected = true;
+                reconnectDelay = MIN_RECONNECT_DELAY_MILLIS;
+                receive(newSocket);
+            }
+            catch (IOException e) {
+                // Ведущий недоступен или соединение разорвано.
+            }
+            finally {
+                connected = false;
+                socket = null;
+            }
+
+            try {
+                Thread.sleep(reconnectDelay);
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+
+            reconnectDelay = Math.min(MAX_RECONNECT_DELAY_MILLIS, reconnectDelay * 2);
+        }
+    }
+
+    private void receive(Socket socket) throws IOException {
+        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+
+        out.writeInt(ReplicationProtocol.MAGIC);
+        out.writeLong(epoch);
+        out.writeLong(nextOffset);
+        out.flush();
+
+        while (true) {
+            byte frameType = in.readByte();
+
+            switch (frameType) {
+                case ReplicationProtocol.SNAPSHOT_BEGIN -> receiveSnapshot(in);
+                case ReplicationProtocol.MUTATION -> {
+                    long offset = in.readLong();
+                    long timestamp = in.readLong();
+                    byte operation = in.readByte();
+                    long id = in.readLong();
+                    byte[] record = ReplicationProtocol.readRecord(in);
+
+                    apply(operation, id, record);
+                    appliedTimestamp = timestamp;
+                    nextOffset = offset + 1;
+                }
+                case ReplicationProtocol.HEARTBEAT -> {
+                    primaryEndOffset = in.readLong();
+                    primaryLastTimestamp = in.readLong();
+                }
+                default -> throw new IOException("Неизвестный тип кадра репликации: " + frameType);
+            }
+        }
+    }
+
+    private void receiveSnapshot(DataInputStream in) throws IOException {
+        long snapshotEpoch = in.readLong();
+        long resumeOffset = in.readLong();
+        int count = in.readInt();
+
+        Set<Long> snapshotIDs = new HashSet<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            if (in.readByte() != ReplicationProtocol.SNAPSHOT_RECORD) {
+                throw new IOException("Нарушена структура снимка репликации");
+            }
+
+            Person person = decode(ReplicationProtocol.readRecord(in));
+
+            upsert(person);
+            snapshotIDs.add(person.getID());
+        }
+
+        if (in.readByte() != ReplicationProtocol.SNAPSHOT_END) {
+            throw new IOException("Нарушена структура снимка репликации");
+        }
+
+        for (Person person : personRepository.getAll()) {
+            if (!snapshotIDs.contains(person.getID())) {
+                personRepository.tryRemove(person.getID());
+            }
+        }
+
+        epoch = snapshotEpoch;
+        nextOffset = resumeOffset;
+        primaryEndOffset = Math.max(primaryEndOffset, resumeOffset);
+        snapshotCount++;
+    }
+
+    private void apply(byte operation, long id, byte[] record) throws IOException {
+        switch (operation) {
+            case MutationLog.LogEntry.ADD -> upsert(decode(record));
+            case MutationLog.LogEntry.UPDATE -> {
+                Person person = decode(record);
+
+                if (!personRepository.tryUpdate(person).isApplied()) {
+                    // Экземпляр ещё не попал в хранилище последователя.
+                    upsert(person);
+                }
+            }
+            // Отсутствие экземпляра означает, что удаление уже отражено
+            // снимком.
+            case MutationLog.LogEntry.REMOVE -> personRepository.tryRemove(id);
+            case MutationLog.LogEntry.REMOVE_ALL -> personRepository.removeAll();
+            default -> throw new IOException("Неизвестная операция журнала репликации: " + operation);
+        }
+    }
+
+    private void upsert(Person person) {
+        // Добавление уже отражено снимком, если экземпляр содержится в
+        // хранилище; хранилище последователя изменяется только этим
+        // потоком, поэтому обновление после этого не может не найти его.
+        if (!personRepository.tryAdd(person).isApplied() && !personRepository.tryUpdate(person).isApplied()) {
+            throw new IllegalStateException(
+                "Экземпляр " + person.getID() + " одновременно содержится и не содержится в хранилище последователя"
+            );
+        }
+    }
+
+    private static Person decode(byte[] record) throws IOException {
+        if (record == null) {
+            throw new IOException("Отсутствует запись экземпляра в кадре репликации");
+        }
+
+        try {
+            return PersonBinaryCodec.decode(record);
+        }
+        catch (ValidationException e) {
+            throw new IOException("Повреждена запись экземпляра в кадре репликации", e);
+        }
+    }
+}
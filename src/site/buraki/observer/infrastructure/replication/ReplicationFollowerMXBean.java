@@ -0,0 +1,25 @@
+package site.buraki.observer.infrastructure.replication;
+
+/**
+ * JMX-интерфейс состояния последователя репликации.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ReplicationFollower
+ * @since 0.5.0
+ */
+public interface ReplicationFollowerMXBean {
+
+    boolean isConnected();
+
+    long getAppliedOffset();
+
+    long getPrimaryEndOffset();
+
+    long getLagRecords();
+
+    long getLagMillis();
+
+    long getSnapshotCount();
+
+    String dump();
+}
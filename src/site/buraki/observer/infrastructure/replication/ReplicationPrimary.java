@@ -0,0 +1,234 @@
+package site.buraki.observer.infrastructure.replication;
+
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.marshalling.binary.PersonBinaryCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ведущий репликации: передаёт журнал изменений хранилища
+ * последователям по TCP.
+ *
+ * <p>Каждый последователь обслуживается виртуальным потоком. Если
+ * последователь подключается впервые, после перезапуска ведущего или
+ * отстал дальше хранимой части журнала, ему передаётся снимок всех
+ * экземпляров и смещение, с которого продолжается журнал. Снимок
+ * снимается без остановки записи: смещение фиксируется до снимка, а
+ * записи журнала идемпотентны, поэтому повторное применение
+ * изменений, уже попавших в снимок, приводит к тому же состоянию.
+ *
+ * <pre>{@code
+ *     ReplicationPrimary primary = new ReplicationPrimary(personRepository, new InetSocketAddress(7070), 1 << 20);
+ *
+ *     primary.start();
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see MutationLog
+ * @see ReplicationFollower
+ * @since 0.5.0
+ */
+public class ReplicationPrimary implements Closeable {
+
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final IPersonRepository personRepository;
+    private final MutationLog mutationLog;
+    private final ServerSocket serverSocket;
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+    private final Set<Socket> followerSockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Конструктор ведущего репликации.
+     *
+     * <p>Журнал начинает записывать изменения хранилища сразу.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @param address Адрес для подключения последователей.
+     * @param logCapacity Число хранимых записей журнала.
+     * @throws IOException Ошибка открытия серверного сокета.
+     * @since 0.5.0
+     */
+    public ReplicationPrimary(
+            IPersonRepository personRepository,
+            InetSocketAddress address,
+            int logCapacity
+    ) throws IOException {
+        this.personRepository = personRepository;
+        this.mutationLog = new MutationLog(logCapacity);
+        this.serverSocket = new ServerSocket();
+
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(address);
+        personRepository.addListener(mutationLog);
+    }
+
+    /**
+     * Запуск приёма подключений последователей.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    public void start() {
+        Thread acceptThread = new Thread(this::acceptFollowers, "replication-primary");
+
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+    }
+
+    public MutationLog getMutationLog() {
+        return mutationLog;
+    }
+
+    public int getFollowerCount() {
+        return followerSockets.size();
+    }
+
+    /**
+     * Остановка приёма подключений, отключение последователей и
+     * отписка журнала от хранилища.
+     *
+     * @author Расим "Buraki" Эминов
+     * @throws IOException Ошибка закрытия серверного сокета.
+     * @since 0.5.0
+     */
+    @Override
+    public void close() throws IOException {
+        personRepository.removeListener(mutationLog);
+        serverSocket.close();
+
+        for (Socket socket : followerSockets) {
+            socket.close();
+        }
+    }
+
+    private void acceptFollowers() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+
+                followerSockets.add(socket);
+
+                if (serverSocket.isClosed()) {
+                    // Подключение принято одновременно с close().
+                    followerSockets.remove(socket);
+                    socket.close();
+                    return;
+                }
+
+                Thread.ofVirtual()
+                    .name("replication-primary-" + socket.getRemoteSocketAddress())
+                    .start(() -> serve(socket));
+            }
+            catch (SocketException e) {
+                return;
+            }
+            catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+
+            if (in.readInt() != ReplicationProtocol.MAGIC) {
+                return;
+            }
+
+            long followerEpoch = in.readLong();
+            long nextOffset = in.readLong();
+
+            if (
+                followerEpoch != epoch ||
+                nextOffset < mutationLog.getFirstOffset() ||
+                nextOffset > mutationLog.getEndOffset()
+            ) {
+                nextOffset = sendSnapshot(out);
+            }
+
+            while (true) {
+                List<MutationLog.LogEntry> batch = mutationLog.awaitFrom(
+                    nextOffset,
+                    MAX_BATCH_SIZE,
+                    ReplicationProtocol.HEARTBEAT_INTERVAL_MILLIS
+                );
+
+                if (batch == null) {
+                    nextOffset = sendSnapshot(out);
+                    continue;
+                }
+
+                for (MutationLog.LogEntry entry : batch) {
+                    out.writeByte(ReplicationProtocol.MUTATION);
+                    out.writeLong(entry.offset);
+                    out.writeLong(entry.timestamp);
+                    out.writeByte(entry.operation);
+                    out.writeLong(entry.id);
+                    ReplicationProtocol.writeRecord(out, entry.record);
+                }
+
+                nextOffset += batch.size();
+
+                out.writeByte(ReplicationProtocol.HEARTBEAT);
+                out.writeLong(mutationLog.getEndOffset());
+                out.writeLong(mutationLog.getLastTimestamp());
+                out.flush();
+            }
+        }
+        catch (IOException e) {
+            // Последователь отключился; он переподключится сам.
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            followerSockets.remove(socket);
+        }
+    }
+
+    private long sendSnapshot(DataOutputStream out) throws IOException {
+        long resumeOffset = mutationLog.getEndOffset();
+        List<Person> people = personRepository.getAll();
+
+        out.writeByte(ReplicationProtocol.SNAPSHOT_BEGIN);
+        out.writeLong(epoch);
+        out.writeLong(resumeOffset);
+        out.writeInt(people.size());
+
+        for (Person person : people) {
+            out.writeByte(ReplicationProtocol.SNAPSHOT_RECORD);
+            ReplicationProtocol.writeRecord(out, PersonBinaryCodec.encode(person));
+        }
+
+        out.writeByte(ReplicationProtocol.SNAPSHOT_END);
+        out.flush();
+
+        return resumeOffset;
+    }
+}
@@ -0,0 +1,69 @@
+package site.buraki.observer.infrastructure.replication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Двоичный протокол репликации.
+ *
+ * <p>Последователь открывает соединение приветствием
+ * {@code magic:int32, epoch:int64, nextOffset:int64}, после чего
+ * только читает кадры ведущего. Кадр начинается с байта типа:
+ *
+ * <pre>{@literal
+ *     SNAPSHOT_BEGIN:  epoch:int64, resumeOffset:int64, count:int32
+ *     SNAPSHOT_RECORD: length:int32, record
+ *     SNAPSHOT_END
+ *     MUTATION:        offset:int64, timestamp:int64, operation:int8,
+ *                      id:int64, length:int32 (-1 без записи), record
+ *     HEARTBEAT:       endOffset:int64, lastTimestamp:int64
+ * }</pre>
+ *
+ * <p>Эпоха — случайное число, выбираемое ведущим при запуске. При
+ * несовпадении эпохи или вытеснении смещения из журнала ведущий
+ * начинает со снимка.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ReplicationPrimary
+ * @see ReplicationFollower
+ * @since 0.5.0
+ */
+final class ReplicationProtocol {
+
+    static final int MAGIC = 0x4F42524C;
+
+    static final byte SNAPSHOT_BEGIN = 1;
+    static final byte SNAPSHOT_RECORD = 2;
+    static final byte SNAPSHOT_END = 3;
+    static final byte MUTATION = 4;
+    static final byte HEARTBEAT = 5;
+
+    static final int HEARTBEAT_INTERVAL_MILLIS = 500;
+
+    private ReplicationProtocol() {
+    }
+
+    static void writeRecord(DataOutputStream out, byte[] record) throws IOException {
+        if (record == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        out.writeInt(record.length);
+        out.write(record);
+    }
+
+    static byte[] readRecord(DataInputStream in) throws IOException {
+        int length = in.readInt();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] record = new byte[length];
+        in.readFully(record);
+
+        return record;
+    }
+}
@@ -0,0 +1,136 @@
+package site.buraki.observer.infrastructure.sketches;
+
+/**
+ * Приближённые частоты строк (count-min).
+ *
+ * <p>Каждая из {@code depth} строк счётчиков увеличивается в ячейке,
+ * выбранной своим хешем ключа, а оценка частоты — минимум по строкам.
+ * При ширине {@code ceil(e / epsilon)} и глубине
+ * {@code ceil(ln(1 / delta))} оценка не меньше истинной частоты и с
+ * вероятностью {@code 1 - delta} превышает её не больше чем на
+ * {@code epsilon * N}, где {@code N} — сумма частот всех ключей.
+ *
+ * <p>Приращения могут быть отрицательными (удаление), пока истинные
+ * частоты остаются неотрицательными. Структуры с одинаковыми
+ * размерами объединяются сложением счётчиков.
+ *
+ * <p>Структура не потокобезопасна.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long totalCount;
+
+    /**
+     * Конструктор пустой структуры по границам ошибки.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param epsilon Доля суммы частот, на которую оценка может
+     *     превысить истинную частоту.
+     * @param delta Вероятность превышения этой границы.
+     * @since 0.5.0
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("Границы ошибки вне интервала (0, 1)");
+        }
+
+        this.width = (int) Math.ceil(Math.E / epsilon);
+        this.depth = (int) Math.ceil(Math.log(1 / delta));
+        this.counters = new long[width * depth];
+    }
+
+    private CountMinSketch(CountMinSketch other) {
+        this.width = other.width;
+        this.depth = other.depth;
+        this.counters = other.counters.clone();
+        this.totalCount = other.totalCount;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getEpsilon() {
+        return Math.E / width;
+    }
+
+    public double getDelta() {
+        return Math.exp(-depth);
+    }
+
+    public void add(String key, long delta) {
+        long hash = Hashing.hash(key);
+
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + columnOf(hash, row)] += delta;
+        }
+
+        totalCount += delta;
+    }
+
+    /**
+     * Оценка частоты ключа.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param key Ключ.
+     * @return Оценка не меньше истинной частоты.
+     * @since 0.5.0
+     */
+    public long estimate(String key) {
+        long hash = Hashing.hash(key);
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + columnOf(hash, row)]);
+        }
+
+        return Math.max(0, estimate);
+    }
+
+    /**
+     * Объединение со структурой тех же размеров.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param other Объединяемая структура.
+     * @since 0.5.0
+     */
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Размеры структур не совпадают");
+        }
+
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+
+        totalCount += other.totalCount;
+    }
+
+    public CountMinSketch copy() {
+        return new CountMinSketch(this);
+    }
+
+    /**
+     * Ячейка строки по двойному хешированию из половин 64-битного
+     * хеша.
+     */
+    private int columnOf(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+
+        return Math.floorMod(combined, width);
+    }
+}
@@ -0,0 +1,40 @@
+package site.buraki.observer.infrastructure.sketches;
+
+/**
+ * 64-битное хеширование ключей вероятностных структур.
+ *
+ * <p>{@link String#hashCode()} 32-битный и плохо перемешан, поэтому
+ * символы строки сворачиваются в 64-битное значение и перемешиваются
+ * финализатором MurmurHash3.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+final class Hashing {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER = 0x100000001B3L;
+
+    private Hashing() {
+    }
+
+    static long hash(String value) {
+        long hash = SEED ^ value.length();
+
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * MULTIPLIER;
+        }
+
+        return mix(hash);
+    }
+
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
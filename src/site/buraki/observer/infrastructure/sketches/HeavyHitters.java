@@ -0,0 +1,157 @@
+package site.buraki.observer.infrastructure.sketches;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Приближённые самые частые строки: частоты в {@link CountMinSketch}
+ * и не больше {@code k} кандидатов с наибольшими оценками.
+ *
+ * <p>Ключ, не входящий в кандидаты, вытесняет кандидата с наименьшей
+ * оценкой, если его оценка больше. Оценки завышены не больше, чем
+ * допускает count-min, поэтому ключ с частотой выше
+ * {@code epsilon * N} сверх частоты {@code k}-го попадает в
+ * кандидаты. Запрос переоценивает кандидатов и не зависит от числа
+ * различных ключей.
+ *
+ * <p>Структура не потокобезопасна.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see CountMinSketch
+ * @since 0.5.0
+ */
+public class HeavyHitters {
+
+    private final int k;
+    private final CountMinSketch frequencies;
+    private final HashMap<String, Long> candidates;
+
+    /**
+     * Конструктор пустой структуры.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param k Число отслеживаемых ключей.
+     * @param epsilon Граница ошибки частоты, см. {@link CountMinSketch}.
+     * @param delta Вероятность превышения границы.
+     * @since 0.5.0
+     */
+    public HeavyHitters(int k, double epsilon, double delta) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Число отслеживаемых ключей меньше 1");
+        }
+
+        this.k = k;
+        this.frequencies = new CountMinSketch(epsilon, delta);
+        this.candidates = new HashMap<>(k * 2);
+    }
+
+    private HeavyHitters(HeavyHitters other) {
+        this.k = other.k;
+        this.frequencies = other.frequencies.copy();
+        this.candidates = new HashMap<>(other.candidates);
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public long estimate(String key) {
+        return frequencies.estimate(key);
+    }
+
+    /**
+     * Изменение частоты ключа.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param key Ключ.
+     * @param delta Приращение; отрицательное — удаление.
+     * @since 0.5.0
+     */
+    public void add(String key, long delta) {
+        frequencies.add(key, delta);
+        offer(key, frequencies.estimate(key));
+    }
+
+    /**
+     * Кандидаты по убыванию оценки частоты.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Пары ключ — оценка частоты, не больше {@code k}.
+     * @since 0.5.0
+     */
+    public List<Map.Entry<String, Long>> getTop() {
+        List<Map.Entry<String, Long>> top = new ArrayList<>(candidates.size());
+
+        for (String key : candidates.keySet()) {
+            long estimate = frequencies.estimate(key);
+
+            if (estimate > 0) {
+                top.add(Map.entry(key, estimate));
+            }
+        }
+
+        top.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+
+        return top;
+    }
+
+    /**
+     * Объединение со структурой тех же размеров: частоты складываются,
+     * кандидаты обеих структур переоцениваются.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param other Объединяемая структура.
+     * @since 0.5.0
+     */
+    public void merge(HeavyHitters other) {
+        frequencies.merge(other.frequencies);
+
+        List<String> keys = new ArrayList<>(candidates.keySet());
+
+        keys.addAll(other.candidates.keySet());
+        candidates.clear();
+
+        for (String key : keys) {
+            offer(key, frequencies.estimate(key));
+        }
+    }
+
+    public HeavyHitters copy() {
+        return new HeavyHitters(this);
+    }
+
+    private void offer(String key, long estimate) {
+        if (candidates.containsKey(key)) {
+            if (estimate > 0) {
+                candidates.put(key, estimate);
+            }
+            else {
+                candidates.remove(key);
+            }
+
+            return;
+        }
+        if (estimate <= 0) {
+            return;
+        }
+        if (candidates.size() < k) {
+            candidates.put(key, estimate);
+            return;
+        }
+
+        Map.Entry<String, Long> weakest = null;
+
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            if (weakest == null || candidate.getValue() < weakest.getValue()) {
+                weakest = candidate;
+            }
+        }
+
+        if (estimate > weakest.getValue()) {
+            candidates.remove(weakest.getKey());
+            candidates.put(key, estimate);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package site.buraki.observer.infrastructure.sketches;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Приближённые квантили потока чисел (KLL).
+ *
+ * <p>Значения хранятся в уровнях-компакторах: значение уровня
+ * {@code h} представляет {@code 2^h} исходных. Переполненный уровень
+ * сортируется, и каждое второе значение со случайным смещением
+ * переходит на уровень выше с удвоенным весом. Вместимость уровней
+ * убывает вниз в {@code 3/2} раза от {@code k} на верхнем, поэтому
+ * структура занимает {@code O(k)} значений независимо от длины потока.
+ *
+ * <p>Нормированная ошибка ранга с доверием 99% —
+ * {@link #getNormalizedRankError()}: около 1.65% при {@code k = 200}.
+ * Для запросов значения однократно сортируются в представление с
+ * накопленными весами, после чего квантиль и ранг ищутся двоичным
+ * поиском до следующего добавления. Структуры объединяются
+ * поуровневым слиянием с последующим сжатием. Удаление не
+ * поддерживается.
+ *
+ * <p>Структура не потокобезопасна; запросы без одновременных
+ * добавлений могут выполняться параллельно.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+public class KLLSketch {
+
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_K = 8;
+    private static final int MIN_LEVEL_CAPACITY = 8;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private final SplittableRandom random;
+    private float[][] levels = {new float[MIN_LEVEL_CAPACITY]};
+    private int[] levelSizes = new int[1];
+    private long count;
+    private float min = Float.NaN;
+    private float max = Float.NaN;
+    private volatile SortedView sortedView;
+
+    public KLLSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Конструктор пустой структуры.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param k Вместимость верхнего уровня, не меньше {@value #MIN_K};
+     *     ошибка убывает обратно пропорционально ему.
+     * @since 0.5.0
+     */
+    public KLLSketch(int k) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException("Параметр k меньше " + MIN_K);
+        }
+
+        this.k = k;
+        this.random = new SplittableRandom();
+    }
+
+    private KLLSketch(KLLSketch other) {
+        this.k = other.k;
+        this.random = other.random.split();
+        this.levels = new float[other.levels.length][];
+        this.levelSizes = other.levelSizes.clone();
+        this.count = other.count;
+        this.min = other.min;
+        this.max = other.max;
+
+        for (int level = 0; level < levels.length; level++) {
+            levels[level] = other.levels[level].clone();
+        }
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public float getMin() {
+        return min;
+    }
+
+    public float getMax() {
+        return max;
+    }
+
+    public double getNormalizedRankError() {
+        return 2.446 / Math.pow(k, 0.9433);
+    }
+
+    /**
+     * Добавление значения; {@code NaN} игнорируется.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param value Значение.
+     * @since 0.5.0
+     */
+    public void update(float value) {
+        if (Float.isNaN(value)) {
+            return;
+        }
+
+        append(0, value);
+        count++;
+        min = count == 1 ? value : Math.min(min, value);
+        max = count == 1 ? value : Math.max(max, value);
+        sortedView = null;
+
+        compress();
+    }
+
+    /**
+     * Значение заданного нормированного ранга.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param rank Ранг от 0 (минимум) до 1 (максимум).
+     * @return Приближённый квантиль или {@code NaN} для пустой
+     *     структуры.
+     * @since 0.5.0
+     */
+    public float getQuantile(double rank) {
+        if (rank < 0 || rank > 1) {
+            throw new IllegalArgumentException("Ранг вне диапазона [0, 1]");
+        }
+        if (count == 0) {
+            return Float.NaN;
+        }
+        if (rank == 0) {
+            return min;
+        }
+        if (rank == 1) {
+            return max;
+        }
+
+        SortedView view = getSortedView();
+        long targetWeight = (long) Math.ceil(rank * count);
+        int position = Arrays.binarySearch(view.cumulativeWeights, targetWeight);
+
+        return view.values[position >= 0 ? position : Math.min(-position - 1, view.values.length - 1)];
+    }
+
+    /**
+     * Нормированный ранг значения: доля значений не больше него.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param value Значение.
+     * @return Приближённый ранг или {@code NaN} для пустой структуры.
+     * @since 0.5.0
+     */
+    public double getRank(float value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        SortedView view = getSortedView();
+        int low = 0;
+        int high = view.values.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (view.values[middle] <= value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low == 0 ? 0 : (double) view.cumulativeWeights[low - 1] / count;
+    }
+
+    /**
+     * Объединение с другой структурой.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param other Объединяемая структура.
+     * @since 0.5.0
+     */
+    public void merge(KLLSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+
+        for (int level = 0; level < other.levels.length; level++) {
+            for (int i = 0; i < other.levelSizes[level]; i++) {
+                append(level, other.levels[level][i]);
+            }
+        }
+
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        sortedView = null;
+
+        compress();
+    }
+
+    public KLLSketch copy() {
+        return new KLLSketch(this);
+    }
+
+    private void append(int level, float value) {
+        if (level >= levels.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            levelSizes = Arrays.copyOf(levelSizes, level + 1);
+
+            for (int i = 0; i <= level; i++) {
+                if (levels[i] == null) {
+                    levels[i] = new float[MIN_LEVEL_CAPACITY];
+                }
+            }
+        }
+        if (levelSizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levelSizes[level] * 2);
+        }
+
+        levels[level][levelSizes[level]++] = value;
+    }
+
+    private int capacityOf(int level) {
+        int depth = levels.length - 1 - level;
+
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    /**
+     * Сжатие нижних переполненных уровней, пока общий размер не
+     * уложится в общую вместимость.
+     */
+    private void compress() {
+        while (true) {
+            int size = 0;
+            int capacity = 0;
+
+            for (int level = 0; level < levels.length; level++) {
+                size += levelSizes[level];
+                capacity += capacityOf(level);
+            }
+
+            if (size < capacity) {
+                return;
+            }
+
+            for (int level = 0; level < levels.length; level++) {
+                if (levelSizes[level] >= capacityOf(level)) {
+                    compact(level);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Перенос каждого второго значения уровня на уровень выше. При
+     * нечётном размере наибольшее значение остаётся на уровне.
+     */
+    private void compact(int level) {
+        float[] values = levels[level];
+        int size = levelSizes[level];
+
+        Arrays.sort(values, 0, size);
+
+        int pairedSize = size & ~1;
+
+        for (int i = random.nextInt(2); i < pairedSize; i += 2) {
+            append(level + 1, values[i]);
+        }
+
+        values[0] = values[size - 1];
+        levelSizes[level] = size - pairedSize;
+    }
+
+    private SortedView getSortedView() {
+        SortedView view = sortedView;
+
+        if (view == null) {
+            view = new SortedView(levels, levelSizes);
+            sortedView = view;
+        }
+
+        return view;
+    }
+
+    /**
+     * Все значения структуры по возрастанию с накопленными весами.
+     */
+    private static class SortedView {
+
+        final float[] values;
+        final long[] cumulativeWeights;
+
+        SortedView(float[][] levels, int[] levelSizes) {
+            int size = 0;
+
+            for (int levelSize : levelSizes) {
+                size += levelSize;
+            }
+
+            // Ключ — упорядочиваемые биты значения в старшей половине и
+            // уровень в младшей.
+            long[] keys = new long[size];
+            int position = 0;
+
+            for (int level = 0; level < levels.length; level++) {
+                for (int i = 0; i < levelSizes[level]; i++) {
+                    keys[position++] = (long) sortableBits(levels[level][i]) << 32 | level;
+                }
+            }
+
+            Arrays.sort(keys);
+
+            this.values = new float[size];
+            this.cumulativeWeights = new long[size];
+
+            long weight = 0;
+
+            for (int i = 0; i < size; i++) {
+                values[i] = fromSortableBits((int) (keys[i] >> 32));
+                weight += 1L << (int) keys[i];
+                cumulativeWeights[i] = weight;
+            }
+        }
+
+        private static int sortableBits(float value) {
+            int bits = Float.floatToIntBits(value);
+
+            return bits ^ (bits >> 31 & 0x7FFFFFFF);
+        }
+
+        private static float fromSortableBits(int bits) {
+            return Float.intBitsToFloat(bits ^ (bits >> 31 & 0x7FFFFFFF));
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package site.buraki.observer.infrastructure.sketches;
+
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.core.person.PersonField;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Приближённая аналитика хранилища экземпляров бизнес-модели человека,
+ * поддерживаемая как слушатель хранилища: число различных имён
+ * ({@link HyperLogLog}), квантили роста и веса ({@link KLLSketch}) и
+ * самые частые названия локаций ({@link HeavyHitters}).
+ *
+ * <p>Частоты названий локаций отражают текущее содержимое: удаление и
+ * смена локации уменьшают частоту прежнего названия. Различные имена и
+ * квантили накапливают все значения, записанные с последнего
+ * заполнения, включая имена, рост и вес удалённых и изменённых
+ * экземпляров; {@link #rebuild(IPersonRepository)} заполняет их
+ * заново по текущему содержимому. Удаление всех экземпляров очищает
+ * структуры.
+ *
+ * <p>Запросы не просматривают хранилище и выполняются за время,
+ * зависящее только от параметров структур. Наборы с одинаковыми
+ * параметрами, подключённые к разным хранилищам (секциям, репликам),
+ * объединяются методом {@link #merge(PersonSketches)}.
+ *
+ * <pre>{@code
+ *     PersonSketches personSketches = new PersonSketches();
+ *
+ *     personSketches.attach(personRepository);
+ *     float medianHeight = personSketches.getHeightQuantile(0.5);
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepositoryListener
+ * @since 0.5.0
+ */
+public class PersonSketches implements IPersonRepositoryListener {
+
+    public static final int DEFAULT_NAME_PRECISION = 14;
+    public static final int DEFAULT_TOP_LOCATION_COUNT = 10;
+    public static final double DEFAULT_EPSILON = 0.001;
+    public static final double DEFAULT_DELTA = 0.01;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    private final int namePrecision;
+    private final int quantileK;
+    private final int topLocationCount;
+    private final double epsilon;
+    private final double delta;
+
+    private HyperLogLog names;
+    private KLLSketch heights;
+    private KLLSketch weights;
+    private HeavyHitters locationNames;
+
+    // Изменения во время заполнения: пары {до, после}; пара из двух
+    // null — удаление всех экземпляров.
+    private List<Person[]> backlog;
+
+    public PersonSketches() {
+        this(DEFAULT_NAME_PRECISION, KLLSketch.DEFAULT_K, DEFAULT_TOP_LOCATION_COUNT, DEFAULT_EPSILON, DEFAULT_DELTA);
+    }
+
+    /**
+     * Конструктор пустого набора структур.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param namePrecision Точность оценки различных имён, см.
+     *     {@link HyperLogLog}.
+     * @param quantileK Параметр {@code k} квантилей, см.
+     *     {@link KLLSketch}.
+     * @param topLocationCount Число отслеживаемых названий локаций.
+     * @param epsilon Граница ошибки частоты названия локации, см.
+     *     {@link CountMinSketch}.
+     * @param delta Вероятность превышения границы.
+     * @since 0.5.0
+     */
+    public PersonSketches(int namePrecision, int quantileK, int topLocationCount, double epsilon, double delta) {
+        this.namePrecision = namePrecision;
+        this.quantileK = quantileK;
+        this.topLocationCount = topLocationCount;
+        this.epsilon = epsilon;
+        this.delta = delta;
+
+        reset();
+    }
+
+    /**
+     * Подключение к хранилищу и заполнение его содержимым.
+     *
+     * <p>Изменения, пришедшие во время чтения содержимого, не теряются
+     * и не учитываются дважды, см. {@link #rebuild(IPersonRepository)}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @since 0.5.0
+     */
+    public void attach(IPersonRepository personRepository) {
+        personRepository.addListener(this);
+        rebuild(personRepository);
+    }
+
+    public void detach(IPersonRepository personRepository) {
+        personRepository.removeListener(this);
+    }
+
+    /**
+     * Заполнение структур заново по текущему содержимому хранилища.
+     *
+     * <p>Изменения, пришедшие во время чтения содержимого, копятся и
+     * после заполнения повторно применяются по порядку. Снимок мог уже
+     * включать часть из них, поэтому каждое изменение переводит
+     * экземпляр из состояния, учтённого в структурах, в новое:
+     * частоты названий локаций в итоге отражают текущее содержимое.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @since 0.5.0
+     */
+    public void rebuild(IPersonRepository personRepository) {
+        rebuildLock.lock();
+        try {
+            writeLock.lock();
+            try {
+                backlog = new ArrayList<>();
+            }
+            finally {
+                writeLock.unlock();
+            }
+
+            // Содержимое читается без блокировки набора: слушатель
+            // вызывается под блокировкой хранилища.
+            List<Person> people = personRepository.getAll();
+
+            writeLock.lock();
+            try {
+                reset();
+
+                for (Person person : people) {
+                    record(person);
+                }
+
+                replay(people);
+            }
+            finally {
+                backlog = null;
+                writeLock.unlock();
+            }
+        }
+        finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Оценка числа различных имён.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Оценка с относительной стандартной ошибкой
+     *     {@link HyperLogLog#getRelativeStandardError()}.
+     * @since 0.5.0
+     */
+    public long getDistinctNameCount() {
+        readLock.lock();
+        try {
+            return names.estimate();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Квантиль роста.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param rank Нормированный ранг от 0 до 1.
+     * @return Рост с ошибкой ранга
+     *     {@link KLLSketch#getNormalizedRankError()}.
+     * @since 0.5.0
+     */
+    public float getHeightQuantile(double rank) {
+        readLock.lock();
+        try {
+            return heights.getQuantile(rank);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Квантиль веса.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param rank Нормированный ранг от 0 до 1.
+     * @return Вес с ошибкой ранга
+     *     {@link KLLSketch#getNormalizedRankError()}.
+     * @since 0.5.0
+     */
+    public float getWeightQuantile(double rank) {
+        readLock.lock();
+        try {
+            return weights.getQuantile(rank);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Самые частые названия локаций.
+     *
+     * @author Расим "Buraki" Эминов
+     * @return Пары название — оценка числа экземпляров по убыванию
+     *     оценки.
+     * @since 0.5.0
+     */
+    public List<Map.Entry<String, Long>> getTopLocationNames() {
+        readLock.lock();
+        try {
+            return locationNames.getTop();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    public long getLocationNameCount(String locationName) {
+        readLock.lock();
+        try {
+            return locationNames.estimate(locationName);
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    public double getNameRelativeStandardError() {
+        readLock.lock();
+        try {
+            return names.getRelativeStandardError();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    public double getQuantileRankError() {
+        readLock.lock();
+        try {
+            return heights.getNormalizedRankError();
+        }
+        finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Объединение с набором тех же параметров, например подключённым к
+     * другой секции или реплике.
+     *
+     * <p>Структуры другого набора копируются под его блокировкой чтения
+     * и объединяются с этим под блокировкой записи, поэтому встречные
+     * объединения не блокируют друг друга.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param other Объединяемый набор.
+     * @since 0.5.0
+     */
+    public void merge(PersonSketches other) {
+        HyperLogLog otherNames;
+        KLLSketch otherHeights;
+        KLLSketch otherWeights;
+        HeavyHitters otherLocationNames;
+
+        other.readLock.lock();
+        try {
+            otherNames = other.names.copy();
+            otherHeights = other.heights.copy();
+            otherWeights = other.weights.copy();
+            otherLocationNames = other.locationNames.copy();
+        }
+        finally {
+            other.readLock.unlock();
+        }
+
+        writeLock.lock();
+        try {
+            names.merge(otherNames);
+            heights.merge(otherHeights);
+            weights.merge(otherWeights);
+            locationNames.merge(otherLocationNames);
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void onAdd(Person newPerson) {
+        writeLock.lock();
+        try {
+            if (backlog != null) {
+                backlog.add(new Person[] {null, newPerson});
+            }
+            else {
+                record(newPerson);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void onUpdate(Person oldPerson, Person newPerson) {
+        onModify(oldPerson, newPerson, PersonField.changedBetween(oldPerson, newPerson));
+    }
+
+    @Override
+    public void onModify(Person oldPerson, Person newPerson, Set<PersonField> changedFields) {
+        writeLock.lock();
+        try {
+            if (backlog != null) {
+                backlog.add(new Person[] {oldPerson, newPerson});
+            }
+            else {
+                record(oldPerson, newPerson, changedFields);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void onRemove(Person oldPerson) {
+        writeLock.lock();
+        try {
+            if (backlog != null) {
+                backlog.add(new Person[] {oldPerson, null});
+            }
+            else {
+                locationNames.add(oldPerson.getLocation().getName(), -1);
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void onRemoveAll() {
+        writeLock.lock();
+        try {
+            if (backlog != null) {
+                backlog.add(new Person[] {null, null});
+            }
+            else {
+                reset();
+            }
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reset() {
+        names = new HyperLogLog(namePrecision);
+        heights = new KLLSketch(quantileK);
+        weights = new KLLSketch(quantileK);
+        locationNames = new HeavyHitters(topLocationCount, epsilon, delta);
+    }
+
+    private void record(Person person) {
+        names.add(person.getName());
+        heights.update(person.getHeight());
+        weights.update(person.getWeight());
+        locationNames.add(person.getLocation().getName(), 1);
+    }
+
+    private void record(Person oldPerson, Person newPerson, Set<PersonField> changedFields) {
+        if (changedFields.contains(PersonField.NAME)) {
+            names.add(newPerson.getName());
+        }
+        if (changedFields.contains(PersonField.HEIGHT)) {
+            heights.update(newPerson.getHeight());
+        }
+        if (changedFields.contains(PersonField.WEIGHT)) {
+            weights.update(newPerson.getWeight());
+        }
+        if (changedFields.contains(PersonField.LOCATION) &&
+            !oldPerson.getLocation().getName().equals(newPerson.getLocation().getName())) {
+            locationNames.add(oldPerson.getLocation().getName(), -1);
+            locationNames.add(newPerson.getLocation().getName(), 1);
+        }
+    }
+
+    /**
+     * Повторное применение изменений, пришедших во время заполнения.
+     * Для каждого затронутого экземпляра хранится состояние, учтённое в
+     * структурах (сначала — из снимка, после удаления всех — никакого),
+     * и изменение переводит экземпляр из него в новое состояние.
+     */
+    private void replay(List<Person> people) {
+        if (backlog.isEmpty()) {
+            return;
+        }
+
+        HashSet<Long> changedIDs = new HashSet<>();
+        HashMap<Long, Person> recordedPeople = new HashMap<>();
+
+        for (Person[] change : backlog) {
+            if (change[0] != null || change[1] != null) {
+                changedIDs.add((change[1] != null ? change[1] : change[0]).getID());
+            }
+        }
+        for (Person person : people) {
+            if (changedIDs.contains(person.getID())) {
+                recordedPeople.put(person.getID(), person);
+            }
+        }
+
+        for (Person[] change : backlog) {
+            Person newPerson = change[1];
+
+            if (change[0] == null && newPerson == null) {
+                reset();
+                recordedPeople.clear();
+                continue;
+            }
+
+            long id = (newPerson != null ? newPerson : change[0]).getID();
+            Person recordedPerson = recordedPeople.put(id, newPerson);
+
+            if (recordedPerson == newPerson) {
+                continue;
+            }
+
+            if (recordedPerson == null) {
+                record(newPerson);
+            }
+            else if (newPerson == null) {
+                locationNames.add(recordedPerson.getLocation().getName(), -1);
+            }
+            else {
+                record(recordedPerson, newPerson, PersonField.changedBetween(recordedPerson, newPerson));
+            }
+        }
+    }
+}
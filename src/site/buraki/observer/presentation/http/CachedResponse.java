@@ -0,0 +1,27 @@
+package site.buraki.observer.presentation.http;
+
+/**
+ * Закодированное тело ответа вместе с его тегом сущности (ETag).
+ *
+ * @author Расим "Buraki" Эминов
+ * @see ResponseCache
+ * @since 0.5.0
+ */
+class CachedResponse {
+
+    private final byte[] body;
+    private final String entityTag;
+
+    CachedResponse(byte[] body, String entityTag) {
+        this.body = body;
+        this.entityTag = entityTag;
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    String getEntityTag() {
+        return entityTag;
+    }
+}
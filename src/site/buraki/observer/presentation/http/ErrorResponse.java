@@ -0,0 +1,20 @@
+package site.buraki.observer.presentation.http;
+
+/**
+ * Тело ответа с описанием ошибки обработки запроса.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+class ErrorResponse {
+
+    private final String message;
+
+    ErrorResponse(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,129 @@
+package site.buraki.observer.presentation.http;
+
+import com.sun.net.httpserver.HttpServer;
+import site.buraki.observer.core.person.IPersonRepository;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Встроенный HTTP-сервер API хранилища экземпляров бизнес-модели
+ * человека.
+ *
+ * <p>Каждый запрос обрабатывается в отдельном виртуальном потоке,
+ * поэтому тысячи одновременных соединений не требуют большого пула
+ * платформенных потоков. Соединения HTTP/1.1 сохраняются между
+ * запросами (keep-alive), размер тела запроса ограничен.
+ *
+ * <pre>{@code
+ *     HttpApiServer server = new HttpApiServer(
+ *         PersonRepositoryFactory.getPersonRepository(),
+ *         new InetSocketAddress(8080)
+ *     );
+ *
+ *     server.start();
+ * }</pre>
+ *
+ * @author Расим "Buraki" Эминов
+ * @see PeopleHandler
+ * @since 0.5.0
+ */
+public class HttpApiServer {
+
+    private static final int DEFAULT_BACKLOG = 4096;
+    private static final int DEFAULT_MAX_BODY_SIZE = 64 * 1024;
+    private static final long DEFAULT_MAX_CACHED_BYTES = 64L * 1024 * 1024;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    static {
+        // Параметры реализации com.sun.net.httpserver читаются один раз
+        // при загрузке её классов, поэтому задаются до создания сервера.
+        System.setProperty(
+            "sun.net.httpserver.maxIdleConnections",
+            System.getProperty("sun.net.httpserver.maxIdleConnections", "1024")
+        );
+        System.setProperty(
+            "sun.net.httpserver.idleInterval",
+            System.getProperty("sun.net.httpserver.idleInterval", "30")
+        );
+    }
+
+    private final HttpServer httpServer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Конструктор HTTP-сервера с параметрами по умолчанию.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @param address Адрес прослушивания.
+     * @throws IOException Ошибка открытия сокета.
+     * @since 0.5.0
+     */
+    public HttpApiServer(IPersonRepository personRepository, InetSocketAddress address) throws IOException {
+        this(personRepository, address, DEFAULT_BACKLOG, DEFAULT_MAX_BODY_SIZE, DEFAULT_MAX_CACHED_BYTES);
+    }
+
+    /**
+     * Конструктор HTTP-сервера.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param personRepository Хранилище экземпляров бизнес-модели
+     *     человека.
+     * @param address Адрес прослушивания.
+     * @param backlog Длина очереди входящих соединений.
+     * @param maxBodySize Максимальный размер тела запроса в байтах.
+     * @param maxCachedBytes Максимальный суммарный размер
+     *     закэшированных ответов с отдельными экземплярами.
+     * @throws IOException Ошибка открытия сокета.
+     * @since 0.5.0
+     */
+    public HttpApiServer(
+            IPersonRepository personRepository,
+            InetSocketAddress address,
+            int backlog,
+            int maxBodySize,
+            long maxCachedBytes
+    ) throws IOException {
+        httpServer = HttpServer.create(address, backlog);
+        httpServer.createContext(
+            PeopleHandler.PATH,
+            new PeopleHandler(personRepository, maxBodySize, maxCachedBytes)
+        );
+        httpServer.setExecutor(executor);
+    }
+
+    public InetSocketAddress getAddress() {
+        return httpServer.getAddress();
+    }
+
+    /**
+     * Публикация текстового дампа метрик по пути {@code /metrics}.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param metricsDump Источник дампа метрик.
+     * @since 0.5.0
+     */
+    public void exposeMetrics(Supplier<String> metricsDump) {
+        httpServer.createContext(MetricsHandler.PATH, new MetricsHandler(metricsDump));
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Остановка HTTP-сервера с ожиданием завершения текущих запросов.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    public void stop() {
+        httpServer.stop(STOP_DELAY_SECONDS);
+        executor.close();
+    }
+}
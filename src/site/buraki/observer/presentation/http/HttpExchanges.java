@@ -0,0 +1,133 @@
+package site.buraki.observer.presentation.http;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Вспомогательные операции над HTTP-обменом.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+class HttpExchanges {
+
+    static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+    /**
+     * Чтение тела запроса с ограничением размера.
+     *
+     * <p>Заголовок {@code Content-Length} проверяется до чтения, а
+     * фактический размер контролируется при чтении, так как заголовок
+     * может отсутствовать (chunked-кодирование).
+     *
+     * @author Расим "Buraki" Эминов
+     * @param exchange HTTP-обмен.
+     * @param maxBodySize Максимальный размер тела в байтах.
+     * @return Тело запроса.
+     * @throws PayloadTooLargeException Превышен допустимый размер.
+     * @throws IOException Ошибка чтения.
+     * @since 0.5.0
+     */
+    static byte[] readBody(HttpExchange exchange, int maxBodySize) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength) > maxBodySize) {
+                    throw new PayloadTooLargeException(maxBodySize);
+                }
+            }
+            catch (NumberFormatException e) {
+                throw new IOException("Некорректный заголовок Content-Length", e);
+            }
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            int read;
+
+            while ((read = inputStream.read(buffer)) != -1) {
+                if (body.size() + read > maxBodySize) {
+                    throw new PayloadTooLargeException(maxBodySize);
+                }
+
+                body.write(buffer, 0, read);
+            }
+        }
+
+        return body.toByteArray();
+    }
+
+    /**
+     * Отправка ответа с телом известной длины, что позволяет
+     * сохранить соединение для следующих запросов (keep-alive).
+     *
+     * @author Расим "Buraki" Эминов
+     * @param exchange HTTP-обмен.
+     * @param statusCode Код статуса.
+     * @param body Тело ответа или {@code null}, если тела нет.
+     * @throws IOException Ошибка записи.
+     * @since 0.5.0
+     */
+    static void send(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        if (body == null || body.length == 0) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(statusCode, body.length);
+
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * Отправка закэшированного ответа с учётом условного заголовка
+     * {@code If-None-Match}: при совпадении тега сущности тело не
+     * передаётся (304 Not Modified).
+     *
+     * @author Расим "Buraki" Эминов
+     * @param exchange HTTP-обмен.
+     * @param response Закэшированный ответ.
+     * @throws IOException Ошибка записи.
+     * @since 0.5.0
+     */
+    static void sendCached(HttpExchange exchange, CachedResponse response) throws IOException {
+        exchange.getResponseHeaders().set("ETag", response.getEntityTag());
+
+        if (matchesEntityTag(exchange.getRequestHeaders().getFirst("If-None-Match"), response.getEntityTag())) {
+            send(exchange, 304, null);
+            return;
+        }
+
+        send(exchange, 200, response.getBody());
+    }
+
+    private static boolean matchesEntityTag(String ifNoneMatch, String entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(entityTag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package site.buraki.observer.presentation.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Обработчик HTTP-запросов к текстовому дампу метрик
+ * ({@code GET /metrics}).
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+class MetricsHandler implements HttpHandler {
+
+    static final String PATH = "/metrics";
+
+    private final Supplier<String> metricsDump;
+
+    MetricsHandler(Supplier<String> metricsDump) {
+        this.metricsDump = metricsDump;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            exchange.getResponseHeaders().set("Allow", "GET");
+            HttpExchanges.send(exchange, 405, null);
+            return;
+        }
+
+        byte[] body = metricsDump.get().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
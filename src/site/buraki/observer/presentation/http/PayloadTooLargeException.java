@@ -0,0 +1,16 @@
+package site.buraki.observer.presentation.http;
+
+import java.io.IOException;
+
+/**
+ * Превышен допустимый размер тела запроса.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+class PayloadTooLargeException extends IOException {
+
+    PayloadTooLargeException(long maxBodySize) {
+        super("Размер тела запроса больше " + maxBodySize + " байт");
+    }
+}
@@ -0,0 +1,251 @@
+package site.buraki.observer.presentation.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import site.buraki.observer.common.exceptions.core.ValidationException;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.Location;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.marshalling.IDeserializer;
+import site.buraki.observer.infrastructure.marshalling.ISerializer;
+import site.buraki.observer.infrastructure.marshalling.MarshallingManagerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Обработчик HTTP-запросов к хранилищу экземпляров бизнес-модели
+ * человека.
+ *
+ * <p><b>Маршруты</b>:
+ *
+ * <ul>
+ *     <li>{@code GET /people} — все экземпляры;</li>
+ *     <li>{@code GET /people/{id}} — экземпляр по идентификатору;</li>
+ *     <li>{@code POST /people} — добавление экземпляра; идентификатор
+ *     выделяется хранилищем, а положительный идентификатор в запросе
+ *     отклоняется, чтобы не пересечься с будущими выделенными;</li>
+ *     <li>{@code PUT /people/{id}} — обновление экземпляра;</li>
+ *     <li>{@code DELETE /people/{id}} — удаление экземпляра;</li>
+ *     <li>{@code DELETE /people} — удаление всех экземпляров.</li>
+ * </ul>
+ *
+ * <p>Ответы на чтение берутся из {@link ResponseCache} и
+ * поддерживают условные запросы по тегу сущности.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepository
+ * @see HttpApiServer
+ * @since 0.5.0
+ */
+class PeopleHandler implements HttpHandler {
+
+    static final String PATH = "/people";
+
+    private final IPersonRepository personRepository;
+    private final int maxBodySize;
+    private final ResponseCache responseCache;
+
+    private final ISerializer<Person> serializer = MarshallingManagerFactory
+        .<Person>getJSONMarshallingManager()
+        .getSerializer();
+    private final IDeserializer<Person> deserializer = MarshallingManagerFactory
+        .<Person>getJSONMarshallingManager()
+        .getDeserializer();
+    private final ISerializer<ErrorResponse> errorSerializer = MarshallingManagerFactory
+        .<ErrorResponse>getJSONMarshallingManager()
+        .getSerializer();
+
+    PeopleHandler(IPersonRepository personRepository, int maxBodySize, long maxCachedBytes) {
+        this.personRepository = personRepository;
+        this.maxBodySize = maxBodySize;
+        this.responseCache = new ResponseCache(personRepository, maxCachedBytes);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        }
+        catch (PayloadTooLargeException e) {
+            sendError(exchange, 413, e.getMessage());
+        }
+        catch (ValidationException e) {
+            sendError(exchange, 400, e.getMessage());
+        }
+        catch (NumberFormatException e) {
+            sendError(exchange, 400, "Некорректный уникальный идентификатор");
+        }
+        catch (UnsupportedOperationException e) {
+            sendError(exchange, 405, e.getMessage());
+        }
+        catch (RuntimeException e) {
+            sendError(exchange, 500, e.getMessage());
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, ValidationException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+
+        if (path.equals(PATH) || path.equals(PATH + "/")) {
+            switch (method) {
+                case "GET" -> getAll(exchange);
+                case "POST" -> add(exchange);
+                case "DELETE" -> removeAll(exchange);
+                default -> sendMethodNotAllowed(exchange, "GET, POST, DELETE");
+            }
+        }
+        else if (path.startsWith(PATH + "/") && path.indexOf('/', PATH.length() + 1) == -1) {
+            long id = Long.parseLong(path.substring(PATH.length() + 1));
+
+            switch (method) {
+                case "GET" -> getByID(exchange, id);
+                case "PUT" -> update(exchange, id);
+                case "DELETE" -> removeByID(exchange, id);
+                default -> sendMethodNotAllowed(exchange, "GET, PUT, DELETE");
+            }
+        }
+        else {
+            sendError(exchange, 404, "Ресурс не найден");
+        }
+    }
+
+    private void getAll(HttpExchange exchange) throws IOException {
+        CachedResponse response = responseCache.getAll(
+            body -> serializer.serializeMany(personRepository.getAll(), body)
+        );
+
+        HttpExchanges.sendCached(exchange, response);
+    }
+
+    private void getByID(HttpExchange exchange, long id) throws IOException {
+        Optional<CachedResponse> response = responseCache.getByID(id, serializer::serializeOne);
+
+        if (response.isEmpty()) {
+            sendError(exchange, 404, "Экземпляр бизнес-модели человека не содержится в хранилище");
+            return;
+        }
+
+        HttpExchanges.sendCached(exchange, response.get());
+    }
+
+    private void add(HttpExchange exchange) throws IOException, ValidationException {
+        Person rawPerson = readPerson(exchange);
+
+        if (rawPerson.getID() > 0) {
+            sendError(exchange, 400, "Уникальный идентификатор добавляемого экземпляра выделяется хранилищем");
+            return;
+        }
+
+        long id = personRepository.nextID();
+        Person newPerson = rebuild(rawPerson, id);
+
+        if (!personRepository.tryAdd(newPerson).isApplied()) {
+            sendError(exchange, 409, "Добавляемый экземпляр бизнес-модели человека уже содержится в хранилище");
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Location", PATH + "/" + id);
+        sendPerson(exchange, 201, newPerson);
+    }
+
+    private void update(HttpExchange exchange, long id) throws IOException, ValidationException {
+        Person newPerson = rebuild(readPerson(exchange), id);
+
+        if (!personRepository.tryUpdate(newPerson).isApplied()) {
+            sendError(exchange, 404, "Обновляемый экземпляр бизнес-модели человека не содержится в хранилище");
+            return;
+        }
+
+        sendPerson(exchange, 200, newPerson);
+    }
+
+    private void removeByID(HttpExchange exchange, long id) throws IOException {
+        if (!personRepository.tryRemove(id).isApplied()) {
+            sendError(exchange, 404, "Удаляемый экземпляр бизнес-модели человека не содержится в хранилище");
+            return;
+        }
+
+        HttpExchanges.send(exchange, 204, null);
+    }
+
+    private void removeAll(HttpExchange exchange) throws IOException {
+        personRepository.removeAll();
+        HttpExchanges.send(exchange, 204, null);
+    }
+
+    private Person readPerson(HttpExchange exchange) throws IOException, ValidationException {
+        byte[] body = HttpExchanges.readBody(exchange, maxBodySize);
+        Person rawPerson;
+
+        try {
+            rawPerson = deserializer.deserializeOne(Person.class, new ByteArrayInputStream(body));
+        }
+        catch (RuntimeException e) {
+            throw new ValidationException("Некорректное тело запроса", e);
+        }
+
+        if (rawPerson == null) {
+            throw new ValidationException("Пустое тело запроса");
+        }
+
+        return rawPerson;
+    }
+
+    /**
+     * Пересоздание десериализованного экземпляра через конструкторы
+     * бизнес-моделей, так как десериализатор их не вызывает и
+     * инварианты не проверяются.
+     */
+    private static Person rebuild(Person rawPerson, long id) throws ValidationException {
+        Location rawLocation = rawPerson.getLocation();
+        Location location = null;
+
+        if (rawLocation != null) {
+            Coordinates rawCoordinates = rawLocation.getCoordinates();
+
+            location = new Location(
+                rawLocation.getName(),
+                rawCoordinates == null ? null : new Coordinates(
+                    rawCoordinates.getX(),
+                    rawCoordinates.getY(),
+                    rawCoordinates.getZ()
+                )
+            );
+        }
+
+        return new Person(
+            id,
+            rawPerson.getName(),
+            rawPerson.getCreatedAt(),
+            rawPerson.getHairColor(),
+            rawPerson.getEyeColor(),
+            rawPerson.getHeight(),
+            rawPerson.getWeight(),
+            location
+        );
+    }
+
+    private void sendPerson(HttpExchange exchange, int statusCode, Person person) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        serializer.serializeOne(person, body);
+        HttpExchanges.send(exchange, statusCode, body.toByteArray());
+    }
+
+    private void sendMethodNotAllowed(HttpExchange exchange, String allowedMethods) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowedMethods);
+        sendError(exchange, 405, "Метод не поддерживается");
+    }
+
+    private void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        errorSerializer.serializeOne(new ErrorResponse(message), body);
+        HttpExchanges.send(exchange, statusCode, body.toByteArray());
+    }
+}
@@ -0,0 +1,229 @@
+package site.buraki.observer.presentation.http;
+
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.Person;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Кэш закодированных ответов, привязанный к версии хранилища.
+ *
+ * <p>Ответ со всеми экземплярами действителен, пока версия хранилища
+ * не изменилась, а ответ с одним экземпляром — пока этот экземпляр не
+ * изменён или не удалён (кэш подписан на изменения хранилища).
+ * Ответы с отдельными экземплярами вытесняются в порядке давности
+ * использования (LRU) при превышении суммарного размера.
+ *
+ * <p>Тег сущности ответа со всеми экземплярами — версия хранилища с
+ * префиксом случайной эпохи процесса, а ответа с одним экземпляром —
+ * хэш его тела, чтобы тег не менялся при изменениях других
+ * экземпляров. Версия начинается с нуля при каждом запуске и
+ * различается у основного узла и реплик, поэтому без эпохи клиент мог
+ * бы получить ложный ответ 304 после перезапуска или переключения.
+ *
+ * @author Расим "Buraki" Эминов
+ * @see IPersonRepository#getVersion()
+ * @since 0.5.0
+ */
+class ResponseCache implements IPersonRepositoryListener {
+
+    private final IPersonRepository personRepository;
+    private final long maxPersonBytes;
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    private volatile VersionedResponse allPeople;
+
+    private final ReentrantLock peopleLock = new ReentrantLock();
+    private final LinkedHashMap<Long, CachedResponse> people = new LinkedHashMap<>(16, 0.75f, true);
+    private long personBytes;
+
+    ResponseCache(IPersonRepository personRepository, long maxPersonBytes) {
+        this.personRepository = personRepository;
+        this.maxPersonBytes = maxPersonBytes;
+
+        personRepository.addListener(this);
+    }
+
+    /**
+     * Получение ответа со всеми экземплярами.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param encoder Кодировщик списка экземпляров.
+     * @return Закодированный ответ.
+     * @since 0.5.0
+     */
+    CachedResponse getAll(Consumer<ByteArrayOutputStream> encoder) {
+        VersionedResponse cached = allPeople;
+        long version = personRepository.getVersion();
+
+        if (cached != null && cached.version == version) {
+            return cached.response;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        encoder.accept(body);
+
+        CachedResponse response = new CachedResponse(body.toByteArray(), "\"" + epoch + "-v" + version + "\"");
+
+        // Кэшируется, только если хранилище не менялось во время
+        // кодирования, иначе версия не соответствует телу.
+        if (personRepository.getVersion() == version) {
+            allPeople = new VersionedResponse(version, response);
+        }
+
+        return response;
+    }
+
+    /**
+     * Получение ответа с одним экземпляром.
+     *
+     * @author Расим "Buraki" Эминов
+     * @param id Уникальный идентификатор.
+     * @param encoder Кодировщик экземпляра.
+     * @return Закодированный ответ, если экземпляр содержится в
+     *     хранилище.
+     * @since 0.5.0
+     */
+    Optional<CachedResponse> getByID(long id, EntityEncoder encoder) {
+        peopleLock.lock();
+        try {
+            CachedResponse cached = people.get(id);
+
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        finally {
+            peopleLock.unlock();
+        }
+
+        long version = personRepository.getVersion();
+        Optional<Person> person = personRepository.getByID(id);
+
+        if (person.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        encoder.encode(person.get(), body);
+
+        byte[] bytes = body.toByteArray();
+        CachedResponse response = new CachedResponse(bytes, createEntityTag(bytes));
+
+        // Хранилище увеличивает версию до оповещения слушателей, поэтому
+        // изменение, пропущенное проверкой ниже, удалит запись само.
+        put(id, response);
+        if (personRepository.getVersion() != version) {
+            invalidate(id);
+        }
+
+        return Optional.of(response);
+    }
+
+    @Override
+    public void onAdd(Person newPerson) {
+        invalidate(newPerson.getID());
+    }
+
+    @Override
+    public void onUpdate(Person oldPerson, Person newPerson) {
+        invalidate(newPerson.getID());
+    }
+
+    @Override
+    public void onRemove(Person oldPerson) {
+        invalidate(oldPerson.getID());
+    }
+
+    @Override
+    public void onRemoveAll() {
+        peopleLock.lock();
+        try {
+            people.clear();
+            personBytes = 0;
+        }
+        finally {
+            peopleLock.unlock();
+        }
+    }
+
+    private void put(long id, CachedResponse response) {
+        if (response.getBody().length > maxPersonBytes) {
+            return;
+        }
+
+        peopleLock.lock();
+        try {
+            CachedResponse previous = people.put(id, response);
+
+            if (previous != null) {
+                personBytes -= previous.getBody().length;
+            }
+            personBytes += response.getBody().length;
+
+            Iterator<CachedResponse> eldest = people.values().iterator();
+
+            while (personBytes > maxPersonBytes && eldest.hasNext()) {
+                personBytes -= eldest.next().getBody().length;
+                eldest.remove();
+            }
+        }
+        finally {
+            peopleLock.unlock();
+        }
+    }
+
+    private void invalidate(long id) {
+        peopleLock.lock();
+        try {
+            CachedResponse removed = people.remove(id);
+
+            if (removed != null) {
+                personBytes -= removed.getBody().length;
+            }
+        }
+        finally {
+            peopleLock.unlock();
+        }
+    }
+
+    private static String createEntityTag(byte[] body) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte b : body) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Абстрактный кодировщик экземпляра бизнес-модели человека.
+     *
+     * @author Расим "Buraki" Эминов
+     * @since 0.5.0
+     */
+    interface EntityEncoder {
+
+        void encode(Person person, ByteArrayOutputStream outputStream);
+    }
+
+    private static class VersionedResponse {
+
+        private final long version;
+        private final CachedResponse response;
+
+        VersionedResponse(long version, CachedResponse response) {
+            this.version = version;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package site.buraki.observer.infrastructure.diagnostics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import site.buraki.observer.core.person.Coordinates;
+import site.buraki.observer.core.person.EyeColor;
+import site.buraki.observer.core.person.HairColor;
+import site.buraki.observer.core.person.IPersonRepository;
+import site.buraki.observer.core.person.IPersonRepositoryListener;
+import site.buraki.observer.core.person.Location;
+import site.buraki.observer.core.person.Person;
+import site.buraki.observer.infrastructure.dal.repositories.PersonRepositoryFactory;
+import site.buraki.observer.infrastructure.marshalling.MarshallingManagerFactory;
+import site.buraki.observer.infrastructure.metrics.InstrumentedPersonRepository;
+import site.buraki.observer.infrastructure.metrics.RepositoryOperation;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка событий JFR по записи, прочитанной из файла: фаз загрузки
+ * хранилища, вызовов сериализатора и медленных операций хранилища.
+ *
+ * @author Расим "Buraki" Эминов
+ * @since 0.5.0
+ */
+class DiagnosticEventsTest {
+
+    private static final int RECORD_COUNT = 100;
+    private static final Duration OPERATION_THRESHOLD = Duration.ofMillis(50);
+    private static final long SLOW_OPERATION_MILLIS = 150;
+
+    private static final String LOAD_PHASE_EVENT = "site.buraki.observer.RepositoryLoadPhase";
+    private static final String MARSHALLING_EVENT = "site.buraki.observer.Marshalling";
+    private static final String OPERATION_EVENT = "site.buraki.observer.RepositoryOperation";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsLoadMarshallingAndSlowOperationEvents() throws Exception {
+        Path saveFilepath = directory.resolve("save.json");
+        Path recordingFilepath = directory.resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(RepositoryLoadPhaseEvent.class);
+            recording.enable(MarshallingEvent.class);
+            recording.enable(RepositoryOperationEvent.class).withThreshold(OPERATION_THRESHOLD);
+            recording.start();
+
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(saveFilepath))) {
+                MarshallingManagerFactory.<Person>getJSONMarshallingManager()
+                    .getSerializer()
+                    .serializeMany(createPeople(), outputStream);
+            }
+
+            IPersonRepository loadedRepository = PersonRepositoryFactory.loadPersonRepository(saveFilepath);
+            InstrumentedPersonRepository personRepository = new InstrumentedPersonRepository(loadedRepository);
+
+            personRepository.getSize();
+            loadedRepository.addListener(new SlowListener());
+            personRepository.tryAdd(createPerson(RECORD_COUNT + 1));
+
+            recording.stop();
+            recording.dump(recordingFilepath);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFilepath);
+        long fileSize = Files.size(saveFilepath);
+
+        List<RecordedEvent> loadPhases = eventsOf(events, LOAD_PHASE_EVENT);
+
+        assertEquals(
+            List.of(RepositoryLoadPhaseEvent.DESERIALIZE, RepositoryLoadPhaseEvent.VALIDATE, RepositoryLoadPhaseEvent.POPULATE),
+            loadPhases.stream().map(event -> event.getString("phase")).toList()
+        );
+        for (RecordedEvent loadPhase : loadPhases) {
+            assertEquals(RECORD_COUNT, loadPhase.getLong("records"));
+            assertEquals(fileSize, loadPhase.getLong("bytes"));
+            assertEquals(saveFilepath.toString(), loadPhase.getString("saveFilepath"));
+        }
+
+        RecordedEvent serializeEvent = findMarshalling(events, "serializeMany");
+        RecordedEvent deserializeEvent = findMarshalling(events, "deserializeMany");
+
+        assertEquals("JSON", serializeEvent.getString("format"));
+        assertEquals(RECORD_COUNT, serializeEvent.getLong("records"));
+        assertEquals(fileSize, serializeEvent.getLong("bytes"));
+        assertEquals(RECORD_COUNT, deserializeEvent.getLong("records"));
+        assertEquals(fileSize, deserializeEvent.getLong("bytes"));
+
+        List<RecordedEvent> operations = eventsOf(events, OPERATION_EVENT);
+
+        assertEquals(1, operations.size(), "Записана только операция дольше порога");
+
+        RecordedEvent operation = operations.get(0);
+
+        assertEquals(RepositoryOperation.ADD.getMethodName(), operation.getString("operation"));
+        assertFalse(operation.getBoolean("failed"));
+        assertEquals(RECORD_COUNT + 1, operation.getInt("repositorySize"));
+        assertTrue(operation.getDuration().compareTo(OPERATION_THRESHOLD) >= 0);
+    }
+
+    private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().equals(name))
+            .toList();
+    }
+
+    private static RecordedEvent findMarshalling(List<RecordedEvent> events, String operation) {
+        RecordedEvent event = eventsOf(events, MARSHALLING_EVENT).stream()
+            .filter(candidate -> operation.equals(candidate.getString("operation")))
+            .findFirst()
+            .orElse(null);
+
+        assertNotNull(event, "Нет события " + operation);
+
+        return event;
+    }
+
+    private static List<Person> createPeople() throws Exception {
+        List<Person> people = new ArrayList<>(RECORD_COUNT);
+
+        for (int id = 1; id <= RECORD_COUNT; id++) {
+            people.add(createPerson(id));
+        }
+
+        return people;
+    }
+
+    private static Person createPerson(long id) throws Exception {
+        return new Person(
+            id,
+            "Человек " + id,
+            LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id),
+            HairColor.values()[(int) (id % HairColor.values().length)],
+            EyeColor.values()[(int) (id % EyeColor.values().length)],
+            150 + id % 50,
+            60 + id % 40,
+            new Location("Локация " + id % 10, new Coordinates(id, -id, id % 7))
+        );
+    }
+
+    /**
+     * Слушатель, замедляющий добавление дольше порога события.
+     */
+    private static class SlowListener implements IPersonRepositoryListener {
+
+        @Override
+        public void onAdd(Person newPerson) {
+            try {
+                Thread.sleep(SLOW_OPERATION_MILLIS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}